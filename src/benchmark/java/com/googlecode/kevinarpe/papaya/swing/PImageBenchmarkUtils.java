@@ -0,0 +1,62 @@
+package com.googlecode.kevinarpe.papaya.swing;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+/**
+ * Shared fixtures for image benchmarks.
+ * 
+ * @author Kevin Connor ARPE (kevinarpe@gmail.com)
+ */
+public final class PImageBenchmarkUtils {
+    
+    // Disable default constructor
+    private PImageBenchmarkUtils() {
+    }
+    
+    /**
+     * Creates a square image filled with random (but repeatable) pixels.
+     * 
+     * @param size
+     *        width and height in pixels
+     * @param imageType
+     *        for example, {@link PBufferedImageType#TYPE_INT_ARGB}
+     * 
+     * @return new image
+     */
+    public static BufferedImage newRandomImage(int size, PBufferedImageType imageType) {
+        BufferedImage x = new BufferedImage(size, size, imageType.value);
+        Random random = new Random(size);
+        for (int y = 0; y < size; ++y) {
+            for (int x2 = 0; x2 < size; ++x2) {
+                x.setRGB(x2, y, random.nextInt());
+            }
+        }
+        return x;
+    }
+}
@@ -0,0 +1,158 @@
+package com.googlecode.kevinarpe.papaya.swing;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.Toolkit;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures frame time to paint a grid of {@link PImageIconAsync} icons, e.g., a toolbar-heavy
+ * window or a table with an icon per cell, with and without
+ * {@link PImageIconAsync#setAcceleratedPaint(boolean)}.
+ * <p>
+ * With a screen device, each frame is painted to a {@link VolatileImage} back buffer, like Swing
+ * double buffering, then {@link Toolkit#sync()} waits for the graphics pipeline to finish.
+ * Headless, each frame is painted to a compatible {@link BufferedImage}, and both modes should
+ * measure the same: Accelerated paint falls back to the loaded image.
+ * <p>
+ * Run: {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args=PImageIconAsyncPaintBenchmark
+ * -Djmh.headless=false}
+ * <br>To measure a remote X11 pipeline, set {@code DISPLAY} to a remote server.
+ * 
+ * @author Kevin Connor ARPE (kevinarpe@gmail.com)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PImageIconAsyncPaintBenchmark {
+    
+    /**
+     * Width and height of frame in pixels
+     */
+    public static final int FRAME_SIZE = 640;
+    
+    /**
+     * Number of icons per frame: 400
+     */
+    public static final int ICON_COUNT = 400;
+    
+    /**
+     * Width and height of icons in pixels: Toolbar and table icons.
+     */
+    @Param({ "16", "32" })
+    public int iconSize;
+    
+    @Param({ "false", "true" })
+    public boolean isAcceleratedPaint;
+    
+    private PImageIconAsync[] _iconArr;
+    private GraphicsConfiguration _optGConfig;
+    private VolatileImage _optBackBuffer;
+    private BufferedImage _optHeadlessBackBuffer;
+    
+    @Setup
+    public void setup()
+    throws InterruptedException {
+        _iconArr = new PImageIconAsync[ICON_COUNT];
+        for (int i = 0; i < ICON_COUNT; ++i) {
+            // Distinct images, like a real toolbar: Each icon has its own copy.
+            Image image =
+                PImageBenchmarkUtils.newRandomImage(iconSize, PBufferedImageType.TYPE_INT_ARGB);
+            PImageIconAsync icon = new PImageIconAsync(image);
+            icon.waitForLoad();
+            icon.setAcceleratedPaint(isAcceleratedPaint);
+            _iconArr[i] = icon;
+        }
+        _optGConfig = PImageUtils.tryGetDefaultGraphicsConfiguration();
+        if (null == _optGConfig) {
+            _optHeadlessBackBuffer =
+                PImageUtils.createCompatibleImage(FRAME_SIZE, FRAME_SIZE, PTransparency.OPAQUE);
+        }
+        else {
+            _optBackBuffer = _optGConfig.createCompatibleVolatileImage(FRAME_SIZE, FRAME_SIZE);
+        }
+    }
+    
+    @TearDown
+    public void tearDown() {
+        for (PImageIconAsync icon: _iconArr) {
+            icon.setAcceleratedPaint(false);
+        }
+        if (null != _optBackBuffer) {
+            _optBackBuffer.flush();
+        }
+    }
+    
+    @Benchmark
+    public void paintFrame() {
+        final Graphics2D g;
+        if (null == _optBackBuffer) {
+            g = _optHeadlessBackBuffer.createGraphics();
+        }
+        else {
+            if (VolatileImage.IMAGE_INCOMPATIBLE == _optBackBuffer.validate(_optGConfig)) {
+                _optBackBuffer.flush();
+                _optBackBuffer =
+                    _optGConfig.createCompatibleVolatileImage(FRAME_SIZE, FRAME_SIZE);
+            }
+            g = _optBackBuffer.createGraphics();
+        }
+        try {
+            final int iconsPerRow = FRAME_SIZE / iconSize;
+            for (int i = 0; i < ICON_COUNT; ++i) {
+                final int x = (i % iconsPerRow) * iconSize;
+                final int y = ((i / iconsPerRow) * iconSize) % FRAME_SIZE;
+                _iconArr[i].paintIcon(null, g, x, y);
+            }
+        }
+        finally {
+            g.dispose();
+        }
+        // Rendering pipelines may queue work: Include it in frame time.
+        Toolkit.getDefaultToolkit().sync();
+    }
+}
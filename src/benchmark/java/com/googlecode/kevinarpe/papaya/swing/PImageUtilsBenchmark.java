@@ -0,0 +1,99 @@
+package com.googlecode.kevinarpe.papaya.swing;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the image conversions used to create icon variants in {@link PImageUtils}.  Each call
+ * allocates a new destination image, so the GC profiler (on by default in profile
+ * {@code benchmark}) reports allocation rate in bytes per operation.
+ * <p>
+ * Run: {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args=PImageUtilsBenchmark}
+ * <br>Headless runs measure the {@link PImageUtils#getHeadlessCompatibleImageType(PTransparency)}
+ * layouts.  Add {@code -Djmh.headless=false} to measure the layouts of the default screen device.
+ * 
+ * @author Kevin Connor ARPE (kevinarpe@gmail.com)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PImageUtilsBenchmark {
+    
+    /**
+     * Width and height in pixels: From toolbar icon to screenshot.
+     */
+    @Param({ "16", "128", "1024" })
+    public int size;
+    
+    /**
+     * {@link PBufferedImageType#TYPE_4BYTE_ABGR} is typical for PNG files decoded by
+     * {@link javax.imageio.ImageIO}.
+     */
+    @Param({ "TYPE_INT_ARGB", "TYPE_INT_RGB", "TYPE_4BYTE_ABGR" })
+    public PBufferedImageType imageType;
+    
+    private BufferedImage _image;
+    
+    @Setup
+    public void setup() {
+        _image = PImageBenchmarkUtils.newRandomImage(size, imageType);
+    }
+    
+    @Benchmark
+    public BufferedImage convertImageToCompatible() {
+        BufferedImage x = PImageUtils.convertImageToCompatible(_image);
+        return x;
+    }
+    
+    @Benchmark
+    public BufferedImage createCompatibleImageWithScaledBrightness() {
+        BufferedImage x = PImageUtils.createCompatibleImageWithScaledBrightness(_image, 0.75f);
+        return x;
+    }
+    
+    @Benchmark
+    public BufferedImage createCompatibleGrayscaleImage() {
+        BufferedImage x = PImageUtils.createCompatibleGrayscaleImage(_image);
+        return x;
+    }
+}
@@ -0,0 +1,131 @@
+package com.googlecode.kevinarpe.papaya.swing;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link PJComponentTextParser} over a corpus of realistic widget labels: menu items,
+ * buttons, check boxes, escaped markers, multi-line labels, HTML, and accented mnemonics.
+ * {@link #parse(ThreadState)} calls the single-pass constructor, while
+ * {@link #getShared(ThreadState)} retrieves cached results, as widget {@code setText(String)}
+ * methods do.
+ * <p>
+ * Run: {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args=PJComponentTextParserBenchmark}
+ * 
+ * @author Kevin Connor ARPE (kevinarpe@gmail.com)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class PJComponentTextParserBenchmark {
+    
+    private static final String[] LABEL_ARR = {
+        "&File",
+        "&Edit",
+        "&View",
+        "&Help",
+        "&New",
+        "&Open...",
+        "&Save",
+        "Save &As...",
+        "&Print...",
+        "E&xit",
+        "Cu&t",
+        "&Copy",
+        "&Paste",
+        "Select &All",
+        "&Find...",
+        "Find &Next",
+        "&Replace...",
+        "&Undo",
+        "&Redo",
+        "&OK",
+        "Cancel",
+        "&Apply",
+        "&Yes",
+        "&No",
+        "&Close",
+        "&Remember my password",
+        "Show &hidden files",
+        "Terms && Conditions",
+        "&Read && accept terms",
+        "Name:",
+        "User &name:",
+        "&Password:",
+        "Line one\nLine &two",
+        "First line\r\nSecond line\r\n&Third line",
+        "Use a < b\nand &more",
+        "<html><b>Bold</b> label</html>",
+        "<html>Line one<br>Line two</html>",
+        "H&åkon",
+        "&Émile",
+        "Fran&çais",
+    };
+    
+    /**
+     * Each thread walks the labels from a different position.
+     */
+    @State(Scope.Thread)
+    public static class ThreadState {
+        
+        private int _index = (int) (Thread.currentThread().getId() % LABEL_ARR.length);
+        
+        String nextLabel() {
+            _index = (1 + _index) % LABEL_ARR.length;
+            return LABEL_ARR[_index];
+        }
+    }
+    
+    @Benchmark
+    public PJComponentTextParser parse(ThreadState ts) {
+        String label = ts.nextLabel();
+        PJComponentTextParser x = new PJComponentTextParser(label);
+        return x;
+    }
+    
+    @Benchmark
+    public PJComponentTextParser getShared(ThreadState ts) {
+        String label = ts.nextLabel();
+        PJComponentTextParser x = PJComponentTextParser.getShared(label);
+        return x;
+    }
+}
@@ -0,0 +1,178 @@
+package com.googlecode.kevinarpe.papaya.swing;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.googlecode.kevinarpe.papaya.FuncUtils;
+
+/**
+ * Measures property look-up latency for {@link PSwingPropertyUtils} when many threads read at the
+ * same time, e.g., the Event Dispatch Thread plus an icon loader pool calling
+ * {@link PMediaTrackerUtils#getSharedMediaTracker()}.  As a baseline,
+ * {@link #formerGet(ThreadState)} repeats the former design: one global lock, plus a cache of the
+ * last thread's property map only.
+ * <p>
+ * Run: {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args=PSwingPropertyUtilsBenchmark}
+ * <br>To change the number of reader threads, append JMH option {@code -t}, e.g., {@code -t 16}.
+ * 
+ * @author Kevin Connor ARPE (kevinarpe@gmail.com)
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class PSwingPropertyUtilsBenchmark {
+    
+    private static final int KEY_COUNT = 16;
+    
+    private Object[] _keyArr;
+    private FuncUtils.Func0<Object> _createValueFunc;
+    private _FormerPropertyUtils _former;
+    
+    @Setup
+    public void setup() {
+        _keyArr = new Object[KEY_COUNT];
+        _former = new _FormerPropertyUtils();
+        for (int i = 0; i < KEY_COUNT; ++i) {
+            _keyArr[i] = new Object();
+            PSwingPropertyUtils.put(_keyArr[i], Integer.valueOf(i));
+            _former.put(_keyArr[i], Integer.valueOf(i));
+        }
+        _createValueFunc = new FuncUtils.Func0<Object>() {
+            @Override
+            public Object call() {
+                throw new IllegalStateException("All keys are mapped");
+            }
+        };
+    }
+    
+    /**
+     * Each reader thread walks the keys from a different position.
+     */
+    @State(Scope.Thread)
+    public static class ThreadState {
+        
+        private int _index = (int) (Thread.currentThread().getId() % KEY_COUNT);
+        
+        Object nextKey(Object[] keyArr) {
+            _index = (1 + _index) % keyArr.length;
+            return keyArr[_index];
+        }
+    }
+    
+    @Benchmark
+    public Object get(ThreadState ts) {
+        Object key = ts.nextKey(_keyArr);
+        Object x = PSwingPropertyUtils.get(key);
+        return x;
+    }
+    
+    @Benchmark
+    public Object getAndPutIfMissing(ThreadState ts) {
+        Object key = ts.nextKey(_keyArr);
+        Object x = PSwingPropertyUtils.getAndPutIfMissing(key, _createValueFunc);
+        return x;
+    }
+    
+    @Benchmark
+    public Object formerGet(ThreadState ts) {
+        Object key = ts.nextKey(_keyArr);
+        Object x = _former.get(key);
+        return x;
+    }
+    
+    /**
+     * Former design of {@link PSwingPropertyUtils}, reduced to {@code get} and {@code put}
+     */
+    private static final class _FormerPropertyUtils {
+        
+        private final WeakHashMap<ThreadGroup, Map<Object, Object>> _groupToPropertyMapMap =
+            new WeakHashMap<ThreadGroup, Map<Object, Object>>();
+        
+        private Thread _optLastThread;
+        private Map<Object, Object> _optLastPropertyMap;
+        
+        public Object get(Object key) {
+            synchronized (_groupToPropertyMapMap) {
+                Object x = _getPropertyMap().get(key);
+                return x;
+            }
+        }
+        
+        public Object put(Object key, Object value) {
+            synchronized (_groupToPropertyMapMap) {
+                Object x = _getPropertyMap().put(key, value);
+                return x;
+            }
+        }
+        
+        private Map<Object, Object> _getPropertyMap() {
+            final Thread thread = Thread.currentThread();
+            if (thread == _optLastThread) {
+                return _optLastPropertyMap;
+            }
+            final ThreadGroup group = thread.getThreadGroup();
+            ThreadGroup groupIter = group;
+            Map<Object, Object> propertyMap = null;
+            do {
+                propertyMap = _groupToPropertyMapMap.get(groupIter);
+                if (null == propertyMap) {
+                    groupIter = groupIter.getParent();
+                }
+            }
+            while (null == propertyMap && null != groupIter);
+            
+            if (null == propertyMap) {
+                propertyMap = new LinkedHashMap<Object, Object>(16, 0.75f, true);
+            }
+            for (groupIter = group; null != groupIter; groupIter = groupIter.getParent()) {
+                _groupToPropertyMapMap.put(groupIter, propertyMap);
+            }
+            _optLastThread = thread;
+            _optLastPropertyMap = propertyMap;
+            return propertyMap;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.googlecode.kevinarpe.papaya.swing.image;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.googlecode.kevinarpe.papaya.swing.PBufferedImageType;
+import com.googlecode.kevinarpe.papaya.swing.PImageBenchmarkUtils;
+
+/**
+ * Compares a grayscale icon variant with 120% brightness created by chained calls (three full
+ * passes: convert, brightness, grayscale) with {@link PArgbBufferedImagePipelineOp} (one pass).
+ * <p>
+ * The chained baseline converts with {@link Graphics#drawImage(java.awt.Image, int, int,
+ * java.awt.image.ImageObserver)}, like {@code PImageUtils.convertImageToCompatible()}, so it also
+ * runs headless.
+ * <p>
+ * Run: {@code mvn -Pbenchmark test-compile exec:exec
+ * -Djmh.args=PArgbBufferedImagePipelineOpBenchmark}
+ * 
+ * @author Kevin Connor ARPE (kevinarpe@gmail.com)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PArgbBufferedImagePipelineOpBenchmark {
+    
+    private static final float BRIGHTNESS_SCALE_FACTOR = 1.20f;
+    
+    /**
+     * Width and height in pixels: From toolbar icon to screenshot.
+     */
+    @Param({ "32", "256", "1024" })
+    public int size;
+    
+    /**
+     * {@link PBufferedImageType#TYPE_4BYTE_ABGR} is typical for PNG files decoded by
+     * {@link javax.imageio.ImageIO}.
+     */
+    @Param({ "TYPE_INT_ARGB", "TYPE_4BYTE_ABGR" })
+    public PBufferedImageType imageType;
+    
+    private BufferedImage _image;
+    private PArgbBufferedImageBrightnessOp _brightnessOp;
+    private PArgbBufferedImageToGrayscaleOp _grayscaleOp;
+    private PArgbBufferedImagePipelineOp _pipelineOp;
+    
+    @Setup
+    public void setup() {
+        _image = PImageBenchmarkUtils.newRandomImage(size, imageType);
+        _brightnessOp = new PArgbBufferedImageBrightnessOp(BRIGHTNESS_SCALE_FACTOR);
+        _grayscaleOp = new PArgbBufferedImageToGrayscaleOp();
+        _pipelineOp = new PArgbBufferedImagePipelineOp(_brightnessOp, _grayscaleOp);
+    }
+    
+    @Benchmark
+    public BufferedImage chained() {
+        BufferedImage x = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        Graphics g = x.getGraphics();
+        try {
+            g.drawImage(_image, 0, 0, null);
+        }
+        finally {
+            g.dispose();
+        }
+        _brightnessOp.filter(x, x);
+        _grayscaleOp.filter(x, x);
+        return x;
+    }
+    
+    @Benchmark
+    public BufferedImage fused() {
+        BufferedImage x = _pipelineOp.createFilteredImage(_image);
+        return x;
+    }
+}
@@ -0,0 +1,135 @@
+package com.googlecode.kevinarpe.papaya.swing.image;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.googlecode.kevinarpe.papaya.swing.PBufferedImageType;
+import com.googlecode.kevinarpe.papaya.swing.PImageBenchmarkUtils;
+
+/**
+ * Compares the packed fast path of {@link PAbstractBufferedImageOp#filter(BufferedImage,
+ * BufferedImage)} with the former design, which copies all pixels to a temporary array and back:
+ * {@link PAbstractBufferedImageOp#filterWithPixelCopy(BufferedImage, BufferedImage)}.  Also
+ * compares the pixel loops {@code processPixels()}, {@code processPixels2()},
+ * {@code processPixels3()} (gamma-correct), and {@code processPixelsWithLinearGamma()}
+ * (gamma-correct via lookup tables) on a plain pixel array.
+ * <p>
+ * One operation instance is shared by all threads, while each thread filters its own image.  To
+ * test concurrent use, append JMH option {@code -t}, e.g., {@code -t 4}.
+ * <p>
+ * Run: {@code mvn -Pbenchmark test-compile exec:exec
+ * -Djmh.args=PArgbBufferedImageToGrayscaleOpBenchmark}
+ * 
+ * @author Kevin Connor ARPE (kevinarpe@gmail.com)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PArgbBufferedImageToGrayscaleOpBenchmark {
+    
+    private final PArgbBufferedImageToGrayscaleOp _op = new PArgbBufferedImageToGrayscaleOp();
+    
+    @State(Scope.Thread)
+    public static class ThreadState {
+        
+        /**
+         * Width and height in pixels: From toolbar icon to screenshot.
+         */
+        @Param({ "32", "256", "1024" })
+        public int size;
+        
+        @Param({ "TYPE_INT_ARGB", "TYPE_INT_RGB" })
+        public PBufferedImageType imageType;
+        
+        BufferedImage image;
+        int[] pixelArr;
+        
+        @Setup
+        public void setup() {
+            image = PImageBenchmarkUtils.newRandomImage(size, imageType);
+            pixelArr = image.getRGB(0, 0, size, size, (int[]) null, 0, size);
+        }
+    }
+    
+    @Benchmark
+    public BufferedImage filterInPlace(ThreadState ts) {
+        BufferedImage x = _op.filter(ts.image, ts.image);
+        return x;
+    }
+    
+    @Benchmark
+    public BufferedImage filterInPlaceWithPixelCopy(ThreadState ts) {
+        _op.filterWithPixelCopy(ts.image, ts.image);
+        return ts.image;
+    }
+    
+    @Benchmark
+    public BufferedImage filterToNewImage(ThreadState ts) {
+        BufferedImage x = _op.filter(ts.image, (BufferedImage) null);
+        return x;
+    }
+    
+    @Benchmark
+    public int[] processPixels(ThreadState ts) {
+        _op.processPixels(ts.pixelArr, ts.image.getColorModel());
+        return ts.pixelArr;
+    }
+    
+    @Benchmark
+    public int[] processPixels2(ThreadState ts) {
+        _op.processPixels2(ts.pixelArr, ts.image.getColorModel());
+        return ts.pixelArr;
+    }
+    
+    @Benchmark
+    public int[] processPixels3(ThreadState ts) {
+        _op.processPixels3(ts.pixelArr, ts.image.getColorModel());
+        return ts.pixelArr;
+    }
+    
+    @Benchmark
+    public int[] processPixelsWithLinearGamma(ThreadState ts) {
+        _op.processPixelsWithLinearGamma(ts.pixelArr, 0, ts.pixelArr.length);
+        return ts.pixelArr;
+    }
+}
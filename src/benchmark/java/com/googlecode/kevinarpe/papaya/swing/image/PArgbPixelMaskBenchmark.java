@@ -0,0 +1,110 @@
+package com.googlecode.kevinarpe.papaya.swing.image;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a round trip through {@link PArgbPixelMask} decompose and compose for each pixel of an
+ * array, as used by {@link PArgbBufferedImageToGrayscaleOp#processPixels2(int[],
+ * java.awt.ColorModel)}.  Compose and decompose reuse one component array, so allocation rate
+ * should be zero.
+ * <p>
+ * Run: {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args=PArgbPixelMaskBenchmark}
+ * 
+ * @author Kevin Connor ARPE (kevinarpe@gmail.com)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PArgbPixelMaskBenchmark {
+    
+    /**
+     * Width and height in pixels: From toolbar icon to screenshot.
+     */
+    @Param({ "16", "128", "1024" })
+    public int size;
+    
+    private int[] _pixelArr;
+    private final int[] _intComponent4Arr = new int[4];
+    private final float[] _floatComponent4Arr = new float[4];
+    
+    @Setup
+    public void setup() {
+        _pixelArr = new int[size * size];
+        Random random = new Random(size);
+        for (int i = 0; i < _pixelArr.length; ++i) {
+            _pixelArr[i] = random.nextInt();
+        }
+    }
+    
+    @Benchmark
+    public int decomposeComposeUncheckedInt() {
+        int x = 0;
+        for (int pixel: _pixelArr) {
+            PArgbPixelMask.decomposeArgbPixelUnchecked(pixel, _intComponent4Arr);
+            x ^= PArgbPixelMask.composeArgbPixelUnchecked(_intComponent4Arr);
+        }
+        return x;
+    }
+    
+    @Benchmark
+    public int decomposeComposeCheckedInt() {
+        int x = 0;
+        for (int pixel: _pixelArr) {
+            // decomposeArgbPixelChecked() only accepts a single channel value.
+            PArgbPixelMask.decomposeArgbPixelUnchecked(pixel, _intComponent4Arr);
+            x ^= PArgbPixelMask.composeArgbPixelChecked(_intComponent4Arr);
+        }
+        return x;
+    }
+    
+    @Benchmark
+    public int decomposeComposeUncheckedFloat() {
+        int x = 0;
+        for (int pixel: _pixelArr) {
+            PArgbPixelMask.decomposeArgbPixelUnchecked(pixel, _floatComponent4Arr);
+            x ^= PArgbPixelMask.composeArgbPixelUnchecked(_floatComponent4Arr);
+        }
+        return x;
+    }
+}
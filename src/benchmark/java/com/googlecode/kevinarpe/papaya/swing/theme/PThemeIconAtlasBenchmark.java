@@ -0,0 +1,174 @@
+package com.googlecode.kevinarpe.papaya.swing.theme;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.io.Files;
+import com.googlecode.kevinarpe.papaya.swing.PBufferedImageType;
+import com.googlecode.kevinarpe.papaya.swing.PImageBenchmarkUtils;
+import com.googlecode.kevinarpe.papaya.swing.PImmutableDimension;
+
+/**
+ * Compares one PNG file per icon ({@link PThemeIconLoaderFixedDimensionFromPngFile}) against one
+ * shared atlas ({@link PThemeIconLoaderFixedDimensionFromAtlas}):
+ * <ul>
+ *   <li>{@code load*}: Start-up time to create and load all icons.  The GC profiler (on by
+ *   default in profile {@code benchmark}) reports heap bytes allocated per start-up.</li>
+ *   <li>{@code paint*}: Time to paint all icons once, e.g., a toolbar-heavy window.</li>
+ * </ul>
+ * <p>
+ * The setup writes a synthetic theme with {@link #iconCount} random icons to a temporary
+ * directory, plus its atlas.
+ * <p>
+ * Run: {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args=PThemeIconAtlasBenchmark}
+ * <br>To count start-up syscalls (file opens and stats), run one {@code load*} benchmark under
+ * {@code strace -f -c -e trace=file}.
+ * 
+ * @author Kevin Connor ARPE (kevinarpe@gmail.com)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PThemeIconAtlasBenchmark {
+    
+    private static final PImmutableDimension ICON_DIMENSION =
+        PImmutableDimension.getSharedFromWidthAndHeight(22, 22);
+    
+    /**
+     * Number of icons in the synthetic theme.  Must not exceed the number of values in
+     * {@link PThemeIconName}.
+     */
+    @Param({ "50", "250" })
+    public int iconCount;
+    
+    private File _baseDirPath;
+    private File _atlasFilePath;
+    private PThemeIconName[] _nameArr;
+    private PThemeImageIcon[] _pngIconArr;
+    private PThemeImageIcon[] _atlasIconArr;
+    private BufferedImage _destImage;
+    
+    @Setup
+    public void setup()
+    throws IOException, InterruptedException {
+        _baseDirPath = Files.createTempDir();
+        _nameArr = new PThemeIconName[iconCount];
+        File dimDirPath = new File(_baseDirPath, ICON_DIMENSION.getDescription());
+        for (int i = 0; i < iconCount; ++i) {
+            PThemeIconName name = PThemeIconName.values()[i];
+            _nameArr[i] = name;
+            File dirPath = new File(dimDirPath, name.context.dirName);
+            dirPath.mkdirs();
+            BufferedImage image =
+                PImageBenchmarkUtils.newRandomImage(
+                    ICON_DIMENSION.width, PBufferedImageType.TYPE_INT_ARGB);
+            ImageIO.write(image, "png", new File(dirPath, name.baseFileName + ".png"));
+        }
+        _atlasFilePath = new File(_baseDirPath, "atlas.png");
+        PThemeIconAtlas.packFromPngFiles(_baseDirPath, ICON_DIMENSION).write(_atlasFilePath);
+        
+        _pngIconArr = loadFromPngFiles();
+        _atlasIconArr = loadFromAtlas();
+        _destImage = new BufferedImage(640, 480, BufferedImage.TYPE_INT_RGB);
+    }
+    
+    @Benchmark
+    public PThemeImageIcon[] loadFromPngFiles()
+    throws IOException, InterruptedException {
+        PThemeIconLoaderFixedDimensionFromPngFile loader =
+            new PThemeIconLoaderFixedDimensionFromPngFile(ICON_DIMENSION, _baseDirPath);
+        PThemeImageIcon[] x = new PThemeImageIcon[_nameArr.length];
+        for (int i = 0; i < _nameArr.length; ++i) {
+            x[i] = loader.getIcon(_nameArr[i]);
+        }
+        for (PThemeImageIcon icon: x) {
+            icon.waitForLoad();
+        }
+        return x;
+    }
+    
+    @Benchmark
+    public PThemeImageIcon[] loadFromAtlas()
+    throws IOException, InterruptedException {
+        PThemeIconLoaderFixedDimensionFromAtlas loader =
+            new PThemeIconLoaderFixedDimensionFromAtlas(_atlasFilePath);
+        PThemeImageIcon[] x = new PThemeImageIcon[_nameArr.length];
+        for (int i = 0; i < _nameArr.length; ++i) {
+            x[i] = loader.getIcon(_nameArr[i]);
+        }
+        for (PThemeImageIcon icon: x) {
+            icon.waitForLoad();
+        }
+        return x;
+    }
+    
+    @Benchmark
+    public void paintFromPngFiles() {
+        _paint(_pngIconArr);
+    }
+    
+    @Benchmark
+    public void paintFromAtlas() {
+        _paint(_atlasIconArr);
+    }
+    
+    private void _paint(PThemeImageIcon[] iconArr) {
+        final int iconsPerRow = _destImage.getWidth() / ICON_DIMENSION.width;
+        Graphics2D g = _destImage.createGraphics();
+        try {
+            for (int i = 0; i < iconArr.length; ++i) {
+                final int x = (i % iconsPerRow) * ICON_DIMENSION.width;
+                final int y = ((i / iconsPerRow) * ICON_DIMENSION.height) % _destImage.getHeight();
+                iconArr[i].paintIcon(null, g, x, y);
+            }
+        }
+        finally {
+            g.dispose();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.googlecode.kevinarpe.papaya.swing.theme;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.googlecode.kevinarpe.papaya.exception.PathException;
+import com.googlecode.kevinarpe.papaya.swing.PImmutableDimension;
+
+/**
+ * Measures cache hit latency for {@link PThemeIconLoaderAbstract#tryGetIcon(PThemeIconName)} when
+ * many threads read at the same time.  As a baseline, {@link #synchronizedHashMap(ThreadState)}
+ * repeats the former design: one {@link HashMap} guarded by a single lock.
+ * <p>
+ * All names from {@link PThemeIconName} are requested in turn.  Only a few exist in the test
+ * theme, so most lookups are hits on cached {@code null} icons (negative caching).
+ * <p>
+ * Run: {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args=PThemeIconLoaderAbstractBenchmark}
+ * <br>To change the number of reader threads, append JMH option {@code -t}, e.g., {@code -t 16}.
+ * 
+ * @author Kevin Connor ARPE (kevinarpe@gmail.com)
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class PThemeIconLoaderAbstractBenchmark {
+    
+    private static final File BASE_DIR_PATH = new File("src/test/resources/oxygen-icons-4.10.5");
+    
+    private PThemeIconLoaderFixedDimensionFromPngFile _loader;
+    private Map<PThemeIconName, PThemeImageIcon> _synchronizedMap;
+    private PThemeIconName[] _nameArr;
+    
+    @Setup
+    public void setup()
+    throws PathException {
+        _loader = new PThemeIconLoaderFixedDimensionFromPngFile(
+            PImmutableDimension.getSharedFromWidthAndHeight(22, 22), BASE_DIR_PATH);
+        _synchronizedMap = new HashMap<PThemeIconName, PThemeImageIcon>();
+        _nameArr = PThemeIconName.values();
+        // Fill both caches, so only hits are measured.
+        for (PThemeIconName name: _nameArr) {
+            PThemeImageIcon icon = _loader.tryGetIcon(name);
+            _synchronizedMap.put(name, icon);
+        }
+    }
+    
+    /**
+     * Each reader thread walks the names from a different position.
+     */
+    @State(Scope.Thread)
+    public static class ThreadState {
+        
+        private int _index = (int) (Thread.currentThread().getId() % 64);
+        
+        PThemeIconName nextName(PThemeIconName[] nameArr) {
+            _index = (1 + _index) % nameArr.length;
+            return nameArr[_index];
+        }
+    }
+    
+    @Benchmark
+    public PThemeImageIcon tryGetIcon(ThreadState ts) {
+        PThemeIconName name = ts.nextName(_nameArr);
+        PThemeImageIcon x = _loader.tryGetIcon(name);
+        return x;
+    }
+    
+    @Benchmark
+    public PThemeImageIcon synchronizedHashMap(ThreadState ts) {
+        PThemeIconName name = ts.nextName(_nameArr);
+        synchronized (_synchronizedMap) {
+            PThemeImageIcon x = _synchronizedMap.get(name);
+            return x;
+        }
+    }
+}
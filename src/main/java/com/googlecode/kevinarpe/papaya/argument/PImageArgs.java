@@ -65,7 +65,7 @@ public final class PImageArgs {
      *         if {@code image} is not compatible with current graphics configuration
      * 
      * @see PImageUtils#isCompatibleImage(BufferedImage)
-     * @see PImageUtils#getDefaultGraphicsConfiguration()
+     * @see PImageUtils#getCompatibleColorModel(int)
      * @see BufferedImage#getColorModel()
      * @see GraphicsConfiguration#createCompatibleImage(int, int)
      */
@@ -77,8 +77,8 @@ public final class PImageArgs {
         final ColorModel imageColorModel = image.getColorModel();
         final int imageColorModelTransparency = imageColorModel.getTransparency();
         
-        final GraphicsConfiguration gConfig = PImageUtils.getDefaultGraphicsConfiguration();
-        final ColorModel optCurrColorModel = gConfig.getColorModel(imageColorModelTransparency);
+        final ColorModel optCurrColorModel =
+            PImageUtils.getCompatibleColorModel(imageColorModelTransparency);
         if (!imageColorModel.equals(optCurrColorModel)) {
             PTransparency imageColorModelTransparency2 =
                 PTransparency.valueOf(imageColorModelTransparency);
@@ -29,6 +29,7 @@ import java.awt.Component;
 import java.awt.Graphics;
 import java.awt.Image;
 import java.awt.MediaTracker;
+import java.awt.Toolkit;
 import java.awt.Window;
 import java.awt.image.BufferedImage;
 import java.awt.image.ImageObserver;
@@ -36,14 +37,34 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import javax.accessibility.AccessibleContext;
+import javax.imageio.ImageIO;
 import javax.swing.AbstractButton;
 import javax.swing.Icon;
 import javax.swing.ImageIcon;
+import javax.swing.JComponent;
 import javax.swing.JFrame;
 
+import com.google.common.base.Objects;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.googlecode.kevinarpe.papaya.StringUtils;
 import com.googlecode.kevinarpe.papaya.annotation.FullyTested;
 import com.googlecode.kevinarpe.papaya.annotation.NotFullyTested;
@@ -52,6 +73,8 @@ import com.googlecode.kevinarpe.papaya.argument.PathArgs;
 import com.googlecode.kevinarpe.papaya.exception.ClassResourceNotFoundException;
 import com.googlecode.kevinarpe.papaya.exception.PathException;
 import com.googlecode.kevinarpe.papaya.exception.PathException.PathExceptionReason;
+import com.googlecode.kevinarpe.papaya.swing.image.PArgbBufferedImageBrightnessOp;
+import com.googlecode.kevinarpe.papaya.swing.image.PArgbBufferedImagePipelineOp;
 import com.googlecode.kevinarpe.papaya.swing.image.PArgbBufferedImageToGrayscaleOp;
 import com.googlecode.kevinarpe.papaya.swing.theme.PThemeIconLoaderAbstract;
 import com.googlecode.kevinarpe.papaya.swing.theme.PThemeImageIcon;
@@ -91,6 +114,20 @@ import com.googlecode.kevinarpe.papaya.swing.theme.PThemeImageIcon;
  *   <li>{@link #PImageIconAsync(Class, String)}</li>
  *   <li>{@link #PImageIconAsync(Class, String, String)} (with description)</li>
  * </ul>
+ * <p>
+ * By default, images are loaded by the AWT {@link Toolkit} and tracked by a single
+ * {@link MediaTracker} shared by all icons (see {@link PMediaTrackerUtils}).  All status queries
+ * and waits synchronize on the same monitor.  To load many icons concurrently, use an alternative
+ * loading engine that decodes with {@link ImageIO} on an {@link Executor}:
+ * <ul>
+ *   <li>{@link #PImageIconAsync(URL, Executor)}</li>
+ *   <li>{@link #PImageIconAsync(URL, String, Executor)} (with description)</li>
+ * </ul>
+ * Both engines report progress with the same {@link PMediaTrackerLoadStatus} values.
+ * <p>
+ * To be notified when the image is done loading without blocking, call {@link #asFuture()} or
+ * {@link #onLoaded(Runnable)}.  To prevent {@link #paintIcon(Component, Graphics, int, int)} from
+ * blocking the Event Dispatch Thread, call {@link #setPaintPolicy(PImageIconPaintPolicy)}.
  * 
  * @author Kevin Connor ARPE (kevinarpe@gmail.com)
  * 
@@ -111,7 +148,14 @@ extends ImageIcon {
     // (3) 10% Lighter
     // (4) 20% Darker
     
-    private static PArgbBufferedImageToGrayscaleOp _grayscaleImageOp;
+    /**
+     * Thread-safe: Shared by all threads.
+     */
+    private static final PArgbBufferedImageToGrayscaleOp _GRAYSCALE_IMAGE_OP =
+        new PArgbBufferedImageToGrayscaleOp();
+    
+    private static final PArgbBufferedImagePipelineOp _GRAYSCALE_PIPELINE_OP =
+        new PArgbBufferedImagePipelineOp(_GRAYSCALE_IMAGE_OP);
     
     /**
      * Creates a new icon in grayscale with scaled brightness.  This method can be uses to generate
@@ -140,24 +184,26 @@ extends ImageIcon {
      */
     @NotFullyTested
     public PImageIconAsync createGrayscaleIcon(float brightnessScaleFactor) {
-        // TODO: Do we need to call Image.flush() here?
-        final Image image = this.getImage();
-        final BufferedImage image2 = PImageUtils.convertImageToCompatible(image);
-        if (1.0f != brightnessScaleFactor) {
-            PImageUtils.createCompatibleImageWithScaledBrightness(
-                image2, image2, brightnessScaleFactor);
-        }
-        //PImageUtils.createCompatibleGrayscaleImage(image2, image2);
-        if (null == _grayscaleImageOp) {
-            _grayscaleImageOp = new PArgbBufferedImageToGrayscaleOp();
-        }
-        _grayscaleImageOp.filter(image2, image2);
-        
+        final BufferedImage image2 = _createGrayscaleImage(brightnessScaleFactor);
         String d = createDescriptionWithSuffix("grayscale", brightnessScaleFactor);
         PImageIconAsync x = new PImageIconAsync(image2, d);
         return x;
     }
     
+    private BufferedImage _createGrayscaleImage(float brightnessScaleFactor) {
+        // TODO: Do we need to call Image.flush() here?
+        final Image image = this.getImage();
+        // Convert, scale brightness, and convert to grayscale in a single pass.
+        final PArgbBufferedImagePipelineOp op =
+            (1.0f == brightnessScaleFactor
+                ? _GRAYSCALE_PIPELINE_OP
+                : new PArgbBufferedImagePipelineOp(
+                    new PArgbBufferedImageBrightnessOp(brightnessScaleFactor),
+                    _GRAYSCALE_IMAGE_OP));
+        final BufferedImage image2 = op.createFilteredImage(image);
+        return image2;
+    }
+    
 //    @NotFullyTested
 //    public PImageIconAsync createGrayscaleIcon2(float brightnessScaleFactor) {
 //        // TODO: Do we need to call Image.flush() here?
@@ -241,17 +287,253 @@ extends ImageIcon {
     @NotFullyTested
     public PImageIconAsync createScaledBrightnessIcon(
             float brightnessScaleFactor, String optDescriptionSuffix) {
-        final Image image = this.getImage();
-        final BufferedImage image2 = PImageUtils.convertImageToCompatible(image);
-        // In-place operation
-        PImageUtils.createCompatibleImageWithScaledBrightness(
-            image2, image2, brightnessScaleFactor);
-        
+        final BufferedImage image2 = _createScaledBrightnessImage(brightnessScaleFactor);
         String d = createDescriptionWithSuffix(optDescriptionSuffix, brightnessScaleFactor);
         PImageIconAsync x = new PImageIconAsync(image2, d);
         return x;
     }
     
+    private BufferedImage _createScaledBrightnessImage(float brightnessScaleFactor) {
+        final Image image = this.getImage();
+        // Convert and scale brightness in a single pass.  The source image is never changed.
+        final PArgbBufferedImagePipelineOp op =
+            new PArgbBufferedImagePipelineOp(
+                new PArgbBufferedImageBrightnessOp(brightnessScaleFactor));
+        final BufferedImage image2 = op.createFilteredImage(image);
+        return image2;
+    }
+    
+    /**
+     * Variants created by {@link #getGrayscaleIcon(float)} and
+     * {@link #getScaledBrightnessIcon(float, String)}.  As this cache is owned by the source icon,
+     * variants are evicted with the source icon.  Lazily created: Most icons have no variants.
+     */
+    private volatile Cache<_VariantKey, PImageIconAsync> _optVariantCache;
+    
+    private static enum _VariantOperation {
+        GRAYSCALE,
+        SCALED_BRIGHTNESS,
+    }
+    
+    private static final class _VariantKey {
+        
+        private final _VariantOperation _operation;
+        private final float _brightnessScaleFactor;
+        private final String _optDescriptionSuffix;
+        
+        private _VariantKey(
+                _VariantOperation operation,
+                float brightnessScaleFactor,
+                String optDescriptionSuffix) {
+            _operation = operation;
+            _brightnessScaleFactor = brightnessScaleFactor;
+            _optDescriptionSuffix = optDescriptionSuffix;
+        }
+        
+        @Override
+        public int hashCode() {
+            int x = Objects.hashCode(_operation, _brightnessScaleFactor, _optDescriptionSuffix);
+            return x;
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            // Ref: http://stackoverflow.com/a/5039178/257299
+            boolean result = (this == obj);
+            if (!result && obj instanceof _VariantKey) {
+                final _VariantKey other = (_VariantKey) obj;
+                result =
+                    this._operation == other._operation
+                    && Float.floatToIntBits(this._brightnessScaleFactor)
+                        == Float.floatToIntBits(other._brightnessScaleFactor)
+                    && Objects.equal(this._optDescriptionSuffix, other._optDescriptionSuffix);
+            }
+            return result;
+        }
+    }
+    
+    /**
+     * Retrieves a cached grayscale variant of this icon, or creates one on first call.  Unlike
+     * {@link #createGrayscaleIcon(float)}, the same instance is returned for the same parameters,
+     * so all components share a single variant.  Variants are evicted with this icon.
+     * <p>
+     * This method may block until this icon is done loading.  To avoid blocking, call
+     * {@link #getGrayscaleIcon(float, Executor)}.
+     * 
+     * @param brightnessScaleFactor
+     *        see {@link #createGrayscaleIcon(float)}
+     * 
+     * @return cached grayscale variant
+     * 
+     * @see #getGrayscaleIcon(float, Executor)
+     * @see #getScaledBrightnessIcon(float, String)
+     */
+    public PImageIconAsync getGrayscaleIcon(float brightnessScaleFactor) {
+        _VariantKey key = new _VariantKey(_VariantOperation.GRAYSCALE, brightnessScaleFactor, null);
+        PImageIconAsync x = _getOrCreateVariant(key, null);
+        return x;
+    }
+    
+    /**
+     * Retrieves a cached grayscale variant of this icon, or creates one in the background on first
+     * call.  This method never blocks.  The returned icon loads asynchronously: After this icon is
+     * done loading, the variant image is created by {@code executor}.
+     * <p>
+     * If a variant with the same parameters already exists, it is returned, and
+     * {@code executor} is ignored.
+     * 
+     * @param brightnessScaleFactor
+     *        see {@link #createGrayscaleIcon(float)}
+     * @param executor
+     *        creates variant image.  Must not be {@code null}
+     * 
+     * @return cached grayscale variant
+     * 
+     * @throws NullPointerException
+     *         if {@code executor} is {@code null}
+     * 
+     * @see #getGrayscaleIcon(float)
+     * @see #asFuture()
+     */
+    public PImageIconAsync getGrayscaleIcon(float brightnessScaleFactor, Executor executor) {
+        ObjectArgs.checkNotNull(executor, "executor");
+        
+        _VariantKey key = new _VariantKey(_VariantOperation.GRAYSCALE, brightnessScaleFactor, null);
+        PImageIconAsync x = _getOrCreateVariant(key, executor);
+        return x;
+    }
+    
+    /**
+     * Retrieves a cached variant of this icon with scaled brightness, or creates one on first call.
+     * Unlike {@link #createScaledBrightnessIcon(float, String)}, the same instance is returned for
+     * the same parameters, so all components share a single variant.  Variants are evicted with
+     * this icon.
+     * <p>
+     * This method may block until this icon is done loading.  To avoid blocking, call
+     * {@link #getScaledBrightnessIcon(float, String, Executor)}.
+     * 
+     * @param brightnessScaleFactor
+     *        see {@link #createScaledBrightnessIcon(float, String)}
+     * @param optDescriptionSuffix
+     *        see {@link #createScaledBrightnessIcon(float, String)}
+     * 
+     * @return cached variant with scaled brightness
+     * 
+     * @see #getScaledBrightnessIcon(float, String, Executor)
+     * @see #getGrayscaleIcon(float)
+     */
+    public PImageIconAsync getScaledBrightnessIcon(
+            float brightnessScaleFactor, String optDescriptionSuffix) {
+        _VariantKey key =
+            new _VariantKey(
+                _VariantOperation.SCALED_BRIGHTNESS, brightnessScaleFactor, optDescriptionSuffix);
+        PImageIconAsync x = _getOrCreateVariant(key, null);
+        return x;
+    }
+    
+    /**
+     * Retrieves a cached variant of this icon with scaled brightness, or creates one in the
+     * background on first call.  This method never blocks.  See
+     * {@link #getGrayscaleIcon(float, Executor)} for details.
+     * 
+     * @param brightnessScaleFactor
+     *        see {@link #createScaledBrightnessIcon(float, String)}
+     * @param optDescriptionSuffix
+     *        see {@link #createScaledBrightnessIcon(float, String)}
+     * @param executor
+     *        creates variant image.  Must not be {@code null}
+     * 
+     * @return cached variant with scaled brightness
+     * 
+     * @throws NullPointerException
+     *         if {@code executor} is {@code null}
+     * 
+     * @see #getScaledBrightnessIcon(float, String)
+     */
+    public PImageIconAsync getScaledBrightnessIcon(
+            float brightnessScaleFactor, String optDescriptionSuffix, Executor executor) {
+        ObjectArgs.checkNotNull(executor, "executor");
+        
+        _VariantKey key =
+            new _VariantKey(
+                _VariantOperation.SCALED_BRIGHTNESS, brightnessScaleFactor, optDescriptionSuffix);
+        PImageIconAsync x = _getOrCreateVariant(key, executor);
+        return x;
+    }
+    
+    private PImageIconAsync _getOrCreateVariant(
+            final _VariantKey key, final Executor optExecutor) {
+        Cache<_VariantKey, PImageIconAsync> cache = _optVariantCache;
+        if (null == cache) {
+            synchronized (this) {
+                cache = _optVariantCache;
+                if (null == cache) {
+                    // Few variants per icon: Minimize memory footprint.
+                    cache = CacheBuilder.newBuilder().concurrencyLevel(1).build();
+                    _optVariantCache = cache;
+                }
+            }
+        }
+        try {
+            PImageIconAsync x = cache.get(key, new Callable<PImageIconAsync>() {
+                @Override
+                public PImageIconAsync call() {
+                    PImageIconAsync y = _createVariant(key, optExecutor);
+                    return y;
+                }
+            });
+            return x;
+        }
+        catch (ExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
+        catch (UncheckedExecutionException e) {
+            // Rethrow the original exception, e.g., IllegalStateException from getImage().
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+    
+    private PImageIconAsync _createVariant(final _VariantKey key, Executor optExecutor) {
+        if (null == optExecutor) {
+            switch (key._operation) {
+                case GRAYSCALE:
+                    return createGrayscaleIcon(key._brightnessScaleFactor);
+                case SCALED_BRIGHTNESS:
+                    return createScaledBrightnessIcon(
+                        key._brightnessScaleFactor, key._optDescriptionSuffix);
+                default:
+                    throw new IllegalStateException("Unknown operation: " + key._operation);
+            }
+        }
+        final String d;
+        switch (key._operation) {
+            case GRAYSCALE:
+                d = createDescriptionWithSuffix("grayscale", key._brightnessScaleFactor);
+                break;
+            case SCALED_BRIGHTNESS:
+                d = createDescriptionWithSuffix(
+                    key._optDescriptionSuffix, key._brightnessScaleFactor);
+                break;
+            default:
+                throw new IllegalStateException("Unknown operation: " + key._operation);
+        }
+        PImageIconAsync x =
+            new PImageIconAsync(SettableFuture.<PMediaTrackerLoadStatus>create(), d);
+        x.setExpectedDimension(getExpectedDimension());
+        // Run after this (source) icon is done loading.
+        onLoaded(x.new _AsyncLoadTask(new Callable<BufferedImage>() {
+            @Override
+            public BufferedImage call() {
+                BufferedImage y =
+                    (_VariantOperation.GRAYSCALE == key._operation
+                        ? _createGrayscaleImage(key._brightnessScaleFactor)
+                        : _createScaledBrightnessImage(key._brightnessScaleFactor));
+                return y;
+            }
+        }), optExecutor);
+        return x;
+    }
+    
     /**
      * This is a convenience constructor to call {@link ImageIcon#ImageIcon()}.
      */
@@ -544,41 +826,320 @@ extends ImageIcon {
         PImageIconAsyncInit();
     }
     
+    /**
+     * Creates an icon that is decoded by {@link ImageIO#read(URL)} on a background thread.  Unlike
+     * other constructors, the shared {@link MediaTracker} is not used.  Thus, many icons may load
+     * concurrently without contention on a single monitor.
+     * <p>
+     * This constructor does not submit the load task, so a same-thread executor never runs the
+     * load before subclass constructors are done.  The task is submitted by
+     * {@link #startAsyncLoad()}, or the first call to {@link #asFuture()},
+     * {@link #waitForLoad(long)}, {@link #updateImageLoadStatus()}, or
+     * {@link #paintIcon(Component, Graphics, int, int)}.  Theme icon loaders call
+     * {@link #startAsyncLoad()} after each icon is created.
+     * <p>
+     * Before the task runs, the load status is {@link PMediaTrackerLoadStatus#LOADING}.  When the
+     * task is done, the status is {@link PMediaTrackerLoadStatus#COMPLETE} or
+     * {@link PMediaTrackerLoadStatus#ERRORED}.  Methods {@link #updateImageLoadStatus()} and
+     * {@link #waitForLoad(long)} work as usual.
+     * <p>
+     * Parameter {@code optDescription} may be {@code null}.
+     * <p>
+     * This constructor is not available in base class {@link ImageIcon}.
+     * 
+     * @param location
+     *        location of image to load.  Must not be {@code null}
+     * @param optDescription
+     *        optional description.  May be {@code null}
+     * @param executor
+     *        runs the load task, e.g., a fixed-size thread pool.  To load in the current thread,
+     *        use {@link com.google.common.util.concurrent.MoreExecutors#sameThreadExecutor()}.
+     *        Must not be {@code null}
+     * 
+     * @throws NullPointerException
+     *         if {@code location} or {@code executor} is {@code null}
+     * 
+     * @see #PImageIconAsync(URL, Executor)
+     */
+    public PImageIconAsync(URL location, String optDescription, Executor executor) {
+        this(_newImageIoLoader(location), optDescription, executor);
+    }
+    
+    private static Callable<BufferedImage> _newImageIoLoader(final URL location) {
+        ObjectArgs.checkNotNull(location, "location");
+        
+        Callable<BufferedImage> x = new Callable<BufferedImage>() {
+            @Override
+            public BufferedImage call()
+            throws IOException {
+                // Returns null if no registered ImageReader can decode the stream.
+                BufferedImage y = ImageIO.read(location);
+                return y;
+            }
+        };
+        return x;
+    }
+    
+    /**
+     * Creates an icon that is loaded by a custom task on a background thread, e.g., read from a
+     * cache of decoded images.  Load status works the same as
+     * {@link #PImageIconAsync(URL, String, Executor)}.  If the task returns {@code null} or throws
+     * an exception, the load status is {@link PMediaTrackerLoadStatus#ERRORED}.
+     * <p>
+     * This constructor is not available in base class {@link ImageIcon}.
+     * 
+     * @param imageLoader
+     *        creates the image.  Must not be {@code null}
+     * @param optDescription
+     *        optional description.  May be {@code null}
+     * @param executor
+     *        runs {@code imageLoader}.  Must not be {@code null}
+     * 
+     * @throws NullPointerException
+     *         if {@code imageLoader} or {@code executor} is {@code null}
+     * 
+     * @see #PImageIconAsync(URL, String, Executor)
+     */
+    public PImageIconAsync(
+            Callable<BufferedImage> imageLoader, String optDescription, Executor executor) {
+        this(SettableFuture.<PMediaTrackerLoadStatus>create(), optDescription);
+        ObjectArgs.checkNotNull(imageLoader, "imageLoader");
+        ObjectArgs.checkNotNull(executor, "executor");
+        
+        // Do not submit here: Leaks 'this' before subclass constructors are done.
+        _optPendingAsyncLoadExecutor = executor;
+        _optPendingAsyncLoadTask = new _AsyncLoadTask(imageLoader);
+    }
+    
+    /**
+     * Submits the load task to its executor, if this icon was created by
+     * {@link #PImageIconAsync(Callable, String, Executor)} (or
+     * {@link #PImageIconAsync(URL, String, Executor)}), and the task is not yet submitted.  Else,
+     * does nothing.  This method is thread-safe, and never blocks, except to run the task if the
+     * executor runs tasks in the current thread.
+     * <p>
+     * Call this method after construction to begin loading in the background immediately.  Else,
+     * loading begins at the first call to {@link #asFuture()}, {@link #waitForLoad(long)},
+     * {@link #updateImageLoadStatus()}, or {@link #paintIcon(Component, Graphics, int, int)}.
+     * 
+     * @throws java.util.concurrent.RejectedExecutionException
+     *         if the executor rejects the task.  The load status is
+     *         {@link PMediaTrackerLoadStatus#ERRORED}.
+     */
+    public void startAsyncLoad() {
+        if (null == _optPendingAsyncLoadTask) {
+            return;
+        }
+        final _AsyncLoadTask task;
+        final Executor executor;
+        synchronized (_loadFutureLock) {
+            task = _optPendingAsyncLoadTask;
+            if (null == task) {
+                return;
+            }
+            executor = _optPendingAsyncLoadExecutor;
+            _optPendingAsyncLoadTask = null;
+            _optPendingAsyncLoadExecutor = null;
+        }
+        try {
+            executor.execute(task);
+        }
+        catch (RuntimeException e) {
+            // Do not leave waiters blocked forever.
+            setImageLoadStatus(PMediaTrackerLoadStatus.ERRORED);
+            _optAsyncLoadFuture.set(PMediaTrackerLoadStatus.ERRORED);
+            throw e;
+        }
+    }
+    
+    /**
+     * This is a convenience constructor to call {@link #PImageIconAsync(URL, String, Executor)}
+     * where {@code optDescription} is {@code null}.
+     */
+    public PImageIconAsync(URL location, Executor executor) {
+        this(location, (String) null, executor);
+    }
+    
+    /**
+     * Creates an icon with load status {@link PMediaTrackerLoadStatus#LOADING}.  The caller must
+     * run an {@link _AsyncLoadTask} to complete the load.
+     */
+    private PImageIconAsync(
+            SettableFuture<PMediaTrackerLoadStatus> asyncLoadFuture, String optDescription) {
+        super();
+        PImageIconAsyncInit();
+        setDescription(optDescription);
+        
+        setIconWidth(DEFAULT_WIDTH);
+        setIconHeight(DEFAULT_HEIGHT);
+        _mediaTrackerId = -1;
+        _optAsyncLoadFuture = asyncLoadFuture;
+        setImageLoadStatus(PMediaTrackerLoadStatus.LOADING);
+    }
+    
+    /**
+     * Loads an image in a background thread, then completes {@link #_optAsyncLoadFuture}.
+     */
+    private final class _AsyncLoadTask
+    implements Runnable {
+        
+        private final Callable<BufferedImage> _imageLoader;
+        
+        private _AsyncLoadTask(Callable<BufferedImage> imageLoader) {
+            _imageLoader = imageLoader;
+        }
+        
+        @Override
+        public void run() {
+            PMediaTrackerLoadStatus status = PMediaTrackerLoadStatus.ERRORED;
+            try {
+                BufferedImage optImage = _imageLoader.call();
+                if (null != optImage) {
+                    // Calls loadImage(Image) which will update width, height, and load status.
+                    setImage(optImage);
+                    status = getImageLoadStatusAsEnum();
+                }
+            }
+            catch (Exception e) {
+                // Ignore: Status is already ERRORED.
+            }
+            finally {
+                if (PMediaTrackerLoadStatus.COMPLETE != status) {
+                    setImageLoadStatus(PMediaTrackerLoadStatus.ERRORED);
+                    status = PMediaTrackerLoadStatus.ERRORED;
+                }
+                _optAsyncLoadFuture.set(status);
+            }
+        }
+    }
+    
     /**
      * Called by all constructors.
      */
     protected void PImageIconAsyncInit() {
         _ignoreIconLoadErrors = DEFAULT_IGNORE_ICON_LOAD_ERRORS;
+        _paintPolicy = DEFAULT_PAINT_POLICY;
+        _isAcceleratedPaint = DEFAULT_ACCELERATED_PAINT;
     }
     
     @Override
     protected void loadImage(Image image) {
         // Note: Very dangerous!  We are overriding a method called by most constructors.
+        if (image instanceof BufferedImage) {
+            // Already decoded: Do not contend on the shared MediaTracker.
+            BufferedImage bufferedImage = (BufferedImage) image;
+            _optMediaTrackerImage = null;
+            _mediaTrackerId = -1;
+            setIconWidth(bufferedImage.getWidth());
+            setIconHeight(bufferedImage.getHeight());
+            // Write status last: volatile write publishes width and height.
+            _imageLoadStatus = PMediaTrackerLoadStatus.COMPLETE;
+            return;
+        }
         MediaTracker mt = PMediaTrackerUtils.getSharedMediaTracker();
-        _mediaTrackerId = PMediaTrackerUtils.getNextMediaTrackerId();
+        final int mediaTrackerId = PMediaTrackerUtils.getNextMediaTrackerId();
+        _mediaTrackerId = mediaTrackerId;
+        _optMediaTrackerImage = image;
         
-        mt.addImage(image, _mediaTrackerId);
+        mt.addImage(image, mediaTrackerId);
         _imageLoadStatus = PMediaTrackerLoadStatus.INITIAL;
         setIconWidth(DEFAULT_WIDTH);
         setIconHeight(DEFAULT_HEIGHT);
     }
     
-    private int _mediaTrackerId;
-    private PMediaTrackerLoadStatus _imageLoadStatus;
+    /**
+     * Cleared to -1 only after the load status is done.  Thus, threads that read -1 also see the
+     * done status.
+     */
+    private volatile int _mediaTrackerId;
+    
+    /**
+     * Image registered with the shared {@link MediaTracker}, or {@code null} if none.  The thread
+     * that clears this field (via {@link #_MEDIA_TRACKER_IMAGE_UPDATER}) is the only thread to
+     * finish the load.  Field updaters are used, instead of atomic objects, because
+     * {@link #loadImage(Image)} is called by the base class constructor, before field initializers
+     * run.
+     */
+    private volatile Image _optMediaTrackerImage;
+    private volatile PMediaTrackerLoadStatus _imageLoadStatus;
+    
+    private static final AtomicReferenceFieldUpdater<PImageIconAsync, Image>
+        _MEDIA_TRACKER_IMAGE_UPDATER =
+            AtomicReferenceFieldUpdater.newUpdater(
+                PImageIconAsync.class, Image.class, "_optMediaTrackerImage");
+    
+    private static final AtomicReferenceFieldUpdater<PImageIconAsync, PMediaTrackerLoadStatus>
+        _IMAGE_LOAD_STATUS_UPDATER =
+            AtomicReferenceFieldUpdater.newUpdater(
+                PImageIconAsync.class, PMediaTrackerLoadStatus.class, "_imageLoadStatus");
+    
+    /**
+     * Only set if icon is loaded by a background task, e.g., {@link ImageIO}, or a variant from
+     * {@link #getGrayscaleIcon(float, Executor)}.  Else {@code null}.
+     * 
+     * @see #PImageIconAsync(URL, String, Executor)
+     */
+    private SettableFuture<PMediaTrackerLoadStatus> _optAsyncLoadFuture;
+    
+    /**
+     * Only set by {@link #PImageIconAsync(Callable, String, Executor)} until
+     * {@link #startAsyncLoad()} submits the task.  Else {@code null}.  Cleared while holding
+     * {@link #_loadFutureLock}.
+     */
+    private volatile _AsyncLoadTask _optPendingAsyncLoadTask;
+    private Executor _optPendingAsyncLoadExecutor;
+    
+    /**
+     * Only set if icon is loaded by {@link MediaTracker} <b>and</b> {@link #asFuture()} was called.
+     * Else {@code null}.  Written while holding {@link #_loadFutureLock}.
+     */
+    private volatile SettableFuture<PMediaTrackerLoadStatus> _optMediaTrackerLoadFuture;
+    
+    /**
+     * Never held while calling into AWT: Image observers are called while AWT holds internal locks.
+     */
+    private final Object _loadFutureLock = new Object();
+    
+    /**
+     * Default value for {@link #getPaintPolicy()}: {@link PImageIconPaintPolicy#BLOCK}
+     */
+    public static final PImageIconPaintPolicy DEFAULT_PAINT_POLICY = PImageIconPaintPolicy.BLOCK;
+    
+    private volatile PImageIconPaintPolicy _paintPolicy;
+    private volatile Icon _optPlaceholderIcon;
+    
+    /**
+     * Default value for {@link #isAcceleratedPaint()}: {@code false}
+     */
+    public static final boolean DEFAULT_ACCELERATED_PAINT = false;
+    
+    private volatile boolean _isAcceleratedPaint;
+    
+    /**
+     * Created lazily by {@link #paintIcon(Component, Graphics, int, int)} if
+     * {@link #isAcceleratedPaint()}.
+     */
+    private volatile PVolatileImageCache _optVolatileImageCache;
+    
+    /**
+     * Components painted with a placeholder.  Weak keys, so icons do not leak widgets.  Guarded by
+     * {@code this}.
+     */
+    private Set<Component> _optRepaintComponentSet;
     
     /**
      * Default value for {@link #getIconWidth()}: -1
      */
     public static final int DEFAULT_WIDTH = -1;
     
-    private int _width;
+    private volatile int _width;
     
     /**
      * Default value for {@link #getIconHeight()}: -1
      */
     public static final int DEFAULT_HEIGHT = -1;
     
-    private int _height;
+    private volatile int _height;
     
     /**
      * Default value for {@link #ignoreIconLoadErrors()}: {@code false}
@@ -646,10 +1207,18 @@ extends ImageIcon {
      * @see #waitForLoad(long)
      */
     public PMediaTrackerLoadStatus updateImageLoadStatus() {
-        PMediaTrackerLoadStatus status = getImageLoadStatusAsEnum();
-        if (!status.isDone) {
-            final MediaTracker mt = PMediaTrackerUtils.getSharedMediaTracker();
-            status = queryMediaTrackerForImageLoadStatus(mt);
+        PMediaTrackerLoadStatus status;
+        if (null != _optAsyncLoadFuture) {
+            // If loaded by a background task, the task pushes status updates.
+            startAsyncLoad();
+            status = getImageLoadStatusAsEnum();
+        }
+        else {
+            status = getImageLoadStatusAsEnum();
+            if (!status.isDone) {
+                final MediaTracker mt = PMediaTrackerUtils.getSharedMediaTracker();
+                status = queryMediaTrackerForImageLoadStatus(mt);
+            }
         }
         return status;
     }
@@ -766,18 +1335,57 @@ extends ImageIcon {
     throws InterruptedException {
         PMediaTrackerLoadStatus status = getImageLoadStatusAsEnum();
         if (!status.isDone) {
-            MediaTracker mt = PMediaTrackerUtils.getSharedMediaTracker();
-            @SuppressWarnings("unused")
-            boolean isStatusComplete = mt.waitForID(_mediaTrackerId, timeoutMillis);
-            status = queryMediaTrackerForImageLoadStatus(mt);
+            if (null != _optAsyncLoadFuture) {
+                startAsyncLoad();
+                status = _waitForLoadFuture(_optAsyncLoadFuture, timeoutMillis);
+            }
+            else {
+                MediaTracker mt = PMediaTrackerUtils.getSharedMediaTracker();
+                final int mediaTrackerId = _mediaTrackerId;
+                if (-1 != mediaTrackerId) {
+                    @SuppressWarnings("unused")
+                    boolean isStatusComplete = mt.waitForID(mediaTrackerId, timeoutMillis);
+                }
+                status = queryMediaTrackerForImageLoadStatus(mt);
+                if (!status.isDone && null == _optMediaTrackerImage) {
+                    // Race: Another thread is finishing the load.  Do not return early.
+                    status = _waitForLoadFuture(asFuture(), timeoutMillis);
+                }
+            }
         }
         return status;
     }
     
+    private PMediaTrackerLoadStatus _waitForLoadFuture(
+            ListenableFuture<PMediaTrackerLoadStatus> future, long timeoutMillis)
+    throws InterruptedException {
+        try {
+            if (0 == timeoutMillis) {
+                future.get();
+            }
+            else {
+                future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        catch (TimeoutException e) {
+            // Ignore: Status is still not done.
+        }
+        catch (ExecutionException e) {
+            // Never thrown: Load futures are always completed by SettableFuture.set().
+            throw new IllegalStateException(e);
+        }
+        PMediaTrackerLoadStatus x = getImageLoadStatusAsEnum();
+        return x;
+    }
+    
     /**
      * Retrieves and updates the latest image load status from a {@link MediaTracker}.  If the load
      * is complete (successful or not), (i) remove image from {@code MediaTracker}, (ii) update
      * width and height, and (iii) clear the last media tracker id. 
+     * <p>
+     * This method is thread-safe.  Only one thread finishes the load, and the load status never
+     * goes backwards, e.g., from {@link PMediaTrackerLoadStatus#COMPLETE} to
+     * {@link PMediaTrackerLoadStatus#LOADING}.
      * 
      * @param mt
      *        reference to a {@link MediaTracker} to retrieve image load status update
@@ -793,31 +1401,393 @@ extends ImageIcon {
     protected PMediaTrackerLoadStatus queryMediaTrackerForImageLoadStatus(MediaTracker mt) {
         ObjectArgs.checkNotNull(mt, "mt");
         
+        final PMediaTrackerLoadStatus optOldStatus = getImageLoadStatusAsEnum();
+        final int mediaTrackerId = _mediaTrackerId;
+        if (null != optOldStatus && (optOldStatus.isDone || -1 == mediaTrackerId)) {
+            // Never overwrite a done status.  If no image is registered, nothing to query.
+            return optOldStatus;
+        }
         boolean beginLoadingImages = false;
-        int statusValue = mt.statusID(_mediaTrackerId, beginLoadingImages);
+        int statusValue = mt.statusID(mediaTrackerId, beginLoadingImages);
         
         PMediaTrackerLoadStatus status = PMediaTrackerLoadStatus.valueOf(statusValue);
-        setImageLoadStatus(status);
         
         if (status.isDone) {
-            Image image = getImageCore();
-            mt.removeImage(image, _mediaTrackerId);
-            
-            ImageObserver io = getImageObserver();
-            int width = image.getWidth(io);
-            setIconWidth(width);
-            
-            int height = image.getHeight(io);
-            setIconHeight(height);
-            
-            _mediaTrackerId = -1;
+            status = _tryFinishMediaTrackerLoad(mt, status);
+        }
+        else {
+            status = _advanceImageLoadStatus(status);
+        }
+        return status;
+    }
+    
+    /**
+     * Sets a not-done load status, but never moves backwards: A done status is never overwritten,
+     * and {@link PMediaTrackerLoadStatus#LOADING} never becomes
+     * {@link PMediaTrackerLoadStatus#INITIAL}.
+     * 
+     * @return new load status
+     */
+    private PMediaTrackerLoadStatus _advanceImageLoadStatus(PMediaTrackerLoadStatus status) {
+        while (true) {
+            final PMediaTrackerLoadStatus oldStatus = _imageLoadStatus;
+            if ((null != oldStatus && oldStatus.isDone)
+                    || (PMediaTrackerLoadStatus.LOADING == oldStatus
+                        && PMediaTrackerLoadStatus.INITIAL == status)) {
+                return oldStatus;
+            }
+            if (_IMAGE_LOAD_STATUS_UPDATER.compareAndSet(this, oldStatus, status)) {
+                return status;
+            }
+        }
+    }
+    
+    /**
+     * Finishes the load if no other thread has done so.
+     * 
+     * @return new load status.  If another thread is finishing the load, the status may not be
+     *         done yet.
+     */
+    private PMediaTrackerLoadStatus _tryFinishMediaTrackerLoad(
+            MediaTracker mt, PMediaTrackerLoadStatus status) {
+        final Image optImage = _optMediaTrackerImage;
+        if (null == optImage
+                || !_MEDIA_TRACKER_IMAGE_UPDATER.compareAndSet(this, optImage, null)) {
+            // Another thread has finished, or is finishing, the load.
+            PMediaTrackerLoadStatus x = getImageLoadStatusAsEnum();
+            return x;
+        }
+        mt.removeImage(optImage, _mediaTrackerId);
+        
+        ImageObserver io = getImageObserver();
+        int width = optImage.getWidth(io);
+        setIconWidth(width);
+        
+        int height = optImage.getHeight(io);
+        setIconHeight(height);
+        
+        // Set status last: Other threads that see a done status will also see width and height.
+        setImageLoadStatus(status);
+        _mediaTrackerId = -1;
+        
+        SettableFuture<PMediaTrackerLoadStatus> optFuture = _optMediaTrackerLoadFuture;
+        if (null != optFuture) {
+            optFuture.set(status);
         }
         return status;
     }
+    
+    /**
+     * Retrieves a future that completes when the image is done loading, successfully or not.  This
+     * method never blocks.  The future value is the final image load status, as returned by
+     * {@link #getImageLoadStatusAsEnum()}.  When listeners run, {@link #getIconWidth()} and
+     * {@link #getIconHeight()} are guaranteed not to block.
+     * <p>
+     * If the image is loaded by {@link MediaTracker}, the first call to this method begins to load
+     * the image in a background thread.  (Normally, loading begins at the first call to
+     * {@link #waitForLoad(long)} or {@link #paintIcon(Component, Graphics, int, int)}.)  If the
+     * image is loaded by a background task, this method calls {@link #startAsyncLoad()}.
+     * <p>
+     * Callers must not cancel the returned future.
+     * 
+     * @return never {@code null}
+     * 
+     * @see #onLoaded(Runnable)
+     * @see #onLoaded(Runnable, Executor)
+     */
+    public ListenableFuture<PMediaTrackerLoadStatus> asFuture() {
+        if (null != _optAsyncLoadFuture) {
+            startAsyncLoad();
+            return _optAsyncLoadFuture;
+        }
+        final SettableFuture<PMediaTrackerLoadStatus> x;
+        synchronized (_loadFutureLock) {
+            if (null != _optMediaTrackerLoadFuture) {
+                return _optMediaTrackerLoadFuture;
+            }
+            x = SettableFuture.create();
+            _optMediaTrackerLoadFuture = x;
+        }
+        final Image optImage = getImageCore();
+        final PMediaTrackerLoadStatus optStatus = getImageLoadStatusAsEnum();
+        if (null == optImage || null == optStatus) {
+            // Created by default constructor: Nothing to load.
+            x.set(PMediaTrackerLoadStatus.ERRORED);
+            return x;
+        }
+        if (optStatus.isDone) {
+            x.set(optStatus);
+            return x;
+        }
+        final MediaTracker mt = PMediaTrackerUtils.getSharedMediaTracker();
+        ImageObserver io = new _MediaTrackerLoadObserver(mt);
+        boolean isDone = Toolkit.getDefaultToolkit().prepareImage(optImage, -1, -1, io);
+        // Race: Load may finish before (or just after) the observer is installed.
+        PMediaTrackerLoadStatus status = queryMediaTrackerForImageLoadStatus(mt);
+        if (isDone && !status.isDone) {
+            _tryFinishMediaTrackerLoad(mt, PMediaTrackerLoadStatus.COMPLETE);
+        }
+        return x;
+    }
+    
+    private final class _MediaTrackerLoadObserver
+    implements ImageObserver {
+        
+        private final MediaTracker _mt;
+        
+        private _MediaTrackerLoadObserver(MediaTracker mt) {
+            _mt = mt;
+        }
+        
+        @Override
+        public boolean imageUpdate(Image img, int infoflags, int x, int y, int width, int height) {
+            final int doneFlags =
+                ImageObserver.ALLBITS | ImageObserver.FRAMEBITS
+                | ImageObserver.ERROR | ImageObserver.ABORT;
+            if (0 == (infoflags & doneFlags)) {
+                // Not done: Continue to receive updates.
+                return true;
+            }
+            PMediaTrackerLoadStatus status = getImageLoadStatusAsEnum();
+            if (!status.isDone) {
+                status = queryMediaTrackerForImageLoadStatus(_mt);
+            }
+            if (!status.isDone) {
+                // The MediaTracker may receive the same update after this observer.
+                if (0 != (infoflags & (ImageObserver.ALLBITS | ImageObserver.FRAMEBITS))) {
+                    status = PMediaTrackerLoadStatus.COMPLETE;
+                }
+                else if (0 != (infoflags & ImageObserver.ERROR)) {
+                    status = PMediaTrackerLoadStatus.ERRORED;
+                }
+                else {
+                    status = PMediaTrackerLoadStatus.ABORTED;
+                }
+                _tryFinishMediaTrackerLoad(_mt, status);
+            }
+            return false;
+        }
+    }
+    
+    /**
+     * This is a convenience method to call {@link #onLoaded(Runnable, Executor)} where
+     * {@code executor} is {@link PSwingUtils#getEventDispatchThreadExecutor()}.
+     */
+    public void onLoaded(Runnable callback) {
+        onLoaded(callback, PSwingUtils.getEventDispatchThreadExecutor());
+    }
+    
+    /**
+     * Registers a callback to run when the image is done loading, successfully or not.  If the
+     * image is already done loading, the callback is scheduled immediately.  This method never
+     * blocks.  To check if the load was successful, the callback may call
+     * {@link #getImageLoadStatusAsEnum()}.
+     * 
+     * @param callback
+     *        code to run after image is done loading.  Must not be {@code null}
+     * @param executor
+     *        runs the callback.  Must not be {@code null}
+     * 
+     * @throws NullPointerException
+     *         if {@code callback} or {@code executor} is {@code null}
+     * 
+     * @see #onLoaded(Runnable)
+     * @see #asFuture()
+     */
+    public void onLoaded(Runnable callback, Executor executor) {
+        ObjectArgs.checkNotNull(callback, "callback");
+        ObjectArgs.checkNotNull(executor, "executor");
+        
+        asFuture().addListener(callback, executor);
+    }
+    
+    /**
+     * Retrieves how {@link #paintIcon(Component, Graphics, int, int)} behaves while the image is
+     * loading.
+     * <p>
+     * The default value is {@link #DEFAULT_PAINT_POLICY}.
+     * 
+     * @return never {@code null}
+     * 
+     * @see #setPaintPolicy(PImageIconPaintPolicy)
+     * @see #getPlaceholderIcon()
+     */
+    public PImageIconPaintPolicy getPaintPolicy() {
+        return _paintPolicy;
+    }
+    
+    /**
+     * Sets how {@link #paintIcon(Component, Graphics, int, int)} behaves while the image is
+     * loading.  If the policy does not block ({@link PImageIconPaintPolicy#isBlocking}), each
+     * component painted while loading will be revalidated and repainted on the Event Dispatch
+     * Thread after the image is done loading.  Likewise, {@link #getIconWidth()} and
+     * {@link #getIconHeight()} will not block, but return expected or placeholder dimensions.
+     * <p>
+     * The default value is {@link #DEFAULT_PAINT_POLICY}.
+     * 
+     * @param policy
+     *        new paint policy.  Must not be {@code null}
+     * 
+     * @throws NullPointerException
+     *         if {@code policy} is {@code null}
+     * 
+     * @see #getPaintPolicy()
+     * @see #setPlaceholderIcon(Icon)
+     */
+    public void setPaintPolicy(PImageIconPaintPolicy policy) {
+        _paintPolicy = ObjectArgs.checkNotNull(policy, "policy");
+    }
+    
+    /**
+     * Retrieves the icon to paint while loading.
+     * <p>
+     * The default value is {@code null}.
+     * 
+     * @return may be {@code null}
+     * 
+     * @see #setPlaceholderIcon(Icon)
+     * @see #getPaintPolicy()
+     */
+    public Icon getPlaceholderIcon() {
+        return _optPlaceholderIcon;
+    }
+    
+    /**
+     * Sets the icon to paint while loading, e.g., a "busy" stub icon.  This icon is only painted if
+     * {@link #getPaintPolicy()} is {@link PImageIconPaintPolicy#PAINT_PLACEHOLDER}.
+     * <p>
+     * The default value is {@code null}.
+     * 
+     * @param optIcon
+     *        placeholder icon.  If {@code null}, nothing is painted while loading.
+     * 
+     * @see #getPlaceholderIcon()
+     * @see #setPaintPolicy(PImageIconPaintPolicy)
+     */
+    public void setPlaceholderIcon(Icon optIcon) {
+        _optPlaceholderIcon = optIcon;
+    }
+    
+    /**
+     * Called by {@link #paintIcon(Component, Graphics, int, int)} while the image is loading and
+     * {@link #getPaintPolicy()} is {@link PImageIconPaintPolicy#PAINT_PLACEHOLDER}.  Subclasses may
+     * override to paint a custom placeholder.
+     * 
+     * @param optComponent
+     *        component to paint.  May be {@code null}
+     * 
+     * @see #getPlaceholderIcon()
+     */
+    protected void paintPlaceholderIcon(Component optComponent, Graphics g, int x, int y) {
+        Icon optIcon = getPlaceholderIcon();
+        if (null != optIcon) {
+            optIcon.paintIcon(optComponent, g, x, y);
+        }
+    }
+    
+    /**
+     * Retrieves whether or not {@link #paintIcon(Component, Graphics, int, int)} paints from a
+     * {@link java.awt.image.VolatileImage} copy of the loaded image, one per graphics
+     * configuration.
+     * <p>
+     * The default value is {@link #DEFAULT_ACCELERATED_PAINT}.
+     * 
+     * @see #setAcceleratedPaint(boolean)
+     */
+    public boolean isAcceleratedPaint() {
+        return _isAcceleratedPaint;
+    }
+    
+    /**
+     * Sets whether or not {@link #paintIcon(Component, Graphics, int, int)} paints from a
+     * {@link java.awt.image.VolatileImage} copy of the loaded image, one per graphics
+     * configuration.  On remote X11 and software pipelines, this may greatly reduce repaint time
+     * of toolbars and tables with many icons.  Lost copies are restored transparently.  When a copy
+     * cannot be used, e.g., painting to a printer or in headless mode, the loaded image is painted
+     * as usual.
+     * <p>
+     * The default value is {@link #DEFAULT_ACCELERATED_PAINT}.
+     * 
+     * @param flag
+     *        if {@code false}, video memory for all copies is released
+     * 
+     * @see #isAcceleratedPaint()
+     * @see PVolatileImageCache
+     */
+    public void setAcceleratedPaint(boolean flag) {
+        _isAcceleratedPaint = flag;
+        if (!flag) {
+            PVolatileImageCache optCache = _optVolatileImageCache;
+            if (null != optCache) {
+                _optVolatileImageCache = null;
+                optCache.flush();
+            }
+        }
+    }
+    
+    private boolean _tryPaintAccelerated(
+            PMediaTrackerLoadStatus status, Image optImage, Graphics g, int x, int y) {
+        if (PMediaTrackerLoadStatus.COMPLETE != status || null == optImage) {
+            return false;
+        }
+        PVolatileImageCache optCache = _optVolatileImageCache;
+        if (null == optCache || optCache.getImage() != optImage) {
+            if (optImage.getWidth(null) <= 0 || optImage.getHeight(null) <= 0) {
+                return false;
+            }
+            if (null != optCache) {
+                optCache.flush();
+            }
+            // Harmless race: If two threads paint the first time, one cache is discarded.
+            optCache = new PVolatileImageCache(optImage);
+            _optVolatileImageCache = optCache;
+        }
+        boolean isPainted = optCache.tryPaint(g, x, y);
+        return isPainted;
+    }
+    
+    private synchronized void _repaintAfterLoad(Component optComponent) {
+        if (null == optComponent) {
+            return;
+        }
+        if (null == _optRepaintComponentSet) {
+            _optRepaintComponentSet =
+                Collections.newSetFromMap(new WeakHashMap<Component, Boolean>());
+            onLoaded(new Runnable() {
+                @Override
+                public void run() {
+                    _repaintComponents();
+                }
+            });
+        }
+        _optRepaintComponentSet.add(optComponent);
+    }
+    
+    private void _repaintComponents() {
+        List<Component> list;
+        synchronized (this) {
+            list = new ArrayList<Component>(_optRepaintComponentSet);
+            _optRepaintComponentSet.clear();
+        }
+        for (Component c: list) {
+            if (c instanceof JComponent) {
+                ((JComponent) c).revalidate();
+            }
+            c.repaint();
+        }
+    }
 
     /**
      * If {@link #ignoreIconLoadErrors()} is {@code true}, and icon failed to load, throw an
      * exception.  Repeatedly calling this method may throw the same {@link IllegalStateException}.
+     * <p>
+     * While the image is loading, this method only blocks if {@link #getPaintPolicy()} is
+     * {@link PImageIconPaintPolicy#BLOCK}.  After the image is done loading, this method never
+     * blocks, nor acquires a monitor, so many threads may paint the same icon concurrently.  The
+     * load status never goes backwards, so an icon that is done loading stays done while painted.
+     * <p>
+     * If {@link #isAcceleratedPaint()}, the loaded image is painted from a volatile image copy
+     * when possible.
      * <hr>
      * Docs from {@link Icon#paintIcon(Component, Graphics, int, int)}:
      * <p>
@@ -833,11 +1803,47 @@ extends ImageIcon {
      * </ul>
      * 
      * @see #checkImageLoadDone()
+     * @see #setPaintPolicy(PImageIconPaintPolicy)
+     * @see #setAcceleratedPaint(boolean)
      */
     @Override
-    public synchronized void paintIcon(Component c, Graphics g, int x, int y) {
+    public void paintIcon(Component c, Graphics g, int x, int y) {
+        final PMediaTrackerLoadStatus optStatus = getImageLoadStatusAsEnum();
+        if (null == optStatus || !optStatus.isDone) {
+            final PImageIconPaintPolicy policy = getPaintPolicy();
+            if (!policy.isBlocking && !_isLoadDoneNoBlock()) {
+                if (PImageIconPaintPolicy.PAINT_PLACEHOLDER == policy) {
+                    paintPlaceholderIcon(c, g, x, y);
+                }
+                _repaintAfterLoad(c);
+                return;
+            }
+        }
+        // Only blocks if paint policy is BLOCK and image is not done loading.
         checkImageLoadDone();
-        super.paintIcon(c, g, x, y);
+        // Snapshot: Read status first.  Load status is written last and never goes backwards, so
+        // a done status also publishes the image, width, and height.
+        final PMediaTrackerLoadStatus status = getImageLoadStatusAsEnum();
+        final Image optImage = getImageCore();
+        if (isAcceleratedPaint() && _tryPaintAccelerated(status, optImage, g, x, y)) {
+            return;
+        }
+        if (null != optImage) {
+            // Same as ImageIcon.paintIcon(), but paint the snapshot image.
+            final ImageObserver optObserver = getImageObserver();
+            g.drawImage(optImage, x, y, (null == optObserver ? c : optObserver));
+        }
+    }
+    
+    private boolean _isLoadDoneNoBlock() {
+        PMediaTrackerLoadStatus optStatus = getImageLoadStatusAsEnum();
+        if (null == optStatus || !optStatus.isDone) {
+            // Begin to load in the background, if not already started.
+            asFuture();
+            optStatus = getImageLoadStatusAsEnum();
+        }
+        boolean x = (null != optStatus && optStatus.isDone);
+        return x;
     }
     
     @Override
@@ -984,6 +1990,14 @@ extends ImageIcon {
             if (null != optDim) {
                 return optDim.width;
             }
+            final PImageIconPaintPolicy policy = getPaintPolicy();
+            if (!policy.isBlocking && !_isLoadDoneNoBlock()) {
+                Icon optIcon = getPlaceholderIcon();
+                int x =
+                    (PImageIconPaintPolicy.PAINT_PLACEHOLDER == policy && null != optIcon
+                        ? optIcon.getIconWidth() : 0);
+                return x;
+            }
             checkImageLoadDone();
             width = getIconWidthCore();
         }
@@ -1030,6 +2044,14 @@ extends ImageIcon {
             if (null != optDim) {
                 return optDim.height;
             }
+            final PImageIconPaintPolicy policy = getPaintPolicy();
+            if (!policy.isBlocking && !_isLoadDoneNoBlock()) {
+                Icon optIcon = getPlaceholderIcon();
+                int x =
+                    (PImageIconPaintPolicy.PAINT_PLACEHOLDER == policy && null != optIcon
+                        ? optIcon.getIconHeight() : 0);
+                return x;
+            }
             checkImageLoadDone();
             height = getIconHeightCore();
         }
@@ -0,0 +1,105 @@
+package com.googlecode.kevinarpe.papaya.swing;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.awt.Component;
+import java.awt.Graphics;
+
+import com.googlecode.kevinarpe.papaya.annotation.FullyTested;
+
+/**
+ * Controls how {@link PImageIconAsync#paintIcon(Component, Graphics, int, int)} behaves while the
+ * image is loading.  Normally, icons are painted by the Event Dispatch Thread, so a blocking paint
+ * will freeze the user interface until the image is done loading.  If the image is stored on a
+ * slow disk or network share, this may be a long time.
+ * <p>
+ * For policies that do not block, each component painted while loading is revalidated and
+ * repainted on the Event Dispatch Thread after the image is done loading.
+ * 
+ * @author Kevin Connor ARPE (kevinarpe@gmail.com)
+ * 
+ * @see PImageIconAsync#getPaintPolicy()
+ * @see PImageIconAsync#setPaintPolicy(PImageIconPaintPolicy)
+ * @see #isBlocking
+ */
+@FullyTested
+public enum PImageIconPaintPolicy {
+    
+    /**
+     * Block the painting thread until the image is done loading.  This is the original behavior of
+     * {@link PImageIconAsync}.
+     * <p>
+     * Field {@link #isBlocking} is {@code true}.
+     */
+    BLOCK(true),
+    
+    /**
+     * Paint nothing until the image is done loading.
+     * <p>
+     * Field {@link #isBlocking} is {@code false}.
+     */
+    SKIP_UNTIL_READY(false),
+    
+    /**
+     * Paint {@link PImageIconAsync#getPlaceholderIcon()} (if not {@code null}) until the image is
+     * done loading.
+     * <p>
+     * Field {@link #isBlocking} is {@code false}.
+     */
+    PAINT_PLACEHOLDER(false),
+    ;
+    
+    /**
+     * If {@code true}, painting waits for the image to finish loading.
+     */
+    public final boolean isBlocking;
+    
+    private PImageIconPaintPolicy(boolean isBlocking) {
+        this.isBlocking = isBlocking;
+    }
+    
+    /**
+     * Converts this reference to a debugger-friendly string.  Do not depend upon this method, nor
+     * implicit {@link String} conversion.  Instead, if only the name is required, call
+     * {@link #name()} directly.
+     * <hr>
+     * Docs from {@link Enum#toString()}:
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        String x = String.format(
+            "enum %s: ["
+            + "%n\tname(): '%s'"
+            + "%n\tisBlocking: %b"
+            + "%n\t]",
+            PImageIconPaintPolicy.class.getCanonicalName(),
+            name(),
+            isBlocking);
+        return x;
+    }
+}
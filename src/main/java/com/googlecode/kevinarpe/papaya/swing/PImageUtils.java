@@ -26,9 +26,11 @@ package com.googlecode.kevinarpe.papaya.swing;
  */
 
 import java.awt.Graphics;
+import java.awt.Graphics2D;
 import java.awt.GraphicsConfiguration;
 import java.awt.GraphicsDevice;
 import java.awt.GraphicsEnvironment;
+import java.awt.HeadlessException;
 import java.awt.Image;
 import java.awt.RenderingHints;
 import java.awt.color.ColorSpace;
@@ -39,10 +41,14 @@ import java.awt.image.ImageObserver;
 import java.awt.image.RescaleOp;
 import java.util.Arrays;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.googlecode.kevinarpe.papaya.annotation.NotFullyTested;
 import com.googlecode.kevinarpe.papaya.argument.IntArgs;
 import com.googlecode.kevinarpe.papaya.argument.ObjectArgs;
 import com.googlecode.kevinarpe.papaya.argument.PImageArgs;
+import com.googlecode.kevinarpe.papaya.swing.image.PArgbBufferedImageBrightnessOp;
 
 /**
  * Collection of static methods for {@link Image} and subclasses.
@@ -56,25 +62,161 @@ public final class PImageUtils {
     
     // TODO: When to call Image.flush()?
     
-    private static GraphicsConfiguration _defaultGraphicsConfig;
+    private static volatile GraphicsConfiguration _optDefaultGraphicsConfig;
+    
+    // Weak keys: Devices may disappear, e.g., when a monitor is unplugged.
+    private static final LoadingCache<GraphicsDevice, GraphicsConfiguration> _GRAPHICS_CONFIG_CACHE =
+        CacheBuilder.newBuilder().weakKeys().build(
+            new CacheLoader<GraphicsDevice, GraphicsConfiguration>() {
+                @Override
+                public GraphicsConfiguration load(GraphicsDevice gDevice) {
+                    GraphicsConfiguration x = gDevice.getDefaultConfiguration();
+                    return x;
+                }
+            });
+    
+    private static final ColorModel _HEADLESS_OPAQUE_COLOR_MODEL =
+        new BufferedImage(1, 1, PBufferedImageType.TYPE_INT_RGB.value).getColorModel();
+    
+    private static final ColorModel _HEADLESS_TRANSLUCENT_COLOR_MODEL =
+        new BufferedImage(1, 1, PBufferedImageType.TYPE_INT_ARGB_PRE.value).getColorModel();
+    
+    /**
+     * Tests if there is no screen device, e.g., a batch job run with
+     * {@code -Djava.awt.headless=true}.  In headless mode, compatible images are created without a
+     * {@link GraphicsConfiguration}.  See {@link #getHeadlessCompatibleImageType(PTransparency)}.
+     * 
+     * @return {@code true} if headless
+     * 
+     * @see GraphicsEnvironment#isHeadless()
+     */
+    @NotFullyTested
+    public static boolean isHeadless() {
+        boolean x = GraphicsEnvironment.isHeadless();
+        return x;
+    }
     
     /**
      * Retrieves the default graphics configuration by calling:
-     * {@code GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration()}.
+     * {@code GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()}, then
+     * {@link #getGraphicsConfiguration(GraphicsDevice)}.
      * This method is cached and thread-safe.  The value will not change between calls.
      * 
+     * @throws HeadlessException
+     *         if {@link #isHeadless()}
+     * 
      * @see GraphicsEnvironment#getLocalGraphicsEnvironment()
      * @see GraphicsEnvironment#getDefaultScreenDevice()
-     * @see GraphicsDevice#getDefaultConfiguration()
+     * @see #tryGetDefaultGraphicsConfiguration()
      */
     @NotFullyTested
     public static GraphicsConfiguration getDefaultGraphicsConfiguration() {
-        if (null == _defaultGraphicsConfig) {
+        GraphicsConfiguration x = _optDefaultGraphicsConfig;
+        if (null == x) {
+            // Harmless race: All threads will find the same cached value.
             final GraphicsEnvironment gEnv = GraphicsEnvironment.getLocalGraphicsEnvironment();
             final GraphicsDevice gDevice = gEnv.getDefaultScreenDevice();
-            _defaultGraphicsConfig = gDevice.getDefaultConfiguration();
+            x = getGraphicsConfiguration(gDevice);
+            _optDefaultGraphicsConfig = x;
+        }
+        return x;
+    }
+    
+    /**
+     * Same as {@link #getDefaultGraphicsConfiguration()}, but never throws
+     * {@link HeadlessException}.
+     * 
+     * @return default graphics configuration, or {@code null} if {@link #isHeadless()}
+     */
+    @NotFullyTested
+    public static GraphicsConfiguration tryGetDefaultGraphicsConfiguration() {
+        if (isHeadless()) {
+            return null;
+        }
+        GraphicsConfiguration x = getDefaultGraphicsConfiguration();
+        return x;
+    }
+    
+    /**
+     * Retrieves the default graphics configuration of a screen device, e.g., one monitor of a
+     * multi-monitor desktop.  Configurations are cached per device, and this method is
+     * thread-safe.
+     * 
+     * @param gDevice
+     *        screen device, e.g., from {@link GraphicsEnvironment#getScreenDevices()}.
+     *        Must not be {@code null}
+     * 
+     * @return cached default configuration for {@code gDevice}
+     * 
+     * @throws NullPointerException
+     *         if {@code gDevice} is {@code null}
+     * 
+     * @see GraphicsDevice#getDefaultConfiguration()
+     */
+    @NotFullyTested
+    public static GraphicsConfiguration getGraphicsConfiguration(GraphicsDevice gDevice) {
+        ObjectArgs.checkNotNull(gDevice, "gDevice");
+        
+        GraphicsConfiguration x = _GRAPHICS_CONFIG_CACHE.getUnchecked(gDevice);
+        return x;
+    }
+    
+    /**
+     * Retrieves the image type used for compatible images in headless mode.  Without a screen
+     * device, the optimal layouts are those with the fastest Java2D loops:
+     * <ul>
+     *   <li>{@link PTransparency#OPAQUE}: {@link PBufferedImageType#TYPE_INT_RGB}</li>
+     *   <li>otherwise: {@link PBufferedImageType#TYPE_INT_ARGB_PRE}</li>
+     * </ul>
+     * 
+     * @param transparency
+     *        how transparency will be stored.  Must not be {@code null}
+     * 
+     * @return image type for headless compatible images
+     * 
+     * @throws NullPointerException
+     *         if {@code transparency} is {@code null}
+     * 
+     * @see #isHeadless()
+     */
+    @NotFullyTested
+    public static PBufferedImageType getHeadlessCompatibleImageType(PTransparency transparency) {
+        ObjectArgs.checkNotNull(transparency, "transparency");
+        
+        PBufferedImageType x =
+            (PTransparency.OPAQUE == transparency
+                ? PBufferedImageType.TYPE_INT_RGB : PBufferedImageType.TYPE_INT_ARGB_PRE);
+        return x;
+    }
+    
+    /**
+     * Retrieves the color model of compatible images for a transparency.  If not
+     * {@link #isHeadless()}, this is {@code getDefaultGraphicsConfiguration().getColorModel(t)}.
+     * 
+     * @param transparency
+     *        integer constant from {@link java.awt.Transparency}, e.g.,
+     *        {@link java.awt.Transparency#TRANSLUCENT}
+     * 
+     * @return compatible color model, or {@code null} if {@code transparency} is not supported
+     * 
+     * @see GraphicsConfiguration#getColorModel(int)
+     * @see #getHeadlessCompatibleImageType(PTransparency)
+     */
+    @NotFullyTested
+    public static ColorModel getCompatibleColorModel(int transparency) {
+        final GraphicsConfiguration optGConfig = tryGetDefaultGraphicsConfiguration();
+        if (null != optGConfig) {
+            ColorModel x = optGConfig.getColorModel(transparency);
+            return x;
         }
-        return _defaultGraphicsConfig;
+        if (PTransparency.OPAQUE.value == transparency) {
+            return _HEADLESS_OPAQUE_COLOR_MODEL;
+        }
+        if (PTransparency.BITMASK.value == transparency
+                || PTransparency.TRANSLUCENT.value == transparency) {
+            return _HEADLESS_TRANSLUCENT_COLOR_MODEL;
+        }
+        return null;
     }
     
     /**
@@ -103,8 +245,7 @@ public final class PImageUtils {
         final ColorModel srcColorModel = image.getColorModel();
         final int srcColorModelTransparency = srcColorModel.getTransparency();
         
-        final GraphicsConfiguration gConfig = getDefaultGraphicsConfiguration();
-        final ColorModel currColorModel = gConfig.getColorModel(srcColorModelTransparency);
+        final ColorModel currColorModel = getCompatibleColorModel(srcColorModelTransparency);
         if (null == currColorModel) {
             return false;
         }
@@ -226,9 +367,8 @@ public final class PImageUtils {
         
         int width = srcImage.getWidth();
         int height = srcImage.getHeight();
-        int transparency = srcImage.getTransparency();
-        GraphicsConfiguration gConfig = getDefaultGraphicsConfiguration();
-        BufferedImage x = gConfig.createCompatibleImage(width, height, transparency);
+        PTransparency transparency = PTransparency.valueOf(srcImage.getTransparency());
+        BufferedImage x = _createCompatibleImage(width, height, transparency);
         return x;
     }
     
@@ -260,11 +400,85 @@ public final class PImageUtils {
         IntArgs.checkPositive(height, "height");
         ObjectArgs.checkNotNull(transparency, "transparency");
         
-        GraphicsConfiguration gConfig = getDefaultGraphicsConfiguration();
-        BufferedImage x = gConfig.createCompatibleImage(width, height, transparency.value);
+        BufferedImage x = _createCompatibleImage(width, height, transparency);
+        return x;
+    }
+    
+    private static BufferedImage _createCompatibleImage(
+            int width, int height, PTransparency transparency) {
+        final GraphicsConfiguration optGConfig = tryGetDefaultGraphicsConfiguration();
+        if (null != optGConfig) {
+            BufferedImage x = optGConfig.createCompatibleImage(width, height, transparency.value);
+            return x;
+        }
+        PBufferedImageType imageType = getHeadlessCompatibleImageType(transparency);
+        BufferedImage x = new BufferedImage(width, height, imageType.value);
         return x;
     }
 
+    /**
+     * Creates a new compatible image by resampling another image to a new width and height.
+     * Transparency is preserved.
+     * <p>
+     * Bilinear interpolation alone produces poor results when shrinking by more than half: Most
+     * source pixels are skipped.  To downscale with high quality, the image is repeatedly halved
+     * with bilinear interpolation until the final step is at most half.  Upscaling is a single
+     * bilinear step.
+     * 
+     * @param srcImage
+     *        a {@link BufferedImage} reference
+     * @param width
+     *        number of pixels wide for the new image
+     * @param height
+     *        number of pixels high for the new image
+     * 
+     * @return new compatible image with dimensions {@code width} and {@code height}
+     * 
+     * @throws NullPointerException
+     *         if {@code srcImage} is {@code null}
+     * @throws IllegalArgumentException
+     *         if {@code srcImage} width or height is not positive
+     *         <br>if {@code width} or {@code height} is not positive
+     * 
+     * @see #createCompatibleImage(int, int, PTransparency)
+     */
+    @NotFullyTested
+    public static BufferedImage createCompatibleScaledImage(
+            BufferedImage srcImage, int width, int height) {
+        ObjectArgs.checkNotNull(srcImage, "srcImage");
+        PImageArgs.checkImageDimensionsValid(srcImage, "srcImage");
+        IntArgs.checkPositive(width, "width");
+        IntArgs.checkPositive(height, "height");
+        
+        PTransparency transparency = PTransparency.valueOf(srcImage.getTransparency());
+        BufferedImage image = srcImage;
+        int stepWidth = srcImage.getWidth();
+        int stepHeight = srcImage.getHeight();
+        do {
+            // Never shrink by more than half per step.  Never grow past the target.
+            stepWidth = (stepWidth > width) ? Math.max(width, (stepWidth + 1) / 2) : width;
+            stepHeight = (stepHeight > height) ? Math.max(height, (stepHeight + 1) / 2) : height;
+            BufferedImage stepImage = _createCompatibleImage(stepWidth, stepHeight, transparency);
+            Graphics2D g = stepImage.createGraphics();
+            try {
+                g.setRenderingHint(
+                    RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(
+                    RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(image, 0, 0, stepWidth, stepHeight, null);
+            }
+            finally {
+                g.dispose();
+            }
+            if (image != srcImage) {
+                image.flush();
+            }
+            image = stepImage;
+        }
+        while (stepWidth != width || stepHeight != height);
+        return image;
+    }
+    
 //    /**
 //     * Converts an {@link Image} to a {@link BufferedImage}.  If the input is a
 //     * {@code BufferedImage} and its image type matches, the input is returned.
@@ -335,6 +549,10 @@ public final class PImageUtils {
     /**
      * Copies source image and changes its brightness.  All color components (probably R-G-B) are
      * scaled equally.  The alpha channel, if present, is never scaled.
+     * <p>
+     * If source and destination are both {@link BufferedImage#TYPE_INT_ARGB} or both
+     * {@link BufferedImage#TYPE_INT_RGB}, a cached lookup table is applied with integer math
+     * ({@link PArgbBufferedImageBrightnessOp}); else, {@link RescaleOp} is used.
      * 
      * @param srcImage
      *        source image.  Must not be {@code null}
@@ -371,6 +589,7 @@ public final class PImageUtils {
      * </ul>
      * 
      * @see RescaleOp
+     * @see PArgbBufferedImageBrightnessOp
      * @see #createCompatibleImageWithScaledBrightness(BufferedImage, float)
      */
     @NotFullyTested
@@ -383,12 +602,27 @@ public final class PImageUtils {
         }
         
         if (1.0f == scaleFactor) {
+            if (null == optDestImage) {
+                optDestImage = createCompatibleImage(srcImage);
+            }
             if (srcImage != optDestImage) {
                 _drawImage(srcImage, optDestImage);
             }
             return optDestImage;
         }
         
+        if (null == optDestImage) {
+            optDestImage = createCompatibleImage(srcImage);
+        }
+        if (_isArgbLookupTableOpSupported(srcImage, optDestImage)
+                && scaleFactor >= 0.0f
+                && !Float.isInfinite(scaleFactor)) {
+            // Fast path: Cached lookup table and integer math, in place when possible.
+            PArgbBufferedImageBrightnessOp op = new PArgbBufferedImageBrightnessOp(scaleFactor);
+            op.filter(srcImage, optDestImage);
+            return optDestImage;
+        }
+        
         // Ref: http://javaingrab.blogspot.hk/2012/10/change-brightness-of-image-using.html
         ColorModel srcImageColorModel = srcImage.getColorModel();
         // For PBufferedImageType.TYPE_INT_ARGB, this is true.
@@ -412,14 +646,20 @@ public final class PImageUtils {
         // Unnecessary: The default value for primitive float is 0.0f
         //Arrays.fill(offsetArr, 0.0f);
         
-        if (null == optDestImage) {
-            optDestImage = createCompatibleImage(srcImage);
-        }
         RescaleOp op = new RescaleOp(scaleFactorArr, offsetArr, (RenderingHints) null);
         op.filter(srcImage, optDestImage);
         return optDestImage;
     }
     
+    private static boolean _isArgbLookupTableOpSupported(
+            BufferedImage srcImage, BufferedImage destImage) {
+        final int srcImageType = srcImage.getType();
+        boolean x = (srcImageType == destImage.getType())
+            && (BufferedImage.TYPE_INT_ARGB == srcImageType
+                || BufferedImage.TYPE_INT_RGB == srcImageType);
+        return x;
+    }
+    
     /**
      * This is a convenience method to call
      * {@link #createCompatibleGrayscaleImage(BufferedImage, BufferedImage)} where
@@ -471,11 +711,8 @@ public final class PImageUtils {
     public static BufferedImage createCompatibleGrayscaleImage(
             BufferedImage srcImage, BufferedImage optDestImage) {
         PImageArgs.checkImageDimensionsValid(srcImage, "srcImage");
-        if (null == optDestImage) {
+        if (null != optDestImage) {
             PImageArgs.checkCompatibleImage(optDestImage, "optDestImage");
-            PImageArgs.checkImageDimensionsValid(srcImage, "srcImage");
-        }
-        else {
             PImageArgs.checkImageDimensionsValidAndEqual(
                 srcImage, optDestImage, "srcImage", "optDestImage");
         }
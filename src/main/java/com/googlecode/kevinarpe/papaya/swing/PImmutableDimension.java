@@ -27,8 +27,8 @@ package com.googlecode.kevinarpe.papaya.swing;
 
 import java.awt.Dimension;
 import java.awt.geom.Dimension2D;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 import com.google.common.base.Objects;
 import com.googlecode.kevinarpe.papaya.annotation.FullyTested;
 import com.googlecode.kevinarpe.papaya.argument.ObjectArgs;
@@ -101,8 +101,30 @@ extends Dimension2D {
         this.height = height;
     }
     
-    private static final Map<Long, PImmutableDimension> _cacheMap =
-        new HashMap<Long, PImmutableDimension>();
+    /**
+     * Smallest width and height of square dimensions preallocated by
+     * {@link #getSharedFromWidthAndHeight(int, int)}: {@value}
+     */
+    public static final int MIN_PREALLOCATED_SQUARE_SIZE = 16;
+    
+    /**
+     * Largest width and height of square dimensions preallocated by
+     * {@link #getSharedFromWidthAndHeight(int, int)}: {@value}
+     */
+    public static final int MAX_PREALLOCATED_SQUARE_SIZE = 256;
+    
+    // Index: size - MIN_PREALLOCATED_SQUARE_SIZE
+    private static final PImmutableDimension[] _PREALLOCATED_SQUARE_ARR =
+        new PImmutableDimension[1 + MAX_PREALLOCATED_SQUARE_SIZE - MIN_PREALLOCATED_SQUARE_SIZE];
+    
+    static {
+        for (int i = 0; i < _PREALLOCATED_SQUARE_ARR.length; ++i) {
+            int size = MIN_PREALLOCATED_SQUARE_SIZE + i;
+            _PREALLOCATED_SQUARE_ARR[i] = new PImmutableDimension(size, size);
+        }
+    }
+    
+    private static final _InternTable _INTERN_TABLE = new _InternTable();
     
     /**
      * Calls {@link #getSharedFromWidthAndHeight(int, int)} with {@link #DEFAULT_WIDTH} and
@@ -116,6 +138,11 @@ extends Dimension2D {
     /**
      * Like {@link Dimension}, the inputs are unchecked.  This method uses caching.  To avoid the
      * cache, see {@link #createFromWidthAndHeight(int, int)}.
+     * <p>
+     * This method is thread-safe.  Square dimensions from {@link #MIN_PREALLOCATED_SQUARE_SIZE} to
+     * {@link #MAX_PREALLOCATED_SQUARE_SIZE}, e.g., common icon sizes, are preallocated.  Other
+     * dimensions are interned by a concurrent hash table:  Look-ups are lock-free and never
+     * allocate.  Only the first request for a dimension takes a lock.
      * 
      * @param width
      *        any integer value -- unchecked
@@ -128,29 +155,105 @@ extends Dimension2D {
      * @see #copyOfDimension(Dimension)
      */
     public static PImmutableDimension getSharedFromWidthAndHeight(int width, int height) {
-        // Primitive type int is 32 bits, and long is 64 bits.
-        // Key: High 32 bits are for width; low are for height.
-        // Ref: http://stackoverflow.com/questions/12772939/java-storing-two-ints-in-a-long
-        long high = ((long) width) << Integer.SIZE;
-        long low = ((long) height) & 0xffffffffL;
-        long key = high | low;
-//        System.out.println(String.format(
-//            "Key: (%d) 0x%08x -> 0x%016x | (%d) 0x%08x -> 0x%016x = 0x%016x",
-//            width,
-//            width,
-//            high,
-//            height,
-//            height,
-//            low,
-//            key));
-        PImmutableDimension x = _cacheMap.get(key);
-        if (null == x) {
-            x = new PImmutableDimension(width, height);
-            _cacheMap.put(key, x);
+        if (width == height
+                && width >= MIN_PREALLOCATED_SQUARE_SIZE
+                && width <= MAX_PREALLOCATED_SQUARE_SIZE) {
+            PImmutableDimension x = _PREALLOCATED_SQUARE_ARR[width - MIN_PREALLOCATED_SQUARE_SIZE];
+            return x;
         }
+        PImmutableDimension x = _INTERN_TABLE.getOrAdd(width, height);
         return x;
     }
     
+    /**
+     * Open addressing hash table with linear probing.  Each slot holds an interned dimension, so
+     * the key -- {@code width} and {@code height} -- is read from final fields: No boxing, and no
+     * separate key array.  Reads are lock-free.  Writes hold the table's lock.  Load factor is at
+     * most one half, so a probe always finds an empty slot.
+     */
+    private static final class _InternTable {
+        
+        private static final int _INITIAL_CAPACITY = 64;
+        
+        // Replaced (never modified) when resized.
+        private volatile AtomicReferenceArray<PImmutableDimension> _slotArr =
+            new AtomicReferenceArray<PImmutableDimension>(_INITIAL_CAPACITY);
+        
+        // Guarded by 'this'
+        private int _size = 0;
+        
+        public PImmutableDimension getOrAdd(int width, int height) {
+            PImmutableDimension x = _tryFind(_slotArr, width, height);
+            if (null == x) {
+                x = _add(width, height);
+            }
+            return x;
+        }
+        
+        private synchronized PImmutableDimension _add(int width, int height) {
+            AtomicReferenceArray<PImmutableDimension> slotArr = _slotArr;
+            PImmutableDimension x = _tryFind(slotArr, width, height);
+            if (null != x) {
+                return x;
+            }
+            if (2 * (1 + _size) > slotArr.length()) {
+                slotArr = _newResized(slotArr);
+                _slotArr = slotArr;
+            }
+            x = new PImmutableDimension(width, height);
+            _insert(slotArr, x);
+            ++_size;
+            return x;
+        }
+        
+        private static AtomicReferenceArray<PImmutableDimension> _newResized(
+                AtomicReferenceArray<PImmutableDimension> slotArr) {
+            AtomicReferenceArray<PImmutableDimension> x =
+                new AtomicReferenceArray<PImmutableDimension>(2 * slotArr.length());
+            for (int i = 0; i < slotArr.length(); ++i) {
+                PImmutableDimension dim = slotArr.get(i);
+                if (null != dim) {
+                    _insert(x, dim);
+                }
+            }
+            return x;
+        }
+        
+        private static PImmutableDimension _tryFind(
+                AtomicReferenceArray<PImmutableDimension> slotArr, int width, int height) {
+            final int mask = slotArr.length() - 1;
+            for (int i = _hash(width, height) & mask; ; i = (1 + i) & mask) {
+                PImmutableDimension x = slotArr.get(i);
+                if (null == x || (x.width == width && x.height == height)) {
+                    return x;
+                }
+            }
+        }
+        
+        private static void _insert(
+                AtomicReferenceArray<PImmutableDimension> slotArr, PImmutableDimension dim) {
+            final int mask = slotArr.length() - 1;
+            int i = _hash(dim.width, dim.height) & mask;
+            while (null != slotArr.get(i)) {
+                i = (1 + i) & mask;
+            }
+            slotArr.set(i, dim);
+        }
+        
+        private static int _hash(int width, int height) {
+            // Primitive type int is 32 bits, and long is 64 bits.
+            // Key: High 32 bits are for width; low are for height.
+            // Ref: http://stackoverflow.com/questions/12772939/java-storing-two-ints-in-a-long
+            long key = (((long) width) << Integer.SIZE) | (((long) height) & 0xffffffffL);
+            // Ref: MurmurHash3 64-bit finalizer
+            key ^= (key >>> 33);
+            key *= 0xff51afd7ed558ccdL;
+            key ^= (key >>> 33);
+            int x = (int) key;
+            return x;
+        }
+    }
+    
     /**
      * Creates a new instance from inputs.  This method does <b>not</b> use caching.  To use the
      * cache, see {@link #getSharedFromWidthAndHeight(int, int)}.
@@ -32,7 +32,11 @@ import javax.swing.AbstractButton;
 import javax.swing.plaf.basic.BasicHTML;
 
 import com.google.common.base.Objects;
-import com.googlecode.kevinarpe.papaya.StringUtils;
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.googlecode.kevinarpe.papaya.annotation.FullyTested;
 import com.googlecode.kevinarpe.papaya.swing.widget.PJLabel;
 
@@ -238,6 +242,21 @@ public final class PJComponentTextParser {
      */
     public static final int DEFAULT_MNEMONIC_INDEX = PJLabel.DEFAULTS.displayedMnemonicIndex;
     
+    /**
+     * Maximum number of parse results cached by {@link #getShared(String)}: {@value}
+     */
+    public static final int SHARED_CACHE_MAX_SIZE = 1024;
+    
+    private static final LoadingCache<String, PJComponentTextParser> _SHARED_CACHE =
+        CacheBuilder.newBuilder().maximumSize(SHARED_CACHE_MAX_SIZE).build(
+            new CacheLoader<String, PJComponentTextParser>() {
+                @Override
+                public PJComponentTextParser load(String label) {
+                    PJComponentTextParser x = new PJComponentTextParser(label);
+                    return x;
+                }
+            });
+    
     /**
      * Original text label to the constructor {@link #PJComponentTextParser(String)}.  This text
      * may contain mnemonic markers, e.g., {@code "&Sample"}.
@@ -369,74 +388,67 @@ public final class PJComponentTextParser {
         int _mnemonicIndex = DEFAULT_MNEMONIC_INDEX;
         
         if (null != _labelAfterParse && !isHTMLStringBeforeParse) {
+            // Single pass over chars.  Both "\r\n" and "\n" are newlines, so a label is
+            // multi-line exactly if it contains '\n'.
             final String originalLabel = _labelAfterParse;
-            _labelAfterParse = _labelAfterParse.replace("\r\n", "\n");
-            _labelAfterParse = _labelAfterParse.replace("\n", StringUtils.NEW_LINE);
-            int labelAfterParseLen = _labelAfterParse.length();
-            int escapeCount = 0;  // each pair of mnemonic markers ("&&") is one escape
-            int index = -1;
-            while (true) {
-                index = _labelAfterParse.indexOf(MARKER, 1 + index);
-                if (-1 == index) {
-                    break;
-                }
-                if (index == labelAfterParseLen - 1) {
-                    throw new IllegalArgumentException(String.format(
-                        "Last char must not be a mnemonic marker ('%c'): '%s'",
-                        MARKER, originalLabel));
-                }
-                if (index < labelAfterParseLen - 1) {
-                    final char nextChar = _labelAfterParse.charAt(1 + index);
+            final int labelLen = originalLabel.length();
+            final boolean isMultiLine = (-1 != originalLabel.indexOf('\n'));
+            StringBuilder sb = new StringBuilder(labelLen + (isMultiLine ? 16 : 0));
+            if (isMultiLine) {
+                sb.append("<html>");
+            }
+            for (int i = 0; i < labelLen; ++i) {
+                final char ch = originalLabel.charAt(i);
+                if (MARKER == ch) {
+                    if (i == labelLen - 1) {
+                        throw new IllegalArgumentException(String.format(
+                            "Last char must not be a mnemonic marker ('%c'): '%s'",
+                            MARKER, originalLabel));
+                    }
+                    final char nextChar = originalLabel.charAt(1 + i);
                     if (MARKER == nextChar) {
-                        _labelAfterParse = StringUtils.removeCharAt(_labelAfterParse, index);
-                        ++escapeCount;
-                        --labelAfterParseLen;
+                        // Escaped marker ("&&"): Literal marker, even in HTML
+                        sb.append(MARKER);
+                        ++i;
                         continue;
                     }
+                    if (_hasMnemonic) {
+                        throw new IllegalArgumentException(String.format(
+                            "Second mnemonic marker ('%c') found at index %d: '%s'",
+                            MARKER, i, originalLabel));
+                    }
+                    ++i;
+                    _mnemonicKeyChar = nextChar;
+                    _mnemonicKeyCode = _getKeyCode(_mnemonicKeyChar, i, originalLabel);
+                    _hasMnemonic = true;
+                    if (isMultiLine) {
+                        // Simulate the underline effect for keyboard mnemonics.
+                        sb.append("<u>").append(_mnemonicKeyChar).append("</u>");
+                    }
+                    else {
+                        _mnemonicIndex = sb.length();
+                        sb.append(_mnemonicKeyChar);
+                    }
                 }
-                if (_hasMnemonic) {
-                    throw new IllegalArgumentException(String.format(
-                        "Second mnemonic marker ('%c') found at index %d: '%s'",
-                        MARKER, index + escapeCount + 1, originalLabel));
+                else if (!isMultiLine) {
+                    sb.append(ch);
                 }
-                _mnemonicKeyChar = _labelAfterParse.charAt(1 + index);
-                try {
-                    _mnemonicKeyCode = _tryGetKeyCode(_mnemonicKeyChar);
+                else if ('\n' == ch) {
+                    sb.append("<br>");
                 }
-                catch (RuntimeException e) {
-                    _mnemonicKeyCode = _tryGetKeyCodeWithUnicodeDecomposition(_mnemonicKeyChar);
-                    if (DEFAULT_MNEMONIC_KEY_CODE == _mnemonicKeyCode) {
-                        String msg = String.format(
-                            "Invalid mnemonic char ('%c' -> '\\u%04x') at index %d: '%s'",
-                            _mnemonicKeyChar,
-                            (int) _mnemonicKeyChar,
-                            index + escapeCount + 1,
-                            originalLabel);
-                        throw new IllegalArgumentException(msg, e);
-                    }
+                else if ('\r' == ch && i < labelLen - 1 && '\n' == originalLabel.charAt(1 + i)) {
+                    sb.append("<br>");
+                    ++i;
                 }
-                _mnemonicIndex = index;
-                _hasMnemonic = true;
-                _labelAfterParse = StringUtils.removeCharAt(_labelAfterParse, index);
-                --labelAfterParseLen;
-            }  // end while(true)
-            
-            if (_labelAfterParse.contains(StringUtils.NEW_LINE)) {
-                if (_hasMnemonic) {
-                    String before = _labelAfterParse.substring(0, _mnemonicIndex);
-                    String after = _labelAfterParse.substring(_mnemonicIndex + 1);
-                    before = before.replace("<", "&lt;");
-                    after = after.replace("<", "&lt;");
-                    _labelAfterParse = before + "<u>" + _mnemonicKeyChar + "</u>" + after;
-                    _mnemonicIndex = -1;
+                else if ('<' == ch) {
+                    sb.append("&lt;");
                 }
                 else {
-                    _labelAfterParse = _labelAfterParse.replace("<", "&lt;");
+                    sb.append(ch);
                 }
-                _labelAfterParse =
-                    "<html>" + _labelAfterParse.replace(StringUtils.NEW_LINE, "<br>");
-                _isHTMLStringAfterParse = true;
             }
+            _labelAfterParse = sb.toString();
+            _isHTMLStringAfterParse = isMultiLine;
         }
         
         textAfterParse = _labelAfterParse;
@@ -447,6 +459,60 @@ public final class PJComponentTextParser {
         mnemonicIndex = _mnemonicIndex;
     }
     
+    /**
+     * Retrieves a shared parse result for a text label.  Instances are immutable, so results are
+     * cached by label: Forms that are rebuilt with the same (localized) labels parse each label
+     * once.  The cache is thread-safe and holds at most {@link #SHARED_CACHE_MAX_SIZE} labels.
+     * Labels that fail to parse are not cached.
+     * <p>
+     * This method should be preferred by widget {@code setText(String)} methods.
+     * 
+     * @param label
+     *        text label to parse for mnemonic metadata.  May be empty or {@code null}.
+     * 
+     * @return shared parse result, or new instance if {@code label} is {@code null}
+     * 
+     * @throws IllegalArgumentException
+     *         thrown by {@link #PJComponentTextParser(String)}
+     * 
+     * @see #PJComponentTextParser(String)
+     */
+    public static PJComponentTextParser getShared(String label) {
+        if (null == label) {
+            // Cache keys must not be null.  No parsing is required.
+            PJComponentTextParser x = new PJComponentTextParser(label);
+            return x;
+        }
+        try {
+            PJComponentTextParser x = _SHARED_CACHE.getUnchecked(label);
+            return x;
+        }
+        catch (UncheckedExecutionException e) {
+            // Rethrow the original exception from the constructor, e.g., IllegalArgumentException.
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+    
+    private static int _getKeyCode(char keyChar, int index, String label) {
+        try {
+            int x = _tryGetKeyCode(keyChar);
+            return x;
+        }
+        catch (RuntimeException e) {
+            int x = _tryGetKeyCodeWithUnicodeDecomposition(keyChar);
+            if (DEFAULT_MNEMONIC_KEY_CODE == x) {
+                String msg = String.format(
+                    "Invalid mnemonic char ('%c' -> '\\u%04x') at index %d: '%s'",
+                    keyChar,
+                    (int) keyChar,
+                    index,
+                    label);
+                throw new IllegalArgumentException(msg, e);
+            }
+            return x;
+        }
+    }
+    
     private static int _tryGetKeyCode(char keyChar) {
         int keyCode = 0;
         try {
@@ -33,7 +33,12 @@ import java.awt.image.ImageObserver;
 import java.io.InputStream;
 import java.io.Reader;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Locale;
+import java.util.Set;
+import java.util.WeakHashMap;
 
 import javax.accessibility.Accessible;
 import javax.accessibility.AccessibleContext;
@@ -54,6 +59,10 @@ import org.w3c.dom.Document;
 import org.xml.sax.XMLReader;
 
 import com.google.common.annotations.Beta;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.googlecode.kevinarpe.papaya.annotation.NotFullyTested;
 import com.googlecode.kevinarpe.papaya.argument.IntArgs;
 import com.googlecode.kevinarpe.papaya.argument.ObjectArgs;
@@ -74,10 +83,17 @@ import com.googlecode.kevinarpe.papaya.argument.ObjectArgs;
 public class PSvgIcon
 implements Icon, Accessible {
     
-    private BufferedImage _image;
+    private volatile BufferedImage _image;
     private final int _width;
     private final int _height;
     private String _description;
+    private final PSvgRasterizer _optRasterizer;
+    private final URI _optSource;
+    private volatile ListenableFuture<BufferedImage> _optRasterFuture;
+    private volatile Throwable _optRenderFailure;
+    // Guarded by 'this'.  Weak keys: Do not keep disposed components alive until rendering is done.
+    private final Set<Component> _repaintOnRenderComponentSet =
+        Collections.newSetFromMap(new WeakHashMap<Component, Boolean>());
     
     /**
      * Constructs an {@link Icon} from SVG data.
@@ -103,11 +119,44 @@ implements Icon, Accessible {
         ObjectArgs.checkNotNull(input, "input");        
         _width = IntArgs.checkPositive(width, "width");
         _height = IntArgs.checkPositive(height, "height");
+        _optRasterizer = null;
+        _optSource = null;
         BufferedImageTranscoder x = createBufferedImageTranscoder();
         TranscoderOutput output = null;
         x.transcode(input, output);
     }
     
+    /**
+     * Constructs an {@link Icon} from SVG data that is rendered lazily.  Unlike
+     * {@link #PSvgIcon(TranscoderInput, int, int)}, no work is done on the calling thread.
+     * <p>
+     * The first call to {@link #paintIcon(Component, Graphics, int, int)} starts rendering on
+     * {@link PSvgRasterizer#getExecutor()}.  Until rendering is done, nothing is painted.  When
+     * done, the component is repainted.  Parsed documents and rendered images are cached by
+     * {@code rasterizer}, so many icons from the same source (any size) parse once, and icons
+     * with the same source and size render once.
+     * 
+     * @param rasterizer
+     *        renders and caches SVG data.  Must not be {@code null}
+     * @param source
+     *        location of SVG data, e.g., a file or JAR URI.  Must not be {@code null}
+     * @param width
+     *        integral number of pixels on X-axis to render the {@link BufferedImage}
+     * @param height
+     *        integral number of pixels on Y-axis to render the {@link BufferedImage}
+     * 
+     * @throws NullPointerException
+     *         if {@code rasterizer} or {@code source} is {@code null}
+     * @throws IllegalArgumentException
+     *         if {@code width} or {@code height} is not positive
+     */
+    public PSvgIcon(PSvgRasterizer rasterizer, URI source, int width, int height) {
+        _optRasterizer = ObjectArgs.checkNotNull(rasterizer, "rasterizer");
+        _optSource = ObjectArgs.checkNotNull(source, "source");
+        _width = IntArgs.checkPositive(width, "width");
+        _height = IntArgs.checkPositive(height, "height");
+    }
+    
     /**
      * Override this method if class {@link BufferedImageTranscoder} has also been subclassed.
      * 
@@ -174,12 +223,98 @@ implements Icon, Accessible {
         }
     }
 
+    /**
+     * If lazy rendering failed, retrieves the cause.
+     * 
+     * @return cause of failure, or {@code null} if rendering is not lazy, not yet done, or
+     *         successful
+     * 
+     * @see #PSvgIcon(PSvgRasterizer, URI, int, int)
+     */
+    public Throwable getRenderFailure() {
+        return _optRenderFailure;
+    }
+
+    /**
+     * Paints the rendered image.  If rendering is lazy and not yet done, nothing is painted, and
+     * {@code c} (if not {@code null}) is repainted once when done.  If lazy rendering failed,
+     * nothing is painted, like {@link PMediaTrackerLoadStatus#ERRORED} for
+     * {@link PImageIconAsync}.
+     * 
+     * @see #PSvgIcon(PSvgRasterizer, URI, int, int)
+     * @see #getRenderFailure()
+     */
     @Override
     public void paintIcon(Component c, Graphics g, int x, int y) {
         BufferedImage image = getBufferedImage();
+        if (null == image) {
+            image = _tryGetRasterizedImage(c);
+            if (null == image) {
+                return;
+            }
+        }
         ImageObserver io = null;
         g.drawImage(image, x, y, io);
     }
+    
+    private BufferedImage _tryGetRasterizedImage(Component optComponent) {
+        if (null == _optRasterizer || null != _optRenderFailure) {
+            return null;
+        }
+        ListenableFuture<BufferedImage> future = _optRasterFuture;
+        if (null == future) {
+            synchronized (this) {
+                future = _optRasterFuture;
+                if (null == future) {
+                    future = _optRasterizer.rasterizeAsync(_optSource, _width, _height);
+                    _optRasterFuture = future;
+                    // Exactly one listener per future, no matter how many early paints.
+                    future.addListener(
+                        new Runnable() {
+                            @Override
+                            public void run() {
+                                _repaintOnRenderComponents();
+                            }
+                        },
+                        MoreExecutors.sameThreadExecutor());
+                }
+            }
+        }
+        if (!future.isDone()) {
+            if (null == optComponent) {
+                return null;
+            }
+            synchronized (this) {
+                // If not yet done, the listener has not yet run and will see this component.
+                if (!future.isDone()) {
+                    _repaintOnRenderComponentSet.add(optComponent);
+                    return null;
+                }
+            }
+        }
+        try {
+            BufferedImage x = Futures.getUnchecked(future);
+            setBufferedImage(x);
+            return x;
+        }
+        catch (UncheckedExecutionException e) {
+            // Record once.  Later paints return early and paint nothing.
+            _optRenderFailure = e.getCause();
+            return null;
+        }
+    }
+    
+    private void _repaintOnRenderComponents() {
+        List<Component> componentList;
+        synchronized (this) {
+            componentList = new ArrayList<Component>(_repaintOnRenderComponentSet);
+            _repaintOnRenderComponentSet.clear();
+        }
+        for (Component component: componentList) {
+            // Thread-safe: Only posts a repaint request to the EDT.
+            component.repaint();
+        }
+    }
 
     @Override
     public int getIconWidth() {
@@ -0,0 +1,357 @@
+package com.googlecode.kevinarpe.papaya.swing;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+import org.apache.batik.dom.svg.SAXSVGDocumentFactory;
+import org.apache.batik.dom.svg.SVGDOMImplementation;
+import org.apache.batik.transcoder.TranscoderException;
+import org.apache.batik.transcoder.TranscoderInput;
+import org.apache.batik.transcoder.TranscoderOutput;
+import org.apache.batik.transcoder.TranscodingHints;
+import org.apache.batik.transcoder.image.ImageTranscoder;
+import org.apache.batik.util.SVGConstants;
+import org.apache.batik.util.XMLResourceDescriptor;
+import org.w3c.dom.DOMImplementation;
+import org.w3c.dom.Document;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Objects;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import com.googlecode.kevinarpe.papaya.annotation.NotFullyTested;
+import com.googlecode.kevinarpe.papaya.argument.IntArgs;
+import com.googlecode.kevinarpe.papaya.argument.ObjectArgs;
+
+/**
+ * Renders SVG (Scalable Vector Graphics) sources as {@link BufferedImage}s at any size.
+ * <p>
+ * Two caches are shared by all callers:
+ * <ul>
+ *   <li>parsed SVG documents, keyed by source: Each source is parsed once, no matter how many
+ *   sizes are rendered</li>
+ *   <li>rendered images, keyed by (source, width, height): Rendering a repeated size is free</li>
+ * </ul>
+ * Both caches use soft references, so memory is reclaimed under pressure.
+ * <p>
+ * Batik documents are not thread-safe, so renders of the same source are serialized.  Renders of
+ * different sources run in parallel on {@link #getExecutor()}.
+ * <p>
+ * This class is highly experimental, like {@link PSvgIcon}.
+ * 
+ * @author Kevin Connor ARPE (kevinarpe@gmail.com)
+ * 
+ * @see PSvgIcon#PSvgIcon(PSvgRasterizer, URI, int, int)
+ */
+@NotFullyTested
+@Beta
+public class PSvgRasterizer {
+    
+    private final Executor _executor;
+    private final LoadingCache<URI, Document> _sourceToDocumentCache;
+    private final Cache<_RasterKey, BufferedImage> _rasterCache;
+    
+    /**
+     * Creates a new SVG rasterizer with empty caches.
+     * 
+     * @param executor
+     *        runs render tasks for {@link #rasterizeAsync(URI, int, int)}, e.g., a fixed-size
+     *        thread pool.  Must not be {@code null}
+     * 
+     * @throws NullPointerException
+     *         if {@code executor} is {@code null}
+     */
+    public PSvgRasterizer(Executor executor) {
+        _executor = ObjectArgs.checkNotNull(executor, "executor");
+        _sourceToDocumentCache =
+            CacheBuilder.newBuilder().softValues().build(
+                new CacheLoader<URI, Document>() {
+                    @Override
+                    public Document load(URI source)
+                    throws IOException {
+                        Document x = _parse(source);
+                        return x;
+                    }
+                });
+        _rasterCache = CacheBuilder.newBuilder().softValues().build();
+    }
+    
+    private static Document _parse(URI source)
+    throws IOException {
+        String parserClassName = XMLResourceDescriptor.getXMLParserClassName();
+        SAXSVGDocumentFactory factory = new SAXSVGDocumentFactory(parserClassName);
+        Document x = factory.createDocument(source.toString());
+        return x;
+    }
+    
+    /**
+     * Runs render tasks for {@link #rasterizeAsync(URI, int, int)}
+     */
+    public Executor getExecutor() {
+        return _executor;
+    }
+    
+    /**
+     * Retrieves the parsed SVG document for a source.  If not cached, the source is parsed on the
+     * calling thread.
+     * <p>
+     * The document is shared: Callers must not modify it.
+     * 
+     * @param source
+     *        location of SVG data, e.g., a file or JAR URI.  Must not be {@code null}
+     * 
+     * @return parsed SVG document
+     * 
+     * @throws NullPointerException
+     *         if {@code source} is {@code null}
+     * @throws IOException
+     *         if reading or parsing {@code source} fails
+     */
+    public Document getDocument(URI source)
+    throws IOException {
+        ObjectArgs.checkNotNull(source, "source");
+        
+        try {
+            Document x = _sourceToDocumentCache.get(source);
+            return x;
+        }
+        catch (ExecutionException e) {
+            Throwables.propagateIfPossible(e.getCause(), IOException.class);
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+    
+    /**
+     * Renders an SVG source on the calling thread.  If the same source and size was rendered
+     * before and not yet reclaimed, the cached image is returned.
+     * <p>
+     * The image is shared: Callers must not modify it.
+     * 
+     * @param source
+     *        location of SVG data, e.g., a file or JAR URI.  Must not be {@code null}
+     * @param width
+     *        integral number of pixels on X-axis to render
+     * @param height
+     *        integral number of pixels on Y-axis to render
+     * 
+     * @return rendered image
+     * 
+     * @throws NullPointerException
+     *         if {@code source} is {@code null}
+     * @throws IllegalArgumentException
+     *         if {@code width} or {@code height} is not positive
+     * @throws IOException
+     *         if reading or parsing {@code source} fails
+     * @throws TranscoderException
+     *         if SVG fails to render as an {@link BufferedImage}
+     * 
+     * @see #rasterizeAsync(URI, int, int)
+     */
+    public BufferedImage rasterize(final URI source, final int width, final int height)
+    throws IOException, TranscoderException {
+        ObjectArgs.checkNotNull(source, "source");
+        IntArgs.checkPositive(width, "width");
+        IntArgs.checkPositive(height, "height");
+        
+        _RasterKey key = new _RasterKey(source, width, height);
+        try {
+            // Concurrent calls for the same key wait for a single render.
+            BufferedImage x =
+                _rasterCache.get(key, new Callable<BufferedImage>() {
+                    @Override
+                    public BufferedImage call()
+                    throws IOException, TranscoderException {
+                        BufferedImage y = _transcode(source, width, height);
+                        return y;
+                    }
+                });
+            return x;
+        }
+        catch (ExecutionException e) {
+            Throwables.propagateIfPossible(
+                e.getCause(), IOException.class, TranscoderException.class);
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+    
+    /**
+     * Renders an SVG source on {@link #getExecutor()}.  If the same source and size is cached,
+     * the returned future is already done.
+     * <p>
+     * The image is shared: Callers must not modify it.
+     * 
+     * @param source
+     *        location of SVG data, e.g., a file or JAR URI.  Must not be {@code null}
+     * @param width
+     *        integral number of pixels on X-axis to render
+     * @param height
+     *        integral number of pixels on Y-axis to render
+     * 
+     * @return future for rendered image.  If rendering fails, the future fails with the
+     *         exception thrown by {@link #rasterize(URI, int, int)}.
+     * 
+     * @throws NullPointerException
+     *         if {@code source} is {@code null}
+     * @throws IllegalArgumentException
+     *         if {@code width} or {@code height} is not positive
+     * 
+     * @see #rasterize(URI, int, int)
+     */
+    public ListenableFuture<BufferedImage> rasterizeAsync(
+            final URI source, final int width, final int height) {
+        ObjectArgs.checkNotNull(source, "source");
+        IntArgs.checkPositive(width, "width");
+        IntArgs.checkPositive(height, "height");
+        
+        BufferedImage optImage = _rasterCache.getIfPresent(new _RasterKey(source, width, height));
+        if (null != optImage) {
+            ListenableFuture<BufferedImage> x = Futures.immediateFuture(optImage);
+            return x;
+        }
+        ListenableFutureTask<BufferedImage> x =
+            ListenableFutureTask.create(new Callable<BufferedImage>() {
+                @Override
+                public BufferedImage call()
+                throws IOException, TranscoderException {
+                    BufferedImage y = rasterize(source, width, height);
+                    return y;
+                }
+            });
+        _executor.execute(x);
+        return x;
+    }
+    
+    /**
+     * Discards all cached documents and images.
+     */
+    public void invalidateAll() {
+        _rasterCache.invalidateAll();
+        _sourceToDocumentCache.invalidateAll();
+    }
+    
+    private BufferedImage _transcode(URI source, int width, int height)
+    throws IOException, TranscoderException {
+        Document document = getDocument(source);
+        TranscoderInput input = new TranscoderInput(document);
+        // Required to resolve relative references inside the document.
+        input.setURI(source.toString());
+        _BufferedImageTranscoder transcoder = new _BufferedImageTranscoder(width, height);
+        TranscoderOutput output = null;
+        // Batik attaches its bridge context and CSS engine to the document while rendering.
+        synchronized (document) {
+            transcoder.transcode(input, output);
+        }
+        BufferedImage x = transcoder.getImage();
+        return x;
+    }
+    
+    private static final class _BufferedImageTranscoder
+    extends ImageTranscoder {
+        
+        private BufferedImage _image;
+        
+        private _BufferedImageTranscoder(int width, int height) {
+            // Same hints as PSvgIcon.BufferedImageTranscoder
+            TranscodingHints hints = new TranscodingHints();
+            hints.put(ImageTranscoder.KEY_WIDTH, (float) width);
+            hints.put(ImageTranscoder.KEY_HEIGHT, (float) height);
+            DOMImplementation domImpl = SVGDOMImplementation.getDOMImplementation();
+            hints.put(ImageTranscoder.KEY_DOM_IMPLEMENTATION, domImpl);
+            hints.put(
+                ImageTranscoder.KEY_DOCUMENT_ELEMENT_NAMESPACE_URI,
+                SVGConstants.SVG_NAMESPACE_URI);
+            hints.put(ImageTranscoder.KEY_DOCUMENT_ELEMENT, SVGConstants.SVG_SVG_TAG);
+            hints.put(ImageTranscoder.KEY_XML_PARSER_VALIDATING, false);
+            setTranscodingHints(hints);
+        }
+        
+        @Override
+        public BufferedImage createImage(int width, int height) {
+            _image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            return _image;
+        }
+        
+        @Override
+        public void writeImage(BufferedImage image, TranscoderOutput output) {
+            // empty
+        }
+        
+        private BufferedImage getImage()
+        throws TranscoderException {
+            if (null == _image) {
+                throw new TranscoderException("Failed to create image");
+            }
+            return _image;
+        }
+    }
+    
+    private static final class _RasterKey {
+        
+        private final URI _source;
+        private final int _width;
+        private final int _height;
+        
+        private _RasterKey(URI source, int width, int height) {
+            _source = source;
+            _width = width;
+            _height = height;
+        }
+        
+        @Override
+        public int hashCode() {
+            int x = Objects.hashCode(_source, _width, _height);
+            return x;
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof _RasterKey)) {
+                return false;
+            }
+            _RasterKey other = (_RasterKey) obj;
+            boolean x =
+                _width == other._width
+                && _height == other._height
+                && _source.equals(other._source);
+            return x;
+        }
+    }
+}
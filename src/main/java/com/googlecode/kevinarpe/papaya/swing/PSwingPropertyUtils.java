@@ -27,9 +27,9 @@ package com.googlecode.kevinarpe.papaya.swing;
 
 import java.lang.ref.WeakReference;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
-import java.util.Map;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.googlecode.kevinarpe.papaya.FuncUtils;
 import com.googlecode.kevinarpe.papaya.annotation.FullyTested;
@@ -57,7 +57,9 @@ import com.googlecode.kevinarpe.papaya.argument.ObjectArgs;
  * the common static data. A static field changed by one application may unexpectedly affect
  * another application.</i>
  * <p>
- * To improve performance, MRU (most recently used) caching is employed.
+ * To improve performance, each thread caches its property map, and property maps are
+ * concurrent: Look-ups are lock-free.  A lock is only required the first time a thread accesses
+ * properties, and when {@link #getAndPutIfMissing(Object, FuncUtils.Func0)} creates a value.
  * 
  * @author Kevin Connor ARPE (kevinarpe@gmail.com)
  * 
@@ -69,9 +71,18 @@ public final class PSwingPropertyUtils {
     private PSwingPropertyUtils() {
     }
     
-    private static final WeakHashMap<ThreadGroup, Map<Object, Object>>
+    /**
+     * Only accessed by {@link #_findPropertyMap(boolean)} while holding its lock.
+     */
+    private static final WeakHashMap<ThreadGroup, ConcurrentMap<Object, Object>>
         _threadGroup_To_PropertyMap_Map =
-            new WeakHashMap<ThreadGroup, Map<Object, Object>>();
+            new WeakHashMap<ThreadGroup, ConcurrentMap<Object, Object>>();
+    
+    /**
+     * A thread never changes its group, so its property map never changes.
+     */
+    private static final ThreadLocal<ConcurrentMap<Object, Object>> _thread_To_PropertyMap =
+        new ThreadLocal<ConcurrentMap<Object, Object>>();
     
     /**
      * Retieves the value associated with {@code key} for the current thread's top-level group.
@@ -105,11 +116,9 @@ public final class PSwingPropertyUtils {
         ObjectArgs.checkNotNull(key, "key");
         
         boolean createIfMissing = true;
-        synchronized (_threadGroup_To_PropertyMap_Map) {
-            Map<Object, Object> propertyMap = _getPropertyMap(createIfMissing);
-            Object value = propertyMap.get(key);
-            return value;
-        }
+        ConcurrentMap<Object, Object> propertyMap = _getPropertyMap(createIfMissing);
+        Object value = propertyMap.get(key);
+        return value;
     }
     
     /**
@@ -147,16 +156,25 @@ public final class PSwingPropertyUtils {
         ObjectArgs.checkNotNull(createValueFunc, "createValueFunc");
         
         boolean createIfMissing = true;
-        synchronized (_threadGroup_To_PropertyMap_Map) {
-            Map<Object, Object> propertyMap = _getPropertyMap(createIfMissing);
-            Object value = propertyMap.get(key);
+        ConcurrentMap<Object, Object> propertyMap = _getPropertyMap(createIfMissing);
+        Object value = propertyMap.get(key);
+        if (null != value) {
+            return value;
+        }
+        // Functor 'createValueFunc' is called at most once per key, so lock the property map.
+        synchronized (propertyMap) {
+            value = propertyMap.get(key);
             if (null == value) {
                 value = createValueFunc.call();
                 if (null == value) {
                     throw new IllegalStateException(
                         "Null value returned by calling functor argument 'createValueFunc'");
                 }
-                propertyMap.put(key, value);
+                // put(...) does not lock: It may have inserted a value since our last get(...).
+                Object prevValue = propertyMap.putIfAbsent(key, value);
+                if (null != prevValue) {
+                    value = prevValue;
+                }
             }
             return value;
         }
@@ -190,11 +208,9 @@ public final class PSwingPropertyUtils {
         ObjectArgs.checkNotNull(value, "value");
         
         boolean createIfMissing = true;
-        synchronized (_threadGroup_To_PropertyMap_Map) {
-            Map<Object, Object> propertyMap = _getPropertyMap(createIfMissing);
-            Object prevValue = propertyMap.put(key, value);
-            return prevValue;
-        }
+        ConcurrentMap<Object, Object> propertyMap = _getPropertyMap(createIfMissing);
+        Object prevValue = propertyMap.put(key, value);
+        return prevValue;
     }
     
     /**
@@ -221,77 +237,60 @@ public final class PSwingPropertyUtils {
         ObjectArgs.checkNotNull(key, "key");
         
         boolean createIfMissing = false;
-        synchronized (_threadGroup_To_PropertyMap_Map) {
-            Map<Object, Object> propertyMap = _getPropertyMap(createIfMissing);
-            Object prevValue = (null == propertyMap ? null : propertyMap.remove(key));
-            return prevValue;
-        }
-    }
-    
-    private static final class _LastThreadAndPropertyMap {
-        
-        public final Thread thread;
-        public final Map<Object, Object> propertyMap;
-        
-        public _LastThreadAndPropertyMap(Thread thread, Map<Object, Object> propertyMap) {
-            this.thread = thread;
-            this.propertyMap = propertyMap;
-        }
+        ConcurrentMap<Object, Object> propertyMap = _getPropertyMap(createIfMissing);
+        Object prevValue = (null == propertyMap ? null : propertyMap.remove(key));
+        return prevValue;
     }
     
     /**
-     * Just when you thought mutable static members are unsafe, here we have one.  Watch carefully
-     * how this member is used by _getPropertyMap(...).
+     * Lock-free, except the first call for each thread.
+     * 
+     * @return property map for current thread's group, or {@code null} if not found and
+     *         {@code createIfMissing} is {@code false}
      */
-    private static _LastThreadAndPropertyMap _lastThreadAndPropertyMap = null;
+    private static ConcurrentMap<Object, Object> _getPropertyMap(boolean createIfMissing) {
+        ConcurrentMap<Object, Object> x = _thread_To_PropertyMap.get();
+        if (null == x) {
+            x = _findPropertyMap(createIfMissing);
+            if (null != x) {
+                _thread_To_PropertyMap.set(x);
+            }
+        }
+        return x;
+    }
     
     /**
-     * The caller <b>must</b> synchronise {@link #_threadGroup_To_PropertyMap_Map} before calling
-     * this method and maintain the lock until finish using the result.
-     * <p>
      * Dear Programmer: I know this method looks very complicated.
      * You may rightly ask: "Won't it be slow?"
-     * 1) There is MRU (most recently used) caching.
+     * 1) Each thread caches the result: See {@link #_getPropertyMap(boolean)}.
      * 2) Normally, only the first call for a top-level thread group is slow.
      */
-    private static Map<Object, Object> _getPropertyMap(boolean createIfMissing) {
-        final Thread thread = Thread.currentThread();
-        // Make a local ref copy here to be thread-safe.  This read operation is atomic.
-        _LastThreadAndPropertyMap last = _lastThreadAndPropertyMap;
-        if (null != last && last.thread == thread) {
-            return last.propertyMap;
-        }
-        
+    private static ConcurrentMap<Object, Object> _findPropertyMap(boolean createIfMissing) {
         final ThreadGroup group = Thread.currentThread().getThreadGroup();
-        ThreadGroup groupIter = group;
-        Map<Object, Object> propertyMap = null;
-        
-        do {
-            propertyMap = _threadGroup_To_PropertyMap_Map.get(groupIter);
+        synchronized (_threadGroup_To_PropertyMap_Map) {
+            ThreadGroup groupIter = group;
+            ConcurrentMap<Object, Object> propertyMap = null;
+            
+            do {
+                propertyMap = _threadGroup_To_PropertyMap_Map.get(groupIter);
+                if (null == propertyMap) {
+                    groupIter = groupIter.getParent();
+                }
+            }
+            while (null == propertyMap && null != groupIter);
+            
             if (null == propertyMap) {
-                groupIter = groupIter.getParent();
+                if (!createIfMissing) {
+                    return null;
+                }
+                propertyMap = new ConcurrentHashMap<Object, Object>();
             }
+            
+            // Add all groups here to improve future look-ups.
+            for (groupIter = group; null != groupIter; groupIter = groupIter.getParent()) {
+                _threadGroup_To_PropertyMap_Map.put(groupIter, propertyMap);
+            }
+            return propertyMap;
         }
-        while (null == propertyMap && null != groupIter);
-        
-        if (null == propertyMap && createIfMissing) {
-            int initialCapacity = 16;
-            float loadFactor = 0.75f;
-            boolean accessOrder = true;
-            // Few are aware of this incredible feature in LinkedHashMap:
-            // Here we are setting the 'accessOrder' flag that ensures the most recently accessed
-            // entry (key-value pair) will be the first entry during look-up/iteration.
-            propertyMap =
-                new LinkedHashMap<Object, Object>(initialCapacity, loadFactor, accessOrder);
-        }
-        
-        // Add all groups here to improve future look-ups.
-        for (groupIter = group; null != groupIter; groupIter = groupIter.getParent()) {
-            _threadGroup_To_PropertyMap_Map.put(groupIter, propertyMap);
-        }
-        
-        // This write operation is atomic.
-        _lastThreadAndPropertyMap = new _LastThreadAndPropertyMap(thread, propertyMap);
-        return propertyMap;
     }
 }
@@ -31,6 +31,7 @@ import java.awt.event.HierarchyEvent;
 import java.awt.event.HierarchyListener;
 import java.awt.event.WindowEvent;
 import java.awt.event.WindowListener;
+import java.util.concurrent.Executor;
 
 import javax.swing.AbstractButton;
 import javax.swing.JSplitPane;
@@ -83,6 +84,32 @@ public final class PSwingUtils {
         return false;
     }
     
+    private static final Executor _EVENT_DISPATCH_THREAD_EXECUTOR =
+        new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                ObjectArgs.checkNotNull(command, "command");
+                SwingUtilities.invokeLater(command);
+            }
+        };
+    
+    /**
+     * Retrieves an {@link Executor} that runs all tasks later on the
+     * <a href="http://docs.oracle.com/javase/tutorial/uiswing/concurrency/dispatch.html">
+     * Event Dispatch Thread</a> via {@link SwingUtilities#invokeLater(Runnable)}.  Tasks are
+     * never run immediately, even if the caller is the Event Dispatch Thread.
+     * <p>
+     * This is useful to receive callbacks on the Event Dispatch Thread from futures completed by
+     * background threads.
+     * 
+     * @return shared executor.  Never {@code null}
+     * 
+     * @see PImageIconAsync#onLoaded(Runnable)
+     */
+    public static Executor getEventDispatchThreadExecutor() {
+        return _EVENT_DISPATCH_THREAD_EXECUTOR;
+    }
+    
     public static void buttonDoClickAfterNextShow(final AbstractButton button) {
         ObjectArgs.checkNotNull(button, "button");
         
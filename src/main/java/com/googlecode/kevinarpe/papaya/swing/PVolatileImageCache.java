@@ -0,0 +1,314 @@
+package com.googlecode.kevinarpe.papaya.swing;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsDevice;
+import java.awt.Image;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.util.Arrays;
+
+import com.googlecode.kevinarpe.papaya.annotation.NotFullyTested;
+import com.googlecode.kevinarpe.papaya.argument.ObjectArgs;
+
+/**
+ * Keeps one {@link VolatileImage} copy of an image per {@link GraphicsConfiguration}, e.g., one
+ * per monitor.  On remote X11 and software pipelines, blits from a managed image may not be
+ * cached in video memory, so painting hundreds of toolbar and table icons per frame dominates
+ * repaint time.  Blits from a volatile image stay on the graphics device.
+ * <p>
+ * Volatile images may lose their contents at any time, e.g., after a display mode change or
+ * screen lock.  Before each paint, the copy is validated, and restored from the source image if
+ * required.  If the copy cannot be created or restored, {@link #tryPaint(Graphics, int, int)}
+ * returns {@code false}, and the caller should paint the source image instead.
+ * <p>
+ * This class is thread-safe.  After the first paint per graphics configuration, painting never
+ * acquires a monitor, except to restore lost contents.
+ * 
+ * @author Kevin Connor ARPE (kevinarpe@gmail.com)
+ * 
+ * @see PImageIconAsync#setAcceleratedPaint(boolean)
+ */
+@NotFullyTested
+public final class PVolatileImageCache {
+    
+    /**
+     * Maximum number of attempts to validate and paint a volatile image copy before
+     * {@link #tryPaint(Graphics, int, int)} gives up: 2
+     */
+    public static final int MAX_PAINT_ATTEMPT_COUNT = 2;
+    
+    private static final _Entry[] _EMPTY_ENTRY_ARR = new _Entry[0];
+    
+    private final Image _image;
+    private final int _width;
+    private final int _height;
+    private final int _transparency;
+    
+    /**
+     * Copy-on-write: Few configurations are expected, e.g., one per monitor.  Written while holding
+     * {@code this}.
+     */
+    private volatile _Entry[] _entryArr;
+    
+    /**
+     * Creates a new cache without volatile image copies.  Copies are created lazily by
+     * {@link #tryPaint(Graphics, int, int)}.
+     * 
+     * @param image
+     *        source image.  Must not be {@code null}, and must be done loading, e.g., from
+     *        {@link PImageIconAsync#getImage()}
+     * 
+     * @throws NullPointerException
+     *         if {@code image} is {@code null}
+     * @throws IllegalArgumentException
+     *         if width or height of {@code image} is not positive
+     */
+    public PVolatileImageCache(Image image) {
+        _image = ObjectArgs.checkNotNull(image, "image");
+        _width = image.getWidth(null);
+        _height = image.getHeight(null);
+        if (_width <= 0 || _height <= 0) {
+            String msg = String.format(
+                "Image dimensions must be positive: %dx%d", _width, _height);
+            throw new IllegalArgumentException(msg);
+        }
+        _transparency =
+            (image instanceof BufferedImage
+                ? ((BufferedImage) image).getTransparency() : Transparency.TRANSLUCENT);
+        _entryArr = _EMPTY_ENTRY_ARR;
+    }
+    
+    /**
+     * @return source image.  Never {@code null}
+     */
+    public Image getImage() {
+        return _image;
+    }
+    
+    /**
+     * @return number of graphics configurations with a volatile image copy
+     */
+    public int getVolatileImageCount() {
+        int x = _entryArr.length;
+        return x;
+    }
+    
+    /**
+     * Paints the volatile image copy for the graphics configuration of {@code g}.  The copy is
+     * created, validated, and restored as required.
+     * <p>
+     * If {@code g} does not paint to a screen, e.g., a printer or a {@link BufferedImage}, nothing
+     * is painted: An accelerated copy would not help.
+     * 
+     * @param optGraphics
+     *        graphics context.  May be {@code null}
+     * @param x
+     *        x-coordinate of top left corner
+     * @param y
+     *        y-coordinate of top left corner
+     * 
+     * @return {@code true} if painted.  If {@code false}, the caller should paint
+     *         {@link #getImage()} instead.
+     */
+    public boolean tryPaint(Graphics optGraphics, int x, int y) {
+        if (!(optGraphics instanceof Graphics2D)) {
+            return false;
+        }
+        final GraphicsConfiguration optGConfig =
+            ((Graphics2D) optGraphics).getDeviceConfiguration();
+        if (null == optGConfig
+                || GraphicsDevice.TYPE_RASTER_SCREEN != optGConfig.getDevice().getType()) {
+            return false;
+        }
+        boolean isPainted = tryPaint(optGraphics, optGConfig, x, y);
+        return isPainted;
+    }
+    
+    /**
+     * Same as {@link #tryPaint(Graphics, int, int)}, but does not check if {@code gConfig} is a
+     * screen.  Package-private for testing.
+     */
+    boolean tryPaint(Graphics g, GraphicsConfiguration gConfig, int x, int y) {
+        _Entry optEntry = _tryGetOrCreateEntry(gConfig);
+        if (null == optEntry) {
+            return false;
+        }
+        for (int i = 0; i < MAX_PAINT_ATTEMPT_COUNT; ++i) {
+            VolatileImage optVolatileImage = optEntry.tryValidate();
+            if (null == optVolatileImage) {
+                return false;
+            }
+            g.drawImage(optVolatileImage, x, y, null);
+            if (!optVolatileImage.contentsLost()) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Releases video memory of all volatile image copies.  Copies are created again by the next
+     * call to {@link #tryPaint(Graphics, int, int)}.
+     */
+    public synchronized void flush() {
+        for (_Entry entry: _entryArr) {
+            entry.flush();
+        }
+        _entryArr = _EMPTY_ENTRY_ARR;
+    }
+    
+    private _Entry _tryGetOrCreateEntry(GraphicsConfiguration gConfig) {
+        _Entry optEntry = _tryGetEntry(_entryArr, gConfig);
+        if (null != optEntry) {
+            return optEntry;
+        }
+        synchronized (this) {
+            final _Entry[] entryArr = _entryArr;
+            optEntry = _tryGetEntry(entryArr, gConfig);
+            if (null == optEntry) {
+                optEntry = new _Entry(gConfig);
+                if (null == optEntry.tryValidate()) {
+                    return null;
+                }
+                _Entry[] newEntryArr = Arrays.copyOf(entryArr, 1 + entryArr.length);
+                newEntryArr[entryArr.length] = optEntry;
+                _entryArr = newEntryArr;
+            }
+        }
+        return optEntry;
+    }
+    
+    private static _Entry _tryGetEntry(_Entry[] entryArr, GraphicsConfiguration gConfig) {
+        for (_Entry entry: entryArr) {
+            if (entry.gConfig == gConfig) {
+                return entry;
+            }
+        }
+        return null;
+    }
+    
+    private final class _Entry {
+        
+        public final GraphicsConfiguration gConfig;
+        
+        private volatile VolatileImage _optVolatileImage;
+        
+        public _Entry(GraphicsConfiguration gConfig) {
+            this.gConfig = gConfig;
+        }
+        
+        /**
+         * @return {@code null} if copy cannot be created or restored
+         */
+        public VolatileImage tryValidate() {
+            final VolatileImage optVolatileImage = _optVolatileImage;
+            if (null == optVolatileImage) {
+                synchronized (this) {
+                    return _tryRestore(null, VolatileImage.IMAGE_INCOMPATIBLE);
+                }
+            }
+            // Validate exactly once: If the surface was lost, this call restores the surface and
+            // returns IMAGE_RESTORED.  A second call would return IMAGE_OK, but pixels are
+            // undefined until redrawn.
+            final int status = optVolatileImage.validate(gConfig);
+            if (VolatileImage.IMAGE_OK == status) {
+                return optVolatileImage;
+            }
+            synchronized (this) {
+                return _tryRestore(optVolatileImage, status);
+            }
+        }
+        
+        /**
+         * @param optValidatedImage
+         *        volatile image copy that returned {@code status} from
+         *        {@link VolatileImage#validate(GraphicsConfiguration)}.  May be {@code null}
+         * @param status
+         *        any status except {@link VolatileImage#IMAGE_OK}: Always redraw the source
+         */
+        private VolatileImage _tryRestore(VolatileImage optValidatedImage, int status) {
+            VolatileImage optVolatileImage = _optVolatileImage;
+            if (optVolatileImage != optValidatedImage) {
+                // Another thread already replaced (and redrew) the copy while this thread waited.
+                // If the new copy is also lost, the caller sees contentsLost() and retries.
+                return optVolatileImage;
+            }
+            if (null != optVolatileImage && VolatileImage.IMAGE_INCOMPATIBLE == status) {
+                optVolatileImage.flush();
+                optVolatileImage = null;
+                _optVolatileImage = null;
+            }
+            if (null == optVolatileImage) {
+                optVolatileImage =
+                    gConfig.createCompatibleVolatileImage(_width, _height, _transparency);
+                if (null == optVolatileImage) {
+                    return null;
+                }
+                optVolatileImage.validate(gConfig);
+            }
+            Graphics2D g = optVolatileImage.createGraphics();
+            try {
+                // Replace all pixels, including alpha, left from before the surface was lost.
+                g.setComposite(AlphaComposite.Src);
+                g.drawImage(_image, 0, 0, null);
+            }
+            finally {
+                g.dispose();
+            }
+            if (optVolatileImage.contentsLost()) {
+                optVolatileImage.flush();
+                _optVolatileImage = null;
+                return null;
+            }
+            _optVolatileImage = optVolatileImage;
+            return optVolatileImage;
+        }
+        
+        public synchronized void flush() {
+            VolatileImage optVolatileImage = _optVolatileImage;
+            if (null != optVolatileImage) {
+                optVolatileImage.flush();
+                _optVolatileImage = null;
+            }
+        }
+    }
+    
+    @Override
+    public String toString() {
+        String x = String.format(
+            "class %s [%n\tgetImage(): %s%n\tgetVolatileImageCount(): %d%n\t]",
+            PVolatileImageCache.class.getCanonicalName(),
+            _image,
+            getVolatileImageCount());
+        return x;
+    }
+}
@@ -32,20 +32,50 @@ import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.awt.image.BufferedImageOp;
 import java.awt.image.ColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
 import java.awt.image.WritableRaster;
 import java.util.Hashtable;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
 import com.googlecode.kevinarpe.papaya.annotation.NotFullyTested;
 import com.googlecode.kevinarpe.papaya.argument.ArrayArgs;
+import com.googlecode.kevinarpe.papaya.argument.IntArgs;
 import com.googlecode.kevinarpe.papaya.argument.ObjectArgs;
 import com.googlecode.kevinarpe.papaya.argument.PImageArgs;
 import com.googlecode.kevinarpe.papaya.swing.PBufferedImageType;
 
 /**
  * Abstract class for {@link BufferedImage} that implements {@link BufferedImageOp} for
- * transformation operations.  Subclasses only need to override {@link #processPixels(int[])}.
+ * transformation operations.  Subclasses only need to override
+ * {@link #processPixels(int[], ColorModel)}.
+ * <p>
+ * If an image stores one packed integer per pixel in a {@link DataBufferInt}, e.g.,
+ * {@link BufferedImage#TYPE_INT_ARGB} or {@link BufferedImage#TYPE_INT_RGB}, pixels are processed
+ * directly in the backing array.  No temporary pixel array is allocated, and in-place filters
+ * ({@code filter(image, image)}) copy nothing.  Other images are processed with a temporary copy.
+ * See {@link #filterWithPixelCopy(BufferedImage, BufferedImage)}.
+ * <p>
+ * Subclasses must be thread-safe: {@link #processPixels(int[], ColorModel)} may be called by many
+ * threads at the same time.  Thus, a single instance may be shared as a {@code static} constant.
+ * <p>
+ * Large images may be processed in parallel: Subclasses that transform each pixel independently
+ * declare themselves tile-safe by overriding {@link #isTileSafe()} and
+ * {@link #processPixels(int[], int, int, ColorModel)}.  After
+ * {@link #setParallelExecutor(Executor)}, images with at least
+ * {@link #getParallelPixelCountThreshold()} pixels are split into horizontal bands of rows, and
+ * each band is processed by a separate task.  The calling thread also processes bands, and never
+ * waits for a band that has not started, so it is safe to call {@code filter()} from a task
+ * running on the same executor.
  * 
  * @author Kevin Connor ARPE (kevinarpe@gmail.com)
  * 
@@ -55,7 +85,18 @@ import com.googlecode.kevinarpe.papaya.swing.PBufferedImageType;
 public abstract class PAbstractBufferedImageOp
 implements BufferedImageOp {
     
+    /**
+     * Default minimum number of pixels to process an image in parallel: 512 x 512 = {@value}
+     * <p>
+     * Smaller images, such as icons, are processed faster by a single thread.
+     * 
+     * @see #getParallelPixelCountThreshold()
+     */
+    public static final int DEFAULT_PARALLEL_PIXEL_COUNT_THRESHOLD = 512 * 512;
+    
     private final List<PBufferedImageType> _validImageTypeList;
+    private volatile Executor _optParallelExecutor;
+    private volatile int _parallelPixelCountThreshold;
     
     /**
      * Constructor.
@@ -67,6 +108,8 @@ implements BufferedImageOp {
         ArrayArgs.checkNotEmptyAndElementsNotNull(validImageTypeArr, "validImageTypeArr");
         
         _validImageTypeList = ImmutableList.copyOf(validImageTypeArr);
+        _optParallelExecutor = null;
+        _parallelPixelCountThreshold = DEFAULT_PARALLEL_PIXEL_COUNT_THRESHOLD;
     }
     
     /**
@@ -76,6 +119,66 @@ implements BufferedImageOp {
         return _validImageTypeList;
     }
     
+    /**
+     * @return executor to process large images in parallel, or {@code null} if serial (default)
+     * 
+     * @see #setParallelExecutor(Executor)
+     */
+    public Executor getParallelExecutor() {
+        return _optParallelExecutor;
+    }
+    
+    /**
+     * Sets the executor to process large images in parallel.  This is ignored if this operation is
+     * not tile-safe.  See {@link #isTileSafe()}.
+     * 
+     * @param optExecutor
+     *        executor for row band tasks, or {@code null} to always process serially
+     * 
+     * @see #getParallelExecutor()
+     * @see #setParallelPixelCountThreshold(int)
+     */
+    public void setParallelExecutor(Executor optExecutor) {
+        _optParallelExecutor = optExecutor;
+    }
+    
+    /**
+     * @return minimum number of pixels (width x height) to process an image in parallel
+     * 
+     * @see #DEFAULT_PARALLEL_PIXEL_COUNT_THRESHOLD
+     * @see #setParallelPixelCountThreshold(int)
+     */
+    public int getParallelPixelCountThreshold() {
+        return _parallelPixelCountThreshold;
+    }
+    
+    /**
+     * @param pixelCount
+     *        minimum number of pixels (width x height) to process an image in parallel.
+     *        Must be positive.
+     * 
+     * @throws IllegalArgumentException
+     *         if {@code pixelCount} is not positive
+     * 
+     * @see #getParallelPixelCountThreshold()
+     */
+    public void setParallelPixelCountThreshold(int pixelCount) {
+        IntArgs.checkPositive(pixelCount, "pixelCount");
+        _parallelPixelCountThreshold = pixelCount;
+    }
+    
+    /**
+     * Subclasses that transform each pixel independently of all other pixels should override this
+     * method to return {@code true}, and also override
+     * {@link #processPixels(int[], int, int, ColorModel)}.
+     * 
+     * @return if {@code true}, large images may be processed in row bands by many threads.
+     *         Default: {@code false}
+     */
+    protected boolean isTileSafe() {
+        return false;
+    }
+    
     protected void checkBufferedImageType(BufferedImage image, String argName) {
         List<PBufferedImageType> x = getValidImageTypeList();
         PImageArgs.checkBufferedImageType(image, argName, x);
@@ -107,6 +210,72 @@ implements BufferedImageOp {
             //checkBufferedImageType(optDestImage, "optDestImage");
         }
         
+        final int[] optSrcPixelArr = tryGetPackedPixelArray(srcImage);
+        final int[] optDestPixelArr =
+            (srcImage == optDestImage ? optSrcPixelArr : tryGetPackedPixelArray(optDestImage));
+        if (null == optSrcPixelArr || null == optDestPixelArr) {
+            filterWithPixelCopy(srcImage, optDestImage);
+            return optDestImage;
+        }
+        if (optSrcPixelArr != optDestPixelArr) {
+            System.arraycopy(optSrcPixelArr, 0, optDestPixelArr, 0, optSrcPixelArr.length);
+        }
+        ColorModel srcColorModel = srcImage.getColorModel();
+        _processPixels(optDestPixelArr, srcImage.getWidth(), srcImage.getHeight(), srcColorModel);
+        return optDestImage;
+    }
+    
+    /**
+     * Retrieves the backing pixel array of an image if, and only if, each pixel is stored as a
+     * single packed integer, and rows are stored without gaps.  Images from
+     * {@link BufferedImage#getSubimage(int, int, int, int)} do not qualify.
+     * <p>
+     * Side effect: Java2D will no longer cache (accelerate) this image in video memory, as it
+     * cannot track direct changes to the pixel array.
+     * 
+     * @param image
+     *        must not be {@code null}
+     * 
+     * @return backing pixel array, or {@code null} if not packed
+     */
+    protected static int[] tryGetPackedPixelArray(BufferedImage image) {
+        final WritableRaster raster = image.getRaster();
+        if (null != raster.getParent()
+                || 0 != raster.getSampleModelTranslateX()
+                || 0 != raster.getSampleModelTranslateY()) {
+            return null;
+        }
+        final DataBuffer dataBuffer = raster.getDataBuffer();
+        if (!(dataBuffer instanceof DataBufferInt)
+                || 1 != dataBuffer.getNumBanks()
+                || 0 != dataBuffer.getOffset()) {
+            return null;
+        }
+        final SampleModel sampleModel = raster.getSampleModel();
+        final int width = image.getWidth();
+        final int height = image.getHeight();
+        if (!(sampleModel instanceof SinglePixelPackedSampleModel)
+                || width != ((SinglePixelPackedSampleModel) sampleModel).getScanlineStride()
+                || width * height != dataBuffer.getSize()) {
+            return null;
+        }
+        int[] x = ((DataBufferInt) dataBuffer).getData();
+        return x;
+    }
+    
+    /**
+     * Processes pixels via a temporary array: Copy pixels from source image, call
+     * {@link #processPixels(int[], ColorModel)}, then copy pixels to destination image.  This works
+     * for all image types, but is slower than the packed fast path in
+     * {@link #filter(BufferedImage, BufferedImage)}.
+     * 
+     * @param srcImage
+     *        source image.  Must not be {@code null}
+     * @param destImage
+     *        destination image with same dimensions and type as source image.  May be same as
+     *        {@code srcImage}.  Must not be {@code null}
+     */
+    protected void filterWithPixelCopy(BufferedImage srcImage, BufferedImage destImage) {
         final int width = srcImage.getWidth();
         final int height = srcImage.getHeight();
         final int[] pixelArr = new int[width * height];
@@ -116,17 +285,18 @@ implements BufferedImageOp {
         srcImageRaster.getDataElements(x, y, width, height, pixelArr);
         
         ColorModel srcColorModel = srcImage.getColorModel();
-        processPixels(pixelArr, srcColorModel);
+        _processPixels(pixelArr, width, height, srcColorModel);
         
-        WritableRaster destImageRaster = optDestImage.getRaster();
+        WritableRaster destImageRaster = destImage.getRaster();
         destImageRaster.setDataElements(x, y, width, height, pixelArr);
-        
-        return optDestImage;
     }
     
     /**
      * Transforms array of RGBA pixels packed as integers, where each channel has a range from 0 to
      * 255 (0xff).  Use the mask enum, {@link PArgbPixelMask}, to separate channels.
+     * <p>
+     * Implementations must be thread-safe and should not allocate: This method may be called by
+     * many threads at the same time, and {@code pixelArr} may be the backing array of an image.
      * 
      * @param pixelArr
      *        writable row-wise pixel data for processing
@@ -134,6 +304,132 @@ implements BufferedImageOp {
      *        color model for pixels
      */
     protected abstract void processPixels(int[] pixelArr, ColorModel colorModel);
+    
+    /**
+     * Transforms a range of pixels, e.g., a band of rows.  Tile-safe subclasses must override this
+     * method, and should implement {@link #processPixels(int[], ColorModel)} by calling this method
+     * for the whole array.
+     * <p>
+     * Default implementation calls {@link #processPixels(int[], ColorModel)} for the whole array,
+     * and throws {@link UnsupportedOperationException} for smaller ranges.
+     * 
+     * @param pixelArr
+     *        writable row-wise pixel data for processing
+     * @param beginIndex
+     *        first index (inclusive) to process in {@code pixelArr}
+     * @param endIndex
+     *        last index (exclusive) to process in {@code pixelArr}
+     * @param colorModel
+     *        color model for pixels
+     * 
+     * @see #isTileSafe()
+     */
+    protected void processPixels(
+            int[] pixelArr, int beginIndex, int endIndex, ColorModel colorModel) {
+        if (0 != beginIndex || pixelArr.length != endIndex) {
+            String msg = String.format(
+                "Class %s is not tile-safe: Cannot process pixel range [%d, %d) of %d pixels",
+                getClass().getName(), beginIndex, endIndex, pixelArr.length);
+            throw new UnsupportedOperationException(msg);
+        }
+        processPixels(pixelArr, colorModel);
+    }
+    
+    private void _processPixels(int[] pixelArr, int width, int height, ColorModel colorModel) {
+        final Executor optExecutor = _optParallelExecutor;
+        final int bandCount = Math.min(height, Runtime.getRuntime().availableProcessors());
+        if (null == optExecutor
+                || bandCount < 2
+                || pixelArr.length < _parallelPixelCountThreshold
+                || !isTileSafe()) {
+            processPixels(pixelArr, colorModel);
+            return;
+        }
+        _RowBands rowBands = new _RowBands(pixelArr, width, height, bandCount, colorModel);
+        // Calling thread processes at least one band, so submit one less task.
+        for (int i = 1; i < bandCount; ++i) {
+            try {
+                optExecutor.execute(rowBands);
+            }
+            catch (RejectedExecutionException e) {
+                // Ignore: Calling thread will process remaining bands.
+                break;
+            }
+        }
+        rowBands.run();
+        rowBands.awaitDone();
+    }
+    
+    /**
+     * Horizontal bands of rows shared by many tasks.  Each task claims and processes bands until
+     * none remain.  Thus, tasks that start late, or never, do not block completion.
+     */
+    private final class _RowBands
+    implements Runnable {
+        
+        private final int[] _pixelArr;
+        private final int _width;
+        private final int _height;
+        private final int _bandCount;
+        private final ColorModel _colorModel;
+        private final AtomicInteger _nextBandIndex;
+        private final CountDownLatch _doneLatch;
+        private final AtomicReference<Throwable> _optFirstThrowable;
+        
+        private _RowBands(
+                int[] pixelArr, int width, int height, int bandCount, ColorModel colorModel) {
+            _pixelArr = pixelArr;
+            _width = width;
+            _height = height;
+            _bandCount = bandCount;
+            _colorModel = colorModel;
+            _nextBandIndex = new AtomicInteger(0);
+            _doneLatch = new CountDownLatch(bandCount);
+            _optFirstThrowable = new AtomicReference<Throwable>(null);
+        }
+        
+        @Override
+        public void run() {
+            for (int bandIndex = _nextBandIndex.getAndIncrement();
+                    bandIndex < _bandCount;
+                    bandIndex = _nextBandIndex.getAndIncrement()) {
+                // Use long to prevent overflow for very large images.
+                final int beginRow = (int) (((long) bandIndex * _height) / _bandCount);
+                final int endRow = (int) (((long) (1 + bandIndex) * _height) / _bandCount);
+                try {
+                    if (null == _optFirstThrowable.get()) {
+                        processPixels(_pixelArr, beginRow * _width, endRow * _width, _colorModel);
+                    }
+                }
+                catch (Throwable e) {
+                    _optFirstThrowable.compareAndSet(null, e);
+                }
+                finally {
+                    _doneLatch.countDown();
+                }
+            }
+        }
+        
+        public void awaitDone() {
+            boolean isInterrupted = false;
+            while (true) {
+                try {
+                    _doneLatch.await();
+                    break;
+                }
+                catch (InterruptedException e) {
+                    isInterrupted = true;
+                }
+            }
+            if (isInterrupted) {
+                Thread.currentThread().interrupt();
+            }
+            Throwable optThrowable = _optFirstThrowable.get();
+            if (null != optThrowable) {
+                throw Throwables.propagate(optThrowable);
+            }
+        }
+    }
 
     @Override
     public Rectangle2D getBounds2D(BufferedImage srcImage) {
@@ -0,0 +1,95 @@
+package com.googlecode.kevinarpe.papaya.swing.image;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.awt.image.ColorModel;
+
+import com.googlecode.kevinarpe.papaya.annotation.NotFullyTested;
+
+/**
+ * Subclass of {@link PAbstractArgbBufferedImageOp} to scale the alpha channel, e.g., to fade an
+ * icon: {@code output = input * scaleFactor}, clamped to 0-255.  Color channels are never changed.
+ * For strictly RGB images, which have no alpha channel, this operation has no effect.
+ * <p>
+ * Instances are immutable and thread-safe.
+ * 
+ * @author Kevin Connor ARPE (kevinarpe@gmail.com)
+ * 
+ * @see PArgbBufferedImagePipelineOp
+ */
+@NotFullyTested
+public class PArgbBufferedImageAlphaScaleOp
+extends PAbstractArgbBufferedImageOp {
+    
+    private final float _scaleFactor;
+    private final PArgbChannelLookupTable _table;
+    
+    /**
+     * @param scaleFactor
+     *        for example, to make an icon half-transparent, use 0.5f.
+     *        Must be finite and not negative.
+     * 
+     * @throws IllegalArgumentException
+     *         if {@code scaleFactor} is negative, infinite, or NaN
+     */
+    public PArgbBufferedImageAlphaScaleOp(float scaleFactor) {
+        super();
+        // Alpha scaling uses the same table as brightness scaling.
+        _table = PArgbChannelLookupTable.brightness(scaleFactor);
+        _scaleFactor = scaleFactor;
+    }
+    
+    public float getScaleFactor() {
+        return _scaleFactor;
+    }
+    
+    /**
+     * @return always {@code true}, as each pixel is transformed independently
+     */
+    @Override
+    protected boolean isTileSafe() {
+        return true;
+    }
+    
+    @Override
+    protected void processPixels(int[] pixelArr, ColorModel colorModel) {
+        processPixels(pixelArr, 0, pixelArr.length, colorModel);
+    }
+    
+    @Override
+    protected void processPixels(
+            int[] pixelArr, int beginIndex, int endIndex, ColorModel colorModel) {
+        final int[] alphaArr = _table.getValueArrayRef();
+        final int colorMask = ~PArgbPixelMask.ALPHA.mask;
+        for (int i = beginIndex; i < endIndex; ++i) {
+            final int pixel = pixelArr[i];
+            // Unsigned shift: Alpha is the highest byte.
+            final int alpha255 = pixel >>> PArgbPixelMask.ALPHA.bitShift;
+            pixelArr[i] =
+                (alphaArr[alpha255] << PArgbPixelMask.ALPHA.bitShift) | (colorMask & pixel);
+        }
+    }
+}
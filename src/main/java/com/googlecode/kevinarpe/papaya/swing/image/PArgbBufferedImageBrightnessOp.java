@@ -0,0 +1,59 @@
+package com.googlecode.kevinarpe.papaya.swing.image;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.googlecode.kevinarpe.papaya.annotation.NotFullyTested;
+
+/**
+ * Scales brightness of each color channel: {@code output = input * scaleFactor}.
+ * 
+ * @author Kevin Connor ARPE (kevinarpe@gmail.com)
+ * 
+ * @see PArgbChannelLookupTable#brightness(float)
+ */
+@NotFullyTested
+public class PArgbBufferedImageBrightnessOp
+extends PArgbBufferedImageLookupTableOp {
+    
+    private final float _scaleFactor;
+    
+    /**
+     * @param scaleFactor
+     *        for example, to <i>reduce</i> brightness by 15%, use 0.85f.
+     *        Must be finite and not negative.
+     * 
+     * @throws IllegalArgumentException
+     *         if {@code scaleFactor} is negative, infinite, or NaN
+     */
+    public PArgbBufferedImageBrightnessOp(float scaleFactor) {
+        super(PArgbChannelLookupTable.brightness(scaleFactor));
+        _scaleFactor = scaleFactor;
+    }
+    
+    public float getScaleFactor() {
+        return _scaleFactor;
+    }
+}
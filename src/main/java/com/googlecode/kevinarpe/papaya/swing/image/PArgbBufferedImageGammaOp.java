@@ -0,0 +1,59 @@
+package com.googlecode.kevinarpe.papaya.swing.image;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.googlecode.kevinarpe.papaya.annotation.NotFullyTested;
+
+/**
+ * Gamma correction for each color channel: {@code output = 255 * (input / 255) ^ (1 / gamma)}.
+ * 
+ * @author Kevin Connor ARPE (kevinarpe@gmail.com)
+ * 
+ * @see PArgbChannelLookupTable#gamma(float)
+ */
+@NotFullyTested
+public class PArgbBufferedImageGammaOp
+extends PArgbBufferedImageLookupTableOp {
+    
+    private final float _gamma;
+    
+    /**
+     * @param gamma
+     *        values above 1.0f brighten mid-tones; below darken mid-tones.
+     *        Must be finite and positive.
+     * 
+     * @throws IllegalArgumentException
+     *         if {@code gamma} is not positive, infinite, or NaN
+     */
+    public PArgbBufferedImageGammaOp(float gamma) {
+        super(PArgbChannelLookupTable.gamma(gamma));
+        _gamma = gamma;
+    }
+    
+    public float getGamma() {
+        return _gamma;
+    }
+}
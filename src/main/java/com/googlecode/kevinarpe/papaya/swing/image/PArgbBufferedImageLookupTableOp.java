@@ -0,0 +1,139 @@
+package com.googlecode.kevinarpe.papaya.swing.image;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.awt.image.ColorModel;
+
+import com.googlecode.kevinarpe.papaya.annotation.NotFullyTested;
+import com.googlecode.kevinarpe.papaya.argument.ObjectArgs;
+
+/**
+ * Subclass of {@link PAbstractArgbBufferedImageOp} to transform each color channel (red, green,
+ * and blue) through a {@link PArgbChannelLookupTable}.  The alpha channel is never changed.
+ * Pixels are transformed in place with integer math only.
+ * <p>
+ * Instances are immutable and thread-safe.  Large images may be processed in parallel.  See
+ * {@link #setParallelExecutor(java.util.concurrent.Executor)}.
+ * 
+ * @author Kevin Connor ARPE (kevinarpe@gmail.com)
+ * 
+ * @see PArgbBufferedImageBrightnessOp
+ * @see PArgbBufferedImageContrastOp
+ * @see PArgbBufferedImageGammaOp
+ * @see PArgbBufferedImageInvertOp
+ * @see PArgbBufferedImageThresholdOp
+ */
+@NotFullyTested
+public class PArgbBufferedImageLookupTableOp
+extends PAbstractArgbBufferedImageOp {
+    
+    private final PArgbChannelLookupTable _redTable;
+    private final PArgbChannelLookupTable _greenTable;
+    private final PArgbChannelLookupTable _blueTable;
+    
+    /**
+     * Applies the same table to each color channel.
+     * 
+     * @param table
+     *        lookup table for red, green, and blue channels.  Must not be {@code null}
+     * 
+     * @throws NullPointerException
+     *         if {@code table} is {@code null}
+     */
+    public PArgbBufferedImageLookupTableOp(PArgbChannelLookupTable table) {
+        this(table, table, table);
+    }
+    
+    /**
+     * @param redTable
+     *        lookup table for red channel.  Must not be {@code null}
+     * @param greenTable
+     *        lookup table for green channel.  Must not be {@code null}
+     * @param blueTable
+     *        lookup table for blue channel.  Must not be {@code null}
+     * 
+     * @throws NullPointerException
+     *         if {@code redTable}, {@code greenTable}, or {@code blueTable} is {@code null}
+     */
+    public PArgbBufferedImageLookupTableOp(
+            PArgbChannelLookupTable redTable,
+            PArgbChannelLookupTable greenTable,
+            PArgbChannelLookupTable blueTable) {
+        super();
+        _redTable = ObjectArgs.checkNotNull(redTable, "redTable");
+        _greenTable = ObjectArgs.checkNotNull(greenTable, "greenTable");
+        _blueTable = ObjectArgs.checkNotNull(blueTable, "blueTable");
+    }
+    
+    public PArgbChannelLookupTable getRedTable() {
+        return _redTable;
+    }
+    
+    public PArgbChannelLookupTable getGreenTable() {
+        return _greenTable;
+    }
+    
+    public PArgbChannelLookupTable getBlueTable() {
+        return _blueTable;
+    }
+    
+    /**
+     * @return always {@code true}, as each pixel is transformed independently
+     */
+    @Override
+    protected boolean isTileSafe() {
+        return true;
+    }
+    
+    @Override
+    protected void processPixels(int[] pixelArr, ColorModel colorModel) {
+        processPixels(pixelArr, 0, pixelArr.length, colorModel);
+    }
+    
+    @Override
+    protected void processPixels(
+            int[] pixelArr, int beginIndex, int endIndex, ColorModel colorModel) {
+        final int[] redArr = _redTable.getValueArrayRef();
+        final int[] greenArr = _greenTable.getValueArrayRef();
+        final int[] blueArr = _blueTable.getValueArrayRef();
+        for (int i = beginIndex; i < endIndex; ++i) {
+            final int pixel = pixelArr[i];
+            
+            final int red255 =
+                (PArgbPixelMask.RED.mask & pixel) >> PArgbPixelMask.RED.bitShift;
+            final int green255 =
+                (PArgbPixelMask.GREEN.mask & pixel) >> PArgbPixelMask.GREEN.bitShift;
+            final int blue255 =
+                (PArgbPixelMask.BLUE.mask & pixel) >> PArgbPixelMask.BLUE.bitShift;
+            
+            pixelArr[i] =
+                (PArgbPixelMask.ALPHA.mask & pixel)
+                | (redArr[red255] << PArgbPixelMask.RED.bitShift)
+                | (greenArr[green255] << PArgbPixelMask.GREEN.bitShift)
+                | (blueArr[blue255] << PArgbPixelMask.BLUE.bitShift);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.googlecode.kevinarpe.papaya.swing.image;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.awt.Graphics;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.ImageObserver;
+import java.awt.image.WritableRaster;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+import com.googlecode.kevinarpe.papaya.annotation.NotFullyTested;
+import com.googlecode.kevinarpe.papaya.argument.ArrayArgs;
+import com.googlecode.kevinarpe.papaya.argument.ObjectArgs;
+import com.googlecode.kevinarpe.papaya.argument.PImageArgs;
+import com.googlecode.kevinarpe.papaya.swing.PImageUtils;
+import com.googlecode.kevinarpe.papaya.swing.PTransparency;
+
+/**
+ * Subclass of {@link PAbstractArgbBufferedImageOp} that chains many per-pixel operations into a
+ * single pass over the pixels.  Pixels are processed in small chunks that fit in the CPU cache:
+ * Each operation transforms a chunk before the next chunk is read.  Thus, each pixel is read from
+ * and written to main memory only once, regardless of the number of operations.
+ * <p>
+ * Adjacent lookup table operations, e.g., {@link PArgbBufferedImageBrightnessOp} then
+ * {@link PArgbBufferedImageGammaOp}, are composed into a single lookup table.
+ * <p>
+ * To also fuse conversion from any image format, use {@link #createFilteredImage(Image)}.
+ * <p>
+ * Example: Grayscale icon with 120% brightness: <pre>{@code
+ * PArgbBufferedImagePipelineOp op = new PArgbBufferedImagePipelineOp(
+ *     new PArgbBufferedImageBrightnessOp(1.20f),
+ *     new PArgbBufferedImageToGrayscaleOp());
+ * BufferedImage image2 = op.createFilteredImage(image);
+ * }</pre>
+ * <p>
+ * Instances are immutable and thread-safe if all operations are thread-safe.
+ * 
+ * @author Kevin Connor ARPE (kevinarpe@gmail.com)
+ */
+@NotFullyTested
+public class PArgbBufferedImagePipelineOp
+extends PAbstractArgbBufferedImageOp {
+    
+    /**
+     * Number of pixels processed by each operation before the next chunk: 4096 pixels (16 KiB)
+     */
+    static final int CHUNK_PIXEL_COUNT = 4096;
+    
+    private final List<PAbstractArgbBufferedImageOp> _opList;
+    private final PAbstractArgbBufferedImageOp[] _fusedOpArr;
+    
+    /**
+     * @param opArr
+     *        operations to apply in order.  Each must be tile-safe; see
+     *        {@link PAbstractBufferedImageOp#isTileSafe()}.  Must not be empty or contain
+     *        {@code null} values
+     * 
+     * @throws NullPointerException
+     *         if {@code opArr} (or any element) is {@code null}
+     * @throws IllegalArgumentException
+     *         if {@code opArr} is empty, or any operation is not tile-safe
+     */
+    public PArgbBufferedImagePipelineOp(PAbstractArgbBufferedImageOp... opArr) {
+        this(Arrays.asList(ArrayArgs.checkNotEmptyAndElementsNotNull(opArr, "opArr")));
+    }
+    
+    private PArgbBufferedImagePipelineOp(List<PAbstractArgbBufferedImageOp> opList) {
+        super();
+        for (PAbstractArgbBufferedImageOp op: opList) {
+            if (!op.isTileSafe()) {
+                String msg = String.format(
+                    "Operation is not tile-safe, so it cannot be fused: %s",
+                    op.getClass().getName());
+                throw new IllegalArgumentException(msg);
+            }
+        }
+        _opList = ImmutableList.copyOf(opList);
+        _fusedOpArr = _fuse(_opList);
+    }
+    
+    private static PAbstractArgbBufferedImageOp[] _fuse(List<PAbstractArgbBufferedImageOp> opList) {
+        final ArrayList<PAbstractArgbBufferedImageOp> list =
+            new ArrayList<PAbstractArgbBufferedImageOp>(opList.size());
+        for (PAbstractArgbBufferedImageOp op: opList) {
+            final int lastIndex = list.size() - 1;
+            if (lastIndex >= 0
+                    && op instanceof PArgbBufferedImageLookupTableOp
+                    && list.get(lastIndex) instanceof PArgbBufferedImageLookupTableOp) {
+                final PArgbBufferedImageLookupTableOp prev =
+                    (PArgbBufferedImageLookupTableOp) list.get(lastIndex);
+                final PArgbBufferedImageLookupTableOp next = (PArgbBufferedImageLookupTableOp) op;
+                final PArgbBufferedImageLookupTableOp fused =
+                    new PArgbBufferedImageLookupTableOp(
+                        prev.getRedTable().andThen(next.getRedTable()),
+                        prev.getGreenTable().andThen(next.getGreenTable()),
+                        prev.getBlueTable().andThen(next.getBlueTable()));
+                list.set(lastIndex, fused);
+            }
+            else {
+                list.add(op);
+            }
+        }
+        PAbstractArgbBufferedImageOp[] x =
+            list.toArray(new PAbstractArgbBufferedImageOp[list.size()]);
+        return x;
+    }
+    
+    /**
+     * @return operations as passed to the constructor, before lookup tables are composed
+     */
+    public List<PAbstractArgbBufferedImageOp> getOpList() {
+        return _opList;
+    }
+    
+    /**
+     * Creates a new pipeline with one more operation at the end.  This pipeline is unchanged.
+     * 
+     * @param op
+     *        operation to apply last.  Must be tile-safe.  Must not be {@code null}
+     * 
+     * @return new pipeline
+     * 
+     * @throws NullPointerException
+     *         if {@code op} is {@code null}
+     * @throws IllegalArgumentException
+     *         if {@code op} is not tile-safe
+     */
+    public PArgbBufferedImagePipelineOp then(PAbstractArgbBufferedImageOp op) {
+        ObjectArgs.checkNotNull(op, "op");
+        
+        List<PAbstractArgbBufferedImageOp> list =
+            ImmutableList.<PAbstractArgbBufferedImageOp>builder().addAll(_opList).add(op).build();
+        PArgbBufferedImagePipelineOp x = new PArgbBufferedImagePipelineOp(list);
+        return x;
+    }
+    
+    /**
+     * Converts any image to a new compatible image and applies all operations in the same pass.
+     * The source image is never changed, and its pixel array is never accessed directly: Java2D
+     * may continue to accelerate (cache in video memory) both the source and the new image.
+     * <p>
+     * If the source is a {@link BufferedImage}, rows are copied chunk by chunk to a small scratch
+     * array, and each chunk is processed while still in the CPU cache.  Other images, e.g., from
+     * {@link java.awt.Toolkit#createImage(java.net.URL)}, must be fully loaded, and are drawn
+     * first.
+     * 
+     * @param srcImage
+     *        source image of any format.  Must not be {@code null}
+     * 
+     * @return new compatible image with translucency; see
+     *         {@link PImageUtils#createCompatibleImage(int, int, PTransparency)}
+     * 
+     * @throws NullPointerException
+     *         if {@code srcImage} is {@code null}
+     * @throws IllegalArgumentException
+     *         if {@code srcImage} width or height is not positive
+     */
+    public BufferedImage createFilteredImage(Image srcImage) {
+        PImageArgs.checkImageDimensionsValid(srcImage, "srcImage");
+        
+        final int width = srcImage.getWidth((ImageObserver) null);
+        final int height = srcImage.getHeight((ImageObserver) null);
+        final BufferedImage destImage =
+            PImageUtils.createCompatibleImage(width, height, PTransparency.TRANSLUCENT);
+        
+        final BufferedImage srcImage2;
+        if (srcImage instanceof BufferedImage) {
+            srcImage2 = (BufferedImage) srcImage;
+        }
+        else {
+            final Graphics g = destImage.getGraphics();
+            try {
+                g.drawImage(srcImage, 0, 0, (ImageObserver) null);
+            }
+            finally {
+                g.dispose();
+            }
+            // Process in place.
+            srcImage2 = destImage;
+        }
+        // Scratch pixels are always non-premultiplied ARGB.
+        final ColorModel colorModel = ColorModel.getRGBdefault();
+        final int rowsPerChunk = Math.max(1, CHUNK_PIXEL_COUNT / width);
+        final int[] chunkPixelArr = new int[Math.min(rowsPerChunk, height) * width];
+        for (int beginRow = 0; beginRow < height; beginRow += rowsPerChunk) {
+            final int rowCount = Math.min(rowsPerChunk, height - beginRow);
+            final int pixelCount = rowCount * width;
+            _readChunk(srcImage2, beginRow, rowCount, chunkPixelArr);
+            _processChunk(chunkPixelArr, 0, pixelCount, colorModel);
+            _writeChunk(destImage, beginRow, rowCount, chunkPixelArr);
+        }
+        return destImage;
+    }
+    
+    private static void _readChunk(
+            BufferedImage srcImage, int beginRow, int rowCount, int[] chunkPixelArr) {
+        final int width = srcImage.getWidth();
+        if (BufferedImage.TYPE_INT_ARGB == srcImage.getType()) {
+            // Same format: Copy without per-pixel color conversion.
+            srcImage.getRaster().getDataElements(0, beginRow, width, rowCount, chunkPixelArr);
+        }
+        else {
+            // Converts any format to non-premultiplied ARGB.
+            srcImage.getRGB(0, beginRow, width, rowCount, chunkPixelArr, 0, width);
+        }
+    }
+    
+    private static void _writeChunk(
+            BufferedImage destImage, int beginRow, int rowCount, int[] chunkPixelArr) {
+        final int width = destImage.getWidth();
+        if (BufferedImage.TYPE_INT_ARGB == destImage.getType()) {
+            final WritableRaster raster = destImage.getRaster();
+            raster.setDataElements(0, beginRow, width, rowCount, chunkPixelArr);
+        }
+        else {
+            // Converts non-premultiplied ARGB to any format, e.g., premultiplied.
+            destImage.setRGB(0, beginRow, width, rowCount, chunkPixelArr, 0, width);
+        }
+    }
+    
+    /**
+     * @return always {@code true}, as all operations are tile-safe
+     */
+    @Override
+    protected boolean isTileSafe() {
+        return true;
+    }
+    
+    @Override
+    protected void processPixels(int[] pixelArr, ColorModel colorModel) {
+        processPixels(pixelArr, 0, pixelArr.length, colorModel);
+    }
+    
+    @Override
+    protected void processPixels(
+            int[] pixelArr, int beginIndex, int endIndex, ColorModel colorModel) {
+        for (int i = beginIndex; i < endIndex; i += CHUNK_PIXEL_COUNT) {
+            final int chunkEndIndex = Math.min(endIndex, i + CHUNK_PIXEL_COUNT);
+            _processChunk(pixelArr, i, chunkEndIndex, colorModel);
+        }
+    }
+    
+    private void _processChunk(
+            int[] pixelArr, int beginIndex, int endIndex, ColorModel colorModel) {
+        for (PAbstractArgbBufferedImageOp op: _fusedOpArr) {
+            op.processPixels(pixelArr, beginIndex, endIndex, colorModel);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.googlecode.kevinarpe.papaya.swing.image;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import com.googlecode.kevinarpe.papaya.annotation.NotFullyTested;
+
+/**
+ * Threshold for each color channel: {@code output = (input < threshold ? 0 : 255)}.
+ * 
+ * @author Kevin Connor ARPE (kevinarpe@gmail.com)
+ * 
+ * @see PArgbChannelLookupTable#threshold(int)
+ */
+@NotFullyTested
+public class PArgbBufferedImageThresholdOp
+extends PArgbBufferedImageLookupTableOp {
+    
+    private final int _threshold;
+    
+    /**
+     * @param threshold
+     *        from 0 (all values become 255) to 256 (all values become 0)
+     * 
+     * @throws IllegalArgumentException
+     *         if {@code threshold} is not from 0 to 256
+     */
+    public PArgbBufferedImageThresholdOp(int threshold) {
+        super(PArgbChannelLookupTable.threshold(threshold));
+        _threshold = threshold;
+    }
+    
+    public int getThreshold() {
+        return _threshold;
+    }
+}
@@ -0,0 +1,126 @@
+package com.googlecode.kevinarpe.papaya.swing.image;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.awt.Color;
+import java.awt.image.ColorModel;
+
+import com.googlecode.kevinarpe.papaya.annotation.NotFullyTested;
+import com.googlecode.kevinarpe.papaya.argument.DoubleArgs;
+import com.googlecode.kevinarpe.papaya.argument.ObjectArgs;
+
+/**
+ * Subclass of {@link PAbstractArgbBufferedImageOp} to blend each pixel towards a tint color:
+ * {@code output = input + (tint - input) * strength}.  The alpha channel is never changed.
+ * <p>
+ * Instances are immutable and thread-safe.
+ * 
+ * @author Kevin Connor ARPE (kevinarpe@gmail.com)
+ * 
+ * @see PArgbBufferedImagePipelineOp
+ */
+@NotFullyTested
+public class PArgbBufferedImageTintOp
+extends PAbstractArgbBufferedImageOp {
+    
+    private final Color _tintColor;
+    private final float _strength;
+    // Fixed-point (8-bit) strength: 0 to 256
+    private final int _strength256;
+    private final int _tintRed255;
+    private final int _tintGreen255;
+    private final int _tintBlue255;
+    
+    /**
+     * @param tintColor
+     *        color to blend towards.  Its alpha channel is ignored.  Must not be {@code null}
+     * @param strength
+     *        from 0.0f (unchanged) to 1.0f (tint color only)
+     * 
+     * @throws NullPointerException
+     *         if {@code tintColor} is {@code null}
+     * @throws IllegalArgumentException
+     *         if {@code strength} is not from 0.0f to 1.0f
+     */
+    public PArgbBufferedImageTintOp(Color tintColor, float strength) {
+        super();
+        _tintColor = ObjectArgs.checkNotNull(tintColor, "tintColor");
+        DoubleArgs.checkValueRange(strength, 0.0d, 1.0d, "strength");
+        _strength = strength;
+        _strength256 = Math.round(256.0f * strength);
+        _tintRed255 = tintColor.getRed();
+        _tintGreen255 = tintColor.getGreen();
+        _tintBlue255 = tintColor.getBlue();
+    }
+    
+    public Color getTintColor() {
+        return _tintColor;
+    }
+    
+    public float getStrength() {
+        return _strength;
+    }
+    
+    /**
+     * @return always {@code true}, as each pixel is transformed independently
+     */
+    @Override
+    protected boolean isTileSafe() {
+        return true;
+    }
+    
+    @Override
+    protected void processPixels(int[] pixelArr, ColorModel colorModel) {
+        processPixels(pixelArr, 0, pixelArr.length, colorModel);
+    }
+    
+    @Override
+    protected void processPixels(
+            int[] pixelArr, int beginIndex, int endIndex, ColorModel colorModel) {
+        final int s = _strength256;
+        for (int i = beginIndex; i < endIndex; ++i) {
+            final int pixel = pixelArr[i];
+            
+            final int red255 =
+                (PArgbPixelMask.RED.mask & pixel) >> PArgbPixelMask.RED.bitShift;
+            final int green255 =
+                (PArgbPixelMask.GREEN.mask & pixel) >> PArgbPixelMask.GREEN.bitShift;
+            final int blue255 =
+                (PArgbPixelMask.BLUE.mask & pixel) >> PArgbPixelMask.BLUE.bitShift;
+            
+            // Add 128 to round.  Arithmetic shift is correct for negative differences.
+            final int red255b = red255 + ((((_tintRed255 - red255) * s) + 128) >> 8);
+            final int green255b = green255 + ((((_tintGreen255 - green255) * s) + 128) >> 8);
+            final int blue255b = blue255 + ((((_tintBlue255 - blue255) * s) + 128) >> 8);
+            
+            pixelArr[i] =
+                (PArgbPixelMask.ALPHA.mask & pixel)
+                | (red255b << PArgbPixelMask.RED.bitShift)
+                | (green255b << PArgbPixelMask.GREEN.bitShift)
+                | (blue255b << PArgbPixelMask.BLUE.bitShift);
+        }
+    }
+}
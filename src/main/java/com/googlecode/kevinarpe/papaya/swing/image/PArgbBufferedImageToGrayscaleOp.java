@@ -41,6 +41,8 @@ import com.googlecode.kevinarpe.papaya.annotation.NotFullyTested;
  *   http://en.wikipedia.org/wiki/YUV#BT.709_and_BT.601</a></li>
  * </ul>
  * 
+ * Instances are thread-safe, so a single instance may be shared by many threads.
+ * 
  * @author Kevin Connor ARPE (kevinarpe@gmail.com)
  * 
  * @see PAbstractArgbBufferedImageOp
@@ -74,26 +76,65 @@ extends PAbstractArgbBufferedImageOp {
      */
     public static final float BT_709_LUMA_COEFFICIENT_BLUE = 0.0722f;
     
+    // Fixed-point (16-bit) luma coefficients for linear light.  Sum is exactly 1 << 16.
+    private static final int _LINEAR_LUMA_COEFFICIENT_RED_16 = 13933;
+    private static final int _LINEAR_LUMA_COEFFICIENT_GREEN_16 = 46871;
+    private static final int _LINEAR_LUMA_COEFFICIENT_BLUE_16 = 4732;
+    
     public PArgbBufferedImageToGrayscaleOp() {
         super();
     }
     
-    private boolean _useLinearGammaDecompressedColors = false;
+    private volatile boolean _useLinearGammaDecompressedColors = false;
     
+    /**
+     * @return if {@code true}, luma is calculated from linear (gamma-decompressed) colors.
+     *         Default: {@code false}
+     * 
+     * @see #useLinearGammaDecompressedColors(boolean)
+     */
     public boolean useLinearGammaDecompressedColors() {
         return _useLinearGammaDecompressedColors;
     }
     
+    /**
+     * Enables or disables perceptually correct grayscale: Colors are converted from sRGB to linear
+     * light before luma is calculated, then luma is converted back to sRGB.  Both conversions use
+     * precomputed lookup tables from {@link PSrgbLookupTables}, so the cost is similar to the
+     * default (gamma-compressed) path.
+     * 
+     * @param x
+     *        if {@code true}, calculate luma from linear colors
+     * 
+     * @see #useLinearGammaDecompressedColors()
+     */
     public void useLinearGammaDecompressedColors(boolean x) {
         _useLinearGammaDecompressedColors = x;
     }
 
+    /**
+     * @return always {@code true}, as each pixel is transformed independently
+     */
+    @Override
+    protected boolean isTileSafe() {
+        return true;
+    }
+
     @Override
     protected void processPixels(int[] pixelArr, ColorModel colorModel) {
+        processPixels(pixelArr, 0, pixelArr.length, colorModel);
+    }
+
+    @Override
+    protected void processPixels(
+            int[] pixelArr, int beginIndex, int endIndex, ColorModel colorModel) {
+        if (_useLinearGammaDecompressedColors) {
+            processPixelsWithLinearGamma(pixelArr, beginIndex, endIndex);
+            return;
+        }
         //ColorSpace colorSpace = colorModel.getColorSpace();
         //colorSpace.toCIEXYZ(colorvalue)
-        final int size = pixelArr.length;
-        for (int i = 0; i < size; ++i) {
+        for (int i = beginIndex; i < endIndex; ++i) {
             final int pixel = pixelArr[i];
             
             final int alpha255 =
@@ -126,6 +167,49 @@ extends PAbstractArgbBufferedImageOp {
         }
     }
     
+    /**
+     * Converts pixels to grayscale using luma from linear (gamma-decompressed) colors.  This is
+     * the lookup table version of {@link #processPixels3(int[], ColorModel)}: No floating point
+     * math and no allocation.
+     * 
+     * @param pixelArr
+     *        writable row-wise pixel data for processing
+     * @param beginIndex
+     *        first index (inclusive) to process in {@code pixelArr}
+     * @param endIndex
+     *        last index (exclusive) to process in {@code pixelArr}
+     * 
+     * @see PSrgbLookupTables
+     */
+    protected void processPixelsWithLinearGamma(int[] pixelArr, int beginIndex, int endIndex) {
+        final int[] srgbToLinearArr = PSrgbLookupTables.SRGB_TO_LINEAR_ARR;
+        final int[] linearToSrgbArr = PSrgbLookupTables.LINEAR_TO_SRGB_ARR;
+        for (int i = beginIndex; i < endIndex; ++i) {
+            final int pixel = pixelArr[i];
+            
+            final int red255 =
+                (PArgbPixelMask.RED.mask & pixel) >> PArgbPixelMask.RED.bitShift;
+            final int green255 =
+                (PArgbPixelMask.GREEN.mask & pixel) >> PArgbPixelMask.GREEN.bitShift;
+            final int blue255 =
+                (PArgbPixelMask.BLUE.mask & pixel) >> PArgbPixelMask.BLUE.bitShift;
+            
+            // Max sum is 4095 << 16, so no overflow.  Add 1 << 15 to round.
+            final int linearLuma = (
+                (_LINEAR_LUMA_COEFFICIENT_RED_16 * srgbToLinearArr[red255])
+                + (_LINEAR_LUMA_COEFFICIENT_GREEN_16 * srgbToLinearArr[green255])
+                + (_LINEAR_LUMA_COEFFICIENT_BLUE_16 * srgbToLinearArr[blue255])
+                + (1 << 15)) >>> 16;
+            final int grayscale255 = linearToSrgbArr[linearLuma];
+            
+            pixelArr[i] =
+                (PArgbPixelMask.ALPHA.mask & pixel)
+                | (grayscale255 << PArgbPixelMask.RED.bitShift)
+                | (grayscale255 << PArgbPixelMask.GREEN.bitShift)
+                | (grayscale255 << PArgbPixelMask.BLUE.bitShift);
+        }
+    }
+    
     //@Override
     protected void processPixels2(int[] pixelArr, ColorModel colorModel) {
         final int size = pixelArr.length;
@@ -0,0 +1,368 @@
+package com.googlecode.kevinarpe.papaya.swing.image;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.util.Arrays;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.googlecode.kevinarpe.papaya.annotation.NotFullyTested;
+import com.googlecode.kevinarpe.papaya.argument.IntArgs;
+import com.googlecode.kevinarpe.papaya.argument.ObjectArgs;
+
+/**
+ * Immutable lookup table to transform one color channel: 256 entries, where index is input
+ * channel value and entry is output channel value.  Both are 0 to 255.
+ * <p>
+ * Tables from static factory methods, e.g., {@link #brightness(float)}, are cached by parameter,
+ * so repeated calls with the same parameter return the same instance.
+ * 
+ * @author Kevin Connor ARPE (kevinarpe@gmail.com)
+ * 
+ * @see PArgbBufferedImageLookupTableOp
+ */
+@NotFullyTested
+public final class PArgbChannelLookupTable {
+    
+    /**
+     * Number of entries: {@value}
+     */
+    public static final int SIZE = 256;
+    
+    private static enum _Kind {
+        BRIGHTNESS, CONTRAST, GAMMA, THRESHOLD;
+    }
+    
+    private static final class _Key {
+        
+        private final _Kind _kind;
+        private final float _parameter;
+        
+        private _Key(_Kind kind, float parameter) {
+            _kind = kind;
+            _parameter = parameter;
+        }
+        
+        @Override
+        public int hashCode() {
+            int x = 31 * _kind.hashCode() + Float.floatToIntBits(_parameter);
+            return x;
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            // Ref: http://stackoverflow.com/a/5039178/257299
+            boolean result = (this == obj);
+            if (!result && obj instanceof _Key) {
+                final _Key other = (_Key) obj;
+                result = this._kind == other._kind
+                    && Float.floatToIntBits(this._parameter)
+                        == Float.floatToIntBits(other._parameter);
+            }
+            return result;
+        }
+    }
+    
+    private static final class _Loader
+    extends CacheLoader<_Key, PArgbChannelLookupTable> {
+        
+        @Override
+        public PArgbChannelLookupTable load(_Key key) {
+            final float p = key._parameter;
+            final int[] arr = new int[SIZE];
+            for (int i = 0; i < SIZE; ++i) {
+                final double value;
+                switch (key._kind) {
+                    case BRIGHTNESS:
+                        value = i * p;
+                        break;
+                    case CONTRAST:
+                        value = ((i - 127.5d) * p) + 127.5d;
+                        break;
+                    case GAMMA:
+                        value = 255.0d * Math.pow(i / 255.0d, 1.0d / p);
+                        break;
+                    case THRESHOLD:
+                        value = (i < p ? 0 : 255);
+                        break;
+                    default:
+                        throw new IllegalStateException("Unknown kind: " + key._kind);
+                }
+                arr[i] = _clamp255(value);
+            }
+            PArgbChannelLookupTable x = new PArgbChannelLookupTable(arr);
+            return x;
+        }
+    }
+    
+    // Few distinct parameters are used in practice, e.g., one brightness per icon state.
+    private static final LoadingCache<_Key, PArgbChannelLookupTable> _CACHE =
+        CacheBuilder.newBuilder().maximumSize(256).build(new _Loader());
+    
+    private static final PArgbChannelLookupTable _IDENTITY;
+    private static final PArgbChannelLookupTable _INVERT;
+    
+    static {
+        final int[] identityArr = new int[SIZE];
+        final int[] invertArr = new int[SIZE];
+        for (int i = 0; i < SIZE; ++i) {
+            identityArr[i] = i;
+            invertArr[i] = 255 - i;
+        }
+        _IDENTITY = new PArgbChannelLookupTable(identityArr);
+        _INVERT = new PArgbChannelLookupTable(invertArr);
+    }
+    
+    private static int _clamp255(double value) {
+        final long x = Math.round(value);
+        if (x < 0) {
+            return 0;
+        }
+        if (x > 255) {
+            return 255;
+        }
+        return (int) x;
+    }
+    
+    private static void _checkFiniteAndNotNegative(float value, String argName) {
+        if (Float.isNaN(value) || Float.isInfinite(value) || value < 0.0f) {
+            String msg = String.format(
+                "Argument '%s' must be finite and not negative: %f", argName, value);
+            throw new IllegalArgumentException(msg);
+        }
+    }
+    
+    private final int[] _valueArr;
+    
+    private PArgbChannelLookupTable(int[] valueArr) {
+        _valueArr = valueArr;
+    }
+    
+    /**
+     * Creates a new table from an array of values.  The array is copied.
+     * 
+     * @param valueArr
+     *        exactly {@link #SIZE} output channel values, each from 0 to 255
+     * 
+     * @return new table
+     * 
+     * @throws NullPointerException
+     *         if {@code valueArr} is {@code null}
+     * @throws IllegalArgumentException
+     *         if length of {@code valueArr} is not {@link #SIZE}, or any value is not from 0 to 255
+     */
+    public static PArgbChannelLookupTable fromArray(int[] valueArr) {
+        ObjectArgs.checkNotNull(valueArr, "valueArr");
+        if (SIZE != valueArr.length) {
+            String msg = String.format(
+                "Argument 'valueArr': Expected length %d, but found %d", SIZE, valueArr.length);
+            throw new IllegalArgumentException(msg);
+        }
+        for (int i = 0; i < SIZE; ++i) {
+            IntArgs.checkValueRange(valueArr[i], 0, 255, "valueArr[i]");
+        }
+        PArgbChannelLookupTable x = new PArgbChannelLookupTable(valueArr.clone());
+        return x;
+    }
+    
+    /**
+     * @return shared table where each output value is the same as the input value
+     */
+    public static PArgbChannelLookupTable identity() {
+        return _IDENTITY;
+    }
+    
+    /**
+     * @return shared table where each output value is {@code 255 - input}
+     */
+    public static PArgbChannelLookupTable invert() {
+        return _INVERT;
+    }
+    
+    /**
+     * Retrieves a cached table to scale brightness: {@code output = input * scaleFactor}, clamped
+     * to 0-255.
+     * 
+     * @param scaleFactor
+     *        for example, to <i>reduce</i> brightness by 15%, use 0.85f.  Must be finite and not
+     *        negative.
+     * 
+     * @return cached table
+     * 
+     * @throws IllegalArgumentException
+     *         if {@code scaleFactor} is negative, infinite, or NaN
+     */
+    public static PArgbChannelLookupTable brightness(float scaleFactor) {
+        _checkFiniteAndNotNegative(scaleFactor, "scaleFactor");
+        
+        PArgbChannelLookupTable x = _CACHE.getUnchecked(new _Key(_Kind.BRIGHTNESS, scaleFactor));
+        return x;
+    }
+    
+    /**
+     * Retrieves a cached table to scale contrast around the middle value (127.5):
+     * {@code output = (input - 127.5) * factor + 127.5}, clamped to 0-255.
+     * 
+     * @param factor
+     *        values below 1.0f reduce contrast; above increase contrast.  Must be finite and not
+     *        negative.
+     * 
+     * @return cached table
+     * 
+     * @throws IllegalArgumentException
+     *         if {@code factor} is negative, infinite, or NaN
+     */
+    public static PArgbChannelLookupTable contrast(float factor) {
+        _checkFiniteAndNotNegative(factor, "factor");
+        
+        PArgbChannelLookupTable x = _CACHE.getUnchecked(new _Key(_Kind.CONTRAST, factor));
+        return x;
+    }
+    
+    /**
+     * Retrieves a cached table for gamma correction:
+     * {@code output = 255 * (input / 255) ^ (1 / gamma)}.
+     * 
+     * @param gamma
+     *        values above 1.0f brighten mid-tones; below darken mid-tones.  Must be finite and
+     *        positive.
+     * 
+     * @return cached table
+     * 
+     * @throws IllegalArgumentException
+     *         if {@code gamma} is not positive, infinite, or NaN
+     */
+    public static PArgbChannelLookupTable gamma(float gamma) {
+        _checkFiniteAndNotNegative(gamma, "gamma");
+        if (0.0f == gamma) {
+            throw new IllegalArgumentException("Argument 'gamma' must be positive: 0.0");
+        }
+        
+        PArgbChannelLookupTable x = _CACHE.getUnchecked(new _Key(_Kind.GAMMA, gamma));
+        return x;
+    }
+    
+    /**
+     * Retrieves a cached table for a threshold: {@code output = (input < threshold ? 0 : 255)}.
+     * 
+     * @param threshold
+     *        from 0 (all values become 255) to 256 (all values become 0)
+     * 
+     * @return cached table
+     * 
+     * @throws IllegalArgumentException
+     *         if {@code threshold} is not from 0 to 256
+     */
+    public static PArgbChannelLookupTable threshold(int threshold) {
+        IntArgs.checkValueRange(threshold, 0, SIZE, "threshold");
+        
+        PArgbChannelLookupTable x = _CACHE.getUnchecked(new _Key(_Kind.THRESHOLD, threshold));
+        return x;
+    }
+    
+    /**
+     * @param value255
+     *        input channel value from 0 to 255
+     * 
+     * @return output channel value from 0 to 255
+     * 
+     * @throws IllegalArgumentException
+     *         if {@code value255} is not from 0 to 255
+     */
+    public int get(int value255) {
+        IntArgs.checkValueRange(value255, 0, 255, "value255");
+        
+        int x = _valueArr[value255];
+        return x;
+    }
+    
+    /**
+     * Composes two tables: The output of this table is the input of {@code next}.  Applying the
+     * new table once is the same as applying this table, then {@code next}.
+     * 
+     * @param next
+     *        table to apply after this table.  Must not be {@code null}
+     * 
+     * @return new table
+     * 
+     * @throws NullPointerException
+     *         if {@code next} is {@code null}
+     */
+    public PArgbChannelLookupTable andThen(PArgbChannelLookupTable next) {
+        ObjectArgs.checkNotNull(next, "next");
+        
+        final int[] arr = new int[SIZE];
+        for (int i = 0; i < SIZE; ++i) {
+            arr[i] = next._valueArr[_valueArr[i]];
+        }
+        PArgbChannelLookupTable x = new PArgbChannelLookupTable(arr);
+        return x;
+    }
+    
+    /**
+     * @return new copy of all output values
+     */
+    public int[] toArray() {
+        int[] x = _valueArr.clone();
+        return x;
+    }
+    
+    /**
+     * @return internal array for pixel loops in this package.  Never modify!
+     */
+    int[] getValueArrayRef() {
+        return _valueArr;
+    }
+    
+    @Override
+    public int hashCode() {
+        int x = Arrays.hashCode(_valueArr);
+        return x;
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        // Ref: http://stackoverflow.com/a/5039178/257299
+        boolean result = (this == obj);
+        if (!result && obj instanceof PArgbChannelLookupTable) {
+            final PArgbChannelLookupTable other = (PArgbChannelLookupTable) obj;
+            result = Arrays.equals(this._valueArr, other._valueArr);
+        }
+        return result;
+    }
+    
+    @Override
+    public String toString() {
+        String x = String.format(
+            "class %s ["
+            + "%n\tvalueArr: %s"
+            + "%n\t]",
+            PArgbChannelLookupTable.class.getCanonicalName(),
+            Arrays.toString(_valueArr));
+        return x;
+    }
+}
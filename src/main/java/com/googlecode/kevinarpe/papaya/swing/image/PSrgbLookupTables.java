@@ -0,0 +1,144 @@
+package com.googlecode.kevinarpe.papaya.swing.image;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.awt.color.ColorSpace;
+
+import com.googlecode.kevinarpe.papaya.annotation.NotFullyTested;
+import com.googlecode.kevinarpe.papaya.argument.IntArgs;
+
+/**
+ * Precomputed lookup tables to convert color channels between gamma-compressed sRGB (0-255) and
+ * linear light.  Linear values are stored as 12-bit fixed-point integers: 0 to
+ * {@link #MAX_LINEAR_VALUE}.
+ * <p>
+ * These tables replace calls to {@link ColorSpace#fromRGB(float[])} and
+ * {@link ColorSpace#toRGB(float[])} for {@link ColorSpace#CS_LINEAR_RGB} in pixel loops.  Both
+ * tables are built once when this class is loaded, and use the sRGB transfer function directly.
+ * <p>
+ * Ref: <a href="https://en.wikipedia.org/wiki/SRGB#The_reverse_transformation">
+ * https://en.wikipedia.org/wiki/SRGB#The_reverse_transformation</a>
+ * 
+ * @author Kevin Connor ARPE (kevinarpe@gmail.com)
+ * 
+ * @see PArgbBufferedImageToGrayscaleOp#useLinearGammaDecompressedColors(boolean)
+ */
+@NotFullyTested
+public final class PSrgbLookupTables {
+    
+    /**
+     * Number of fixed-point bits for linear values: {@value}
+     */
+    public static final int LINEAR_BIT_COUNT = 12;
+    
+    /**
+     * Maximum linear value, equivalent to 1.0f: {@value}
+     */
+    public static final int MAX_LINEAR_VALUE = (1 << LINEAR_BIT_COUNT) - 1;
+    
+    /**
+     * 256 entries: Index is sRGB channel value.  Value is linear value.
+     */
+    static final int[] SRGB_TO_LINEAR_ARR;
+    
+    /**
+     * 4096 entries: Index is linear value.  Value is sRGB channel value.
+     */
+    static final int[] LINEAR_TO_SRGB_ARR;
+    
+    static {
+        SRGB_TO_LINEAR_ARR = new int[256];
+        for (int i = 0; i < SRGB_TO_LINEAR_ARR.length; ++i) {
+            final double linear = _srgbToLinear(i / 255.0d);
+            SRGB_TO_LINEAR_ARR[i] = (int) Math.round(linear * MAX_LINEAR_VALUE);
+        }
+        LINEAR_TO_SRGB_ARR = new int[1 + MAX_LINEAR_VALUE];
+        for (int i = 0; i < LINEAR_TO_SRGB_ARR.length; ++i) {
+            final double srgb = _linearToSrgb(i / (double) MAX_LINEAR_VALUE);
+            LINEAR_TO_SRGB_ARR[i] = (int) Math.round(srgb * 255.0d);
+        }
+    }
+    
+    private static double _srgbToLinear(double srgb) {
+        if (srgb <= 0.04045d) {
+            return srgb / 12.92d;
+        }
+        double x = Math.pow((srgb + 0.055d) / 1.055d, 2.4d);
+        return x;
+    }
+    
+    private static double _linearToSrgb(double linear) {
+        if (linear <= 0.0031308d) {
+            return 12.92d * linear;
+        }
+        double x = (1.055d * Math.pow(linear, 1.0d / 2.4d)) - 0.055d;
+        return x;
+    }
+    
+    // Disable default constructor
+    private PSrgbLookupTables() {
+    }
+    
+    /**
+     * Converts a gamma-compressed sRGB channel value to linear light.
+     * 
+     * @param srgb255
+     *        sRGB channel value from 0 to 255
+     * 
+     * @return linear value from 0 to {@link #MAX_LINEAR_VALUE}
+     * 
+     * @throws IllegalArgumentException
+     *         if {@code srgb255} is not from 0 to 255
+     * 
+     * @see #linearToSrgb(int)
+     */
+    public static int srgbToLinear(int srgb255) {
+        IntArgs.checkValueRange(srgb255, 0, 255, "srgb255");
+        
+        int x = SRGB_TO_LINEAR_ARR[srgb255];
+        return x;
+    }
+    
+    /**
+     * Converts a linear light value to a gamma-compressed sRGB channel value.
+     * 
+     * @param linear
+     *        linear value from 0 to {@link #MAX_LINEAR_VALUE}
+     * 
+     * @return sRGB channel value from 0 to 255
+     * 
+     * @throws IllegalArgumentException
+     *         if {@code linear} is not from 0 to {@link #MAX_LINEAR_VALUE}
+     * 
+     * @see #srgbToLinear(int)
+     */
+    public static int linearToSrgb(int linear) {
+        IntArgs.checkValueRange(linear, 0, MAX_LINEAR_VALUE, "linear");
+        
+        int x = LINEAR_TO_SRGB_ARR[linear];
+        return x;
+    }
+}
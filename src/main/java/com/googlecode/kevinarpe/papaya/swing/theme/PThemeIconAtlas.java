@@ -0,0 +1,505 @@
+package com.googlecode.kevinarpe.papaya.swing.theme;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.imageio.ImageIO;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import com.googlecode.kevinarpe.papaya.annotation.NotFullyTested;
+import com.googlecode.kevinarpe.papaya.argument.ObjectArgs;
+import com.googlecode.kevinarpe.papaya.argument.PathArgs;
+import com.googlecode.kevinarpe.papaya.exception.PathException;
+import com.googlecode.kevinarpe.papaya.exception.PathException.PathExceptionReason;
+import com.googlecode.kevinarpe.papaya.swing.PImmutableDimension;
+
+/**
+ * Icon atlas (sprite sheet) for one fixed icon dimension: Many theme icons packed into a single
+ * image, plus an index from {@link PThemeIconName} to grid cell.  Compared to one PNG file per
+ * icon, an atlas needs one file open, one decode, and one shared raster.
+ * <p>
+ * Icons are packed into a square-ish grid in {@link PThemeIconName} order.  Cell {@code i} is at
+ * column {@code i % getColumnCount()} and row {@code i / getColumnCount()}.
+ * <p>
+ * File format: The atlas image is a PNG file.  The index is a UTF-8 text file with the same path,
+ * plus {@code "."} and {@link #INDEX_FILE_EXTENSION}.  The first line is
+ * {@code "<width>x<height> <columnCount>"}, then one line per icon: {@code "<name()> <cellIndex>"}.
+ * <p>
+ * All instances of this class are immutable, thus thread-safe.  Do not modify the image from
+ * {@link #getImage()}.
+ * 
+ * @author Kevin Connor ARPE (kevinarpe@gmail.com)
+ * 
+ * @see PThemeIconLoaderFixedDimensionFromAtlas
+ * @see #packFromPngFiles(File, PImmutableDimension)
+ * @see #read(File)
+ */
+@NotFullyTested
+public final class PThemeIconAtlas {
+    
+    /**
+     * Does not include the dot -- only {@code "index"}.
+     */
+    public static final String INDEX_FILE_EXTENSION = "index";
+    
+    private final PImmutableDimension _iconDimension;
+    private final int _columnCount;
+    private final BufferedImage _image;
+    private final Map<PThemeIconName, Integer> _nameToCellIndexMap;
+    
+    private PThemeIconAtlas(
+            PImmutableDimension iconDimension,
+            int columnCount,
+            BufferedImage image,
+            EnumMap<PThemeIconName, Integer> nameToCellIndexMap) {
+        _iconDimension = iconDimension;
+        _columnCount = columnCount;
+        _image = image;
+        _nameToCellIndexMap = Collections.unmodifiableMap(nameToCellIndexMap);
+    }
+    
+    /**
+     * Packs icon images into a new atlas.
+     * 
+     * @param iconDimension
+     *        width and height of each icon.  Must not be {@code null}
+     * @param nameToImageMap
+     *        icon images to pack.  Must not be {@code null}, nor contain {@code null} keys or
+     *        values.  Each image must be done loading and match {@code iconDimension}.
+     *        May be empty
+     * 
+     * @return new atlas
+     * 
+     * @throws NullPointerException
+     *         if {@code iconDimension} or {@code nameToImageMap} (or any key or value) is
+     *         {@code null}
+     * @throws IllegalArgumentException
+     *         if dimensions of any image do not match {@code iconDimension}
+     */
+    public static PThemeIconAtlas pack(
+            PImmutableDimension iconDimension,
+            Map<PThemeIconName, ? extends Image> nameToImageMap) {
+        ObjectArgs.checkNotNull(iconDimension, "iconDimension");
+        ObjectArgs.checkNotNull(nameToImageMap, "nameToImageMap");
+        
+        // Copy to EnumMap: Layout follows enum order, and is repeatable.
+        EnumMap<PThemeIconName, Image> sortedMap = new EnumMap<PThemeIconName, Image>(
+            PThemeIconName.class);
+        for (Map.Entry<PThemeIconName, ? extends Image> entry: nameToImageMap.entrySet()) {
+            PThemeIconName name = ObjectArgs.checkNotNull(entry.getKey(), "name");
+            Image image = ObjectArgs.checkNotNull(entry.getValue(), "image");
+            if (image.getWidth(null) != iconDimension.width
+                    || image.getHeight(null) != iconDimension.height) {
+                String msg = String.format(
+                    "Image for %s has dimensions %dx%d, but expected %s",
+                    name.name(), image.getWidth(null), image.getHeight(null),
+                    iconDimension.getDescription());
+                throw new IllegalArgumentException(msg);
+            }
+            sortedMap.put(name, image);
+        }
+        final int count = sortedMap.size();
+        final int columnCount = Math.max(1, (int) Math.ceil(Math.sqrt(count)));
+        final int rowCount = Math.max(1, (count + columnCount - 1) / columnCount);
+        BufferedImage atlasImage =
+            new BufferedImage(
+                columnCount * iconDimension.width,
+                rowCount * iconDimension.height,
+                BufferedImage.TYPE_INT_ARGB);
+        EnumMap<PThemeIconName, Integer> nameToCellIndexMap =
+            new EnumMap<PThemeIconName, Integer>(PThemeIconName.class);
+        Graphics2D g = atlasImage.createGraphics();
+        try {
+            // Copy pixels as-is: Do not blend with the (transparent) atlas background.
+            g.setComposite(AlphaComposite.Src);
+            int cellIndex = 0;
+            for (Map.Entry<PThemeIconName, Image> entry: sortedMap.entrySet()) {
+                final int x = (cellIndex % columnCount) * iconDimension.width;
+                final int y = (cellIndex / columnCount) * iconDimension.height;
+                g.drawImage(entry.getValue(), x, y, null);
+                nameToCellIndexMap.put(entry.getKey(), cellIndex);
+                ++cellIndex;
+            }
+        }
+        finally {
+            g.dispose();
+        }
+        PThemeIconAtlas x =
+            new PThemeIconAtlas(iconDimension, columnCount, atlasImage, nameToCellIndexMap);
+        return x;
+    }
+    
+    /**
+     * Packs all icons found for one dimension of a theme directory into a new atlas.  The layout
+     * matches {@link PThemeIconLoaderFixedDimensionFromPngFile}:
+     * {@code <baseDirPath>/<WxH>/<context>/<name>.png}.  Each PNG file is decoded by
+     * {@link ImageIO}.
+     * <p>
+     * This method is intended for build time, or first launch.  Then call {@link #write(File)},
+     * and {@link #read(File)} for later launches.
+     * 
+     * @param baseDirPath
+     *        base directory path to icon files on disk, e.g., {@code "resources/theme-xyz/icons"}.
+     *        Must not be {@code null}
+     * @param iconDimension
+     *        width and height of each icon.  Must not be {@code null}
+     * 
+     * @return new atlas.  If no icons are found, the atlas is empty.
+     * 
+     * @throws NullPointerException
+     *         if {@code baseDirPath} or {@code iconDimension} is {@code null}
+     * @throws PathException
+     * <ul>
+     *   <li>with reason {@link PathExceptionReason#PATH_DOES_NOT_EXIST}
+     *   if {@code baseDirPath} does not exist</li>
+     *   <li>with reason {@link PathExceptionReason#PATH_IS_FILE}
+     *   if {@code baseDirPath} exists, but is not a directory</li>
+     * </ul>
+     * @throws IOException
+     *         if any icon file cannot be decoded
+     * @throws IllegalArgumentException
+     *         if dimensions of any icon do not match {@code iconDimension}
+     */
+    public static PThemeIconAtlas packFromPngFiles(
+            File baseDirPath, PImmutableDimension iconDimension)
+    throws PathException, IOException {
+        PathArgs.checkDirectoryExists(baseDirPath, "baseDirPath");
+        ObjectArgs.checkNotNull(iconDimension, "iconDimension");
+        
+        File dimDirPath = new File(baseDirPath, iconDimension.getDescription());
+        EnumMap<PThemeIconName, BufferedImage> nameToImageMap =
+            new EnumMap<PThemeIconName, BufferedImage>(PThemeIconName.class);
+        final String fileNameSuffix = "." + PThemeIconLoaderFixedDimensionFromPngFile.FILE_EXTENSION;
+        for (PThemeIconName name: PThemeIconName.values()) {
+            File filePath =
+                new File(
+                    new File(dimDirPath, name.context.dirName),
+                    name.baseFileName + fileNameSuffix);
+            if (filePath.isFile()) {
+                BufferedImage optImage = ImageIO.read(filePath);
+                if (null == optImage) {
+                    String msg = String.format(
+                        "Failed to decode image file: '%s'", filePath.getAbsolutePath());
+                    throw new IOException(msg);
+                }
+                nameToImageMap.put(name, optImage);
+            }
+        }
+        PThemeIconAtlas x = pack(iconDimension, nameToImageMap);
+        return x;
+    }
+    
+    /**
+     * Creates the index file path for an atlas image file path: Add {@code "."} and
+     * {@link #INDEX_FILE_EXTENSION}.
+     * 
+     * @param atlasFilePath
+     *        atlas image file path.  Must not be {@code null}
+     * 
+     * @throws NullPointerException
+     *         if {@code atlasFilePath} is {@code null}
+     */
+    public static File getIndexFilePath(File atlasFilePath) {
+        ObjectArgs.checkNotNull(atlasFilePath, "atlasFilePath");
+        
+        File x = new File(atlasFilePath.getPath() + "." + INDEX_FILE_EXTENSION);
+        return x;
+    }
+    
+    /**
+     * Writes this atlas as a PNG image file and an index file.  Existing files are replaced.
+     * 
+     * @param atlasFilePath
+     *        atlas image file path, e.g., {@code "theme-xyz-32x32.png"}.  Must not be {@code null}
+     * 
+     * @throws NullPointerException
+     *         if {@code atlasFilePath} is {@code null}
+     * @throws IOException
+     *         if either file cannot be written
+     * 
+     * @see #getIndexFilePath(File)
+     * @see #read(File)
+     */
+    public void write(File atlasFilePath)
+    throws IOException {
+        File indexFilePath = getIndexFilePath(atlasFilePath);
+        
+        if (!ImageIO.write(_image, "png", atlasFilePath)) {
+            String msg = String.format(
+                "No PNG image writer available for file: '%s'", atlasFilePath.getAbsolutePath());
+            throw new IOException(msg);
+        }
+        Writer writer = Files.newWriter(indexFilePath, Charsets.UTF_8);
+        try {
+            writer.write(String.format("%s %d%n", _iconDimension.getDescription(), _columnCount));
+            for (Map.Entry<PThemeIconName, Integer> entry: _nameToCellIndexMap.entrySet()) {
+                writer.write(String.format("%s %d%n", entry.getKey().name(), entry.getValue()));
+            }
+        }
+        finally {
+            writer.close();
+        }
+    }
+    
+    /**
+     * Reads an atlas image file and its index file.  The image is decoded once, then converted
+     * to {@link BufferedImage#TYPE_INT_ARGB}, if necessary.
+     * 
+     * @param atlasFilePath
+     *        atlas image file path.  Must not be {@code null}
+     * 
+     * @return new atlas
+     * 
+     * @throws NullPointerException
+     *         if {@code atlasFilePath} is {@code null}
+     * @throws PathException
+     *         with reason {@link PathExceptionReason#PATH_DOES_NOT_EXIST}
+     *         if atlas image file or index file does not exist
+     * @throws IOException
+     *         if either file cannot be read, or is invalid
+     * 
+     * @see #write(File)
+     */
+    public static PThemeIconAtlas read(File atlasFilePath)
+    throws PathException, IOException {
+        PathArgs.checkFileExists(atlasFilePath, "atlasFilePath");
+        File indexFilePath = getIndexFilePath(atlasFilePath);
+        PathArgs.checkFileExists(indexFilePath, "indexFilePath");
+        
+        BufferedImage optImage = ImageIO.read(atlasFilePath);
+        if (null == optImage) {
+            String msg = String.format(
+                "Failed to decode atlas image file: '%s'", atlasFilePath.getAbsolutePath());
+            throw new IOException(msg);
+        }
+        BufferedImage image = _toIntArgb(optImage);
+        
+        BufferedReader reader = Files.newReader(indexFilePath, Charsets.UTF_8);
+        try {
+            String[] headerArr = _readFieldPair(reader, indexFilePath);
+            String[] dimArr = headerArr[0].split("x");
+            if (2 != dimArr.length) {
+                throw _newInvalidIndexException(indexFilePath, headerArr[0]);
+            }
+            PImmutableDimension iconDimension =
+                PImmutableDimension.getSharedFromWidthAndHeight(
+                    _parsePositiveInt(dimArr[0], indexFilePath),
+                    _parsePositiveInt(dimArr[1], indexFilePath));
+            final int columnCount = _parsePositiveInt(headerArr[1], indexFilePath);
+            EnumMap<PThemeIconName, Integer> nameToCellIndexMap =
+                new EnumMap<PThemeIconName, Integer>(PThemeIconName.class);
+            for (String line = reader.readLine(); null != line; line = reader.readLine()) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String[] fieldArr = _splitFieldPair(line, indexFilePath);
+                final PThemeIconName name;
+                try {
+                    name = PThemeIconName.valueOf(fieldArr[0]);
+                }
+                catch (IllegalArgumentException e) {
+                    throw _newInvalidIndexException(indexFilePath, line);
+                }
+                final int cellIndex = Integer.parseInt(fieldArr[1]);
+                final int right = (1 + cellIndex % columnCount) * iconDimension.width;
+                final int bottom = (1 + cellIndex / columnCount) * iconDimension.height;
+                if (cellIndex < 0 || right > image.getWidth() || bottom > image.getHeight()) {
+                    throw _newInvalidIndexException(indexFilePath, line);
+                }
+                nameToCellIndexMap.put(name, cellIndex);
+            }
+            PThemeIconAtlas x =
+                new PThemeIconAtlas(iconDimension, columnCount, image, nameToCellIndexMap);
+            return x;
+        }
+        catch (NumberFormatException e) {
+            throw new IOException(
+                "Invalid index file: '" + indexFilePath.getAbsolutePath() + "'", e);
+        }
+        finally {
+            reader.close();
+        }
+    }
+    
+    private static BufferedImage _toIntArgb(BufferedImage image) {
+        if (BufferedImage.TYPE_INT_ARGB == image.getType()) {
+            return image;
+        }
+        BufferedImage x =
+            new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = x.createGraphics();
+        try {
+            g.setComposite(AlphaComposite.Src);
+            g.drawImage(image, 0, 0, null);
+        }
+        finally {
+            g.dispose();
+        }
+        return x;
+    }
+    
+    private static String[] _readFieldPair(BufferedReader reader, File indexFilePath)
+    throws IOException {
+        String optLine = reader.readLine();
+        if (null == optLine) {
+            throw _newInvalidIndexException(indexFilePath, "<empty file>");
+        }
+        String[] x = _splitFieldPair(optLine, indexFilePath);
+        return x;
+    }
+    
+    private static String[] _splitFieldPair(String line, File indexFilePath)
+    throws IOException {
+        String[] x = line.trim().split(" ");
+        if (2 != x.length) {
+            throw _newInvalidIndexException(indexFilePath, line);
+        }
+        return x;
+    }
+    
+    private static int _parsePositiveInt(String s, File indexFilePath)
+    throws IOException {
+        int x = Integer.parseInt(s);
+        if (x <= 0) {
+            throw _newInvalidIndexException(indexFilePath, s);
+        }
+        return x;
+    }
+    
+    private static IOException _newInvalidIndexException(File indexFilePath, String text) {
+        String msg = String.format("Invalid index file: '%s': '%s'",
+            indexFilePath.getAbsolutePath(), text);
+        IOException x = new IOException(msg);
+        return x;
+    }
+    
+    /**
+     * Width and height of each icon
+     */
+    public PImmutableDimension getIconDimension() {
+        return _iconDimension;
+    }
+    
+    /**
+     * Number of icons per row
+     */
+    public int getColumnCount() {
+        return _columnCount;
+    }
+    
+    /**
+     * Shared atlas image of type {@link BufferedImage#TYPE_INT_ARGB}.  Do not modify.
+     */
+    public BufferedImage getImage() {
+        return _image;
+    }
+    
+    /**
+     * @return unmodifiable set of icon names in this atlas, in enum order
+     */
+    public Set<PThemeIconName> getNameSet() {
+        Set<PThemeIconName> x = _nameToCellIndexMap.keySet();
+        return x;
+    }
+    
+    /**
+     * Retrieves the region of {@link #getImage()} for an icon.
+     * 
+     * @param name
+     *        id of icon.  Must not be {@code null}
+     * 
+     * @return new rectangle, or {@code null} if icon is not in this atlas
+     * 
+     * @throws NullPointerException
+     *         if {@code name} is {@code null}
+     */
+    public Rectangle tryGetIconBounds(PThemeIconName name) {
+        ObjectArgs.checkNotNull(name, "name");
+        
+        Integer optCellIndex = _nameToCellIndexMap.get(name);
+        if (null == optCellIndex) {
+            return null;
+        }
+        final int cellIndex = optCellIndex.intValue();
+        Rectangle x =
+            new Rectangle(
+                (cellIndex % _columnCount) * _iconDimension.width,
+                (cellIndex / _columnCount) * _iconDimension.height,
+                _iconDimension.width,
+                _iconDimension.height);
+        return x;
+    }
+    
+    /**
+     * Retrieves an icon image as a sub-image of {@link #getImage()}.  No pixels are copied: The
+     * result shares the atlas raster.
+     * 
+     * @param name
+     *        id of icon.  Must not be {@code null}
+     * 
+     * @return new sub-image, or {@code null} if icon is not in this atlas
+     * 
+     * @throws NullPointerException
+     *         if {@code name} is {@code null}
+     * 
+     * @see BufferedImage#getSubimage(int, int, int, int)
+     */
+    public BufferedImage tryGetIconImage(PThemeIconName name) {
+        Rectangle optBounds = tryGetIconBounds(name);
+        if (null == optBounds) {
+            return null;
+        }
+        BufferedImage x =
+            _image.getSubimage(optBounds.x, optBounds.y, optBounds.width, optBounds.height);
+        return x;
+    }
+    
+    @Override
+    public String toString() {
+        String x = String.format(
+            "class %s [%n\tgetIconDimension(): '%s'%n\tgetColumnCount(): %d"
+            + "%n\tgetNameSet().size(): %d%n\t]",
+            PThemeIconAtlas.class.getCanonicalName(),
+            _iconDimension.getDescription(),
+            _columnCount,
+            _nameToCellIndexMap.size());
+        return x;
+    }
+}
@@ -0,0 +1,183 @@
+package com.googlecode.kevinarpe.papaya.swing.theme;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.lang.ref.SoftReference;
+
+import com.google.common.base.Objects;
+import com.googlecode.kevinarpe.papaya.annotation.FullyTested;
+import com.googlecode.kevinarpe.papaya.argument.ObjectArgs;
+import com.googlecode.kevinarpe.papaya.swing.PImmutableDimension;
+
+/**
+ * Controls how many icons are cached by a theme icon loader.  By default, loaders use
+ * {@link #UNBOUNDED}: every icon is cached for the life of the loader.  For applications that use
+ * many themes or icon sizes, the cache may be bounded by decoded pixel bytes.  When the bound is
+ * exceeded, the least recently used icons are evicted.
+ * <p>
+ * Icon weight is estimated as {@code width * height * }{@link #BYTES_PER_PIXEL} from
+ * {@link PThemeImageIcon#getExpectedDimension()}, as this value is known before the image is done
+ * loading.  Icons that do not exist (cached as {@code null}) have zero weight and are never
+ * evicted.  They are limited by the number of values in {@link PThemeIconName}.
+ * <p>
+ * An evicted icon is not destroyed.  Widgets that hold a reference may continue to paint it, but
+ * the next call to {@link PThemeIconLoaderAbstract#tryGetIcon(PThemeIconName)} will create a new
+ * instance.
+ * <p>
+ * All instances of this class are fully immutable, thus thread-safe, and safe to store as
+ * {@code static final} constants.
+ * 
+ * @author Kevin Connor ARPE (kevinarpe@gmail.com)
+ * 
+ * @see PThemeIconLoaderAbstract#getCachePolicy()
+ * @see PThemeIconLoaderAbstract#getCacheStats()
+ * @see #create(long, boolean)
+ */
+@FullyTested
+public final class PThemeIconCachePolicy {
+    
+    /**
+     * Number of bytes to store one decoded ARGB pixel: 4
+     */
+    public static final int BYTES_PER_PIXEL = 4;
+    
+    /**
+     * Value for {@link #maxPixelByteCount} when the cache is not bounded: -1
+     */
+    public static final long NO_MAX_PIXEL_BYTE_COUNT = -1;
+    
+    /**
+     * Default policy for theme icon loaders: never evict icons and use strong references.
+     */
+    public static final PThemeIconCachePolicy UNBOUNDED =
+        new PThemeIconCachePolicy(NO_MAX_PIXEL_BYTE_COUNT, false);
+    
+    /**
+     * Maximum total of decoded pixel bytes for all cached icons, or
+     * {@link #NO_MAX_PIXEL_BYTE_COUNT} if the cache is not bounded.
+     */
+    public final long maxPixelByteCount;
+    
+    /**
+     * If {@code true}, cached icons are held by {@link SoftReference}, so the garbage collector
+     * may evict icons when memory runs low.  Only icons that are not referenced elsewhere, e.g., by
+     * a widget, can be evicted this way.  Thus, while an icon is in use, each lookup for its name
+     * returns the same instance.  After eviction, the next lookup creates a new instance.
+     */
+    public final boolean useSoftReferences;
+    
+    private PThemeIconCachePolicy(long maxPixelByteCount, boolean useSoftReferences) {
+        this.maxPixelByteCount = maxPixelByteCount;
+        this.useSoftReferences = useSoftReferences;
+    }
+    
+    /**
+     * Creates a new cache policy.
+     * 
+     * @param maxPixelByteCount
+     *        see {@link #maxPixelByteCount}.  Must be positive or
+     *        {@link #NO_MAX_PIXEL_BYTE_COUNT}
+     * @param useSoftReferences
+     *        see {@link #useSoftReferences}
+     * 
+     * @return new cache policy
+     * 
+     * @throws IllegalArgumentException
+     *         if {@code maxPixelByteCount} is not positive and not {@link #NO_MAX_PIXEL_BYTE_COUNT}
+     */
+    public static PThemeIconCachePolicy create(long maxPixelByteCount, boolean useSoftReferences) {
+        if (maxPixelByteCount <= 0 && NO_MAX_PIXEL_BYTE_COUNT != maxPixelByteCount) {
+            throw new IllegalArgumentException(String.format(
+                "Argument 'maxPixelByteCount': Must be positive or %d: %d",
+                NO_MAX_PIXEL_BYTE_COUNT, maxPixelByteCount));
+        }
+        PThemeIconCachePolicy x = new PThemeIconCachePolicy(maxPixelByteCount, useSoftReferences);
+        return x;
+    }
+    
+    /**
+     * @return {@code true} if {@link #maxPixelByteCount} is not {@link #NO_MAX_PIXEL_BYTE_COUNT}
+     */
+    public boolean isBounded() {
+        boolean x = (NO_MAX_PIXEL_BYTE_COUNT != maxPixelByteCount);
+        return x;
+    }
+    
+    /**
+     * Estimates the number of bytes to store the decoded pixels of an icon.
+     * 
+     * @param icon
+     *        must not be {@code null}
+     * 
+     * @return {@code width * height * }{@link #BYTES_PER_PIXEL} from
+     *         {@link PThemeImageIcon#getExpectedDimension()}, or zero if dimension is not positive
+     * 
+     * @throws NullPointerException
+     *         if {@code icon} is {@code null}
+     */
+    public static long getPixelByteCount(PThemeImageIcon icon) {
+        ObjectArgs.checkNotNull(icon, "icon");
+        
+        PImmutableDimension dim = icon.getExpectedDimension();
+        if (null == dim || dim.width <= 0 || dim.height <= 0) {
+            return 0;
+        }
+        long x = ((long) dim.width) * dim.height * BYTES_PER_PIXEL;
+        return x;
+    }
+    
+    @Override
+    public int hashCode() {
+        int x = Objects.hashCode(maxPixelByteCount, useSoftReferences);
+        return x;
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        // Ref: http://stackoverflow.com/a/5039178/257299
+        boolean result = (this == obj);
+        if (!result && obj instanceof PThemeIconCachePolicy) {
+            final PThemeIconCachePolicy other = (PThemeIconCachePolicy) obj;
+            result =
+                this.maxPixelByteCount == other.maxPixelByteCount
+                && this.useSoftReferences == other.useSoftReferences;
+        }
+        return result;
+    }
+    
+    @Override
+    public String toString() {
+        String x = String.format(
+            "class %s ["
+            + "%n\tmaxPixelByteCount: %d"
+            + "%n\tuseSoftReferences: %s"
+            + "%n\t]",
+            PThemeIconCachePolicy.class.getCanonicalName(),
+            maxPixelByteCount,
+            useSoftReferences);
+        return x;
+    }
+}
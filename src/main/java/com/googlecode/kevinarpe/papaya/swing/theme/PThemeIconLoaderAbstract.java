@@ -27,12 +27,26 @@ package com.googlecode.kevinarpe.papaya.swing.theme;
 
 import java.awt.Toolkit;
 import java.net.URL;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 
 import javax.swing.Icon;
 
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.cache.Weigher;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.googlecode.kevinarpe.papaya.annotation.FullyTested;
+import com.googlecode.kevinarpe.papaya.argument.CollectionArgs;
 import com.googlecode.kevinarpe.papaya.argument.ObjectArgs;
 import com.googlecode.kevinarpe.papaya.swing.PImageIconAsync;
 
@@ -48,11 +62,30 @@ import com.googlecode.kevinarpe.papaya.swing.PImageIconAsync;
  * @see #tryGetIcon(PThemeIconName)
  * @see #getIcon(PThemeIconName)
  * @see #iconExists(PThemeIconName)
+ * @see #preload(Collection, Executor)
+ * @see PThemeIconCachePolicy
  */
 @FullyTested
 public abstract class PThemeIconLoaderAbstract {
 
-    private Map<PThemeIconName, PThemeImageIcon> _nameToIconMap;
+    /**
+     * Values are {@link PThemeImageIcon}, or {@link #_MISSING_ICON} for icons that do not exist.
+     * Cache hits are lock-free, and each icon is created at most once, even if many threads request
+     * the same name at the same time.
+     * <p>
+     * Icons are cached directly, not wrapped, so soft references (if enabled) refer to the icon.
+     * The garbage collector only clears icons that are not used elsewhere, so an icon held by a
+     * widget is never replaced by a second instance for the same name.
+     */
+    private final LoadingCache<PThemeIconName, Object> _nameToIconCache;
+    
+    /**
+     * Cached for icons that do not exist.  Strongly held by this constant, so never cleared by the
+     * garbage collector.
+     */
+    private static final Object _MISSING_ICON = new Object();
+    
+    private final PThemeIconCachePolicy _cachePolicy;
     
     /**
      * Default value for {@link #ignoreIconLoadErrors()}: {@code false}
@@ -60,16 +93,106 @@ public abstract class PThemeIconLoaderAbstract {
     public static final boolean DEFAULT_IGNORE_ICON_LOAD_ERRORS =
         PImageIconAsync.DEFAULT_IGNORE_ICON_LOAD_ERRORS;
     
-    private boolean _ignoreIconLoadErrors;
+    private volatile boolean _ignoreIconLoadErrors;
     
     /**
-     * Creates a theme icon loader.
+     * This is a convenience constructor to call
+     * {@link #PThemeIconLoaderAbstract(PThemeIconCachePolicy)} with
+     * {@link PThemeIconCachePolicy#UNBOUNDED}.
      */
     protected PThemeIconLoaderAbstract() {
-        _nameToIconMap = new HashMap<PThemeIconName, PThemeImageIcon>();
+        this(PThemeIconCachePolicy.UNBOUNDED);
+    }
+    
+    /**
+     * Creates a theme icon loader.
+     * 
+     * @param cachePolicy
+     *        controls how many icons are cached.  Must not be {@code null}
+     * 
+     * @throws NullPointerException
+     *         if {@code cachePolicy} is {@code null}
+     * 
+     * @see #getCachePolicy()
+     */
+    protected PThemeIconLoaderAbstract(PThemeIconCachePolicy cachePolicy) {
+        _cachePolicy = ObjectArgs.checkNotNull(cachePolicy, "cachePolicy");
+        _nameToIconCache = _newCache(cachePolicy);
         _ignoreIconLoadErrors = DEFAULT_IGNORE_ICON_LOAD_ERRORS;
     }
     
+    private LoadingCache<PThemeIconName, Object> _newCache(
+            PThemeIconCachePolicy cachePolicy) {
+        CacheBuilder<Object, Object> b = CacheBuilder.newBuilder().recordStats();
+        if (cachePolicy.useSoftReferences) {
+            b.softValues();
+        }
+        if (cachePolicy.isBounded()) {
+            // Returns the same builder: weigher() only narrows the generic types.
+            b.maximumWeight(cachePolicy.maxPixelByteCount).weigher(_PIXEL_BYTE_WEIGHER);
+        }
+        LoadingCache<PThemeIconName, Object> x =
+            b.build(new CacheLoader<PThemeIconName, Object>() {
+                @Override
+                public Object load(PThemeIconName name) {
+                    PThemeImageIcon optIcon = _createThemeImageIcon(name);
+                    Object x = (null == optIcon ? _MISSING_ICON : optIcon);
+                    return x;
+                }
+            });
+        return x;
+    }
+    
+    private static final Weigher<PThemeIconName, Object> _PIXEL_BYTE_WEIGHER =
+        new Weigher<PThemeIconName, Object>() {
+            @Override
+            public int weigh(PThemeIconName name, Object iconOrMissing) {
+                if (_MISSING_ICON == iconOrMissing) {
+                    return 0;
+                }
+                long byteCount =
+                    PThemeIconCachePolicy.getPixelByteCount((PThemeImageIcon) iconOrMissing);
+                int x = (int) Math.min(byteCount, Integer.MAX_VALUE);
+                return x;
+            }
+        };
+    
+    /**
+     * @return policy that controls how many icons are cached.  Never {@code null}
+     * 
+     * @see #getCacheStats()
+     */
+    public PThemeIconCachePolicy getCachePolicy() {
+        return _cachePolicy;
+    }
+    
+    /**
+     * Retrieves a snapshot of cache counters, such as {@link CacheStats#hitCount()},
+     * {@link CacheStats#missCount()}, and {@link CacheStats#evictionCount()}.  Each call to
+     * {@link #tryGetIcon(PThemeIconName)} counts as one hit or one miss.
+     * 
+     * @return never {@code null}
+     * 
+     * @see #getCachePolicy()
+     */
+    public CacheStats getCacheStats() {
+        CacheStats x = _nameToIconCache.stats();
+        return x;
+    }
+    
+    /**
+     * Discards all cached icons, including cached missing icons.  The next call to
+     * {@link #tryGetIcon(PThemeIconName)} for each name creates a new instance.  Widgets that hold
+     * a reference may continue to paint discarded icons.
+     * <p>
+     * Subclasses call this method when their source of icons changes.
+     * 
+     * @see PThemeIconLoaderFixedDimensionFromPngFile#rescan()
+     */
+    protected void invalidateIconCache() {
+        _nameToIconCache.invalidateAll();
+    }
+    
     /**
      * @see PThemeImageIcon#ignoreIconLoadErrors()
      */
@@ -91,6 +214,9 @@ public abstract class PThemeIconLoaderAbstract {
      * Only when the {@link Icon} is painted does the thread block to wait for loading to complete.
      * This method is cached, so subsequent calls will return the same reference.
      * <p>
+     * This method is thread-safe.  Cache hits never block, and a slow icon creation for one name
+     * does not stall requests for other names.
+     * <p>
      * To guarantee the result is non-{@code null}, call {@link #getIcon(PThemeIconName)}.
      * 
      * @param name
@@ -105,25 +231,24 @@ public abstract class PThemeIconLoaderAbstract {
      * @see #iconExists(PThemeIconName)
      * @see #getUrl(PThemeIconName)
      * @see #createThemeImageIcon(PThemeIconName)
+     * @see #preload(Collection, Executor)
      */
     public PThemeImageIcon tryGetIcon(PThemeIconName name) {
         ObjectArgs.checkNotNull(name, "name");
         
-        synchronized (_nameToIconMap) {
-            // Use containsKey() & get() here to allow for null icons.
-            if (_nameToIconMap.containsKey(name)) {
-                PThemeImageIcon icon = _nameToIconMap.get(name);
-                return icon;
-            }
-            PThemeImageIcon icon = createThemeImageIcon(name);
-            if (null != icon) {
-                boolean ignoreErrors = ignoreIconLoadErrors();
-                icon.ignoreIconLoadErrors(ignoreErrors);
-            }
-            // icon may be null here.
-            _nameToIconMap.put(name, icon);
-            return icon;
+        Object iconOrMissing;
+        try {
+            iconOrMissing = _nameToIconCache.getUnchecked(name);
+        }
+        catch (UncheckedExecutionException e) {
+            // Rethrow the original exception from createThemeImageIcon(), e.g.,
+            // IllegalStateException.
+            throw Throwables.propagate(e.getCause());
         }
+        // icon may be null here.
+        PThemeImageIcon icon =
+            (_MISSING_ICON == iconOrMissing ? null : (PThemeImageIcon) iconOrMissing);
+        return icon;
     }
     
     /**
@@ -158,6 +283,77 @@ public abstract class PThemeIconLoaderAbstract {
         return icon;
     }
     
+    private PThemeImageIcon _createThemeImageIcon(PThemeIconName name) {
+        PThemeImageIcon icon = createThemeImageIcon(name);
+        if (null != icon) {
+            boolean ignoreErrors = ignoreIconLoadErrors();
+            icon.ignoreIconLoadErrors(ignoreErrors);
+            // Icon is fully constructed: Safe to begin a background load, if any.
+            icon.startAsyncLoad();
+        }
+        return icon;
+    }
+    
+    /**
+     * Retrieves and loads many icons in parallel.  For each name, a task is submitted to
+     * {@code executor} that calls {@link #tryGetIcon(PThemeIconName)}, then blocks in
+     * {@link PImageIconAsync#waitForLoad()} until the image is decoded.  As each icon is cached,
+     * later calls to {@link #tryGetIcon(PThemeIconName)} and {@link #getIcon(PThemeIconName)}
+     * return the same (already loaded) reference.
+     * <p>
+     * This method is intended for application start-up, where hundreds of icons may be requested.
+     * Instead of loading one icon at a time on the calling thread, the load time scales with the
+     * number of threads in {@code executor}.
+     * <p>
+     * Icon load errors do not fail the result.  Instead, check the load status of each icon via
+     * {@link PImageIconAsync#getImageLoadStatusAsEnum()}.
+     * 
+     * @param nameCollection
+     *        ids of icons to load.  Must not be {@code null} or contain {@code null} values.
+     *        May be empty
+     * @param executor
+     *        runs the load tasks, e.g., a thread pool from
+     *        {@link java.util.concurrent.Executors#newFixedThreadPool(int)}.
+     *        Must not be {@code null}
+     * 
+     * @return future that completes when all icons are done loading.  The list has the same order
+     *         as {@code nameCollection}.  If an icon is not found, its list element is
+     *         {@code null}.  If any task is interrupted, the future fails.
+     * 
+     * @throws NullPointerException
+     *         if {@code nameCollection} (or any element) or {@code executor} is {@code null}
+     * 
+     * @see #tryGetIcon(PThemeIconName)
+     * @see PImageIconAsync#waitForLoad()
+     */
+    public ListenableFuture<List<PThemeImageIcon>> preload(
+            Collection<PThemeIconName> nameCollection, Executor executor) {
+        CollectionArgs.checkElementsNotNull(nameCollection, "nameCollection");
+        ObjectArgs.checkNotNull(executor, "executor");
+        
+        final int size = nameCollection.size();
+        List<ListenableFuture<PThemeImageIcon>> futureList =
+            new ArrayList<ListenableFuture<PThemeImageIcon>>(size);
+        for (final PThemeIconName name: nameCollection) {
+            ListenableFutureTask<PThemeImageIcon> task =
+                ListenableFutureTask.create(new Callable<PThemeImageIcon>() {
+                    @Override
+                    public PThemeImageIcon call()
+                    throws InterruptedException {
+                        PThemeImageIcon icon = tryGetIcon(name);
+                        if (null != icon) {
+                            icon.waitForLoad();
+                        }
+                        return icon;
+                    }
+                });
+            futureList.add(task);
+            executor.execute(task);
+        }
+        ListenableFuture<List<PThemeImageIcon>> x = Futures.allAsList(futureList);
+        return x;
+    }
+    
     /**
      * Tests if an icon exists, but does not guarantee it can be successfully loaded.
      * 
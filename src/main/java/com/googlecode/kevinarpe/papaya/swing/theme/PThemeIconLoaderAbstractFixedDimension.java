@@ -52,15 +52,27 @@ extends PThemeIconLoaderAbstract {
      */
     private final PImmutableDimension _fixedDimension;
     
+    /**
+     * This is a convenience constructor to call
+     * {@link #PThemeIconLoaderAbstractFixedDimension(PImmutableDimension, PThemeIconCachePolicy)}
+     * with {@link PThemeIconCachePolicy#UNBOUNDED}.
+     */
+    protected PThemeIconLoaderAbstractFixedDimension(PImmutableDimension fixedDimension) {
+        this(fixedDimension, PThemeIconCachePolicy.UNBOUNDED);
+    }
+    
     /**
      * @param fixedDimension
      *        dimension for icons to load.  Must not be {@code null}
+     * @param cachePolicy
+     *        controls how many icons are cached.  Must not be {@code null}
      * 
      * @throws NullPointerException
-     *         if {@code fixedDimension} is {@code null}
+     *         if {@code fixedDimension} or {@code cachePolicy} is {@code null}
      */
-    protected PThemeIconLoaderAbstractFixedDimension(PImmutableDimension fixedDimension) {
-        super();
+    protected PThemeIconLoaderAbstractFixedDimension(
+            PImmutableDimension fixedDimension, PThemeIconCachePolicy cachePolicy) {
+        super(cachePolicy);
         _fixedDimension = ObjectArgs.checkNotNull(fixedDimension, "fixedDimension");
     }
     
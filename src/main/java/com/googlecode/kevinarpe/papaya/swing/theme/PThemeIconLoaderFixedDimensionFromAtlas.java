@@ -0,0 +1,229 @@
+package com.googlecode.kevinarpe.papaya.swing.theme;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.concurrent.Callable;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import com.googlecode.kevinarpe.papaya.annotation.NotFullyTested;
+import com.googlecode.kevinarpe.papaya.argument.ObjectArgs;
+import com.googlecode.kevinarpe.papaya.exception.PathException;
+import com.googlecode.kevinarpe.papaya.swing.PMediaTrackerLoadStatus;
+
+/**
+ * Implementation of {@link PThemeIconLoaderAbstractFixedDimension} to load icons from a single
+ * {@link PThemeIconAtlas}.  Compared to {@link PThemeIconLoaderFixedDimensionFromPngFile}:
+ * <ul>
+ *   <li>Start-up: One file open and one decode, instead of one per icon.</li>
+ *   <li>Heap: One raster, instead of one image (plus decoder and {@code MediaTracker} state) per
+ *   icon.</li>
+ *   <li>Paint: All icons are painted from the same source image, so Java2D keeps one cached
+ *   surface, and consecutive icons do not change the source surface.</li>
+ * </ul>
+ * <p>
+ * Icons are already loaded when returned by {@link #tryGetIcon(PThemeIconName)}: Load status is
+ * always {@link PMediaTrackerLoadStatus#COMPLETE}.  {@link PThemeImageIcon#getImage()} returns a
+ * sub-image that shares the atlas raster, but is never painted.  Thus,
+ * {@link PThemeImageIcon#setAcceleratedPaint(boolean)} has no effect: A volatile image copy per
+ * icon would add back one surface per icon.
+ * 
+ * @author Kevin Connor ARPE (kevinarpe@gmail.com)
+ * 
+ * @see PThemeIconAtlas
+ * @see PThemeIconLoaderAbstract
+ */
+@NotFullyTested
+public class PThemeIconLoaderFixedDimensionFromAtlas
+extends PThemeIconLoaderAbstractFixedDimension {
+    
+    private final PThemeIconAtlas _atlas;
+    private final URL _atlasUrl;
+    
+    /**
+     * This is a convenience constructor to call
+     * {@link #PThemeIconLoaderFixedDimensionFromAtlas(File, PThemeIconCachePolicy)}
+     * with {@link PThemeIconCachePolicy#UNBOUNDED}.
+     */
+    public PThemeIconLoaderFixedDimensionFromAtlas(File atlasFilePath)
+    throws PathException, IOException {
+        this(atlasFilePath, PThemeIconCachePolicy.UNBOUNDED);
+    }
+    
+    /**
+     * Creates a theme icon loader from an atlas file written by
+     * {@link PThemeIconAtlas#write(File)}.
+     * 
+     * @param atlasFilePath
+     *        atlas image file path.  Must not be {@code null}
+     * @param cachePolicy
+     *        controls how many icons are cached.  Must not be {@code null}
+     * 
+     * @throws NullPointerException
+     *         if {@code atlasFilePath} or {@code cachePolicy} is {@code null}
+     * @throws PathException
+     *         see {@link PThemeIconAtlas#read(File)}
+     * @throws IOException
+     *         see {@link PThemeIconAtlas#read(File)}
+     */
+    public PThemeIconLoaderFixedDimensionFromAtlas(
+            File atlasFilePath, PThemeIconCachePolicy cachePolicy)
+    throws PathException, IOException {
+        this(PThemeIconAtlas.read(atlasFilePath), atlasFilePath.toURI().toURL(), cachePolicy);
+    }
+    
+    /**
+     * Creates a theme icon loader from an atlas in memory.
+     * 
+     * @param atlas
+     *        source of all icons.  Must not be {@code null}
+     * @param atlasUrl
+     *        location of atlas image.  Used to create {@link PThemeImageIcon#getUrl()}.
+     *        Must not be {@code null}
+     * @param cachePolicy
+     *        controls how many icons are cached.  Must not be {@code null}
+     * 
+     * @throws NullPointerException
+     *         if {@code atlas}, {@code atlasUrl}, or {@code cachePolicy} is {@code null}
+     */
+    public PThemeIconLoaderFixedDimensionFromAtlas(
+            PThemeIconAtlas atlas, URL atlasUrl, PThemeIconCachePolicy cachePolicy) {
+        super(ObjectArgs.checkNotNull(atlas, "atlas").getIconDimension(), cachePolicy);
+        _atlas = atlas;
+        _atlasUrl = ObjectArgs.checkNotNull(atlasUrl, "atlasUrl");
+    }
+    
+    /**
+     * Source of all icons
+     */
+    public PThemeIconAtlas getAtlas() {
+        return _atlas;
+    }
+    
+    /**
+     * Location of atlas image
+     */
+    public URL getAtlasUrl() {
+        return _atlasUrl;
+    }
+    
+    /**
+     * Creates a URL for the theme icon: {@link #getAtlasUrl()} with reference (fragment)
+     * {@code name.name()}, e.g., {@code "file:/theme-xyz-32x32.png#EDIT_REDO"}.  No file
+     * system access is required.
+     * <hr>
+     * Docs from {@link PThemeIconLoaderAbstract#getUrl(PThemeIconName)}:
+     * <p>
+     * {@inheritDoc}
+     * 
+     * @throws IllegalStateException
+     *         if creating the URL fails
+     */
+    @Override
+    protected URL getUrl(PThemeIconName name) {
+        ObjectArgs.checkNotNull(name, "name");
+        
+        if (!_atlas.getNameSet().contains(name)) {
+            return null;
+        }
+        try {
+            URL x = new URL(_atlasUrl, "#" + name.name());
+            return x;
+        }
+        catch (MalformedURLException e) {
+            String msg = String.format("Failed to create URL for atlas '%s' and name %s",
+                _atlasUrl, name.name());
+            throw new IllegalStateException(msg, e);
+        }
+    }
+    
+    @Override
+    protected PThemeImageIcon createThemeImageIcon(final PThemeIconName name) {
+        ObjectArgs.checkNotNull(name, "name");
+        
+        URL url = getUrl(name);
+        if (null == url) {
+            return null;
+        }
+        Rectangle bounds = _atlas.tryGetIconBounds(name);
+        PThemeImageIcon x = new _AtlasThemeImageIcon(_atlas, bounds, name, url);
+        return x;
+    }
+    
+    /**
+     * Paints directly from the shared atlas image, instead of a sub-image.
+     */
+    @SuppressWarnings("serial")
+    private static final class _AtlasThemeImageIcon
+    extends PThemeImageIcon {
+        
+        private final BufferedImage _atlasImage;
+        private final Rectangle _bounds;
+        
+        private _AtlasThemeImageIcon(
+                final PThemeIconAtlas atlas,
+                Rectangle bounds,
+                final PThemeIconName name,
+                URL url) {
+            super(
+                atlas.getIconDimension(),
+                name,
+                url,
+                new Callable<BufferedImage>() {
+                    @Override
+                    public BufferedImage call() {
+                        // Sub-image shares the atlas raster: Loading is trivial.
+                        BufferedImage x = atlas.tryGetIconImage(name);
+                        return x;
+                    }
+                },
+                MoreExecutors.sameThreadExecutor());
+            _atlasImage = atlas.getImage();
+            _bounds = bounds;
+        }
+        
+        @Override
+        public void paintIcon(Component c, Graphics g, int x, int y) {
+            if (PMediaTrackerLoadStatus.COMPLETE != getImageLoadStatusAsEnum()) {
+                // Not yet loaded or failed: Paint policy applies.
+                super.paintIcon(c, g, x, y);
+                return;
+            }
+            g.drawImage(
+                _atlasImage,
+                x, y, x + _bounds.width, y + _bounds.height,
+                _bounds.x, _bounds.y, _bounds.x + _bounds.width, _bounds.y + _bounds.height,
+                null);
+        }
+    }
+}
@@ -29,6 +29,12 @@ import java.io.File;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
 import com.googlecode.kevinarpe.papaya.annotation.FullyTested;
 import com.googlecode.kevinarpe.papaya.argument.ObjectArgs;
@@ -55,7 +61,26 @@ extends PThemeIconLoaderAbstractFixedDimension {
     public static final String FILE_EXTENSION = "png";
     
     private final File _baseDirPath;
+    private volatile PThemeIconRasterCache _optRasterCache;
+    
+    /**
+     * Immutable index of icon files, or {@code null} before first scan.
+     * 
+     * @see #rescan()
+     */
+    private volatile Map<PThemeIconName, URL> _optNameToUrlMap;
 
+    /**
+     * This is a convenience constructor to call
+     * {@link #PThemeIconLoaderFixedDimensionFromPngFile(PImmutableDimension, File, PThemeIconCachePolicy)}
+     * with {@link PThemeIconCachePolicy#UNBOUNDED}.
+     */
+    public PThemeIconLoaderFixedDimensionFromPngFile(
+            PImmutableDimension fixedDimension, File baseDirPath)
+    throws PathException {
+        this(fixedDimension, baseDirPath, PThemeIconCachePolicy.UNBOUNDED);
+    }
+    
     /**
      * Creates a theme icon loader for PNG icons stored as files on disk.
      * 
@@ -64,24 +89,24 @@ extends PThemeIconLoaderAbstractFixedDimension {
      * @param baseDirPath
      *        base directory path to icon files on disk, e.g., {@code "resources/theme-xyz/icons"}.
      *        Must not be {@code null}
+     * @param cachePolicy
+     *        controls how many icons are cached.  Must not be {@code null}
      * 
      * @throws NullPointerException
-     *         if {@code fixedDimension} or {@code baseDirPath} is {@code null}
+     *         if {@code fixedDimension}, {@code baseDirPath}, or {@code cachePolicy} is
+     *         {@code null}
      * @throws PathException
      * <ul>
      *   <li>with reason {@link PathExceptionReason#PATH_DOES_NOT_EXIST}
      *   if {@code baseDirPath} does not exist</li>
      *   <li>with reason {@link PathExceptionReason#PATH_IS_FILE}
      *   if {@code baseDirPath} exists, but is not a directory</li>
-     *   <li></li>
      * </ul>
-     * 
-     * @throws PathException
      */
     public PThemeIconLoaderFixedDimensionFromPngFile(
-            PImmutableDimension fixedDimension, File baseDirPath)
+            PImmutableDimension fixedDimension, File baseDirPath, PThemeIconCachePolicy cachePolicy)
     throws PathException {
-        super(fixedDimension);
+        super(fixedDimension, cachePolicy);
         PathArgs.checkDirectoryExists(baseDirPath, "baseDirPath");
         this._baseDirPath = baseDirPath.getAbsoluteFile();
     }
@@ -92,7 +117,101 @@ extends PThemeIconLoaderAbstractFixedDimension {
     public File getBaseDirPath() {
         return _baseDirPath;
     }
+    
+    /**
+     * Retrieves the optional on-disk cache of decoded icons.
+     * <p>
+     * The default value is {@code null}.
+     * 
+     * @return may be {@code null}
+     * 
+     * @see #setRasterCache(PThemeIconRasterCache)
+     */
+    public PThemeIconRasterCache getRasterCache() {
+        return _optRasterCache;
+    }
+    
+    /**
+     * Sets the optional on-disk cache of decoded icons.  If not {@code null}, icons created after
+     * this call are read from cache on {@link PThemeIconRasterCache#getExecutor()}, and only
+     * decoded from PNG if missing or stale.  Icons already created are not affected.
+     * <p>
+     * The default value is {@code null}: Each icon is decoded from PNG by
+     * {@link java.awt.MediaTracker}.
+     * 
+     * @param optRasterCache
+     *        cache of decoded icons.  May be {@code null}
+     * 
+     * @see #getRasterCache()
+     */
+    public void setRasterCache(PThemeIconRasterCache optRasterCache) {
+        _optRasterCache = optRasterCache;
+    }
 
+    /**
+     * Scans the icon directory for this dimension into a new in-memory index, then replaces the
+     * current index.  If the index changed, all cached icons are discarded, so icons added or
+     * removed since the last scan are found by {@link #tryGetIcon(PThemeIconName)}.
+     * <p>
+     * The first call to {@link #getUrl(PThemeIconName)} scans automatically.  Afterwards, icon
+     * lookups never access the file system, e.g., a network stat on NFS.  Call this method after
+     * theme files change on disk.
+     * <p>
+     * One directory listing is required per {@link PThemeIconContextName}:
+     * {@code <baseDirPath>/<WxH>/<context>}.
+     * 
+     * @return number of icons found
+     * 
+     * @see #getUrl(PThemeIconName)
+     */
+    public int rescan() {
+        Map<PThemeIconName, URL> newMap = _scan();
+        Map<PThemeIconName, URL> optOldMap = _optNameToUrlMap;
+        _optNameToUrlMap = newMap;
+        if (null != optOldMap && !optOldMap.equals(newMap)) {
+            invalidateIconCache();
+        }
+        int x = newMap.size();
+        return x;
+    }
+    
+    private Map<PThemeIconName, URL> _getNameToUrlMap() {
+        Map<PThemeIconName, URL> x = _optNameToUrlMap;
+        if (null == x) {
+            // Harmless race: Two threads may scan at the same time.
+            x = _scan();
+            _optNameToUrlMap = x;
+        }
+        return x;
+    }
+    
+    private Map<PThemeIconName, URL> _scan() {
+        final File dimDirPath = new File(_baseDirPath, getFixedDimension().getDescription());
+        final String fileNameSuffix = "." + FILE_EXTENSION;
+        EnumMap<PThemeIconName, URL> map = new EnumMap<PThemeIconName, URL>(PThemeIconName.class);
+        Map<PThemeIconContextName, Set<String>> contextToFileNameSetMap =
+            new EnumMap<PThemeIconContextName, Set<String>>(PThemeIconContextName.class);
+        for (PThemeIconName name: PThemeIconName.values()) {
+            Set<String> fileNameSet = contextToFileNameSetMap.get(name.context);
+            if (null == fileNameSet) {
+                // Returns null if directory does not exist.
+                String[] optFileNameArr = new File(dimDirPath, name.context.dirName).list();
+                fileNameSet =
+                    (null == optFileNameArr
+                        ? Collections.<String>emptySet()
+                        : new HashSet<String>(Arrays.asList(optFileNameArr)));
+                contextToFileNameSetMap.put(name.context, fileNameSet);
+            }
+            if (fileNameSet.contains(name.baseFileName + fileNameSuffix)) {
+                File filePath = _getFilePath(name);
+                URL url = _toUrl(filePath);
+                map.put(name, url);
+            }
+        }
+        Map<PThemeIconName, URL> x = Collections.unmodifiableMap(map);
+        return x;
+    }
+    
     /**
      * Creates a file path-based URL for the theme icon.  These are the file path parts:
      * <ol>
@@ -115,6 +234,8 @@ extends PThemeIconLoaderAbstractFixedDimension {
      * <p>
      * Example: {@link PThemeIconName#ADDRESS_BOOK_NEW} may map to
      * {@code "img/32x32/actions/address-book-new.png"}
+     * <p>
+     * URLs are read from an in-memory index of the icon directory.  See {@link #rescan()}.
      * <hr>
      * Docs from {@link PThemeIconLoaderAbstract#getUrl(PThemeIconName)}:
      * <p>
@@ -127,16 +248,43 @@ extends PThemeIconLoaderAbstractFixedDimension {
     protected URL getUrl(PThemeIconName name) {
         ObjectArgs.checkNotNull(name, "name");
         
+        URL x = _getNameToUrlMap().get(name);
+        return x;
+    }
+    
+    /**
+     * Retrieves the file path for a theme icon.  Same as {@link #getUrl(PThemeIconName)}, but
+     * returns a {@link File}.
+     * 
+     * @param name
+     *        id of icon to retrieve.  Must not be {@code null}
+     * 
+     * @return file path for a theme icon, or {@code null} if not exists
+     * 
+     * @throws NullPointerException
+     *         if {@code name} is {@code null}
+     */
+    File getFilePath(PThemeIconName name) {
+        URL url = getUrl(name);
+        if (null == url) {
+            return null;
+        }
+        File x = _getFilePath(name);
+        return x;
+    }
+    
+    private File _getFilePath(PThemeIconName name) {
         PImmutableDimension dim = getFixedDimension();
-        File filePath =
+        File x =
             new File(
                 new File(
                     new File(_baseDirPath, dim.getDescription()),
                     name.context.dirName),
                 name.baseFileName + ".png");
-        if (!filePath.exists()) {
-            return null;
-        }
+        return x;
+    }
+    
+    private static URL _toUrl(File filePath) {
         URI uri = filePath.toURI();
         try {
             URL url = uri.toURL();
@@ -162,6 +310,18 @@ extends PThemeIconLoaderAbstractFixedDimension {
             return null;
         }
         PImmutableDimension dim = getFixedDimension();
+        final PThemeIconRasterCache optRasterCache = getRasterCache();
+        if (null != optRasterCache) {
+            File filePath = _getFilePath(name);
+            PThemeImageIcon x =
+                new PThemeImageIcon(
+                    dim,
+                    name,
+                    url,
+                    optRasterCache.newImageLoader(filePath),
+                    optRasterCache.getExecutor());
+            return x;
+        }
         PThemeImageIcon x = new PThemeImageIcon(dim, name, url);
         return x;
     }
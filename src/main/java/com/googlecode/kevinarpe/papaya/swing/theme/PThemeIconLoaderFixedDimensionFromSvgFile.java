@@ -0,0 +1,321 @@
+package com.googlecode.kevinarpe.papaya.swing.theme;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import org.apache.batik.transcoder.TranscoderException;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Function;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.googlecode.kevinarpe.papaya.annotation.NotFullyTested;
+import com.googlecode.kevinarpe.papaya.argument.CollectionArgs;
+import com.googlecode.kevinarpe.papaya.argument.ObjectArgs;
+import com.googlecode.kevinarpe.papaya.argument.PathArgs;
+import com.googlecode.kevinarpe.papaya.exception.PathException;
+import com.googlecode.kevinarpe.papaya.exception.PathException.PathExceptionReason;
+import com.googlecode.kevinarpe.papaya.swing.PImmutableDimension;
+import com.googlecode.kevinarpe.papaya.swing.PMediaTrackerLoadStatus;
+import com.googlecode.kevinarpe.papaya.swing.PSvgRasterizer;
+
+/**
+ * Implementation of {@link PThemeIconLoaderAbstractFixedDimension} to render SVG images from file
+ * at any dimension.  These are the file path parts:
+ * {@code <baseDirPath>/scalable/<context>/<name>.svg}.  Most modern freedesktop.org themes are
+ * SVG, so one source serves every dimension (and screen resolution).
+ * <p>
+ * Each icon is rendered by {@link PSvgRasterizer#rasterize(URI, int, int)} on
+ * {@link PSvgRasterizer#getExecutor()}.  To render a whole icon set in parallel, call
+ * {@link #rasterizeAllAsync()} with a multi-threaded executor, e.g., one thread per core.
+ * Loaders for different dimensions may share a {@link PSvgRasterizer}, so each SVG file is
+ * parsed once.
+ * <p>
+ * This class is highly experimental, like {@link PSvgRasterizer}.
+ * 
+ * @author Kevin Connor ARPE (kevinarpe@gmail.com)
+ * 
+ * @see PThemeIconLoaderFixedDimensionFromPngFile
+ * @see PThemeIconLoaderAbstract
+ */
+@NotFullyTested
+@Beta
+public class PThemeIconLoaderFixedDimensionFromSvgFile
+extends PThemeIconLoaderAbstractFixedDimension {
+    
+    /**
+     * Does not include the dot -- only {@code "svg"}.  Case matters in most file systems!
+     */
+    public static final String FILE_EXTENSION = "svg";
+    
+    /**
+     * Directory name for scalable icons under the base directory: {@code "scalable"}
+     */
+    public static final String SCALABLE_DIR_NAME = "scalable";
+    
+    private final File _baseDirPath;
+    private final PSvgRasterizer _rasterizer;
+    
+    /**
+     * Immutable index of icon files, or {@code null} before first scan.
+     */
+    private volatile Map<PThemeIconName, URI> _optNameToUriMap;
+    
+    /**
+     * This is a convenience constructor to call
+     * {@link #PThemeIconLoaderFixedDimensionFromSvgFile(PImmutableDimension, File, PSvgRasterizer, PThemeIconCachePolicy)}
+     * with {@link PThemeIconCachePolicy#UNBOUNDED}.
+     */
+    public PThemeIconLoaderFixedDimensionFromSvgFile(
+            PImmutableDimension fixedDimension, File baseDirPath, PSvgRasterizer rasterizer)
+    throws PathException {
+        this(fixedDimension, baseDirPath, rasterizer, PThemeIconCachePolicy.UNBOUNDED);
+    }
+    
+    /**
+     * Creates a theme icon loader for SVG icons stored as files on disk.
+     * 
+     * @param fixedDimension
+     *        dimension to render icons.  Must not be {@code null}
+     * @param baseDirPath
+     *        base directory path to icon files on disk, e.g., {@code "resources/theme-xyz/icons"}.
+     *        Must not be {@code null}
+     * @param rasterizer
+     *        renders and caches SVG data.  May be shared by many loaders.
+     *        Must not be {@code null}
+     * @param cachePolicy
+     *        controls how many icons are cached.  Must not be {@code null}
+     * 
+     * @throws NullPointerException
+     *         if any argument is {@code null}
+     * @throws PathException
+     * <ul>
+     *   <li>with reason {@link PathExceptionReason#PATH_DOES_NOT_EXIST}
+     *   if {@code baseDirPath} does not exist</li>
+     *   <li>with reason {@link PathExceptionReason#PATH_IS_FILE}
+     *   if {@code baseDirPath} exists, but is not a directory</li>
+     * </ul>
+     */
+    public PThemeIconLoaderFixedDimensionFromSvgFile(
+            PImmutableDimension fixedDimension,
+            File baseDirPath,
+            PSvgRasterizer rasterizer,
+            PThemeIconCachePolicy cachePolicy)
+    throws PathException {
+        super(fixedDimension, cachePolicy);
+        PathArgs.checkDirectoryExists(baseDirPath, "baseDirPath");
+        _baseDirPath = baseDirPath.getAbsoluteFile();
+        _rasterizer = ObjectArgs.checkNotNull(rasterizer, "rasterizer");
+    }
+    
+    /**
+     * Base directory path to icon files on disk, e.g., {@code "resources/theme-xyz/icons"}
+     */
+    public File getBaseDirPath() {
+        return _baseDirPath;
+    }
+    
+    /**
+     * Renders and caches SVG data
+     */
+    public PSvgRasterizer getRasterizer() {
+        return _rasterizer;
+    }
+    
+    private Map<PThemeIconName, URI> _getNameToUriMap() {
+        Map<PThemeIconName, URI> x = _optNameToUriMap;
+        if (null == x) {
+            // Harmless race: Two threads may scan at the same time.
+            x = _scan();
+            _optNameToUriMap = x;
+        }
+        return x;
+    }
+    
+    private Map<PThemeIconName, URI> _scan() {
+        final File scalableDirPath = new File(_baseDirPath, SCALABLE_DIR_NAME);
+        final String fileNameSuffix = "." + FILE_EXTENSION;
+        EnumMap<PThemeIconName, URI> map = new EnumMap<PThemeIconName, URI>(PThemeIconName.class);
+        Map<PThemeIconContextName, Set<String>> contextToFileNameSetMap =
+            new EnumMap<PThemeIconContextName, Set<String>>(PThemeIconContextName.class);
+        for (PThemeIconName name: PThemeIconName.values()) {
+            Set<String> fileNameSet = contextToFileNameSetMap.get(name.context);
+            if (null == fileNameSet) {
+                // Returns null if directory does not exist.
+                String[] optFileNameArr = new File(scalableDirPath, name.context.dirName).list();
+                fileNameSet =
+                    (null == optFileNameArr
+                        ? Collections.<String>emptySet()
+                        : new HashSet<String>(Arrays.asList(optFileNameArr)));
+                contextToFileNameSetMap.put(name.context, fileNameSet);
+            }
+            String fileName = name.baseFileName + fileNameSuffix;
+            if (fileNameSet.contains(fileName)) {
+                File filePath =
+                    new File(new File(scalableDirPath, name.context.dirName), fileName);
+                map.put(name, filePath.toURI());
+            }
+        }
+        Map<PThemeIconName, URI> x = Collections.unmodifiableMap(map);
+        return x;
+    }
+    
+    /**
+     * Creates a file path-based URL for the theme icon:
+     * {@code <baseDirPath>/scalable/<context>/<name>.svg}.  The directory for each
+     * {@link PThemeIconContextName} is listed once, on first call.
+     * <hr>
+     * Docs from {@link PThemeIconLoaderAbstract#getUrl(PThemeIconName)}:
+     * <p>
+     * {@inheritDoc}
+     * 
+     * @throws IllegalStateException
+     *         if converting file path to URL fails
+     */
+    @Override
+    protected URL getUrl(PThemeIconName name) {
+        ObjectArgs.checkNotNull(name, "name");
+        
+        URI optUri = _getNameToUriMap().get(name);
+        if (null == optUri) {
+            return null;
+        }
+        try {
+            URL x = optUri.toURL();
+            return x;
+        }
+        catch (MalformedURLException e) {
+            String msg = String.format("Failed to convert file path to URL: '%s'", optUri);
+            throw new IllegalStateException(msg, e);
+        }
+    }
+    
+    /**
+     * @throws IllegalStateException
+     *         thrown by {@link #getUrl(PThemeIconName)} if converting file path to URL fails
+     */
+    @Override
+    protected PThemeImageIcon createThemeImageIcon(PThemeIconName name) {
+        ObjectArgs.checkNotNull(name, "name");
+        
+        URL url = getUrl(name);
+        if (null == url) {
+            return null;
+        }
+        final URI uri = _getNameToUriMap().get(name);
+        final PImmutableDimension dim = getFixedDimension();
+        PThemeImageIcon x =
+            new PThemeImageIcon(
+                dim,
+                name,
+                url,
+                new Callable<BufferedImage>() {
+                    @Override
+                    public BufferedImage call()
+                    throws IOException, TranscoderException {
+                        BufferedImage y = _rasterizer.rasterize(uri, dim.width, dim.height);
+                        return y;
+                    }
+                },
+                _rasterizer.getExecutor());
+        return x;
+    }
+    
+    /**
+     * This is a convenience method to call {@link #rasterizeAsync(Collection)} for all icons
+     * found on disk.
+     */
+    public ListenableFuture<List<PThemeImageIcon>> rasterizeAllAsync() {
+        Set<PThemeIconName> nameSet = _getNameToUriMap().keySet();
+        ListenableFuture<List<PThemeImageIcon>> x =
+            rasterizeAsync(new ArrayList<PThemeIconName>(nameSet));
+        return x;
+    }
+    
+    /**
+     * Renders many icons in parallel on {@link PSvgRasterizer#getExecutor()}.  All render tasks
+     * are submitted before this method returns.  No thread is blocked while waiting, unlike
+     * {@link #preload(Collection, java.util.concurrent.Executor)}.
+     * 
+     * @param nameCollection
+     *        collection of icon names to render.  Must not be {@code null}, or contain any
+     *        {@code null} elements.  May be empty
+     * 
+     * @return future that completes when all icons are done loading.  The list has the same order
+     *         as {@code nameCollection}.  If an icon is not found, its list element is
+     *         {@code null}.  Check each icon for errors with
+     *         {@link PThemeImageIcon#getImageLoadStatusAsEnum()}.
+     * 
+     * @throws NullPointerException
+     *         if {@code nameCollection} (or any element) is {@code null}
+     * 
+     * @see #rasterizeAllAsync()
+     */
+    public ListenableFuture<List<PThemeImageIcon>> rasterizeAsync(
+            Collection<PThemeIconName> nameCollection) {
+        CollectionArgs.checkElementsNotNull(nameCollection, "nameCollection");
+        
+        final List<PThemeImageIcon> iconList =
+            new ArrayList<PThemeImageIcon>(nameCollection.size());
+        List<ListenableFuture<PMediaTrackerLoadStatus>> futureList =
+            new ArrayList<ListenableFuture<PMediaTrackerLoadStatus>>(nameCollection.size());
+        for (PThemeIconName name: nameCollection) {
+            // Submits render task, unless already cached.
+            PThemeImageIcon optIcon = tryGetIcon(name);
+            iconList.add(optIcon);
+            if (null != optIcon) {
+                futureList.add(optIcon.asFuture());
+            }
+        }
+        ListenableFuture<List<PThemeImageIcon>> x =
+            Futures.transform(
+                Futures.allAsList(futureList),
+                new Function<List<PMediaTrackerLoadStatus>, List<PThemeImageIcon>>() {
+                    @Override
+                    public List<PThemeImageIcon> apply(List<PMediaTrackerLoadStatus> statusList) {
+                        List<PThemeImageIcon> y = Collections.unmodifiableList(iconList);
+                        return y;
+                    }
+                });
+        return x;
+    }
+}
@@ -0,0 +1,325 @@
+package com.googlecode.kevinarpe.papaya.swing.theme;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.awt.image.BufferedImage;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import javax.imageio.ImageIO;
+
+import com.googlecode.kevinarpe.papaya.annotation.NotFullyTested;
+import com.googlecode.kevinarpe.papaya.argument.ObjectArgs;
+import com.googlecode.kevinarpe.papaya.argument.PathArgs;
+import com.googlecode.kevinarpe.papaya.exception.PathException;
+import com.googlecode.kevinarpe.papaya.exception.PathException.PathExceptionReason;
+import com.googlecode.kevinarpe.papaya.swing.PImmutableDimension;
+
+/**
+ * Implementation of {@link PThemeIconLoaderAbstractFixedDimension} to load PNG images from a JAR
+ * or zip file, e.g., a theme shipped inside the application JAR.  The entry layout matches
+ * {@link PThemeIconLoaderFixedDimensionFromPngFile}:
+ * {@code <baseEntryPath>/<WxH>/<context>/<name>.png}.
+ * <p>
+ * Entries are indexed once by the constructor: Later lookups never scan the zip file.  Each icon
+ * is decoded by {@link ImageIO} directly from its entry stream (no temporary files) on a
+ * background thread.  {@link ZipFile} supports concurrent entry streams, so many icons decode in
+ * parallel, e.g., via {@link #preload(java.util.Collection, Executor)}.
+ * <p>
+ * The zip file stays open until {@link #close()}.  After close, the icon cache is empty, and
+ * {@link #tryGetIcon(PThemeIconName)} (and methods that call it) throws
+ * {@link IllegalStateException}.  To find the JAR of a class, call
+ * {@code clazz.getProtectionDomain().getCodeSource().getLocation()}.
+ * 
+ * @author Kevin Connor ARPE (kevinarpe@gmail.com)
+ * 
+ * @see PThemeIconLoaderFixedDimensionFromPngFile
+ * @see PThemeIconLoaderAbstract
+ */
+@NotFullyTested
+public class PThemeIconLoaderFixedDimensionFromZipFile
+extends PThemeIconLoaderAbstractFixedDimension
+implements Closeable {
+    
+    private final ZipFile _zipFile;
+    private final String _baseEntryPath;
+    private final Executor _executor;
+    private final Map<PThemeIconName, ZipEntry> _nameToEntryMap;
+    private final String _urlPrefix;
+    private volatile boolean _isClosed;
+    
+    /**
+     * This is a convenience constructor to call
+     * {@link #PThemeIconLoaderFixedDimensionFromZipFile(PImmutableDimension, File, String, Executor, PThemeIconCachePolicy)}
+     * with {@link PThemeIconCachePolicy#UNBOUNDED}.
+     */
+    public PThemeIconLoaderFixedDimensionFromZipFile(
+            PImmutableDimension fixedDimension,
+            File zipFilePath,
+            String baseEntryPath,
+            Executor executor)
+    throws PathException, IOException {
+        this(fixedDimension, zipFilePath, baseEntryPath, executor, PThemeIconCachePolicy.UNBOUNDED);
+    }
+    
+    /**
+     * Creates a theme icon loader for PNG icons stored in a JAR or zip file.  The zip file is
+     * opened and all entries are indexed.
+     * 
+     * @param fixedDimension
+     *        dimension for icons to load.  Must not be {@code null}
+     * @param zipFilePath
+     *        path to JAR or zip file.  Must not be {@code null}
+     * @param baseEntryPath
+     *        entry path prefix of theme inside zip file, e.g., {@code "theme-xyz/icons"}.  Leading
+     *        and trailing slashes are ignored.  If empty, the theme is at the root.
+     *        Must not be {@code null}
+     * @param executor
+     *        runs decode tasks, e.g., a fixed-size thread pool.  Must not be {@code null}
+     * @param cachePolicy
+     *        controls how many icons are cached.  Must not be {@code null}
+     * 
+     * @throws NullPointerException
+     *         if any argument is {@code null}
+     * @throws PathException
+     *         with reason {@link PathExceptionReason#PATH_DOES_NOT_EXIST}
+     *         if {@code zipFilePath} does not exist
+     * @throws IOException
+     *         if {@code zipFilePath} cannot be opened as a zip file
+     */
+    public PThemeIconLoaderFixedDimensionFromZipFile(
+            PImmutableDimension fixedDimension,
+            File zipFilePath,
+            String baseEntryPath,
+            Executor executor,
+            PThemeIconCachePolicy cachePolicy)
+    throws PathException, IOException {
+        super(fixedDimension, cachePolicy);
+        PathArgs.checkFileExists(zipFilePath, "zipFilePath");
+        ObjectArgs.checkNotNull(baseEntryPath, "baseEntryPath");
+        _baseEntryPath = _normalizeBaseEntryPath(baseEntryPath);
+        _executor = ObjectArgs.checkNotNull(executor, "executor");
+        
+        File absZipFilePath = zipFilePath.getAbsoluteFile();
+        _urlPrefix = "jar:" + absZipFilePath.toURI().toURL().toExternalForm() + "!/";
+        _zipFile = new ZipFile(absZipFilePath);
+        try {
+            _nameToEntryMap = _indexEntries();
+        }
+        catch (RuntimeException e) {
+            _zipFile.close();
+            throw e;
+        }
+    }
+    
+    private static String _normalizeBaseEntryPath(String baseEntryPath) {
+        String x = baseEntryPath;
+        while (x.startsWith("/")) {
+            x = x.substring(1);
+        }
+        while (x.endsWith("/")) {
+            x = x.substring(0, x.length() - 1);
+        }
+        if (!x.isEmpty()) {
+            x += "/";
+        }
+        return x;
+    }
+    
+    private Map<PThemeIconName, ZipEntry> _indexEntries() {
+        // Expected entry name -> icon name: One pass over all entries.
+        final String dimPrefix = _baseEntryPath + getFixedDimension().getDescription() + "/";
+        final String fileNameSuffix =
+            "." + PThemeIconLoaderFixedDimensionFromPngFile.FILE_EXTENSION;
+        Map<String, PThemeIconName> entryNameToNameMap = new HashMap<String, PThemeIconName>();
+        for (PThemeIconName name: PThemeIconName.values()) {
+            String entryName =
+                dimPrefix + name.context.dirName + "/" + name.baseFileName + fileNameSuffix;
+            entryNameToNameMap.put(entryName, name);
+        }
+        EnumMap<PThemeIconName, ZipEntry> map =
+            new EnumMap<PThemeIconName, ZipEntry>(PThemeIconName.class);
+        Enumeration<? extends ZipEntry> entryEnum = _zipFile.entries();
+        while (entryEnum.hasMoreElements()) {
+            ZipEntry entry = entryEnum.nextElement();
+            PThemeIconName optName = entryNameToNameMap.get(entry.getName());
+            if (null != optName && !entry.isDirectory()) {
+                map.put(optName, entry);
+            }
+        }
+        Map<PThemeIconName, ZipEntry> x = Collections.unmodifiableMap(map);
+        return x;
+    }
+    
+    /**
+     * Path to JAR or zip file
+     */
+    public File getZipFilePath() {
+        File x = new File(_zipFile.getName());
+        return x;
+    }
+    
+    /**
+     * Entry path prefix of theme inside zip file.  If not empty, always ends with {@code "/"}.
+     */
+    public String getBaseEntryPath() {
+        return _baseEntryPath;
+    }
+    
+    /**
+     * Runs decode tasks
+     */
+    public Executor getExecutor() {
+        return _executor;
+    }
+    
+    /**
+     * Creates a JAR URL for the theme icon, e.g.,
+     * {@code "jar:file:/app.jar!/theme-xyz/icons/32x32/actions/edit-redo.png"}.  The zip file
+     * index is used: No file system access is required.
+     * <hr>
+     * Docs from {@link PThemeIconLoaderAbstract#getUrl(PThemeIconName)}:
+     * <p>
+     * {@inheritDoc}
+     * 
+     * @throws IllegalStateException
+     *         if creating the URL fails
+     */
+    @Override
+    protected URL getUrl(PThemeIconName name) {
+        ObjectArgs.checkNotNull(name, "name");
+        
+        ZipEntry optEntry = _nameToEntryMap.get(name);
+        if (null == optEntry) {
+            return null;
+        }
+        String spec = _urlPrefix + optEntry.getName();
+        try {
+            URL x = new URL(spec);
+            return x;
+        }
+        catch (MalformedURLException e) {
+            String msg = String.format("Failed to create URL: '%s'", spec);
+            throw new IllegalStateException(msg, e);
+        }
+    }
+    
+    /**
+     * Docs from {@link PThemeIconLoaderAbstract#tryGetIcon(PThemeIconName)}:
+     * <p>
+     * {@inheritDoc}
+     * 
+     * @throws IllegalStateException
+     *         if {@link #close()} was called
+     */
+    @Override
+    public PThemeImageIcon tryGetIcon(PThemeIconName name) {
+        _checkNotClosed();
+        PThemeImageIcon x = super.tryGetIcon(name);
+        if (_isClosed) {
+            // Race: close() was called while the icon was created.  Do not keep it cached.
+            invalidateIconCache();
+            _checkNotClosed();
+        }
+        return x;
+    }
+    
+    private void _checkNotClosed() {
+        if (_isClosed) {
+            String msg = String.format("Zip file is closed: '%s'", _zipFile.getName());
+            throw new IllegalStateException(msg);
+        }
+    }
+    
+    /**
+     * @throws IllegalStateException
+     *         thrown by {@link #getUrl(PThemeIconName)} if creating the URL fails
+     */
+    @Override
+    protected PThemeImageIcon createThemeImageIcon(PThemeIconName name) {
+        ObjectArgs.checkNotNull(name, "name");
+        
+        URL url = getUrl(name);
+        if (null == url) {
+            return null;
+        }
+        final ZipEntry entry = _nameToEntryMap.get(name);
+        PThemeImageIcon x =
+            new PThemeImageIcon(
+                getFixedDimension(),
+                name,
+                url,
+                new Callable<BufferedImage>() {
+                    @Override
+                    public BufferedImage call()
+                    throws IOException {
+                        BufferedImage y = _decode(entry);
+                        return y;
+                    }
+                },
+                _executor);
+        return x;
+    }
+    
+    private BufferedImage _decode(ZipEntry entry)
+    throws IOException {
+        InputStream in = _zipFile.getInputStream(entry);
+        try {
+            // Returns null if no registered ImageReader can decode the stream.
+            BufferedImage x = ImageIO.read(in);
+            return x;
+        }
+        finally {
+            in.close();
+        }
+    }
+    
+    /**
+     * Closes the zip file and discards all cached icons.  Icons not yet decoded will fail to
+     * load.  Later calls to {@link #tryGetIcon(PThemeIconName)} throw
+     * {@link IllegalStateException}.  Calling this method more than once has no effect.
+     */
+    @Override
+    public void close()
+    throws IOException {
+        _isClosed = true;
+        invalidateIconCache();
+        _zipFile.close();
+    }
+}
@@ -0,0 +1,382 @@
+package com.googlecode.kevinarpe.papaya.swing.theme;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.imageio.ImageIO;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+import com.googlecode.kevinarpe.papaya.annotation.NotFullyTested;
+import com.googlecode.kevinarpe.papaya.argument.ObjectArgs;
+import com.googlecode.kevinarpe.papaya.argument.PathArgs;
+import com.googlecode.kevinarpe.papaya.exception.PathException;
+import com.googlecode.kevinarpe.papaya.exception.PathException.PathExceptionReason;
+import com.googlecode.kevinarpe.papaya.swing.PImageUtils;
+import com.googlecode.kevinarpe.papaya.swing.PImmutableDimension;
+
+/**
+ * Loads PNG theme icons from file for any dimension.  The directory layout matches
+ * {@link PThemeIconLoaderFixedDimensionFromPngFile}:
+ * {@code <baseDirPath>/<WxH>/<context>/<name>.png}.
+ * <p>
+ * The constructor finds all dimension directories on disk, e.g., {@code 16x16} and
+ * {@code 32x32}.  Each requested dimension is served by its own fixed-dimension loader (with its
+ * own icon cache) from {@link #getLoader(PImmutableDimension)}.  If an icon does not exist on
+ * disk for the requested dimension, it is downscaled from the nearest larger dimension by
+ * {@link PImageUtils#createCompatibleScaledImage(BufferedImage, int, int)}.  Icons are never
+ * upscaled.
+ * <p>
+ * Decoded source images are shared by all dimensions (soft references), so each icon file is
+ * decoded once, no matter how many dimensions are derived from it.  Decode and resample tasks
+ * run on {@link #getExecutor()}.
+ * 
+ * @author Kevin Connor ARPE (kevinarpe@gmail.com)
+ * 
+ * @see PThemeIconLoaderFixedDimensionFromPngFile
+ * @see PThemeIconLoaderAbstractFixedDimension
+ */
+@NotFullyTested
+public class PThemeIconLoaderMultiDimensionFromPngFile {
+    
+    private static final Pattern _DIMENSION_DIR_NAME_PATTERN = Pattern.compile("^(\\d+)x(\\d+)$");
+    
+    // Smallest area first: The first larger dimension found is the nearest.
+    private static final Comparator<PImmutableDimension> _AREA_COMPARATOR =
+        new Comparator<PImmutableDimension>() {
+            @Override
+            public int compare(PImmutableDimension dim1, PImmutableDimension dim2) {
+                long area1 = (long) dim1.width * dim1.height;
+                long area2 = (long) dim2.width * dim2.height;
+                int x = (area1 < area2 ? -1 : (area1 == area2 ? 0 : 1));
+                return x;
+            }
+        };
+    
+    private final File _baseDirPath;
+    private final Executor _executor;
+    private final PThemeIconCachePolicy _cachePolicy;
+    
+    /**
+     * One index per dimension on disk, sorted by area: smallest first.  Only
+     * {@link PThemeIconLoaderFixedDimensionFromPngFile#getUrl(PThemeIconName)} is used.
+     */
+    private final ImmutableList<PThemeIconLoaderFixedDimensionFromPngFile> _indexList;
+    
+    private final LoadingCache<PImmutableDimension, PThemeIconLoaderAbstractFixedDimension>
+        _dimToLoaderCache;
+    
+    private final LoadingCache<File, BufferedImage> _filePathToSourceImageCache;
+    
+    /**
+     * This is a convenience constructor to call
+     * {@link #PThemeIconLoaderMultiDimensionFromPngFile(File, Executor, PThemeIconCachePolicy)}
+     * with {@link PThemeIconCachePolicy#UNBOUNDED}.
+     */
+    public PThemeIconLoaderMultiDimensionFromPngFile(File baseDirPath, Executor executor)
+    throws PathException {
+        this(baseDirPath, executor, PThemeIconCachePolicy.UNBOUNDED);
+    }
+    
+    /**
+     * Creates a multi-dimension theme icon loader for PNG icons stored as files on disk.
+     * 
+     * @param baseDirPath
+     *        base directory path to icon files on disk, e.g., {@code "resources/theme-xyz/icons"}.
+     *        Must not be {@code null}
+     * @param executor
+     *        runs decode and resample tasks, e.g., a fixed-size thread pool.
+     *        Must not be {@code null}
+     * @param cachePolicy
+     *        controls how many icons are cached by each fixed-dimension loader.
+     *        Must not be {@code null}
+     * 
+     * @throws NullPointerException
+     *         if any argument is {@code null}
+     * @throws PathException
+     * <ul>
+     *   <li>with reason {@link PathExceptionReason#PATH_DOES_NOT_EXIST}
+     *   if {@code baseDirPath} does not exist</li>
+     *   <li>with reason {@link PathExceptionReason#PATH_IS_FILE}
+     *   if {@code baseDirPath} exists, but is not a directory</li>
+     * </ul>
+     */
+    public PThemeIconLoaderMultiDimensionFromPngFile(
+            File baseDirPath, Executor executor, PThemeIconCachePolicy cachePolicy)
+    throws PathException {
+        PathArgs.checkDirectoryExists(baseDirPath, "baseDirPath");
+        _baseDirPath = baseDirPath.getAbsoluteFile();
+        _executor = ObjectArgs.checkNotNull(executor, "executor");
+        _cachePolicy = ObjectArgs.checkNotNull(cachePolicy, "cachePolicy");
+        _indexList = _newIndexList(_baseDirPath);
+        _dimToLoaderCache =
+            CacheBuilder.newBuilder().build(
+                new CacheLoader<PImmutableDimension, PThemeIconLoaderAbstractFixedDimension>() {
+                    @Override
+                    public PThemeIconLoaderAbstractFixedDimension load(PImmutableDimension dim) {
+                        _Loader x = new _Loader(dim);
+                        return x;
+                    }
+                });
+        _filePathToSourceImageCache =
+            CacheBuilder.newBuilder().softValues().build(
+                new CacheLoader<File, BufferedImage>() {
+                    @Override
+                    public BufferedImage load(File filePath)
+                    throws IOException {
+                        BufferedImage x = _decode(filePath);
+                        return x;
+                    }
+                });
+    }
+    
+    private static ImmutableList<PThemeIconLoaderFixedDimensionFromPngFile> _newIndexList(
+            File baseDirPath)
+    throws PathException {
+        // Returns null if an I/O error occurs.
+        String[] optFileNameArr = baseDirPath.list();
+        List<PImmutableDimension> dimList = new ArrayList<PImmutableDimension>();
+        if (null != optFileNameArr) {
+            for (String fileName: optFileNameArr) {
+                Matcher m = _DIMENSION_DIR_NAME_PATTERN.matcher(fileName);
+                if (m.matches() && new File(baseDirPath, fileName).isDirectory()) {
+                    int width = Integer.parseInt(m.group(1));
+                    int height = Integer.parseInt(m.group(2));
+                    if (width > 0 && height > 0) {
+                        dimList.add(PImmutableDimension.getSharedFromWidthAndHeight(width, height));
+                    }
+                }
+            }
+        }
+        Collections.sort(dimList, _AREA_COMPARATOR);
+        ImmutableList.Builder<PThemeIconLoaderFixedDimensionFromPngFile> b =
+            ImmutableList.builder();
+        for (PImmutableDimension dim: dimList) {
+            b.add(new PThemeIconLoaderFixedDimensionFromPngFile(dim, baseDirPath));
+        }
+        ImmutableList<PThemeIconLoaderFixedDimensionFromPngFile> x = b.build();
+        return x;
+    }
+    
+    private static BufferedImage _decode(File filePath)
+    throws IOException {
+        BufferedImage x = ImageIO.read(filePath);
+        if (null == x) {
+            throw new IOException(String.format(
+                "Failed to decode image: '%s'", filePath.getAbsolutePath()));
+        }
+        return x;
+    }
+    
+    /**
+     * Base directory path to icon files on disk, e.g., {@code "resources/theme-xyz/icons"}
+     */
+    public File getBaseDirPath() {
+        return _baseDirPath;
+    }
+    
+    /**
+     * Runs decode and resample tasks
+     */
+    public Executor getExecutor() {
+        return _executor;
+    }
+    
+    /**
+     * Controls how many icons are cached by each fixed-dimension loader
+     */
+    public PThemeIconCachePolicy getCachePolicy() {
+        return _cachePolicy;
+    }
+    
+    /**
+     * Retrieves the dimensions found on disk when this loader was created.
+     * 
+     * @return immutable list sorted by area: smallest first
+     */
+    public ImmutableList<PImmutableDimension> getAvailableDimensionList() {
+        ImmutableList.Builder<PImmutableDimension> b = ImmutableList.builder();
+        for (PThemeIconLoaderFixedDimensionFromPngFile index: _indexList) {
+            b.add(index.getFixedDimension());
+        }
+        ImmutableList<PImmutableDimension> x = b.build();
+        return x;
+    }
+    
+    /**
+     * Retrieves the loader for a dimension.  The same loader is always returned for the same
+     * dimension, so its icon cache is shared.
+     * 
+     * @param dim
+     *        dimension for icons to load.  Need not exist on disk.  Must not be {@code null}
+     * 
+     * @return loader for {@code dim}
+     * 
+     * @throws NullPointerException
+     *         if {@code dim} is {@code null}
+     */
+    public PThemeIconLoaderAbstractFixedDimension getLoader(PImmutableDimension dim) {
+        ObjectArgs.checkNotNull(dim, "dim");
+        
+        PThemeIconLoaderAbstractFixedDimension x = _dimToLoaderCache.getUnchecked(dim);
+        return x;
+    }
+    
+    /**
+     * This is a convenience method to call
+     * {@link PThemeIconLoaderAbstract#tryGetIcon(PThemeIconName)} on
+     * {@link #getLoader(PImmutableDimension)}.
+     * 
+     * @return icon or {@code null} if not found on disk for {@code dim} or any larger dimension
+     */
+    public PThemeImageIcon tryGetIcon(PThemeIconName name, PImmutableDimension dim) {
+        ObjectArgs.checkNotNull(name, "name");
+        
+        PThemeImageIcon x = getLoader(dim).tryGetIcon(name);
+        return x;
+    }
+    
+    /**
+     * This is a convenience method to call {@link PThemeIconLoaderAbstract#getIcon(PThemeIconName)}
+     * on {@link #getLoader(PImmutableDimension)}.
+     */
+    public PThemeImageIcon getIcon(PThemeIconName name, PImmutableDimension dim) {
+        ObjectArgs.checkNotNull(name, "name");
+        
+        PThemeImageIcon x = getLoader(dim).getIcon(name);
+        return x;
+    }
+    
+    /**
+     * @return index for exact dimension if icon exists, else index for nearest larger dimension
+     *         where icon exists, else {@code null}
+     */
+    private PThemeIconLoaderFixedDimensionFromPngFile _tryGetSourceIndex(
+            PThemeIconName name, PImmutableDimension dim) {
+        for (PThemeIconLoaderFixedDimensionFromPngFile index: _indexList) {
+            PImmutableDimension indexDim = index.getFixedDimension();
+            if (indexDim.equals(dim) && index.iconExists(name)) {
+                return index;
+            }
+        }
+        for (PThemeIconLoaderFixedDimensionFromPngFile index: _indexList) {
+            PImmutableDimension indexDim = index.getFixedDimension();
+            if (indexDim.width >= dim.width
+                    && indexDim.height >= dim.height
+                    && index.iconExists(name)) {
+                return index;
+            }
+        }
+        return null;
+    }
+    
+    private BufferedImage _getSourceImage(File filePath)
+    throws IOException {
+        try {
+            BufferedImage x = _filePathToSourceImageCache.get(filePath);
+            return x;
+        }
+        catch (ExecutionException e) {
+            Throwables.propagateIfPossible(e.getCause(), IOException.class);
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+    
+    private final class _Loader
+    extends PThemeIconLoaderAbstractFixedDimension {
+        
+        private _Loader(PImmutableDimension dim) {
+            super(dim, _cachePolicy);
+        }
+        
+        /**
+         * @return URL of source icon file: exact or nearest larger dimension
+         */
+        @Override
+        protected URL getUrl(PThemeIconName name) {
+            ObjectArgs.checkNotNull(name, "name");
+            
+            PThemeIconLoaderFixedDimensionFromPngFile optIndex =
+                _tryGetSourceIndex(name, getFixedDimension());
+            if (null == optIndex) {
+                return null;
+            }
+            URL x = optIndex.getUrl(name);
+            return x;
+        }
+        
+        @Override
+        protected PThemeImageIcon createThemeImageIcon(PThemeIconName name) {
+            ObjectArgs.checkNotNull(name, "name");
+            
+            final PImmutableDimension dim = getFixedDimension();
+            PThemeIconLoaderFixedDimensionFromPngFile optIndex = _tryGetSourceIndex(name, dim);
+            if (null == optIndex) {
+                return null;
+            }
+            URL url = optIndex.getUrl(name);
+            final File filePath = optIndex.getFilePath(name);
+            PThemeImageIcon x =
+                new PThemeImageIcon(
+                    dim,
+                    name,
+                    url,
+                    new Callable<BufferedImage>() {
+                        @Override
+                        public BufferedImage call()
+                        throws IOException {
+                            BufferedImage srcImage = _getSourceImage(filePath);
+                            if (srcImage.getWidth() == dim.width
+                                    && srcImage.getHeight() == dim.height) {
+                                return srcImage;
+                            }
+                            BufferedImage y =
+                                PImageUtils.createCompatibleScaledImage(
+                                    srcImage, dim.width, dim.height);
+                            return y;
+                        }
+                    },
+                    _executor);
+            return x;
+        }
+    }
+}
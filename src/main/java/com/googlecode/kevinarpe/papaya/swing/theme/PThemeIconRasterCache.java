@@ -0,0 +1,370 @@
+package com.googlecode.kevinarpe.papaya.swing.theme;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+import javax.imageio.ImageIO;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hashing;
+import com.googlecode.kevinarpe.papaya.annotation.NotFullyTested;
+import com.googlecode.kevinarpe.papaya.argument.ObjectArgs;
+import com.googlecode.kevinarpe.papaya.argument.PathArgs;
+import com.googlecode.kevinarpe.papaya.exception.PathException;
+import com.googlecode.kevinarpe.papaya.exception.PathException.PathExceptionReason;
+
+/**
+ * Persistent on-disk cache of decoded theme icons.  For themes with thousands of icons, start-up
+ * time is mostly PNG inflate.  This cache stores decoded ARGB pixels in a compact raw format, one
+ * file per icon.  Later reads use a {@link FileChannel}, and pixels are copied directly into the
+ * {@link DataBufferInt} of a new {@link BufferedImage#TYPE_INT_ARGB} image, without a decoder.
+ * Cache files are small, so they are read into heap buffers, not memory-mapped: A mapped file stays
+ * open until garbage collection, and on Windows, an open file cannot be replaced or deleted.
+ * <p>
+ * Cache files are keyed by absolute file path of the source PNG.  Each cache file records the
+ * last modified time and length of its source.  If either changes, the cache file is ignored,
+ * then replaced by the next call to {@link #readOrDecode(File)}.
+ * <p>
+ * Cache file format (big-endian):
+ * <ul>
+ *   <li>int: {@link #MAGIC_NUMBER}</li>
+ *   <li>int: width in pixels</li>
+ *   <li>int: height in pixels</li>
+ *   <li>long: {@link File#lastModified()} of source</li>
+ *   <li>long: {@link File#length()} of source</li>
+ *   <li>int[width * height]: ARGB pixels, row by row</li>
+ * </ul>
+ * <p>
+ * This class is thread-safe.  Cache files are written to a temporary file, then renamed, so
+ * concurrent readers never see a partial file.
+ * 
+ * @author Kevin Connor ARPE (kevinarpe@gmail.com)
+ * 
+ * @see PThemeIconLoaderFixedDimensionFromPngFile#setRasterCache(PThemeIconRasterCache)
+ */
+@NotFullyTested
+public final class PThemeIconRasterCache {
+    
+    /**
+     * First four bytes of each cache file: {@code "PIR1"} in ASCII
+     */
+    public static final int MAGIC_NUMBER = 0x50495231;
+    
+    /**
+     * Number of bytes before pixel data in each cache file: 28
+     */
+    public static final int HEADER_BYTE_COUNT = 4 + 4 + 4 + 8 + 8;
+    
+    /**
+     * Does not include the dot -- only {@code "argb"}.
+     */
+    public static final String FILE_EXTENSION = "argb";
+    
+    private final File _cacheDirPath;
+    private final Executor _executor;
+    
+    /**
+     * Creates a cache for decoded theme icons.
+     * 
+     * @param cacheDirPath
+     *        directory for cache files.  Must not be {@code null}, and must exist
+     * @param executor
+     *        runs icon load tasks, e.g., a fixed-size thread pool.  Must not be {@code null}
+     * 
+     * @throws NullPointerException
+     *         if {@code cacheDirPath} or {@code executor} is {@code null}
+     * @throws PathException
+     * <ul>
+     *   <li>with reason {@link PathExceptionReason#PATH_DOES_NOT_EXIST}
+     *   if {@code cacheDirPath} does not exist</li>
+     *   <li>with reason {@link PathExceptionReason#PATH_IS_FILE}
+     *   if {@code cacheDirPath} exists, but is not a directory</li>
+     * </ul>
+     */
+    public PThemeIconRasterCache(File cacheDirPath, Executor executor)
+    throws PathException {
+        PathArgs.checkDirectoryExists(cacheDirPath, "cacheDirPath");
+        _cacheDirPath = cacheDirPath.getAbsoluteFile();
+        _executor = ObjectArgs.checkNotNull(executor, "executor");
+    }
+    
+    /**
+     * Directory for cache files
+     */
+    public File getCacheDirPath() {
+        return _cacheDirPath;
+    }
+    
+    /**
+     * Runs icon load tasks
+     * 
+     * @see #newImageLoader(File)
+     */
+    public Executor getExecutor() {
+        return _executor;
+    }
+    
+    /**
+     * Creates the cache file path for a source PNG file.  The file name is the SHA-1 hash of the
+     * absolute source path, plus {@code "."} and {@link #FILE_EXTENSION}.
+     * 
+     * @param pngFilePath
+     *        source image file.  Must not be {@code null}
+     * 
+     * @return cache file path.  The file may not exist.
+     * 
+     * @throws NullPointerException
+     *         if {@code pngFilePath} is {@code null}
+     */
+    public File getCacheFilePath(File pngFilePath) {
+        ObjectArgs.checkNotNull(pngFilePath, "pngFilePath");
+        
+        String key = pngFilePath.getAbsolutePath();
+        String hash = Hashing.sha1().hashString(key, Charsets.UTF_8).toString();
+        File x = new File(_cacheDirPath, hash + "." + FILE_EXTENSION);
+        return x;
+    }
+    
+    /**
+     * Creates a task for {@link PThemeImageIcon} that calls {@link #readOrDecode(File)}.
+     * 
+     * @param pngFilePath
+     *        source image file.  Must not be {@code null}
+     * 
+     * @throws NullPointerException
+     *         if {@code pngFilePath} is {@code null}
+     * 
+     * @see #getExecutor()
+     */
+    public Callable<BufferedImage> newImageLoader(final File pngFilePath) {
+        ObjectArgs.checkNotNull(pngFilePath, "pngFilePath");
+        
+        Callable<BufferedImage> x = new Callable<BufferedImage>() {
+            @Override
+            public BufferedImage call()
+            throws IOException {
+                BufferedImage y = readOrDecode(pngFilePath);
+                return y;
+            }
+        };
+        return x;
+    }
+    
+    /**
+     * Reads a decoded image from cache.  If missing or stale, the source file is decoded by
+     * {@link ImageIO#read(File)}, then written to cache.  Failure to write the cache file is
+     * ignored: The decoded image is returned.
+     * 
+     * @param pngFilePath
+     *        source image file.  Must not be {@code null}
+     * 
+     * @return decoded image, or {@code null} if no registered image reader can decode the source
+     * 
+     * @throws NullPointerException
+     *         if {@code pngFilePath} is {@code null}
+     * @throws IOException
+     *         if source file cannot be read
+     * 
+     * @see #tryRead(File)
+     * @see #write(File, BufferedImage)
+     */
+    public BufferedImage readOrDecode(File pngFilePath)
+    throws IOException {
+        BufferedImage optImage = tryRead(pngFilePath);
+        if (null != optImage) {
+            return optImage;
+        }
+        optImage = ImageIO.read(pngFilePath);
+        if (null != optImage) {
+            try {
+                write(pngFilePath, optImage);
+            }
+            catch (IOException e) {
+                // Ignore: Cache is optional, e.g., disk is full.
+            }
+        }
+        return optImage;
+    }
+    
+    /**
+     * Reads a decoded image from cache.  The header is read and checked first, then the pixels are
+     * copied into the {@link DataBufferInt} of the new image.  The cache file is closed before this
+     * method returns.
+     * 
+     * @param pngFilePath
+     *        source image file.  Must not be {@code null}
+     * 
+     * @return new image of type {@link BufferedImage#TYPE_INT_ARGB}, or {@code null} if the cache
+     *         file is missing, corrupt, or stale: Source file was changed or deleted.
+     * 
+     * @throws NullPointerException
+     *         if {@code pngFilePath} is {@code null}
+     * @throws IOException
+     *         if cache file exists, but cannot be read
+     */
+    public BufferedImage tryRead(File pngFilePath)
+    throws IOException {
+        final File cacheFilePath = getCacheFilePath(pngFilePath);
+        if (!cacheFilePath.isFile()) {
+            return null;
+        }
+        RandomAccessFile file = new RandomAccessFile(cacheFilePath, "r");
+        try {
+            FileChannel channel = file.getChannel();
+            final long byteCount = channel.size();
+            ByteBuffer headerBuffer = ByteBuffer.allocate(HEADER_BYTE_COUNT);
+            if (byteCount < HEADER_BYTE_COUNT || !_tryReadFully(channel, headerBuffer)) {
+                return null;
+            }
+            headerBuffer.order(ByteOrder.BIG_ENDIAN);
+            if (MAGIC_NUMBER != headerBuffer.getInt()) {
+                return null;
+            }
+            final int width = headerBuffer.getInt();
+            final int height = headerBuffer.getInt();
+            final long lastModified = headerBuffer.getLong();
+            final long length = headerBuffer.getLong();
+            if (width <= 0 || height <= 0
+                    || byteCount - HEADER_BYTE_COUNT != 4L * width * height
+                    || lastModified != pngFilePath.lastModified()
+                    || length != pngFilePath.length()) {
+                return null;
+            }
+            ByteBuffer pixelBuffer = ByteBuffer.allocate(4 * width * height);
+            if (!_tryReadFully(channel, pixelBuffer)) {
+                return null;
+            }
+            pixelBuffer.order(ByteOrder.BIG_ENDIAN);
+            BufferedImage x = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            // New TYPE_INT_ARGB image: One bank, no offset, and scanline stride is width.
+            // Java2D no longer caches this image in video memory.  For accelerated painting, see
+            // PImageIconAsync.setAcceleratedPaint(boolean).
+            int[] pixelArr = ((DataBufferInt) x.getRaster().getDataBuffer()).getData();
+            pixelBuffer.asIntBuffer().get(pixelArr);
+            return x;
+        }
+        finally {
+            file.close();
+        }
+    }
+    
+    /**
+     * Reads from the current channel position until {@code buffer} is full, then flips it.
+     * 
+     * @return {@code false} if end of file is reached first
+     */
+    private static boolean _tryReadFully(FileChannel channel, ByteBuffer buffer)
+    throws IOException {
+        while (buffer.hasRemaining()) {
+            if (-1 == channel.read(buffer)) {
+                return false;
+            }
+        }
+        buffer.flip();
+        return true;
+    }
+    
+    /**
+     * Writes a decoded image to cache.  Existing cache file for {@code pngFilePath} is replaced.
+     * 
+     * @param pngFilePath
+     *        source image file.  Must not be {@code null}, and must exist
+     * @param image
+     *        decoded image from {@code pngFilePath}.  Must not be {@code null}
+     * 
+     * @throws NullPointerException
+     *         if {@code pngFilePath} or {@code image} is {@code null}
+     * @throws IOException
+     *         if cache file cannot be written
+     */
+    public void write(File pngFilePath, BufferedImage image)
+    throws IOException {
+        final File cacheFilePath = getCacheFilePath(pngFilePath);
+        ObjectArgs.checkNotNull(image, "image");
+        
+        final int width = image.getWidth();
+        final int height = image.getHeight();
+        final int[] pixelArr = image.getRGB(0, 0, width, height, null, 0, width);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTE_COUNT + 4 * pixelArr.length);
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        buffer.putInt(MAGIC_NUMBER);
+        buffer.putInt(width);
+        buffer.putInt(height);
+        buffer.putLong(pngFilePath.lastModified());
+        buffer.putLong(pngFilePath.length());
+        IntBuffer intBuffer = buffer.asIntBuffer();
+        intBuffer.put(pixelArr);
+        buffer.position(0);
+        
+        File tmpFilePath =
+            File.createTempFile(cacheFilePath.getName(), ".tmp", _cacheDirPath);
+        try {
+            RandomAccessFile file = new RandomAccessFile(tmpFilePath, "rw");
+            try {
+                FileChannel channel = file.getChannel();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            finally {
+                file.close();
+            }
+            // Windows: Rename fails if target exists.
+            if (!tmpFilePath.renameTo(cacheFilePath)) {
+                cacheFilePath.delete();
+                if (!tmpFilePath.renameTo(cacheFilePath)) {
+                    String msg = String.format("Failed to rename file '%s' to '%s'",
+                        tmpFilePath.getAbsolutePath(), cacheFilePath.getAbsolutePath());
+                    throw new IOException(msg);
+                }
+            }
+        }
+        finally {
+            // Only exists if rename failed.
+            tmpFilePath.delete();
+        }
+    }
+    
+    @Override
+    public String toString() {
+        String x = String.format(
+            "class %s [%n\tgetCacheDirPath(): '%s'%n\t]",
+            PThemeIconRasterCache.class.getCanonicalName(),
+            _cacheDirPath.getAbsolutePath());
+        return x;
+    }
+}
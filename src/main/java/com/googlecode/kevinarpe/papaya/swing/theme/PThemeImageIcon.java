@@ -25,7 +25,12 @@ package com.googlecode.kevinarpe.papaya.swing.theme;
  * #L%
  */
 
+import java.awt.image.BufferedImage;
 import java.net.URL;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+import javax.imageio.ImageIO;
 
 import com.googlecode.kevinarpe.papaya.StringUtils;
 import com.googlecode.kevinarpe.papaya.annotation.FullyTested;
@@ -86,6 +91,70 @@ extends PImageIconAsync {
         this._url = ObjectArgs.checkNotNull(url, "url");
     }
     
+    /**
+     * Create an icon from a standard theme that is decoded by {@link ImageIO} on a background
+     * thread.  See {@link PImageIconAsync#PImageIconAsync(URL, String, Executor)}.
+     * 
+     * @param expectedDimension
+     *        see {@link #getExpectedDimension()}.  Must not be {@code null}
+     * @param name
+     *        see {@link #getThemeIconName()}.  Must not be {@code null}
+     * @param url
+     *        see {@link #getUrl()}.  Must not be {@code null}
+     * @param executor
+     *        runs the load task.  Must not be {@code null}
+     * 
+     * @throws NullPointerException
+     *         if {@code expectedDimension}, {@code name}, {@code url}, or {@code executor} is
+     *         {@code null}
+     * 
+     * @see #PThemeImageIcon(PImmutableDimension, PThemeIconName, URL)
+     */
+    public PThemeImageIcon(
+            PImmutableDimension expectedDimension, PThemeIconName name, URL url, Executor executor) {
+        super(
+            ObjectArgs.checkNotNull(url, "url"),
+            _createDescription(expectedDimension, name),
+            executor);
+        setExpectedDimension(expectedDimension);
+        this._themeIconName = name;
+        this._url = url;
+    }
+    
+    /**
+     * Create an icon from a standard theme that is loaded by a custom task on a background thread,
+     * e.g., read from a {@link PThemeIconRasterCache}.  See
+     * {@link PImageIconAsync#PImageIconAsync(Callable, String, Executor)}.
+     * 
+     * @param expectedDimension
+     *        see {@link #getExpectedDimension()}.  Must not be {@code null}
+     * @param name
+     *        see {@link #getThemeIconName()}.  Must not be {@code null}
+     * @param url
+     *        see {@link #getUrl()}.  Must not be {@code null}
+     * @param imageLoader
+     *        creates the image.  Must not be {@code null}
+     * @param executor
+     *        runs {@code imageLoader}.  Must not be {@code null}
+     * 
+     * @throws NullPointerException
+     *         if {@code expectedDimension}, {@code name}, {@code url}, {@code imageLoader}, or
+     *         {@code executor} is {@code null}
+     * 
+     * @see #PThemeImageIcon(PImmutableDimension, PThemeIconName, URL, Executor)
+     */
+    public PThemeImageIcon(
+            PImmutableDimension expectedDimension,
+            PThemeIconName name,
+            URL url,
+            Callable<BufferedImage> imageLoader,
+            Executor executor) {
+        super(imageLoader, _createDescription(expectedDimension, name), executor);
+        setExpectedDimension(expectedDimension);
+        this._themeIconName = name;
+        this._url = ObjectArgs.checkNotNull(url, "url");
+    }
+    
     private static String _createDescription(
             PImmutableDimension expectedDimension, PThemeIconName name) {
         ObjectArgs.checkNotNull(expectedDimension, "expectedDimension");
@@ -216,7 +216,7 @@ implements PTextLabel {
      */
     @Override
     public void setText(String text) {
-        PJComponentTextParser x = new PJComponentTextParser(text);
+        PJComponentTextParser x = PJComponentTextParser.getShared(text);
         setOriginalText(text);
         super.setText(x.textAfterParse);
         setDisplayedMnemonic(x.mnemonicKeyCode);
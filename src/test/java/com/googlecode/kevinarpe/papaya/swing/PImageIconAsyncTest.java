@@ -25,25 +25,45 @@ package com.googlecode.kevinarpe.papaya.swing;
  * #L%
  */
 
+import java.awt.Component;
+import java.awt.Graphics;
 import java.awt.Image;
+import java.awt.MediaTracker;
 import java.awt.Toolkit;
+import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.accessibility.AccessibleContext;
+import javax.imageio.ImageIO;
+import javax.swing.Icon;
+import javax.swing.SwingUtilities;
 
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.googlecode.kevinarpe.papaya.FuncUtils;
 import com.googlecode.kevinarpe.papaya.argument.PathArgsTest;
 import com.googlecode.kevinarpe.papaya.exception.ClassResourceNotFoundException;
@@ -608,6 +628,163 @@ public class PImageIconAsyncTest {
         new PImageIconAsync((URL) null);
     }
     
+    ///////////////////////////////////////////////////////////////////////////
+    // PImageIconAsync.ctor(URL, String, Executor)
+    //
+
+    @Test(dataProvider = "_sampleAndDesc_Data")
+    public void ctorUrlStringExecutor_Pass(PSampleIcon x, String desc)
+    throws IOException, InterruptedException {
+        PImageIconAsync y =
+            new PImageIconAsync(x.filePath.toURI().toURL(), desc, MoreExecutors.sameThreadExecutor());
+        // Load task is submitted after construction.
+        Assert.assertEquals(y.getImageLoadStatusAsEnum(), PMediaTrackerLoadStatus.LOADING);
+        Assert.assertEquals(y.updateImageLoadStatus(), PMediaTrackerLoadStatus.COMPLETE);
+        Assert.assertEquals(y.getImageLoadStatusAsEnum(), PMediaTrackerLoadStatus.COMPLETE);
+        Assert.assertEquals(y.waitForLoad(), PMediaTrackerLoadStatus.COMPLETE);
+        Assert.assertEquals(y.getDescription(), desc);
+        Assert.assertEquals(y.getIconWidth(), x.imageDimension.width);
+        Assert.assertEquals(y.getIconHeight(), x.imageDimension.height);
+    }
+
+    @Test
+    public void ctorUrlStringExecutor_PassWithManyThreads()
+    throws IOException, InterruptedException {
+        ExecutorService es = Executors.newFixedThreadPool(4);
+        try {
+            List<PImageIconAsync> iconList = new ArrayList<PImageIconAsync>();
+            for (int i = 0; i < 16; ++i) {
+                for (PSampleIcon x: PSampleIcon.LIST) {
+                    iconList.add(new PImageIconAsync(x.filePath.toURI().toURL(), "abc", es));
+                }
+            }
+            for (PImageIconAsync y: iconList) {
+                Assert.assertEquals(y.waitForLoad(), PMediaTrackerLoadStatus.COMPLETE);
+                Assert.assertNotNull(y.getImage());
+            }
+        }
+        finally {
+            es.shutdown();
+        }
+    }
+
+    @Test
+    public void ctorUrlStringExecutor_PassWithPathNotExist()
+    throws IOException, InterruptedException {
+        File path = new File(UUID.randomUUID().toString());
+        PImageIconAsync y =
+            new PImageIconAsync(path.toURI().toURL(), "abc", MoreExecutors.sameThreadExecutor());
+        Assert.assertEquals(y.waitForLoad(), PMediaTrackerLoadStatus.ERRORED);
+    }
+
+    @Test(dataProvider = "_desc_Data",
+            expectedExceptions = NullPointerException.class)
+    public void ctorUrlStringExecutor_FailWithNullUrl(String desc)
+    throws IOException {
+        new PImageIconAsync((URL) null, desc, MoreExecutors.sameThreadExecutor());
+    }
+
+    @Test(dataProvider = "_sampleAndDesc_Data",
+            expectedExceptions = NullPointerException.class)
+    public void ctorUrlStringExecutor_FailWithNullExecutor(PSampleIcon x, String desc)
+    throws IOException {
+        new PImageIconAsync(x.filePath.toURI().toURL(), desc, (Executor) null);
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PImageIconAsync.ctor(URL, Executor)
+    //
+
+    @Test(dataProvider = "_sample_Data")
+    public void ctorUrlExecutor_Pass(PSampleIcon x)
+    throws IOException, InterruptedException {
+        PImageIconAsync y =
+            new PImageIconAsync(x.filePath.toURI().toURL(), MoreExecutors.sameThreadExecutor());
+        Assert.assertEquals(y.waitForLoad(), PMediaTrackerLoadStatus.COMPLETE);
+        Assert.assertNull(y.getDescription());
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void ctorUrlExecutor_FailWithNull()
+    throws IOException {
+        new PImageIconAsync((URL) null, MoreExecutors.sameThreadExecutor());
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PImageIconAsync.ctor(Callable, String, Executor)/.startAsyncLoad()
+    //
+    
+    @Test(dataProvider = "_sample_Data")
+    public void startAsyncLoad_Pass(final PSampleIcon x)
+    throws InterruptedException {
+        final AtomicInteger callCount = new AtomicInteger();
+        Callable<BufferedImage> imageLoader = new Callable<BufferedImage>() {
+            @Override
+            public BufferedImage call()
+            throws IOException {
+                callCount.incrementAndGet();
+                BufferedImage z = ImageIO.read(x.filePath);
+                return z;
+            }
+        };
+        PImageIconAsync y =
+            new PImageIconAsync(imageLoader, "abc", MoreExecutors.sameThreadExecutor());
+        // Never loaded by the constructor, even with a same-thread executor
+        Assert.assertEquals(callCount.get(), 0);
+        Assert.assertEquals(y.getImageLoadStatusAsEnum(), PMediaTrackerLoadStatus.LOADING);
+        
+        y.startAsyncLoad();
+        Assert.assertEquals(callCount.get(), 1);
+        Assert.assertEquals(y.getImageLoadStatusAsEnum(), PMediaTrackerLoadStatus.COMPLETE);
+        
+        y.startAsyncLoad();
+        Assert.assertEquals(y.waitForLoad(), PMediaTrackerLoadStatus.COMPLETE);
+        Assert.assertEquals(callCount.get(), 1);
+        Assert.assertEquals(y.getIconWidth(), x.imageDimension.width);
+    }
+    
+    @Test(dataProvider = "_sample_Data")
+    public void startAsyncLoad_PassWithWaitForLoad(PSampleIcon x)
+    throws IOException, InterruptedException {
+        _DeferredExecutor executor = new _DeferredExecutor();
+        PImageIconAsync y = new PImageIconAsync(x.filePath.toURI().toURL(), executor);
+        Assert.assertEquals(y.updateImageLoadStatus(), PMediaTrackerLoadStatus.LOADING);
+        executor.runAll();
+        Assert.assertEquals(y.waitForLoad(), PMediaTrackerLoadStatus.COMPLETE);
+    }
+    
+    @Test(dataProvider = "_sample_Data",
+            expectedExceptions = RejectedExecutionException.class)
+    public void startAsyncLoad_FailWithRejectedExecution(PSampleIcon x)
+    throws IOException, InterruptedException {
+        ExecutorService es = Executors.newSingleThreadExecutor();
+        es.shutdown();
+        PImageIconAsync y = new PImageIconAsync(x.filePath.toURI().toURL(), es);
+        try {
+            y.startAsyncLoad();
+        }
+        catch (RejectedExecutionException e) {
+            // Waiters must not block forever.
+            Assert.assertEquals(y.waitForLoad(), PMediaTrackerLoadStatus.ERRORED);
+            throw e;
+        }
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PImageIconAsync.loadImage
+    //
+
+    @Test(dataProvider = "_sample_Data")
+    public void loadImage_PassWithBufferedImage(PSampleIcon x)
+    throws IOException {
+        BufferedImage img = ImageIO.read(x.filePath);
+        PImageIconAsync y = new PImageIconAsync(img);
+        // Already decoded: Load is complete without MediaTracker.
+        Assert.assertEquals(y.getImageLoadStatusAsEnum(), PMediaTrackerLoadStatus.COMPLETE);
+        Assert.assertEquals(y.getIconWidth(), img.getWidth());
+        Assert.assertEquals(y.getIconHeight(), img.getHeight());
+    }
+    
     ///////////////////////////////////////////////////////////////////////////
     // PImageIconAsync.getImageLoadStatus/.getImageLoadStatusAsEnum/.updateImageLoadStatus
     //
@@ -786,6 +963,347 @@ public class PImageIconAsyncTest {
         }
     }
 
+    ///////////////////////////////////////////////////////////////////////////
+    // PImageIconAsync.queryMediaTrackerForImageLoadStatus
+    //
+    
+    @Test(dataProvider = "_sample_Data")
+    public void queryMediaTrackerForImageLoadStatus_PassWithStaleStatusAfterDone(PSampleIcon x)
+    throws PathException, InterruptedException {
+        PImageIconAsync y = new PImageIconAsync(x.filePath);
+        Assert.assertEquals(y.waitForLoad(), PMediaTrackerLoadStatus.COMPLETE);
+        // Simulate a thread that queried just before another thread finished the load.
+        _FakeMediaTracker mt = new _FakeMediaTracker(PMediaTrackerLoadStatus.LOADING);
+        Assert.assertEquals(
+            y.queryMediaTrackerForImageLoadStatus(mt), PMediaTrackerLoadStatus.COMPLETE);
+        Assert.assertEquals(y.getImageLoadStatusAsEnum(), PMediaTrackerLoadStatus.COMPLETE);
+        Assert.assertEquals(mt.removeImageCount.get(), 0);
+    }
+    
+    @Test(dataProvider = "_sample_Data")
+    public void queryMediaTrackerForImageLoadStatus_PassWithManyThreads(PSampleIcon x)
+    throws PathException, InterruptedException, ExecutionException {
+        ExecutorService es = Executors.newFixedThreadPool(8);
+        try {
+            for (int i = 0; i < 16; ++i) {
+                final PImageIconAsync y = new PImageIconAsync(x.filePath);
+                final _FakeMediaTracker mt =
+                    new _FakeMediaTracker(PMediaTrackerLoadStatus.COMPLETE);
+                final CountDownLatch startLatch = new CountDownLatch(1);
+                List<Future<PMediaTrackerLoadStatus>> futureList =
+                    new ArrayList<Future<PMediaTrackerLoadStatus>>();
+                for (int j = 0; j < 8; ++j) {
+                    futureList.add(es.submit(new Callable<PMediaTrackerLoadStatus>() {
+                        @Override
+                        public PMediaTrackerLoadStatus call()
+                        throws InterruptedException {
+                            startLatch.await();
+                            PMediaTrackerLoadStatus z = y.queryMediaTrackerForImageLoadStatus(mt);
+                            return z;
+                        }
+                    }));
+                }
+                startLatch.countDown();
+                for (Future<PMediaTrackerLoadStatus> future: futureList) {
+                    future.get();
+                }
+                // Only one thread finishes the load.
+                Assert.assertEquals(mt.removeImageCount.get(), 1);
+                Assert.assertEquals(y.getImageLoadStatusAsEnum(), PMediaTrackerLoadStatus.COMPLETE);
+                Assert.assertEquals(y.asFuture().get(), PMediaTrackerLoadStatus.COMPLETE);
+            }
+        }
+        finally {
+            es.shutdown();
+        }
+    }
+    
+    /**
+     * Always reports the same load status.  Images are removed from the shared
+     * {@link MediaTracker}.
+     */
+    private static final class _FakeMediaTracker
+    extends MediaTracker {
+        
+        private static final long serialVersionUID = 1L;
+        
+        private final PMediaTrackerLoadStatus _status;
+        final AtomicInteger removeImageCount = new AtomicInteger();
+        
+        private _FakeMediaTracker(PMediaTrackerLoadStatus status) {
+            super(new Component() {
+                private static final long serialVersionUID = 1L;
+            });
+            _status = status;
+        }
+        
+        @Override
+        public int statusID(int id, boolean load) {
+            return _status.value;
+        }
+        
+        @Override
+        public void removeImage(Image image, int id) {
+            removeImageCount.incrementAndGet();
+            PMediaTrackerUtils.getSharedMediaTracker().removeImage(image, id);
+        }
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PImageIconAsync.asFuture
+    //
+    
+    @Test(dataProvider = "_sample_Data")
+    public void asFuture_Pass(PSampleIcon x)
+    throws PathException, InterruptedException, ExecutionException {
+        PImageIconAsync y = new PImageIconAsync(x.filePath);
+        ListenableFuture<PMediaTrackerLoadStatus> f = y.asFuture();
+        Assert.assertTrue(f == y.asFuture());
+        Assert.assertEquals(f.get(), PMediaTrackerLoadStatus.COMPLETE);
+        Assert.assertEquals(y.getImageLoadStatusAsEnum(), PMediaTrackerLoadStatus.COMPLETE);
+        Assert.assertEquals(y.getIconWidth(), x.imageDimension.width);
+        Assert.assertEquals(y.getIconHeight(), x.imageDimension.height);
+    }
+    
+    @Test(dataProvider = "_sample_Data")
+    public void asFuture_PassAfterWaitForLoad(PSampleIcon x)
+    throws PathException, InterruptedException, ExecutionException {
+        PImageIconAsync y = new PImageIconAsync(x.filePath);
+        y.waitForLoad();
+        ListenableFuture<PMediaTrackerLoadStatus> f = y.asFuture();
+        Assert.assertTrue(f.isDone());
+        Assert.assertEquals(f.get(), PMediaTrackerLoadStatus.COMPLETE);
+    }
+    
+    @Test(dataProvider = "_sample_Data")
+    public void asFuture_PassWithImageIO(PSampleIcon x)
+    throws IOException, InterruptedException, ExecutionException {
+        _DeferredExecutor executor = new _DeferredExecutor();
+        PImageIconAsync y = new PImageIconAsync(x.filePath.toURI().toURL(), executor);
+        ListenableFuture<PMediaTrackerLoadStatus> f = y.asFuture();
+        Assert.assertFalse(f.isDone());
+        executor.runAll();
+        Assert.assertEquals(f.get(), PMediaTrackerLoadStatus.COMPLETE);
+    }
+    
+    /**
+     * Runs tasks only when requested by the test.
+     */
+    private static final class _DeferredExecutor
+    implements Executor {
+        
+        private final List<Runnable> _taskList = new ArrayList<Runnable>();
+        
+        @Override
+        public synchronized void execute(Runnable command) {
+            _taskList.add(command);
+        }
+        
+        public void runAll() {
+            List<Runnable> taskList;
+            synchronized (this) {
+                taskList = new ArrayList<Runnable>(_taskList);
+                _taskList.clear();
+            }
+            for (Runnable task: taskList) {
+                task.run();
+            }
+        }
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PImageIconAsync.onLoaded
+    //
+    
+    @Test(dataProvider = "_sample_Data")
+    public void onLoaded_Pass(PSampleIcon x)
+    throws PathException, InterruptedException {
+        PImageIconAsync y = new PImageIconAsync(x.filePath);
+        final CountDownLatch latch = new CountDownLatch(1);
+        y.onLoaded(
+            new Runnable() {
+                @Override
+                public void run() {
+                    latch.countDown();
+                }
+            },
+            MoreExecutors.sameThreadExecutor());
+        Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(y.getImageLoadStatusAsEnum(), PMediaTrackerLoadStatus.COMPLETE);
+    }
+    
+    @Test(dataProvider = "_sample_Data")
+    public void onLoaded_PassWithEventDispatchThread(PSampleIcon x)
+    throws PathException, InterruptedException {
+        PImageIconAsync y = new PImageIconAsync(x.filePath);
+        final CountDownLatch latch = new CountDownLatch(1);
+        y.onLoaded(new Runnable() {
+            @Override
+            public void run() {
+                if (SwingUtilities.isEventDispatchThread()) {
+                    latch.countDown();
+                }
+            }
+        });
+        Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+    }
+    
+    @Test(dataProvider = "_sample_Data",
+            expectedExceptions = NullPointerException.class)
+    public void onLoaded_FailWithNullCallback(PSampleIcon x)
+    throws PathException {
+        PImageIconAsync y = new PImageIconAsync(x.filePath);
+        y.onLoaded(null, MoreExecutors.sameThreadExecutor());
+    }
+    
+    @Test(dataProvider = "_sample_Data",
+            expectedExceptions = NullPointerException.class)
+    public void onLoaded_FailWithNullExecutor(PSampleIcon x)
+    throws PathException {
+        PImageIconAsync y = new PImageIconAsync(x.filePath);
+        y.onLoaded(
+            new Runnable() {
+                @Override
+                public void run() {
+                }
+            },
+            null);
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PImageIconAsync.getPaintPolicy/.setPaintPolicy
+    // PImageIconAsync.getPlaceholderIcon/.setPlaceholderIcon
+    //
+    
+    @Test(dataProvider = "_sample_Data")
+    public void getSetPaintPolicy_Pass(PSampleIcon x)
+    throws PathException {
+        PImageIconAsync y = new PImageIconAsync(x.filePath);
+        Assert.assertEquals(y.getPaintPolicy(), PImageIconAsync.DEFAULT_PAINT_POLICY);
+        for (PImageIconPaintPolicy policy: PImageIconPaintPolicy.values()) {
+            y.setPaintPolicy(policy);
+            Assert.assertEquals(y.getPaintPolicy(), policy);
+        }
+        
+        Assert.assertNull(y.getPlaceholderIcon());
+        _CountingIcon placeholder = new _CountingIcon();
+        y.setPlaceholderIcon(placeholder);
+        Assert.assertTrue(placeholder == y.getPlaceholderIcon());
+        y.setPlaceholderIcon(null);
+        Assert.assertNull(y.getPlaceholderIcon());
+    }
+    
+    @Test(dataProvider = "_sample_Data",
+            expectedExceptions = NullPointerException.class)
+    public void setPaintPolicy_FailWithNull(PSampleIcon x)
+    throws PathException {
+        PImageIconAsync y = new PImageIconAsync(x.filePath);
+        y.setPaintPolicy(null);
+    }
+    
+    private static final class _CountingIcon
+    implements Icon {
+        
+        public int paintCount = 0;
+        
+        @Override
+        public void paintIcon(Component c, Graphics g, int x, int y) {
+            ++paintCount;
+        }
+        
+        @Override
+        public int getIconWidth() {
+            return 7;
+        }
+        
+        @Override
+        public int getIconHeight() {
+            return 9;
+        }
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PImageIconAsync.getGrayscaleIcon
+    //
+    
+    @Test(dataProvider = "_sample_Data")
+    public void getGrayscaleIcon_Pass(PSampleIcon x)
+    throws PathException {
+        PImageIconAsync y = new PImageIconAsync(x.filePath, "abc");
+        PImageIconAsync v = y.getGrayscaleIcon(1.20f);
+        Assert.assertTrue(v == y.getGrayscaleIcon(1.20f));
+        Assert.assertTrue(v != y.getGrayscaleIcon(1.00f));
+        Assert.assertEquals(v.getImageLoadStatusAsEnum(), PMediaTrackerLoadStatus.COMPLETE);
+        Assert.assertEquals(v.getIconWidth(), x.imageDimension.width);
+        Assert.assertEquals(v.getIconHeight(), x.imageDimension.height);
+        Assert.assertEquals(v.getDescription(), "abc [grayscale:120% brightness]");
+    }
+    
+    @Test(dataProvider = "_sample_Data")
+    public void getGrayscaleIcon_PassWithExecutor(PSampleIcon x)
+    throws IOException, InterruptedException {
+        _DeferredExecutor sourceExecutor = new _DeferredExecutor();
+        _DeferredExecutor variantExecutor = new _DeferredExecutor();
+        PImageIconAsync y = new PImageIconAsync(x.filePath.toURI().toURL(), sourceExecutor);
+        PImageIconAsync v = y.getGrayscaleIcon(0.80f, variantExecutor);
+        Assert.assertTrue(v == y.getGrayscaleIcon(0.80f, variantExecutor));
+        Assert.assertTrue(v == y.getGrayscaleIcon(0.80f));
+        Assert.assertEquals(v.getImageLoadStatusAsEnum(), PMediaTrackerLoadStatus.LOADING);
+        
+        sourceExecutor.runAll();
+        Assert.assertEquals(y.getImageLoadStatusAsEnum(), PMediaTrackerLoadStatus.COMPLETE);
+        Assert.assertEquals(v.getImageLoadStatusAsEnum(), PMediaTrackerLoadStatus.LOADING);
+        
+        variantExecutor.runAll();
+        Assert.assertEquals(v.waitForLoad(), PMediaTrackerLoadStatus.COMPLETE);
+        Assert.assertEquals(v.getIconWidth(), x.imageDimension.width);
+    }
+    
+    @Test(dataProvider = "_sample_Data",
+            expectedExceptions = NullPointerException.class)
+    public void getGrayscaleIcon_FailWithNullExecutor(PSampleIcon x)
+    throws PathException {
+        PImageIconAsync y = new PImageIconAsync(x.filePath);
+        y.getGrayscaleIcon(1.0f, null);
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PImageIconAsync.getScaledBrightnessIcon
+    //
+    
+    @Test(dataProvider = "_sample_Data")
+    public void getScaledBrightnessIcon_Pass(PSampleIcon x)
+    throws PathException {
+        PImageIconAsync y = new PImageIconAsync(x.filePath, "abc");
+        PImageIconAsync v = y.getScaledBrightnessIcon(1.10f, "rollover");
+        Assert.assertTrue(v == y.getScaledBrightnessIcon(1.10f, "rollover"));
+        Assert.assertTrue(v != y.getScaledBrightnessIcon(1.10f, "other"));
+        Assert.assertTrue(v != y.getScaledBrightnessIcon(1.10f, null));
+        Assert.assertTrue(v != y.getScaledBrightnessIcon(0.80f, "rollover"));
+        Assert.assertTrue(v != y.getGrayscaleIcon(1.10f));
+        Assert.assertEquals(v.getImageLoadStatusAsEnum(), PMediaTrackerLoadStatus.COMPLETE);
+        Assert.assertEquals(v.getDescription(), "abc [rollover:110% brightness]");
+    }
+    
+    @Test(dataProvider = "_sample_Data")
+    public void getScaledBrightnessIcon_PassWithExecutor(PSampleIcon x)
+    throws IOException, InterruptedException {
+        PImageIconAsync y =
+            new PImageIconAsync(x.filePath.toURI().toURL(), MoreExecutors.sameThreadExecutor());
+        PImageIconAsync v =
+            y.getScaledBrightnessIcon(0.80f, "pressed", MoreExecutors.sameThreadExecutor());
+        Assert.assertTrue(v == y.getScaledBrightnessIcon(0.80f, "pressed"));
+        Assert.assertEquals(v.waitForLoad(), PMediaTrackerLoadStatus.COMPLETE);
+    }
+    
+    @Test(dataProvider = "_sample_Data",
+            expectedExceptions = NullPointerException.class)
+    public void getScaledBrightnessIcon_FailWithNullExecutor(PSampleIcon x)
+    throws PathException {
+        PImageIconAsync y = new PImageIconAsync(x.filePath);
+        y.getScaledBrightnessIcon(1.0f, "rollover", null);
+    }
+    
     ///////////////////////////////////////////////////////////////////////////
     // PImageIconAsync.paintIcon
     //
@@ -799,6 +1317,160 @@ public class PImageIconAsyncTest {
         y.paintIcon(null, null, -1, -1);
     }
     
+    @Test(dataProvider = "_sample_Data")
+    public void paintIcon_PassWithPlaceholder(PSampleIcon x)
+    throws IOException {
+        _DeferredExecutor executor = new _DeferredExecutor();
+        PImageIconAsync y = new PImageIconAsync(x.filePath.toURI().toURL(), executor);
+        _CountingIcon placeholder = new _CountingIcon();
+        y.setPlaceholderIcon(placeholder);
+        y.setPaintPolicy(PImageIconPaintPolicy.PAINT_PLACEHOLDER);
+        
+        BufferedImage img = new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB);
+        Graphics g = img.getGraphics();
+        try {
+            y.paintIcon(null, g, 0, 0);
+            Assert.assertEquals(placeholder.paintCount, 1);
+            Assert.assertEquals(y.getIconWidth(), placeholder.getIconWidth());
+            Assert.assertEquals(y.getIconHeight(), placeholder.getIconHeight());
+            
+            executor.runAll();
+            y.paintIcon(null, g, 0, 0);
+            Assert.assertEquals(placeholder.paintCount, 1);
+            Assert.assertEquals(y.getIconWidth(), x.imageDimension.width);
+            Assert.assertEquals(y.getIconHeight(), x.imageDimension.height);
+        }
+        finally {
+            g.dispose();
+        }
+    }
+    
+    @Test(dataProvider = "_sample_Data")
+    public void paintIcon_PassWithSkipUntilReady(PSampleIcon x)
+    throws IOException {
+        _DeferredExecutor executor = new _DeferredExecutor();
+        PImageIconAsync y = new PImageIconAsync(x.filePath.toURI().toURL(), executor);
+        _CountingIcon placeholder = new _CountingIcon();
+        y.setPlaceholderIcon(placeholder);
+        y.setPaintPolicy(PImageIconPaintPolicy.SKIP_UNTIL_READY);
+        
+        BufferedImage img = new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB);
+        Graphics g = img.getGraphics();
+        try {
+            y.paintIcon(null, g, 0, 0);
+            Assert.assertEquals(placeholder.paintCount, 0);
+            Assert.assertEquals(y.getIconWidth(), 0);
+            Assert.assertEquals(y.getIconHeight(), 0);
+            
+            executor.runAll();
+            y.paintIcon(null, g, 0, 0);
+            Assert.assertEquals(y.getIconWidth(), x.imageDimension.width);
+        }
+        finally {
+            g.dispose();
+        }
+    }
+    
+    @Test(dataProvider = "_sample_Data")
+    public void paintIcon_PassWithAcceleratedPaint(PSampleIcon x)
+    throws PathException, InterruptedException {
+        PImageIconAsync y = new PImageIconAsync(x.filePath);
+        Assert.assertEquals(y.isAcceleratedPaint(), PImageIconAsync.DEFAULT_ACCELERATED_PAINT);
+        y.waitForLoad();
+        BufferedImage expected = _paintIcon(y);
+        
+        y.setAcceleratedPaint(true);
+        Assert.assertTrue(y.isAcceleratedPaint());
+        // Not a screen device: Falls back to the loaded image.
+        BufferedImage actual = _paintIcon(y);
+        Assert.assertEquals(
+            actual.getRGB(0, 0, 64, 64, null, 0, 64), expected.getRGB(0, 0, 64, 64, null, 0, 64));
+        
+        y.setAcceleratedPaint(false);
+        Assert.assertFalse(y.isAcceleratedPaint());
+    }
+    
+    @Test(dataProvider = "_sample_Data")
+    public void paintIcon_PassWithConcurrentLoad(final PSampleIcon x)
+    throws PathException, InterruptedException, ExecutionException {
+        final int painterCount = 4;
+        ExecutorService es = Executors.newFixedThreadPool(1 + painterCount);
+        try {
+            for (int i = 0; i < 64; ++i) {
+                // Loaded by MediaTracker: The image fetcher thread, the loader thread, and the
+                // painter threads race to finish the load.
+                final PImageIconAsync y = new PImageIconAsync(x.filePath);
+                y.setPaintPolicy(PImageIconPaintPolicy.SKIP_UNTIL_READY);
+                final CountDownLatch startLatch = new CountDownLatch(1);
+                Future<PMediaTrackerLoadStatus> loadFuture =
+                    es.submit(new Callable<PMediaTrackerLoadStatus>() {
+                        @Override
+                        public PMediaTrackerLoadStatus call()
+                        throws InterruptedException {
+                            startLatch.await();
+                            y.asFuture();
+                            PMediaTrackerLoadStatus z = y.waitForLoad();
+                            return z;
+                        }
+                    });
+                List<Future<List<PMediaTrackerLoadStatus>>> paintFutureList =
+                    new ArrayList<Future<List<PMediaTrackerLoadStatus>>>();
+                for (int j = 0; j < painterCount; ++j) {
+                    paintFutureList.add(es.submit(new Callable<List<PMediaTrackerLoadStatus>>() {
+                        @Override
+                        public List<PMediaTrackerLoadStatus> call()
+                        throws InterruptedException {
+                            startLatch.await();
+                            List<PMediaTrackerLoadStatus> z =
+                                new ArrayList<PMediaTrackerLoadStatus>();
+                            int doneCount = 0;
+                            while (doneCount < 100) {
+                                _paintIcon(y);
+                                PMediaTrackerLoadStatus status = y.getImageLoadStatusAsEnum();
+                                z.add(status);
+                                z.add(y.updateImageLoadStatus());
+                                if (status.isDone) {
+                                    ++doneCount;
+                                }
+                            }
+                            return z;
+                        }
+                    }));
+                }
+                startLatch.countDown();
+                Assert.assertEquals(loadFuture.get(), PMediaTrackerLoadStatus.COMPLETE);
+                for (Future<List<PMediaTrackerLoadStatus>> paintFuture: paintFutureList) {
+                    boolean isDone = false;
+                    for (PMediaTrackerLoadStatus status: paintFuture.get()) {
+                        if (isDone) {
+                            // Never downgraded after done
+                            Assert.assertEquals(status, PMediaTrackerLoadStatus.COMPLETE);
+                        }
+                        isDone = status.isDone;
+                    }
+                }
+                Assert.assertEquals(y.getImageLoadStatusAsEnum(), PMediaTrackerLoadStatus.COMPLETE);
+                Assert.assertEquals(y.getIconWidth(), x.imageDimension.width);
+                Assert.assertEquals(y.getIconHeight(), x.imageDimension.height);
+            }
+        }
+        finally {
+            es.shutdown();
+        }
+    }
+    
+    private static BufferedImage _paintIcon(PImageIconAsync icon) {
+        BufferedImage x = new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB);
+        Graphics g = x.getGraphics();
+        try {
+            icon.paintIcon(null, g, 0, 0);
+        }
+        finally {
+            g.dispose();
+        }
+        return x;
+    }
+    
     @Test(expectedExceptions = IllegalStateException.class)
     public void paintIcon_FailWithEmptyFile()
     throws IOException {
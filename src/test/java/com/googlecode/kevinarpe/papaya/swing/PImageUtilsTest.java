@@ -26,8 +26,11 @@ package com.googlecode.kevinarpe.papaya.swing;
  */
 
 import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
 
 import org.testng.Assert;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import com.googlecode.kevinarpe.papaya.exception.PathException;
@@ -82,4 +85,124 @@ public class PImageUtilsTest {
     throws PathException, InterruptedException {
         PImageUtils.convertImageToCompatible(null);
     }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PImageUtils.getHeadlessCompatibleImageType
+    //
+    
+    @DataProvider
+    private static final Object[][] _getHeadlessCompatibleImageType_Pass_Data() {
+        return new Object[][] {
+                { PTransparency.OPAQUE, PBufferedImageType.TYPE_INT_RGB },
+                { PTransparency.BITMASK, PBufferedImageType.TYPE_INT_ARGB_PRE },
+                { PTransparency.TRANSLUCENT, PBufferedImageType.TYPE_INT_ARGB_PRE },
+        };
+    }
+    
+    @Test(dataProvider = "_getHeadlessCompatibleImageType_Pass_Data")
+    public void getHeadlessCompatibleImageType_Pass(
+            PTransparency transparency, PBufferedImageType expectedImageType) {
+        Assert.assertEquals(
+            PImageUtils.getHeadlessCompatibleImageType(transparency), expectedImageType);
+    }
+    
+    @Test(expectedExceptions = NullPointerException.class)
+    public void getHeadlessCompatibleImageType_FailWithNull() {
+        PImageUtils.getHeadlessCompatibleImageType(null);
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PImageUtils.getCompatibleColorModel
+    //
+    
+    @Test
+    public void getCompatibleColorModel_Pass() {
+        for (PTransparency transparency : PTransparency.values()) {
+            ColorModel colorModel = PImageUtils.getCompatibleColorModel(transparency.value);
+            Assert.assertNotNull(colorModel);
+            if (PImageUtils.isHeadless()) {
+                PBufferedImageType imageType =
+                    PImageUtils.getHeadlessCompatibleImageType(transparency);
+                Assert.assertEquals(
+                    colorModel, new BufferedImage(1, 1, imageType.value).getColorModel());
+            }
+        }
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PImageUtils.createCompatibleImage
+    //
+    
+    @Test
+    public void createCompatibleImage_Pass() {
+        for (PTransparency transparency : PTransparency.values()) {
+            BufferedImage image = PImageUtils.createCompatibleImage(3, 5, transparency);
+            Assert.assertEquals(image.getWidth(), 3);
+            Assert.assertEquals(image.getHeight(), 5);
+            Assert.assertTrue(PImageUtils.isCompatibleImage(image));
+        }
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PImageUtils.createCompatibleScaledImage
+    //
+    
+    @DataProvider
+    private static final Object[][] _createCompatibleScaledImage_Pass_Data() {
+        return new Object[][] {
+                { 32, 32, 24, 24 },
+                { 32, 32, 3, 5 },
+                { 100, 10, 7, 7 },
+                { 16, 16, 16, 16 },
+                { 16, 16, 48, 20 },
+        };
+    }
+    
+    @Test(dataProvider = "_createCompatibleScaledImage_Pass_Data")
+    public void createCompatibleScaledImage_Pass(
+            int srcWidth, int srcHeight, int width, int height) {
+        BufferedImage srcImage =
+            new BufferedImage(srcWidth, srcHeight, BufferedImage.TYPE_INT_ARGB);
+        final int argb = 0xFF336699;
+        for (int y = 0; y < srcHeight; ++y) {
+            for (int x = 0; x < srcWidth; ++x) {
+                srcImage.setRGB(x, y, argb);
+            }
+        }
+        BufferedImage image = PImageUtils.createCompatibleScaledImage(srcImage, width, height);
+        Assert.assertNotSame(image, srcImage);
+        Assert.assertEquals(image.getWidth(), width);
+        Assert.assertEquals(image.getHeight(), height);
+        Assert.assertEquals(image.getTransparency(), srcImage.getTransparency());
+        Assert.assertTrue(PImageUtils.isCompatibleImage(image));
+        // Resampling a solid color must not change the color.
+        Assert.assertEquals(image.getRGB(width / 2, height / 2), argb);
+    }
+    
+    @Test(expectedExceptions = NullPointerException.class)
+    public void createCompatibleScaledImage_FailWithNull() {
+        PImageUtils.createCompatibleScaledImage(null, 1, 1);
+    }
+    
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void createCompatibleScaledImage_FailWithInvalidDimension() {
+        BufferedImage srcImage = new BufferedImage(2, 2, BufferedImage.TYPE_INT_ARGB);
+        PImageUtils.createCompatibleScaledImage(srcImage, 0, 1);
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PImageUtils.tryGetDefaultGraphicsConfiguration
+    //
+    
+    @Test
+    public void tryGetDefaultGraphicsConfiguration_Pass() {
+        if (PImageUtils.isHeadless()) {
+            Assert.assertNull(PImageUtils.tryGetDefaultGraphicsConfiguration());
+        }
+        else {
+            Assert.assertSame(
+                PImageUtils.tryGetDefaultGraphicsConfiguration(),
+                PImageUtils.getDefaultGraphicsConfiguration());
+        }
+    }
 }
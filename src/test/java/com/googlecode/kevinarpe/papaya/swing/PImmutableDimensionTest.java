@@ -26,6 +26,8 @@ package com.googlecode.kevinarpe.papaya.swing;
  */
 
 import java.awt.Dimension;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -90,6 +92,66 @@ public class PImmutableDimensionTest {
         }
     }
 
+    @Test
+    public void getSharedFromWidthAndHeight_PassWithPreallocatedSquare() {
+        for (int size = PImmutableDimension.MIN_PREALLOCATED_SQUARE_SIZE - 1;
+                size <= PImmutableDimension.MAX_PREALLOCATED_SQUARE_SIZE + 1;
+                ++size) {
+            PImmutableDimension x = PImmutableDimension.getSharedFromWidthAndHeight(size, size);
+            Assert.assertEquals(x.width, size);
+            Assert.assertEquals(x.height, size);
+            Assert.assertTrue(x == PImmutableDimension.getSharedFromWidthAndHeight(size, size));
+        }
+    }
+    
+    @Test
+    public void getSharedFromWidthAndHeight_PassWithManyDimensions() {
+        // Forces the intern table to resize many times.
+        final int count = 1000;
+        PImmutableDimension[] dimArr = new PImmutableDimension[count];
+        for (int i = 0; i < count; ++i) {
+            dimArr[i] = PImmutableDimension.getSharedFromWidthAndHeight(1000 + i, 7 - i);
+        }
+        for (int i = 0; i < count; ++i) {
+            PImmutableDimension x =
+                PImmutableDimension.getSharedFromWidthAndHeight(1000 + i, 7 - i);
+            Assert.assertTrue(x == dimArr[i]);
+            Assert.assertEquals(x.width, 1000 + i);
+            Assert.assertEquals(x.height, 7 - i);
+        }
+    }
+    
+    @Test
+    public void getSharedFromWidthAndHeight_PassWithManyThreads()
+    throws InterruptedException {
+        final int threadCount = 8;
+        final int count = 500;
+        final PImmutableDimension[][] dimArrArr = new PImmutableDimension[threadCount][count];
+        List<Thread> threadList = new ArrayList<Thread>(threadCount);
+        for (int t = 0; t < threadCount; ++t) {
+            final PImmutableDimension[] dimArr = dimArrArr[t];
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < count; ++i) {
+                        dimArr[i] = PImmutableDimension.getSharedFromWidthAndHeight(-5000 - i, i);
+                    }
+                }
+            });
+            threadList.add(thread);
+            thread.start();
+        }
+        for (Thread thread: threadList) {
+            thread.join();
+        }
+        for (int i = 0; i < count; ++i) {
+            PImmutableDimension x = PImmutableDimension.getSharedFromWidthAndHeight(-5000 - i, i);
+            for (int t = 0; t < threadCount; ++t) {
+                Assert.assertTrue(x == dimArrArr[t][i]);
+            }
+        }
+    }
+    
     ///////////////////////////////////////////////////////////////////////////
     // PImmutableDimension.createFromWidthAndHeight
     //
@@ -324,6 +324,44 @@ public class PJComponentTextParserTest {
         }
     }
     
+    ///////////////////////////////////////////////////////////////////////////
+    // PJComponentTextParser.getShared(String)
+    //
+    
+    @Test(dataProvider = "_ctor_Pass_Data")
+    public void getShared_Pass(
+            String labelBeforeParse,
+            boolean isHTMLStringBeforeParse,
+            String labelAfterParse,
+            boolean isHTMLStringAfterParse,
+            boolean hasMnemonic,
+            char mnemonicKeyChar,
+            int mnemonicKeyCode,
+            int mnemonicIndex) {
+        PJComponentTextParser x = PJComponentTextParser.getShared(labelBeforeParse);
+        Assert.assertEquals(x, new PJComponentTextParser(labelBeforeParse));
+        Assert.assertEquals(x.textAfterParse, labelAfterParse);
+        Assert.assertEquals(x.mnemonicKeyCode, mnemonicKeyCode);
+        Assert.assertEquals(x.mnemonicIndex, mnemonicIndex);
+        if (null != labelBeforeParse) {
+            Assert.assertSame(PJComponentTextParser.getShared(labelBeforeParse), x);
+            Assert.assertSame(
+                PJComponentTextParser.getShared(new String(labelBeforeParse)), x);
+        }
+    }
+    
+    @Test(dataProvider = "_ctor_FailWithException_Data",
+            expectedExceptions = IllegalArgumentException.class)
+    public void getShared_FailWithException(String label) {
+        try {
+            PJComponentTextParser.getShared(label);
+        }
+        catch (IllegalArgumentException e) {
+            // Failures are not cached: Second call must also throw the original exception.
+            PJComponentTextParser.getShared(label);
+        }
+    }
+    
     ///////////////////////////////////////////////////////////////////////////
     // PJComponentTextParser.hashCode()/.equals(Object)
     //
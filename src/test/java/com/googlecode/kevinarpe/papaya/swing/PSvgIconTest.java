@@ -0,0 +1,203 @@
+package com.googlecode.kevinarpe.papaya.swing;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import com.google.common.util.concurrent.MoreExecutors;
+
+public class PSvgIconTest {
+    
+    private URI _source;
+    
+    @BeforeClass
+    public void beforeClass()
+    throws IOException {
+        File filePath = File.createTempFile(PSvgIconTest.class.getSimpleName(), ".svg");
+        filePath.deleteOnExit();
+        Files.write(PSvgRasterizerTest.SVG, filePath, Charsets.UTF_8);
+        _source = filePath.toURI();
+    }
+    
+    private static final class _TestComponent
+    extends Component {
+        
+        private static final long serialVersionUID = 1L;
+        
+        int repaintCount;
+        
+        @Override
+        public void repaint() {
+            ++repaintCount;
+        }
+    }
+    
+    private static final class _TestPSvgIcon
+    extends PSvgIcon {
+        
+        public _TestPSvgIcon(PSvgRasterizer rasterizer, URI source, int width, int height) {
+            super(rasterizer, source, width, height);
+        }
+        
+        @Override
+        public BufferedImage getBufferedImage() {
+            return super.getBufferedImage();
+        }
+    }
+    
+    private static void _paint(PSvgIcon icon, Component optComponent) {
+        BufferedImage dest = new BufferedImage(32, 32, BufferedImage.TYPE_INT_ARGB);
+        Graphics g = dest.getGraphics();
+        try {
+            icon.paintIcon(optComponent, g, 0, 0);
+        }
+        finally {
+            g.dispose();
+        }
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PSvgIcon.ctor(PSvgRasterizer, URI, int, int)
+    //
+    
+    @Test
+    public void ctorRasterizer_Pass() {
+        PSvgRasterizerTest.QueueExecutor executor = new PSvgRasterizerTest.QueueExecutor();
+        _TestPSvgIcon x = new _TestPSvgIcon(new PSvgRasterizer(executor), _source, 24, 16);
+        Assert.assertEquals(x.getIconWidth(), 24);
+        Assert.assertEquals(x.getIconHeight(), 16);
+        // Lazy: Nothing is rendered until painted.
+        Assert.assertNull(x.getBufferedImage());
+        Assert.assertTrue(executor.taskList.isEmpty());
+    }
+    
+    @Test(expectedExceptions = NullPointerException.class)
+    public void ctorRasterizer_FailWithNullRasterizer() {
+        new PSvgIcon(null, _source, 24, 24);
+    }
+    
+    @Test(expectedExceptions = NullPointerException.class)
+    public void ctorRasterizer_FailWithNullSource() {
+        new PSvgIcon(new PSvgRasterizer(MoreExecutors.sameThreadExecutor()), null, 24, 24);
+    }
+    
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void ctorRasterizer_FailWithNonPositiveWidth() {
+        new PSvgIcon(new PSvgRasterizer(MoreExecutors.sameThreadExecutor()), _source, 0, 24);
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PSvgIcon.paintIcon
+    //
+    
+    @Test
+    public void paintIcon_PassWithLazyRender() {
+        PSvgRasterizerTest.QueueExecutor executor = new PSvgRasterizerTest.QueueExecutor();
+        PSvgRasterizer rasterizer = new PSvgRasterizer(executor);
+        _TestPSvgIcon x = new _TestPSvgIcon(rasterizer, _source, 24, 24);
+        _TestComponent component = new _TestComponent();
+        
+        // Early paints: Render once, repaint once.
+        _paint(x, component);
+        _paint(x, component);
+        _paint(x, component);
+        _paint(x, null);
+        Assert.assertEquals(executor.taskList.size(), 1);
+        Assert.assertNull(x.getBufferedImage());
+        Assert.assertEquals(component.repaintCount, 0);
+        
+        executor.runAll();
+        Assert.assertEquals(component.repaintCount, 1);
+        
+        _paint(x, component);
+        Assert.assertNotNull(x.getBufferedImage());
+        Assert.assertNull(x.getRenderFailure());
+        Assert.assertTrue(executor.taskList.isEmpty());
+        Assert.assertEquals(component.repaintCount, 1);
+    }
+    
+    @Test
+    public void paintIcon_PassWithManyComponents() {
+        PSvgRasterizerTest.QueueExecutor executor = new PSvgRasterizerTest.QueueExecutor();
+        _TestPSvgIcon x = new _TestPSvgIcon(new PSvgRasterizer(executor), _source, 24, 24);
+        _TestComponent component = new _TestComponent();
+        _TestComponent component2 = new _TestComponent();
+        _paint(x, component);
+        _paint(x, component2);
+        _paint(x, component);
+        executor.runAll();
+        Assert.assertEquals(component.repaintCount, 1);
+        Assert.assertEquals(component2.repaintCount, 1);
+    }
+    
+    @Test
+    public void paintIcon_PassWithCached() {
+        PSvgRasterizerTest.QueueExecutor executor = new PSvgRasterizerTest.QueueExecutor();
+        PSvgRasterizer rasterizer = new PSvgRasterizer(executor);
+        _TestPSvgIcon x = new _TestPSvgIcon(rasterizer, _source, 24, 24);
+        _paint(x, null);
+        executor.runAll();
+        _paint(x, null);
+        
+        // Same source and size: Painted on first call without a repaint.
+        _TestPSvgIcon x2 = new _TestPSvgIcon(rasterizer, _source, 24, 24);
+        _TestComponent component = new _TestComponent();
+        _paint(x2, component);
+        Assert.assertTrue(executor.taskList.isEmpty());
+        Assert.assertTrue(x.getBufferedImage() == x2.getBufferedImage());
+        Assert.assertEquals(component.repaintCount, 0);
+    }
+    
+    @Test
+    public void paintIcon_PassWithFailedRender() {
+        PSvgRasterizerTest.QueueExecutor executor = new PSvgRasterizerTest.QueueExecutor();
+        URI source = new File(new File(_source), "missing.svg").toURI();
+        _TestPSvgIcon x = new _TestPSvgIcon(new PSvgRasterizer(executor), source, 24, 24);
+        _TestComponent component = new _TestComponent();
+        _paint(x, component);
+        executor.runAll();
+        Assert.assertEquals(component.repaintCount, 1);
+        
+        // Failure is recorded once: Later paints paint nothing and do not throw.
+        _paint(x, component);
+        Assert.assertTrue(x.getRenderFailure() instanceof IOException);
+        _paint(x, component);
+        Assert.assertNull(x.getBufferedImage());
+        Assert.assertTrue(executor.taskList.isEmpty());
+        Assert.assertEquals(component.repaintCount, 1);
+    }
+}
@@ -0,0 +1,218 @@
+package com.googlecode.kevinarpe.papaya.swing;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+import org.apache.batik.transcoder.TranscoderException;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.w3c.dom.Document;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+
+public class PSvgRasterizerTest {
+    
+    static final String SVG =
+        "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+        + "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"48\" height=\"48\">\n"
+        + "  <rect x=\"0\" y=\"0\" width=\"48\" height=\"48\" fill=\"#336699\"/>\n"
+        + "</svg>\n";
+    
+    private URI _source;
+    
+    @BeforeClass
+    public void beforeClass()
+    throws IOException {
+        File filePath = File.createTempFile(PSvgRasterizerTest.class.getSimpleName(), ".svg");
+        filePath.deleteOnExit();
+        Files.write(SVG, filePath, Charsets.UTF_8);
+        _source = filePath.toURI();
+    }
+    
+    /**
+     * Queues tasks until {@link #runAll()} is called.
+     */
+    static final class QueueExecutor
+    implements Executor {
+        
+        final List<Runnable> taskList = new ArrayList<Runnable>();
+        
+        @Override
+        public synchronized void execute(Runnable command) {
+            taskList.add(command);
+        }
+        
+        synchronized void runAll() {
+            for (Runnable task: taskList) {
+                task.run();
+            }
+            taskList.clear();
+        }
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PSvgRasterizer.ctor
+    //
+    
+    @Test
+    public void ctor_Pass() {
+        Executor executor = MoreExecutors.sameThreadExecutor();
+        PSvgRasterizer x = new PSvgRasterizer(executor);
+        Assert.assertTrue(executor == x.getExecutor());
+    }
+    
+    @Test(expectedExceptions = NullPointerException.class)
+    public void ctor_FailWithNull() {
+        new PSvgRasterizer(null);
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PSvgRasterizer.getDocument
+    //
+    
+    @Test
+    public void getDocument_PassWithManySizes()
+    throws IOException, TranscoderException {
+        PSvgRasterizer x = new PSvgRasterizer(MoreExecutors.sameThreadExecutor());
+        Document document = x.getDocument(_source);
+        Assert.assertNotNull(document);
+        x.rasterize(_source, 16, 16);
+        x.rasterize(_source, 24, 24);
+        x.rasterize(_source, 32, 48);
+        Assert.assertTrue(document == x.getDocument(_source));
+    }
+    
+    @Test(expectedExceptions = IOException.class)
+    public void getDocument_FailWithMissingFile()
+    throws IOException {
+        PSvgRasterizer x = new PSvgRasterizer(MoreExecutors.sameThreadExecutor());
+        x.getDocument(new File(new File(_source), "missing.svg").toURI());
+    }
+    
+    @Test(expectedExceptions = NullPointerException.class)
+    public void getDocument_FailWithNull()
+    throws IOException {
+        PSvgRasterizer x = new PSvgRasterizer(MoreExecutors.sameThreadExecutor());
+        x.getDocument(null);
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PSvgRasterizer.rasterize
+    //
+    
+    @Test
+    public void rasterize_Pass()
+    throws IOException, TranscoderException {
+        PSvgRasterizer x = new PSvgRasterizer(MoreExecutors.sameThreadExecutor());
+        BufferedImage image = x.rasterize(_source, 24, 24);
+        Assert.assertEquals(image.getWidth(), 24);
+        Assert.assertEquals(image.getHeight(), 24);
+        Assert.assertTrue(image == x.rasterize(_source, 24, 24));
+    }
+    
+    @Test
+    public void rasterize_PassWithInvalidateAll()
+    throws IOException, TranscoderException {
+        PSvgRasterizer x = new PSvgRasterizer(MoreExecutors.sameThreadExecutor());
+        BufferedImage image = x.rasterize(_source, 24, 24);
+        Document document = x.getDocument(_source);
+        x.invalidateAll();
+        Assert.assertFalse(image == x.rasterize(_source, 24, 24));
+        Assert.assertFalse(document == x.getDocument(_source));
+    }
+    
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void rasterize_FailWithNonPositiveWidth()
+    throws IOException, TranscoderException {
+        PSvgRasterizer x = new PSvgRasterizer(MoreExecutors.sameThreadExecutor());
+        x.rasterize(_source, 0, 24);
+    }
+    
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void rasterize_FailWithNonPositiveHeight()
+    throws IOException, TranscoderException {
+        PSvgRasterizer x = new PSvgRasterizer(MoreExecutors.sameThreadExecutor());
+        x.rasterize(_source, 24, -1);
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PSvgRasterizer.rasterizeAsync
+    //
+    
+    @Test
+    public void rasterizeAsync_Pass()
+    throws InterruptedException, ExecutionException, IOException, TranscoderException {
+        QueueExecutor executor = new QueueExecutor();
+        PSvgRasterizer x = new PSvgRasterizer(executor);
+        ListenableFuture<BufferedImage> future = x.rasterizeAsync(_source, 24, 24);
+        Assert.assertFalse(future.isDone());
+        Assert.assertEquals(executor.taskList.size(), 1);
+        executor.runAll();
+        Assert.assertTrue(future.isDone());
+        Assert.assertTrue(future.get() == x.rasterize(_source, 24, 24));
+    }
+    
+    @Test
+    public void rasterizeAsync_PassWithCached()
+    throws InterruptedException, ExecutionException, IOException, TranscoderException {
+        QueueExecutor executor = new QueueExecutor();
+        PSvgRasterizer x = new PSvgRasterizer(executor);
+        BufferedImage image = x.rasterize(_source, 24, 24);
+        ListenableFuture<BufferedImage> future = x.rasterizeAsync(_source, 24, 24);
+        // Immediate: Nothing is queued on the executor.
+        Assert.assertTrue(future.isDone());
+        Assert.assertTrue(executor.taskList.isEmpty());
+        Assert.assertTrue(image == future.get());
+    }
+    
+    @Test(expectedExceptions = ExecutionException.class)
+    public void rasterizeAsync_FailWithMissingFile()
+    throws InterruptedException, ExecutionException {
+        PSvgRasterizer x = new PSvgRasterizer(MoreExecutors.sameThreadExecutor());
+        ListenableFuture<BufferedImage> future =
+            x.rasterizeAsync(new File(new File(_source), "missing.svg").toURI(), 24, 24);
+        Assert.assertTrue(future.isDone());
+        try {
+            future.get();
+        }
+        catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof IOException);
+            throw e;
+        }
+    }
+}
@@ -26,6 +26,9 @@ package com.googlecode.kevinarpe.papaya.swing;
  */
 
 import java.net.MalformedURLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Assert;
 import org.testng.annotations.DataProvider;
@@ -108,6 +111,45 @@ public class PSwingPropertyUtilsTest {
         };
     }
     
+    @Test
+    public void getAndPutIfMissing_PassWithManyThreads()
+    throws InterruptedException {
+        final Object key = new Object();
+        final AtomicInteger callCount = new AtomicInteger();
+        final FuncUtils.Func0<Object> createValueFunc = new FuncUtils.Func0<Object>() {
+            @Override
+            public Object call() {
+                callCount.incrementAndGet();
+                return new Object();
+            }
+        };
+        final Object value = PSwingPropertyUtils.getAndPutIfMissing(key, createValueFunc);
+        final int threadCount = 8;
+        final AtomicInteger matchCount = new AtomicInteger();
+        // Threads in a child group share the property map of the parent group.
+        ThreadGroup childGroup = new ThreadGroup("child");
+        List<Thread> threadList = new ArrayList<Thread>(threadCount);
+        for (int i = 0; i < threadCount; ++i) {
+            Thread thread = new Thread(childGroup, new Runnable() {
+                @Override
+                public void run() {
+                    if (value == PSwingPropertyUtils.getAndPutIfMissing(key, createValueFunc)
+                            && value == PSwingPropertyUtils.get(key)) {
+                        matchCount.incrementAndGet();
+                    }
+                }
+            });
+            threadList.add(thread);
+            thread.start();
+        }
+        for (Thread thread: threadList) {
+            thread.join();
+        }
+        Assert.assertEquals(matchCount.get(), threadCount);
+        Assert.assertEquals(callCount.get(), 1);
+        PSwingPropertyUtils.remove(key);
+    }
+    
     @Test(dataProvider = "_getAndPutIfMissing_FailWithNull_Data",
             expectedExceptions = NullPointerException.class)
     public void getAndPutIfMissing_FailWithNull(
@@ -0,0 +1,305 @@
+package com.googlecode.kevinarpe.papaya.swing;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsDevice;
+import java.awt.ImageCapabilities;
+import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.ImageObserver;
+import java.awt.image.VolatileImage;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class PVolatileImageCacheTest {
+    
+    /**
+     * Backed by a {@link BufferedImage}.  {@link #loseContents(int)} simulates a lost surface:
+     * Pixels become undefined (cleared), and the next call to
+     * {@link #validate(GraphicsConfiguration)} returns the given status.
+     */
+    private static final class _TestVolatileImage
+    extends VolatileImage {
+        
+        private final BufferedImage _surface;
+        private int _nextValidateStatus;
+        int validateCount;
+        boolean isFlushed;
+        
+        private _TestVolatileImage(int width, int height) {
+            _surface = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            _nextValidateStatus = VolatileImage.IMAGE_OK;
+        }
+        
+        void loseContents(int nextValidateStatus) {
+            _surface.setRGB(
+                0, 0, _surface.getWidth(), _surface.getHeight(),
+                new int[_surface.getWidth() * _surface.getHeight()], 0, _surface.getWidth());
+            _nextValidateStatus = nextValidateStatus;
+        }
+        
+        int[] getRGB() {
+            int[] x =
+                _surface.getRGB(
+                    0, 0, _surface.getWidth(), _surface.getHeight(),
+                    null, 0, _surface.getWidth());
+            return x;
+        }
+        
+        @Override
+        public int validate(GraphicsConfiguration gc) {
+            ++validateCount;
+            int x = _nextValidateStatus;
+            // Like a real surface: After IMAGE_RESTORED, validate() returns IMAGE_OK.
+            _nextValidateStatus = VolatileImage.IMAGE_OK;
+            return x;
+        }
+        
+        @Override
+        public boolean contentsLost() {
+            return false;
+        }
+        
+        @Override
+        public BufferedImage getSnapshot() {
+            return _surface;
+        }
+        
+        @Override
+        public Graphics2D createGraphics() {
+            return _surface.createGraphics();
+        }
+        
+        @Override
+        public int getWidth() {
+            return _surface.getWidth();
+        }
+        
+        @Override
+        public int getHeight() {
+            return _surface.getHeight();
+        }
+        
+        @Override
+        public int getWidth(ImageObserver observer) {
+            return getWidth();
+        }
+        
+        @Override
+        public int getHeight(ImageObserver observer) {
+            return getHeight();
+        }
+        
+        @Override
+        public ImageCapabilities getCapabilities() {
+            return new ImageCapabilities(true);
+        }
+        
+        @Override
+        public Object getProperty(String name, ImageObserver observer) {
+            return null;
+        }
+        
+        @Override
+        public void flush() {
+            isFlushed = true;
+        }
+    }
+    
+    private static final class _TestGraphicsConfiguration
+    extends GraphicsConfiguration {
+        
+        final List<_TestVolatileImage> volatileImageList = new ArrayList<_TestVolatileImage>();
+        
+        @Override
+        public VolatileImage createCompatibleVolatileImage(
+                int width, int height, int transparency) {
+            _TestVolatileImage x = new _TestVolatileImage(width, height);
+            volatileImageList.add(x);
+            return x;
+        }
+        
+        @Override
+        public GraphicsDevice getDevice() {
+            return null;
+        }
+        
+        @Override
+        public ColorModel getColorModel() {
+            return null;
+        }
+        
+        @Override
+        public ColorModel getColorModel(int transparency) {
+            return null;
+        }
+        
+        @Override
+        public AffineTransform getDefaultTransform() {
+            return null;
+        }
+        
+        @Override
+        public AffineTransform getNormalizingTransform() {
+            return null;
+        }
+        
+        @Override
+        public Rectangle getBounds() {
+            return null;
+        }
+    }
+    
+    private static BufferedImage _newSourceImage() {
+        BufferedImage x = new BufferedImage(3, 5, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < x.getHeight(); ++y) {
+            for (int x2 = 0; x2 < x.getWidth(); ++x2) {
+                x.setRGB(x2, y, 0x80000000 | (y << 16) | (x2 << 8) | 0x3F);
+            }
+        }
+        return x;
+    }
+    
+    private static int[] _getRGB(BufferedImage image) {
+        int[] x =
+            image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+        return x;
+    }
+    
+    private static boolean _tryPaint(PVolatileImageCache cache, GraphicsConfiguration gConfig) {
+        BufferedImage dest = new BufferedImage(8, 8, BufferedImage.TYPE_INT_ARGB);
+        Graphics g = dest.getGraphics();
+        try {
+            boolean x = cache.tryPaint(g, gConfig, 0, 0);
+            return x;
+        }
+        finally {
+            g.dispose();
+        }
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PVolatileImageCache.ctor
+    //
+    
+    @Test
+    public void ctor_Pass() {
+        BufferedImage image = new BufferedImage(3, 5, BufferedImage.TYPE_INT_ARGB);
+        PVolatileImageCache x = new PVolatileImageCache(image);
+        Assert.assertTrue(image == x.getImage());
+        Assert.assertEquals(x.getVolatileImageCount(), 0);
+    }
+    
+    @Test(expectedExceptions = NullPointerException.class)
+    public void ctor_FailWithNull() {
+        new PVolatileImageCache(null);
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PVolatileImageCache.tryPaint
+    //
+    
+    @Test
+    public void tryPaint_PassWithNullGraphics() {
+        BufferedImage image = new BufferedImage(3, 5, BufferedImage.TYPE_INT_ARGB);
+        PVolatileImageCache x = new PVolatileImageCache(image);
+        Assert.assertFalse(x.tryPaint(null, 0, 0));
+        Assert.assertEquals(x.getVolatileImageCount(), 0);
+    }
+    
+    @Test
+    public void tryPaint_PassWithBufferedImageGraphics() {
+        BufferedImage image = new BufferedImage(3, 5, BufferedImage.TYPE_INT_ARGB);
+        PVolatileImageCache x = new PVolatileImageCache(image);
+        BufferedImage dest = new BufferedImage(8, 8, BufferedImage.TYPE_INT_ARGB);
+        Graphics g = dest.getGraphics();
+        try {
+            // Not a screen device: An accelerated copy would not help.
+            Assert.assertFalse(x.tryPaint(g, 0, 0));
+            Assert.assertEquals(x.getVolatileImageCount(), 0);
+        }
+        finally {
+            g.dispose();
+        }
+        x.flush();
+        Assert.assertEquals(x.getVolatileImageCount(), 0);
+    }
+    
+    @Test
+    public void tryPaint_PassWithVolatileImage() {
+        BufferedImage image = _newSourceImage();
+        PVolatileImageCache x = new PVolatileImageCache(image);
+        _TestGraphicsConfiguration gConfig = new _TestGraphicsConfiguration();
+        Assert.assertTrue(_tryPaint(x, gConfig));
+        Assert.assertTrue(_tryPaint(x, gConfig));
+        Assert.assertEquals(x.getVolatileImageCount(), 1);
+        Assert.assertEquals(gConfig.volatileImageList.size(), 1);
+        _TestVolatileImage volatileImage = gConfig.volatileImageList.get(0);
+        Assert.assertEquals(volatileImage.getRGB(), _getRGB(image));
+    }
+    
+    @Test
+    public void tryPaint_PassWithRestoredSurface() {
+        BufferedImage image = _newSourceImage();
+        PVolatileImageCache x = new PVolatileImageCache(image);
+        _TestGraphicsConfiguration gConfig = new _TestGraphicsConfiguration();
+        Assert.assertTrue(_tryPaint(x, gConfig));
+        _TestVolatileImage volatileImage = gConfig.volatileImageList.get(0);
+        final int validateCount = volatileImage.validateCount;
+        
+        volatileImage.loseContents(VolatileImage.IMAGE_RESTORED);
+        Assert.assertTrue(_tryPaint(x, gConfig));
+        // Validated once, then redrawn from the source: Same surface, same pixels.
+        Assert.assertEquals(volatileImage.validateCount, 1 + validateCount);
+        Assert.assertEquals(gConfig.volatileImageList.size(), 1);
+        Assert.assertFalse(volatileImage.isFlushed);
+        Assert.assertEquals(volatileImage.getRGB(), _getRGB(image));
+    }
+    
+    @Test
+    public void tryPaint_PassWithIncompatibleSurface() {
+        BufferedImage image = _newSourceImage();
+        PVolatileImageCache x = new PVolatileImageCache(image);
+        _TestGraphicsConfiguration gConfig = new _TestGraphicsConfiguration();
+        Assert.assertTrue(_tryPaint(x, gConfig));
+        _TestVolatileImage volatileImage = gConfig.volatileImageList.get(0);
+        
+        volatileImage.loseContents(VolatileImage.IMAGE_INCOMPATIBLE);
+        Assert.assertTrue(_tryPaint(x, gConfig));
+        Assert.assertTrue(volatileImage.isFlushed);
+        Assert.assertEquals(gConfig.volatileImageList.size(), 2);
+        Assert.assertEquals(gConfig.volatileImageList.get(1).getRGB(), _getRGB(image));
+        Assert.assertEquals(x.getVolatileImageCount(), 1);
+    }
+}
@@ -0,0 +1,130 @@
+package com.googlecode.kevinarpe.papaya.swing.image;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.awt.image.BufferedImage;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class PArgbBufferedImageLookupTableOpTest {
+    
+    private static BufferedImage _newImage(int... argbPixelArr) {
+        BufferedImage x =
+            new BufferedImage(argbPixelArr.length, 1, BufferedImage.TYPE_INT_ARGB);
+        x.setRGB(0, 0, argbPixelArr.length, 1, argbPixelArr, 0, argbPixelArr.length);
+        return x;
+    }
+    
+    private static void _assertPixels(BufferedImage image, int... expectedArgbPixelArr) {
+        int[] actualArgbPixelArr =
+            image.getRGB(0, 0, image.getWidth(), 1, (int[]) null, 0, image.getWidth());
+        Assert.assertEquals(actualArgbPixelArr, expectedArgbPixelArr);
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PArgbBufferedImageLookupTableOp.ctor
+    //
+    
+    @Test
+    public void ctor_Pass() {
+        PArgbChannelLookupTable table = PArgbChannelLookupTable.brightness(0.5f);
+        PArgbBufferedImageLookupTableOp op = new PArgbBufferedImageLookupTableOp(table);
+        Assert.assertSame(op.getRedTable(), table);
+        Assert.assertSame(op.getGreenTable(), table);
+        Assert.assertSame(op.getBlueTable(), table);
+    }
+    
+    @Test(expectedExceptions = NullPointerException.class)
+    public void ctor_FailWithNull() {
+        new PArgbBufferedImageLookupTableOp(
+            PArgbChannelLookupTable.identity(), (PArgbChannelLookupTable) null,
+            PArgbChannelLookupTable.identity());
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PArgbBufferedImageLookupTableOp.filter
+    //
+    
+    @Test
+    public void filter_PassPerChannel() {
+        PArgbBufferedImageLookupTableOp op =
+            new PArgbBufferedImageLookupTableOp(
+                PArgbChannelLookupTable.invert(),
+                PArgbChannelLookupTable.identity(),
+                PArgbChannelLookupTable.threshold(1));
+        BufferedImage image = _newImage(0x80102030, 0xff000000);
+        Assert.assertSame(op.filter(image, image), image);
+        // Alpha is never changed.
+        _assertPixels(image, 0x80ef20ff, 0xffff0000);
+    }
+    
+    @Test
+    public void filter_PassBrightness() {
+        PArgbBufferedImageBrightnessOp op = new PArgbBufferedImageBrightnessOp(0.5f);
+        Assert.assertEquals(op.getScaleFactor(), 0.5f);
+        BufferedImage image = _newImage(0xff102030, 0x00ffffff);
+        BufferedImage dest = op.filter(image, null);
+        _assertPixels(dest, 0xff081018, 0x00808080);
+        // Source is unchanged.
+        _assertPixels(image, 0xff102030, 0x00ffffff);
+    }
+    
+    @Test
+    public void filter_PassContrast() {
+        PArgbBufferedImageContrastOp op = new PArgbBufferedImageContrastOp(0.0f);
+        Assert.assertEquals(op.getFactor(), 0.0f);
+        BufferedImage image = _newImage(0xff102030);
+        op.filter(image, image);
+        _assertPixels(image, 0xff808080);
+    }
+    
+    @Test
+    public void filter_PassGamma() {
+        PArgbBufferedImageGammaOp op = new PArgbBufferedImageGammaOp(2.0f);
+        Assert.assertEquals(op.getGamma(), 2.0f);
+        BufferedImage image = _newImage(0xff0040ff);
+        op.filter(image, image);
+        _assertPixels(image, 0xff0080ff);
+    }
+    
+    @Test
+    public void filter_PassInvert() {
+        PArgbBufferedImageInvertOp op = new PArgbBufferedImageInvertOp();
+        BufferedImage image = _newImage(0x12345678);
+        op.filter(image, image);
+        _assertPixels(image, 0x12cba987);
+    }
+    
+    @Test
+    public void filter_PassThreshold() {
+        PArgbBufferedImageThresholdOp op = new PArgbBufferedImageThresholdOp(128);
+        Assert.assertEquals(op.getThreshold(), 128);
+        BufferedImage image = _newImage(0xff7f80ff);
+        op.filter(image, image);
+        _assertPixels(image, 0xff00ffff);
+    }
+}
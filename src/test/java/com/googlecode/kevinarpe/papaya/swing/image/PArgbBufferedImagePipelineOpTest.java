@@ -0,0 +1,218 @@
+package com.googlecode.kevinarpe.papaya.swing.image;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.googlecode.kevinarpe.papaya.swing.PImageUtils;
+import com.googlecode.kevinarpe.papaya.swing.PTransparency;
+import com.googlecode.kevinarpe.papaya.swing.test.PTestImageUtils;
+
+public class PArgbBufferedImagePipelineOpTest {
+    
+    private static BufferedImage _copyToArgb(BufferedImage image) {
+        BufferedImage x =
+            new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        _copyPixels(image, x);
+        return x;
+    }
+    
+    private static BufferedImage _copyToCompatible(BufferedImage image) {
+        BufferedImage x =
+            PImageUtils.createCompatibleImage(
+                image.getWidth(), image.getHeight(), PTransparency.TRANSLUCENT);
+        _copyPixels(image, x);
+        return x;
+    }
+    
+    private static void _copyPixels(BufferedImage srcImage, BufferedImage destImage) {
+        final int width = srcImage.getWidth();
+        final int height = srcImage.getHeight();
+        int[] pixelArr = srcImage.getRGB(0, 0, width, height, (int[]) null, 0, width);
+        destImage.setRGB(0, 0, width, height, pixelArr, 0, width);
+    }
+    
+    private static PAbstractArgbBufferedImageOp[] _newOpArr() {
+        PAbstractArgbBufferedImageOp[] x = new PAbstractArgbBufferedImageOp[] {
+            new PArgbBufferedImageBrightnessOp(1.20f),
+            new PArgbBufferedImageGammaOp(1.5f),
+            new PArgbBufferedImageToGrayscaleOp(),
+            new PArgbBufferedImageTintOp(Color.ORANGE, 0.3f),
+            new PArgbBufferedImageAlphaScaleOp(0.5f),
+        };
+        return x;
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PArgbBufferedImagePipelineOp.ctor
+    //
+    
+    @Test
+    public void ctor_Pass() {
+        PAbstractArgbBufferedImageOp[] opArr = _newOpArr();
+        PArgbBufferedImagePipelineOp op = new PArgbBufferedImagePipelineOp(opArr);
+        Assert.assertEquals(op.getOpList().size(), opArr.length);
+        Assert.assertTrue(op.isTileSafe());
+    }
+    
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void ctor_FailWithEmpty() {
+        new PArgbBufferedImagePipelineOp();
+    }
+    
+    @Test(expectedExceptions = NullPointerException.class)
+    public void ctor_FailWithNullElement() {
+        new PArgbBufferedImagePipelineOp(
+            new PArgbBufferedImageInvertOp(), (PAbstractArgbBufferedImageOp) null);
+    }
+    
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void ctor_FailWithNotTileSafe() {
+        PAbstractArgbBufferedImageOp notTileSafeOp = new PAbstractArgbBufferedImageOp() {
+            @Override
+            protected void processPixels(int[] pixelArr, java.awt.image.ColorModel colorModel) {
+                // Empty
+            }
+        };
+        new PArgbBufferedImagePipelineOp(notTileSafeOp);
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PArgbBufferedImagePipelineOp.then
+    //
+    
+    @Test
+    public void then_Pass() {
+        PArgbBufferedImagePipelineOp op =
+            new PArgbBufferedImagePipelineOp(new PArgbBufferedImageInvertOp());
+        PArgbBufferedImagePipelineOp op2 = op.then(new PArgbBufferedImageInvertOp());
+        Assert.assertEquals(op.getOpList().size(), 1);
+        Assert.assertEquals(op2.getOpList().size(), 2);
+        
+        BufferedImage image = PTestImageUtils.newRandomImage(5, 3, BufferedImage.TYPE_INT_ARGB);
+        BufferedImage expected = _copyToArgb(image);
+        op2.filter(image, image);
+        PTestImageUtils.assertPixelsEqual(image, expected);
+    }
+    
+    @Test(expectedExceptions = NullPointerException.class)
+    public void then_FailWithNull() {
+        new PArgbBufferedImagePipelineOp(new PArgbBufferedImageInvertOp()).then(null);
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PArgbBufferedImagePipelineOp.filter
+    // PArgbBufferedImagePipelineOp.createFilteredImage
+    //
+    
+    @DataProvider
+    private static final Object[][] _imageType_Data() {
+        return new Object[][] {
+                { BufferedImage.TYPE_INT_ARGB },
+                { BufferedImage.TYPE_INT_RGB },
+                { BufferedImage.TYPE_4BYTE_ABGR },
+        };
+    }
+    
+    @Test(dataProvider = "_imageType_Data")
+    public void createFilteredImage_Pass(int type) {
+        // Wider than one chunk, so rows are processed in many chunks.
+        final int width = 1 + PArgbBufferedImagePipelineOp.CHUNK_PIXEL_COUNT / 3;
+        BufferedImage srcImage = PTestImageUtils.newRandomImage(width, 7, type);
+        PAbstractArgbBufferedImageOp[] opArr = _newOpArr();
+        BufferedImage expected = _copyToArgb(srcImage);
+        for (PAbstractArgbBufferedImageOp op: opArr) {
+            op.filter(expected, expected);
+        }
+        BufferedImage srcImageCopy = _copyToArgb(srcImage);
+        PArgbBufferedImagePipelineOp op = new PArgbBufferedImagePipelineOp(opArr);
+        
+        BufferedImage actual = op.createFilteredImage(srcImage);
+        Assert.assertTrue(PImageUtils.isCompatibleImage(actual));
+        // Compatible images may be premultiplied: Round expected pixels the same way.
+        PTestImageUtils.assertPixelsEqual(actual, _copyToCompatible(expected));
+        // Source is unchanged.
+        PTestImageUtils.assertPixelsEqual(srcImage, srcImageCopy);
+        
+        BufferedImage actual2 = _copyToArgb(srcImage);
+        op.filter(actual2, actual2);
+        PTestImageUtils.assertPixelsEqual(actual2, expected);
+    }
+    
+    @Test(expectedExceptions = NullPointerException.class)
+    public void createFilteredImage_FailWithNull() {
+        PArgbBufferedImagePipelineOp op =
+            new PArgbBufferedImagePipelineOp(new PArgbBufferedImageInvertOp());
+        op.createFilteredImage(null);
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PArgbBufferedImageTintOp
+    //
+    
+    @Test
+    public void tint_Pass() {
+        PArgbBufferedImageTintOp op = new PArgbBufferedImageTintOp(Color.WHITE, 0.5f);
+        Assert.assertEquals(op.getTintColor(), Color.WHITE);
+        Assert.assertEquals(op.getStrength(), 0.5f);
+        BufferedImage image = PTestImageUtils.newRandomImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        image.setRGB(0, 0, 0x80002040);
+        op.filter(image, image);
+        Assert.assertEquals(image.getRGB(0, 0), 0x808090a0);
+        
+        new PArgbBufferedImageTintOp(Color.RED, 1.0f).filter(image, image);
+        Assert.assertEquals(image.getRGB(0, 0), 0x80ff0000);
+    }
+    
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void tint_FailWithBadStrength() {
+        new PArgbBufferedImageTintOp(Color.WHITE, 1.01f);
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PArgbBufferedImageAlphaScaleOp
+    //
+    
+    @Test
+    public void alphaScale_Pass() {
+        PArgbBufferedImageAlphaScaleOp op = new PArgbBufferedImageAlphaScaleOp(0.5f);
+        Assert.assertEquals(op.getScaleFactor(), 0.5f);
+        BufferedImage image = PTestImageUtils.newRandomImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        image.setRGB(0, 0, 0xff123456);
+        op.filter(image, image);
+        Assert.assertEquals(image.getRGB(0, 0), 0x80123456);
+    }
+    
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void alphaScale_FailWithNegative() {
+        new PArgbBufferedImageAlphaScaleOp(-1.0f);
+    }
+}
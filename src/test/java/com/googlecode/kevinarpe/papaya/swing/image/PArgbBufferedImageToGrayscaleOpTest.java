@@ -0,0 +1,154 @@
+package com.googlecode.kevinarpe.papaya.swing.image;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.googlecode.kevinarpe.papaya.swing.test.PTestImageUtils;
+
+public class PArgbBufferedImageToGrayscaleOpTest {
+    
+    @DataProvider
+    private static final Object[][] _imageType_Data() {
+        return new Object[][] {
+                { BufferedImage.TYPE_INT_ARGB },
+                { BufferedImage.TYPE_INT_RGB },
+        };
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PArgbBufferedImageToGrayscaleOp.filter
+    //
+    
+    @Test(dataProvider = "_imageType_Data")
+    public void filter_PassInPlace(int type) {
+        PArgbBufferedImageToGrayscaleOp op = new PArgbBufferedImageToGrayscaleOp();
+        BufferedImage image = PTestImageUtils.newRandomImage(17, 13, type);
+        BufferedImage expected = PTestImageUtils.newRandomImage(17, 13, type);
+        op.filterWithPixelCopy(expected, expected);
+        
+        BufferedImage actual = op.filter(image, image);
+        Assert.assertTrue(actual == image);
+        PTestImageUtils.assertPixelsEqual(actual, expected);
+    }
+    
+    @Test(dataProvider = "_imageType_Data")
+    public void filter_PassWithDest(int type) {
+        PArgbBufferedImageToGrayscaleOp op = new PArgbBufferedImageToGrayscaleOp();
+        BufferedImage src = PTestImageUtils.newRandomImage(17, 13, type);
+        BufferedImage srcCopy = PTestImageUtils.newRandomImage(17, 13, type);
+        BufferedImage expected = PTestImageUtils.newRandomImage(17, 13, type);
+        op.filterWithPixelCopy(expected, expected);
+        
+        BufferedImage actual = op.filter(src, null);
+        Assert.assertTrue(actual != src);
+        PTestImageUtils.assertPixelsEqual(actual, expected);
+        // Source is unchanged.
+        PTestImageUtils.assertPixelsEqual(src, srcCopy);
+    }
+    
+    @Test(dataProvider = "_imageType_Data")
+    public void filter_PassWithSubimage(int type) {
+        PArgbBufferedImageToGrayscaleOp op = new PArgbBufferedImageToGrayscaleOp();
+        BufferedImage sub = PTestImageUtils.newRandomImage(17, 13, type).getSubimage(3, 2, 8, 7);
+        Assert.assertNull(PAbstractBufferedImageOp.tryGetPackedPixelArray(sub));
+        BufferedImage expected = new BufferedImage(8, 7, type);
+        // Copy exact pixels: drawImage() blends, which rounds translucent pixels.
+        expected.setRGB(0, 0, 8, 7, sub.getRGB(0, 0, 8, 7, null, 0, 8), 0, 8);
+        op.filterWithPixelCopy(expected, expected);
+        
+        op.filter(sub, sub);
+        PTestImageUtils.assertPixelsEqual(sub, expected);
+    }
+    
+    @Test(dataProvider = "_imageType_Data")
+    public void filter_PassParallel(int type) {
+        PArgbBufferedImageToGrayscaleOp op = new PArgbBufferedImageToGrayscaleOp();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            op.setParallelExecutor(executor);
+            op.setParallelPixelCountThreshold(1);
+            BufferedImage image = PTestImageUtils.newRandomImage(101, 67, type);
+            BufferedImage expected = PTestImageUtils.newRandomImage(101, 67, type);
+            op.filterWithPixelCopy(expected, expected);
+            
+            BufferedImage actual = op.filter(image, null);
+            PTestImageUtils.assertPixelsEqual(actual, expected);
+            op.filter(image, image);
+            PTestImageUtils.assertPixelsEqual(image, expected);
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+    
+    @Test(dataProvider = "_imageType_Data")
+    public void filter_PassWithLinearGamma(int type) {
+        PArgbBufferedImageToGrayscaleOp op = new PArgbBufferedImageToGrayscaleOp();
+        op.useLinearGammaDecompressedColors(true);
+        BufferedImage image = PTestImageUtils.newRandomImage(17, 13, type);
+        int[] expectedPixelArr = image.getRGB(0, 0, 17, 13, (int[]) null, 0, 17);
+        op.processPixels3(expectedPixelArr, image.getColorModel());
+        
+        op.filter(image, image);
+        int[] actualPixelArr = image.getRGB(0, 0, 17, 13, (int[]) null, 0, 17);
+        for (int i = 0; i < expectedPixelArr.length; ++i) {
+            final int expected = expectedPixelArr[i];
+            final int actual = actualPixelArr[i];
+            Assert.assertEquals(actual >>> 24, expected >>> 24);
+            // Lookup tables and ColorSpace round differently.
+            for (int bitShift = 0; bitShift < 24; bitShift += 8) {
+                int diff = ((actual >> bitShift) & 0xff) - ((expected >> bitShift) & 0xff);
+                Assert.assertTrue(Math.abs(diff) <= 1, "Pixel #" + i);
+            }
+        }
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PAbstractBufferedImageOp.setParallelPixelCountThreshold
+    //
+    
+    @Test
+    public void setParallelPixelCountThreshold_Pass() {
+        PArgbBufferedImageToGrayscaleOp op = new PArgbBufferedImageToGrayscaleOp();
+        Assert.assertEquals(
+            op.getParallelPixelCountThreshold(),
+            PAbstractBufferedImageOp.DEFAULT_PARALLEL_PIXEL_COUNT_THRESHOLD);
+        op.setParallelPixelCountThreshold(123);
+        Assert.assertEquals(op.getParallelPixelCountThreshold(), 123);
+    }
+    
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void setParallelPixelCountThreshold_FailWithZero() {
+        new PArgbBufferedImageToGrayscaleOp().setParallelPixelCountThreshold(0);
+    }
+}
@@ -0,0 +1,210 @@
+package com.googlecode.kevinarpe.papaya.swing.image;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class PArgbChannelLookupTableTest {
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PArgbChannelLookupTable.fromArray
+    //
+    
+    @Test
+    public void fromArray_Pass() {
+        int[] arr = new int[PArgbChannelLookupTable.SIZE];
+        for (int i = 0; i < arr.length; ++i) {
+            arr[i] = i;
+        }
+        PArgbChannelLookupTable table = PArgbChannelLookupTable.fromArray(arr);
+        Assert.assertEquals(table, PArgbChannelLookupTable.identity());
+        // Defensive copy
+        arr[7] = 0;
+        Assert.assertEquals(table.get(7), 7);
+        Assert.assertEquals(table.toArray(), PArgbChannelLookupTable.identity().toArray());
+    }
+    
+    @Test(expectedExceptions = NullPointerException.class)
+    public void fromArray_FailWithNull() {
+        PArgbChannelLookupTable.fromArray((int[]) null);
+    }
+    
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void fromArray_FailWithBadLength() {
+        PArgbChannelLookupTable.fromArray(new int[255]);
+    }
+    
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void fromArray_FailWithBadValue() {
+        int[] arr = new int[PArgbChannelLookupTable.SIZE];
+        arr[3] = 256;
+        PArgbChannelLookupTable.fromArray(arr);
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PArgbChannelLookupTable.invert
+    //
+    
+    @Test
+    public void invert_Pass() {
+        PArgbChannelLookupTable table = PArgbChannelLookupTable.invert();
+        Assert.assertEquals(table.get(0), 255);
+        Assert.assertEquals(table.get(100), 155);
+        Assert.assertEquals(table.get(255), 0);
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PArgbChannelLookupTable.brightness
+    //
+    
+    @Test
+    public void brightness_Pass() {
+        PArgbChannelLookupTable table = PArgbChannelLookupTable.brightness(0.5f);
+        Assert.assertEquals(table.get(0), 0);
+        Assert.assertEquals(table.get(100), 50);
+        Assert.assertEquals(table.get(255), 128);
+        Assert.assertSame(PArgbChannelLookupTable.brightness(0.5f), table);
+        Assert.assertEquals(PArgbChannelLookupTable.brightness(2.0f).get(200), 255);
+        Assert.assertEquals(
+            PArgbChannelLookupTable.brightness(1.0f), PArgbChannelLookupTable.identity());
+    }
+    
+    @DataProvider
+    private static final Object[][] _badFloat_Data() {
+        return new Object[][] {
+                { -0.1f },
+                { Float.NaN },
+                { Float.POSITIVE_INFINITY },
+        };
+    }
+    
+    @Test(expectedExceptions = IllegalArgumentException.class, dataProvider = "_badFloat_Data")
+    public void brightness_FailWithBadValue(float scaleFactor) {
+        PArgbChannelLookupTable.brightness(scaleFactor);
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PArgbChannelLookupTable.contrast
+    //
+    
+    @Test
+    public void contrast_Pass() {
+        PArgbChannelLookupTable table = PArgbChannelLookupTable.contrast(2.0f);
+        Assert.assertEquals(table.get(0), 0);
+        Assert.assertEquals(table.get(100), 73);
+        Assert.assertEquals(table.get(200), 255);
+        Assert.assertSame(PArgbChannelLookupTable.contrast(2.0f), table);
+        Assert.assertEquals(PArgbChannelLookupTable.contrast(0.0f).get(0), 128);
+    }
+    
+    @Test(expectedExceptions = IllegalArgumentException.class, dataProvider = "_badFloat_Data")
+    public void contrast_FailWithBadValue(float factor) {
+        PArgbChannelLookupTable.contrast(factor);
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PArgbChannelLookupTable.gamma
+    //
+    
+    @Test
+    public void gamma_Pass() {
+        PArgbChannelLookupTable table = PArgbChannelLookupTable.gamma(2.0f);
+        Assert.assertEquals(table.get(0), 0);
+        Assert.assertEquals(table.get(64), 128);
+        Assert.assertEquals(table.get(255), 255);
+        Assert.assertSame(PArgbChannelLookupTable.gamma(2.0f), table);
+    }
+    
+    @Test(expectedExceptions = IllegalArgumentException.class, dataProvider = "_badFloat_Data")
+    public void gamma_FailWithBadValue(float gamma) {
+        PArgbChannelLookupTable.gamma(gamma);
+    }
+    
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void gamma_FailWithZero() {
+        PArgbChannelLookupTable.gamma(0.0f);
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PArgbChannelLookupTable.threshold
+    //
+    
+    @Test
+    public void threshold_Pass() {
+        PArgbChannelLookupTable table = PArgbChannelLookupTable.threshold(128);
+        Assert.assertEquals(table.get(127), 0);
+        Assert.assertEquals(table.get(128), 255);
+        Assert.assertSame(PArgbChannelLookupTable.threshold(128), table);
+        Assert.assertEquals(PArgbChannelLookupTable.threshold(0).get(0), 255);
+        Assert.assertEquals(PArgbChannelLookupTable.threshold(256).get(255), 0);
+    }
+    
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void threshold_FailWithNegative() {
+        PArgbChannelLookupTable.threshold(-1);
+    }
+    
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void threshold_FailWithTooLarge() {
+        PArgbChannelLookupTable.threshold(257);
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PArgbChannelLookupTable.andThen
+    //
+    
+    @Test
+    public void andThen_Pass() {
+        PArgbChannelLookupTable table =
+            PArgbChannelLookupTable.brightness(0.5f).andThen(PArgbChannelLookupTable.invert());
+        Assert.assertEquals(table.get(0), 255);
+        Assert.assertEquals(table.get(100), 205);
+        Assert.assertEquals(
+            PArgbChannelLookupTable.invert().andThen(PArgbChannelLookupTable.invert()),
+            PArgbChannelLookupTable.identity());
+    }
+    
+    @Test(expectedExceptions = NullPointerException.class)
+    public void andThen_FailWithNull() {
+        PArgbChannelLookupTable.identity().andThen((PArgbChannelLookupTable) null);
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PArgbChannelLookupTable.get
+    //
+    
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void get_FailWithNegative() {
+        PArgbChannelLookupTable.identity().get(-1);
+    }
+    
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void get_FailWithTooLarge() {
+        PArgbChannelLookupTable.identity().get(256);
+    }
+}
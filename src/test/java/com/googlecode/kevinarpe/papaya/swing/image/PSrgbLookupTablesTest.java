@@ -0,0 +1,92 @@
+package com.googlecode.kevinarpe.papaya.swing.image;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class PSrgbLookupTablesTest {
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PSrgbLookupTables.srgbToLinear
+    //
+    
+    @Test
+    public void srgbToLinear_Pass() {
+        Assert.assertEquals(PSrgbLookupTables.srgbToLinear(0), 0);
+        Assert.assertEquals(
+            PSrgbLookupTables.srgbToLinear(255), PSrgbLookupTables.MAX_LINEAR_VALUE);
+        // sRGB 50% gray is about 21.4% linear light.
+        Assert.assertEquals(PSrgbLookupTables.srgbToLinear(128), 884);
+        for (int i = 1; i <= 255; ++i) {
+            Assert.assertTrue(
+                PSrgbLookupTables.srgbToLinear(i - 1) < PSrgbLookupTables.srgbToLinear(i));
+        }
+    }
+    
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void srgbToLinear_FailWithNegative() {
+        PSrgbLookupTables.srgbToLinear(-1);
+    }
+    
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void srgbToLinear_FailWithTooLarge() {
+        PSrgbLookupTables.srgbToLinear(256);
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PSrgbLookupTables.linearToSrgb
+    //
+    
+    @Test
+    public void linearToSrgb_Pass() {
+        Assert.assertEquals(PSrgbLookupTables.linearToSrgb(0), 0);
+        Assert.assertEquals(
+            PSrgbLookupTables.linearToSrgb(PSrgbLookupTables.MAX_LINEAR_VALUE), 255);
+        for (int i = 1; i <= PSrgbLookupTables.MAX_LINEAR_VALUE; ++i) {
+            Assert.assertTrue(
+                PSrgbLookupTables.linearToSrgb(i - 1) <= PSrgbLookupTables.linearToSrgb(i));
+        }
+    }
+    
+    @Test
+    public void linearToSrgb_PassRoundTrip() {
+        for (int i = 0; i <= 255; ++i) {
+            int linear = PSrgbLookupTables.srgbToLinear(i);
+            Assert.assertEquals(PSrgbLookupTables.linearToSrgb(linear), i);
+        }
+    }
+    
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void linearToSrgb_FailWithNegative() {
+        PSrgbLookupTables.linearToSrgb(-1);
+    }
+    
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void linearToSrgb_FailWithTooLarge() {
+        PSrgbLookupTables.linearToSrgb(1 + PSrgbLookupTables.MAX_LINEAR_VALUE);
+    }
+}
@@ -0,0 +1,67 @@
+package com.googlecode.kevinarpe.papaya.swing.test;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import org.testng.Assert;
+
+public final class PTestImageUtils {
+    
+    private PTestImageUtils() {
+        // empty
+    }
+    
+    /**
+     * Creates an image with random (but repeatable) pixels.  The random seed depends upon width
+     * and height.
+     */
+    public static BufferedImage newRandomImage(int width, int height, int type) {
+        BufferedImage x = new BufferedImage(width, height, type);
+        Random random = new Random(31 * width + height);
+        for (int y = 0; y < height; ++y) {
+            for (int x2 = 0; x2 < width; ++x2) {
+                x.setRGB(x2, y, random.nextInt());
+            }
+        }
+        return x;
+    }
+    
+    /**
+     * Asserts both images have the same dimensions and the same non-premultiplied ARGB pixels.
+     * Image types may differ.
+     */
+    public static void assertPixelsEqual(BufferedImage actual, BufferedImage expected) {
+        final int width = expected.getWidth();
+        final int height = expected.getHeight();
+        Assert.assertEquals(actual.getWidth(), width);
+        Assert.assertEquals(actual.getHeight(), height);
+        Assert.assertEquals(
+            actual.getRGB(0, 0, width, height, null, 0, width),
+            expected.getRGB(0, 0, width, height, null, 0, width));
+    }
+}
@@ -0,0 +1,151 @@
+package com.googlecode.kevinarpe.papaya.swing.theme;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import com.googlecode.kevinarpe.papaya.exception.PathException;
+import com.googlecode.kevinarpe.papaya.swing.PImmutableDimension;
+import com.googlecode.kevinarpe.papaya.swing.test.PSampleIcon;
+import com.googlecode.kevinarpe.papaya.swing.test.PTestImageUtils;
+
+public class PThemeIconAtlasTest {
+    
+    private static final File BASE_DIR_PATH =
+        new File("src/test/resources/" + PSampleIcon.THEME_DIR_NAME);
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PThemeIconAtlas.pack
+    //
+    
+    @Test
+    public void pack_Pass() {
+        PImmutableDimension dim = PImmutableDimension.getSharedFromWidthAndHeight(2, 3);
+        Map<PThemeIconName, BufferedImage> map =
+            new EnumMap<PThemeIconName, BufferedImage>(PThemeIconName.class);
+        PThemeIconName[] nameArr = PThemeIconName.values();
+        for (int i = 0; i < 5; ++i) {
+            BufferedImage image = new BufferedImage(2, 3, BufferedImage.TYPE_INT_ARGB);
+            image.setRGB(1, 2, 0x80000000 | i);
+            map.put(nameArr[i], image);
+        }
+        PThemeIconAtlas x = PThemeIconAtlas.pack(dim, map);
+        Assert.assertTrue(dim == x.getIconDimension());
+        Assert.assertEquals(x.getColumnCount(), 3);
+        Assert.assertEquals(x.getImage().getWidth(), 3 * 2);
+        Assert.assertEquals(x.getImage().getHeight(), 2 * 3);
+        Assert.assertEquals(x.getNameSet(), map.keySet());
+        Assert.assertEquals(x.tryGetIconBounds(nameArr[4]), new Rectangle(2, 3, 2, 3));
+        for (int i = 0; i < 5; ++i) {
+            PTestImageUtils.assertPixelsEqual(x.tryGetIconImage(nameArr[i]), map.get(nameArr[i]));
+        }
+        Assert.assertNull(x.tryGetIconBounds(nameArr[5]));
+        Assert.assertNull(x.tryGetIconImage(nameArr[5]));
+    }
+    
+    @Test
+    public void pack_PassWithEmpty() {
+        PThemeIconAtlas x =
+            PThemeIconAtlas.pack(
+                PImmutableDimension.getSharedFromWidthAndHeight(16, 16),
+                Collections.<PThemeIconName, BufferedImage>emptyMap());
+        Assert.assertTrue(x.getNameSet().isEmpty());
+    }
+    
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void pack_FailWithWrongImageDimension() {
+        PThemeIconAtlas.pack(
+            PImmutableDimension.getSharedFromWidthAndHeight(16, 16),
+            Collections.singletonMap(
+                PThemeIconName.EDIT_REDO,
+                new BufferedImage(16, 17, BufferedImage.TYPE_INT_ARGB)));
+    }
+    
+    @Test(expectedExceptions = NullPointerException.class)
+    public void pack_FailWithNull() {
+        PThemeIconAtlas.pack(null, Collections.<PThemeIconName, BufferedImage>emptyMap());
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PThemeIconAtlas.packFromPngFiles/.write/.read
+    //
+    
+    @Test
+    public void read_PassAfterWrite()
+    throws IOException {
+        for (PSampleIcon sample: PSampleIcon.LIST) {
+            PThemeIconAtlas atlas =
+                PThemeIconAtlas.packFromPngFiles(BASE_DIR_PATH, sample.imageDimension);
+            Assert.assertTrue(atlas.getNameSet().contains(sample.themeIconName));
+            
+            File atlasFilePath = File.createTempFile("atlas", ".png");
+            atlasFilePath.deleteOnExit();
+            PThemeIconAtlas.getIndexFilePath(atlasFilePath).deleteOnExit();
+            atlas.write(atlasFilePath);
+            
+            PThemeIconAtlas x = PThemeIconAtlas.read(atlasFilePath);
+            Assert.assertEquals(x.getIconDimension(), sample.imageDimension);
+            Assert.assertEquals(x.getNameSet(), atlas.getNameSet());
+            Assert.assertEquals(x.getImage().getType(), BufferedImage.TYPE_INT_ARGB);
+            PTestImageUtils.assertPixelsEqual(
+                x.tryGetIconImage(sample.themeIconName), ImageIO.read(sample.filePath));
+        }
+    }
+    
+    @Test(expectedExceptions = PathException.class)
+    public void read_FailWithMissingIndexFile()
+    throws IOException {
+        File atlasFilePath = File.createTempFile("atlas", ".png");
+        atlasFilePath.deleteOnExit();
+        PThemeIconAtlas.read(atlasFilePath);
+    }
+    
+    @Test(expectedExceptions = IOException.class)
+    public void read_FailWithInvalidIndexFile()
+    throws IOException {
+        File atlasFilePath = File.createTempFile("atlas", ".png");
+        atlasFilePath.deleteOnExit();
+        PThemeIconAtlas.packFromPngFiles(
+            BASE_DIR_PATH, PSampleIcon.EDIT_REDO_16x16.imageDimension).write(atlasFilePath);
+        File indexFilePath = PThemeIconAtlas.getIndexFilePath(atlasFilePath);
+        indexFilePath.deleteOnExit();
+        Files.append("NO_SUCH_ICON_NAME 1\n", indexFilePath, Charsets.UTF_8);
+        PThemeIconAtlas.read(atlasFilePath);
+    }
+}
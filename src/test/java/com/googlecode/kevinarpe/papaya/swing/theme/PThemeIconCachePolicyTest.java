@@ -0,0 +1,131 @@
+package com.googlecode.kevinarpe.papaya.swing.theme;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.net.MalformedURLException;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.google.common.testing.EqualsTester;
+import com.googlecode.kevinarpe.papaya.swing.test.PSampleIcon;
+
+public class PThemeIconCachePolicyTest {
+
+    ///////////////////////////////////////////////////////////////////////////
+    // PThemeIconCachePolicy.create
+    //
+    
+    @DataProvider
+    private static final Object[][] _create_Pass_Data() {
+        return new Object[][] {
+                { PThemeIconCachePolicy.NO_MAX_PIXEL_BYTE_COUNT, false },
+                { PThemeIconCachePolicy.NO_MAX_PIXEL_BYTE_COUNT, true },
+                { 1L, false },
+                { 1024L * 1024L, true },
+                { Long.MAX_VALUE, false },
+        };
+    }
+    
+    @Test(dataProvider = "_create_Pass_Data")
+    public void create_Pass(long maxPixelByteCount, boolean useSoftReferences) {
+        PThemeIconCachePolicy x =
+            PThemeIconCachePolicy.create(maxPixelByteCount, useSoftReferences);
+        Assert.assertEquals(x.maxPixelByteCount, maxPixelByteCount);
+        Assert.assertEquals(x.useSoftReferences, useSoftReferences);
+        Assert.assertEquals(
+            x.isBounded(),
+            PThemeIconCachePolicy.NO_MAX_PIXEL_BYTE_COUNT != maxPixelByteCount);
+    }
+    
+    @DataProvider
+    private static final Object[][] _create_FailWithBadMaxPixelByteCount_Data() {
+        return new Object[][] {
+                { 0L },
+                { -2L },
+                { Long.MIN_VALUE },
+        };
+    }
+    
+    @Test(dataProvider = "_create_FailWithBadMaxPixelByteCount_Data",
+            expectedExceptions = IllegalArgumentException.class)
+    public void create_FailWithBadMaxPixelByteCount(long maxPixelByteCount) {
+        PThemeIconCachePolicy.create(maxPixelByteCount, false);
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PThemeIconCachePolicy.UNBOUNDED
+    //
+    
+    @Test
+    public void UNBOUNDED_Pass() {
+        Assert.assertFalse(PThemeIconCachePolicy.UNBOUNDED.isBounded());
+        Assert.assertFalse(PThemeIconCachePolicy.UNBOUNDED.useSoftReferences);
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PThemeIconCachePolicy.getPixelByteCount
+    //
+    
+    @Test
+    public void getPixelByteCount_Pass()
+    throws MalformedURLException {
+        PSampleIcon sample = PSampleIcon.EDIT_REDO_22x22;
+        PThemeImageIcon icon =
+            new PThemeImageIcon(
+                sample.imageDimension,
+                sample.themeIconName,
+                sample.filePath.toURI().toURL());
+        Assert.assertEquals(
+            PThemeIconCachePolicy.getPixelByteCount(icon),
+            22L * 22L * PThemeIconCachePolicy.BYTES_PER_PIXEL);
+    }
+    
+    @Test(expectedExceptions = NullPointerException.class)
+    public void getPixelByteCount_FailWithNull() {
+        PThemeIconCachePolicy.getPixelByteCount(null);
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PThemeIconCachePolicy.hashCode/equals
+    //
+    
+    @Test
+    public void hashCodeAndEquals_Pass() {
+        EqualsTester eq = new EqualsTester();
+        eq.addEqualityGroup(
+            PThemeIconCachePolicy.UNBOUNDED,
+            PThemeIconCachePolicy.create(PThemeIconCachePolicy.NO_MAX_PIXEL_BYTE_COUNT, false));
+        eq.addEqualityGroup(
+            PThemeIconCachePolicy.create(PThemeIconCachePolicy.NO_MAX_PIXEL_BYTE_COUNT, true));
+        eq.addEqualityGroup(
+            PThemeIconCachePolicy.create(1024, false),
+            PThemeIconCachePolicy.create(1024, false));
+        eq.addEqualityGroup(PThemeIconCachePolicy.create(1024, true));
+        eq.testEquals();
+    }
+}
@@ -0,0 +1,163 @@
+package com.googlecode.kevinarpe.papaya.swing.theme;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.googlecode.kevinarpe.papaya.swing.PMediaTrackerLoadStatus;
+import com.googlecode.kevinarpe.papaya.swing.test.PSampleIcon;
+import com.googlecode.kevinarpe.papaya.swing.test.PTestImageUtils;
+
+public class PThemeIconLoaderFixedDimensionFromAtlasTest {
+    
+    private static final File BASE_DIR_PATH =
+        new File("src/test/resources/" + PSampleIcon.THEME_DIR_NAME);
+    
+    private static final PSampleIcon SAMPLE = PSampleIcon.EDIT_REDO_22x22;
+    
+    private File _atlasFilePath;
+    
+    @BeforeClass
+    public void beforeClass()
+    throws IOException {
+        _atlasFilePath = File.createTempFile("atlas", ".png");
+        _atlasFilePath.deleteOnExit();
+        PThemeIconAtlas.getIndexFilePath(_atlasFilePath).deleteOnExit();
+        PThemeIconAtlas.packFromPngFiles(BASE_DIR_PATH, SAMPLE.imageDimension)
+            .write(_atlasFilePath);
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PThemeIconLoaderFixedDimensionFromAtlas.ctor
+    //
+    
+    @Test
+    public void ctor_Pass()
+    throws IOException {
+        PThemeIconLoaderFixedDimensionFromAtlas x =
+            new PThemeIconLoaderFixedDimensionFromAtlas(_atlasFilePath);
+        Assert.assertEquals(x.getFixedDimension(), SAMPLE.imageDimension);
+        Assert.assertEquals(x.getAtlasUrl(), _atlasFilePath.toURI().toURL());
+        Assert.assertEquals(x.getAtlas().getIconDimension(), SAMPLE.imageDimension);
+    }
+    
+    @Test(expectedExceptions = NullPointerException.class)
+    public void ctor_FailWithNull()
+    throws IOException {
+        new PThemeIconLoaderFixedDimensionFromAtlas(null, _atlasFilePath.toURI().toURL(),
+            PThemeIconCachePolicy.UNBOUNDED);
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PThemeIconLoaderFixedDimensionFromAtlas.iconExists/.tryGetIcon
+    //
+    
+    @Test
+    public void iconExists_Pass()
+    throws IOException {
+        PThemeIconLoaderFixedDimensionFromAtlas x =
+            new PThemeIconLoaderFixedDimensionFromAtlas(_atlasFilePath);
+        Assert.assertTrue(x.iconExists(SAMPLE.themeIconName));
+        Assert.assertFalse(x.iconExists(PThemeIconName.ADDRESS_BOOK_NEW));
+        Assert.assertNull(x.tryGetIcon(PThemeIconName.ADDRESS_BOOK_NEW));
+    }
+    
+    @Test
+    public void tryGetIcon_Pass()
+    throws IOException {
+        PThemeIconLoaderFixedDimensionFromAtlas x =
+            new PThemeIconLoaderFixedDimensionFromAtlas(_atlasFilePath);
+        PThemeImageIcon icon = x.tryGetIcon(SAMPLE.themeIconName);
+        Assert.assertTrue(icon == x.getIcon(SAMPLE.themeIconName));
+        Assert.assertEquals(icon.getImageLoadStatusAsEnum(), PMediaTrackerLoadStatus.COMPLETE);
+        Assert.assertEquals(icon.getIconWidth(), SAMPLE.imageDimension.width);
+        Assert.assertEquals(icon.getIconHeight(), SAMPLE.imageDimension.height);
+        Assert.assertEquals(icon.getUrl().getRef(), SAMPLE.themeIconName.name());
+        
+        final int width = SAMPLE.imageDimension.width;
+        final int height = SAMPLE.imageDimension.height;
+        BufferedImage expected = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics g = expected.getGraphics();
+        try {
+            g.drawImage(ImageIO.read(SAMPLE.filePath), 0, 0, null);
+        }
+        finally {
+            g.dispose();
+        }
+        BufferedImage actual = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        g = actual.getGraphics();
+        try {
+            icon.paintIcon(null, g, 0, 0);
+        }
+        finally {
+            g.dispose();
+        }
+        Assert.assertEquals(
+            actual.getRGB(0, 0, width, height, null, 0, width),
+            expected.getRGB(0, 0, width, height, null, 0, width));
+    }
+    
+    @Test
+    public void paintIcon_PassWithOffsetAndAcceleratedPaint()
+    throws IOException {
+        PThemeIconLoaderFixedDimensionFromAtlas x =
+            new PThemeIconLoaderFixedDimensionFromAtlas(_atlasFilePath);
+        PThemeImageIcon icon = x.tryGetIcon(SAMPLE.themeIconName);
+        icon.setAcceleratedPaint(true);
+        
+        final int width = SAMPLE.imageDimension.width;
+        final int height = SAMPLE.imageDimension.height;
+        BufferedImage actual =
+            new BufferedImage(3 + width, 5 + height, BufferedImage.TYPE_INT_ARGB);
+        Graphics g = actual.getGraphics();
+        try {
+            icon.paintIcon(null, g, 3, 5);
+        }
+        finally {
+            g.dispose();
+        }
+        BufferedImage expected =
+            new BufferedImage(3 + width, 5 + height, BufferedImage.TYPE_INT_ARGB);
+        g = expected.getGraphics();
+        try {
+            g.drawImage(icon.getImage(), 3, 5, null);
+        }
+        finally {
+            g.dispose();
+        }
+        // Only the icon region of the atlas is painted.
+        PTestImageUtils.assertPixelsEqual(actual, expected);
+    }
+}
@@ -27,15 +27,28 @@ package com.googlecode.kevinarpe.papaya.swing.theme;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import com.google.common.cache.CacheStats;
+import com.google.common.io.Files;
 import com.googlecode.kevinarpe.papaya.argument.PathArgsTest;
 import com.googlecode.kevinarpe.papaya.exception.PathException;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.googlecode.kevinarpe.papaya.swing.PImmutableDimension;
+import com.googlecode.kevinarpe.papaya.swing.PMediaTrackerLoadStatus;
 import com.googlecode.kevinarpe.papaya.swing.test.PSampleIcon;
 
 public class PThemeIconLoaderFixedDimensionFromPngFileTest {
@@ -121,6 +134,24 @@ public class PThemeIconLoaderFixedDimensionFromPngFileTest {
         Assert.assertEquals(
             x.getBaseDirPath().getAbsoluteFile(),
             BASE_DIR_PATH.getAbsoluteFile());
+        Assert.assertEquals(x.getCachePolicy(), PThemeIconCachePolicy.UNBOUNDED);
+    }
+    
+    @Test
+    public void ctor_PassWithCachePolicy()
+    throws PathException {
+        PImmutableDimension d = PImmutableDimension.getSharedFromDefaultWidthAndHeight();
+        PThemeIconCachePolicy p = PThemeIconCachePolicy.create(1024, true);
+        PThemeIconLoaderFixedDimensionFromPngFile x =
+            new PThemeIconLoaderFixedDimensionFromPngFile(d, BASE_DIR_PATH, p);
+        Assert.assertEquals(x.getCachePolicy(), p);
+    }
+    
+    @Test(expectedExceptions = NullPointerException.class)
+    public void ctor_FailWithNullCachePolicy()
+    throws PathException {
+        new PThemeIconLoaderFixedDimensionFromPngFile(
+            PImmutableDimension.getSharedFromDefaultWidthAndHeight(), BASE_DIR_PATH, null);
     }
     
     ///////////////////////////////////////////////////////////////////////////
@@ -246,6 +277,36 @@ public class PThemeIconLoaderFixedDimensionFromPngFileTest {
         Assert.assertNull(icon);
     }
     
+    @Test
+    public void tryGetIcon_PassWithManyThreads()
+    throws PathException, InterruptedException, ExecutionException {
+        final PThemeIconLoaderFixedDimensionFromPngFile y =
+            new PThemeIconLoaderFixedDimensionFromPngFile(
+                PSampleIcon.EDIT_REDO_32x32.imageDimension,
+                BASE_DIR_PATH);
+        final int threadCount = 8;
+        ExecutorService es = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<PThemeImageIcon>> futureList = new ArrayList<Future<PThemeImageIcon>>();
+            for (int i = 0; i < threadCount; ++i) {
+                futureList.add(es.submit(new Callable<PThemeImageIcon>() {
+                    @Override
+                    public PThemeImageIcon call() {
+                        return y.tryGetIcon(PSampleIcon.EDIT_REDO_32x32.themeIconName);
+                    }
+                }));
+            }
+            PThemeImageIcon icon = y.tryGetIcon(PSampleIcon.EDIT_REDO_32x32.themeIconName);
+            Assert.assertNotNull(icon);
+            for (Future<PThemeImageIcon> future: futureList) {
+                Assert.assertTrue(icon == future.get());
+            }
+        }
+        finally {
+            es.shutdown();
+        }
+    }
+    
     @Test(expectedExceptions = NullPointerException.class)
     public void tryGetIcon_FailWithNull()
     throws PathException {
@@ -293,4 +354,231 @@ public class PThemeIconLoaderFixedDimensionFromPngFileTest {
                 BASE_DIR_PATH);
         y.iconExists(null);
     }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PThemeIconLoaderFixedDimensionFromPngFile.getFilePath
+    //
+    
+    @Test
+    public void getFilePath_Pass()
+    throws PathException {
+        PThemeIconLoaderFixedDimensionFromPngFile y =
+            new PThemeIconLoaderFixedDimensionFromPngFile(
+                PSampleIcon.EDIT_REDO_32x32.imageDimension,
+                BASE_DIR_PATH);
+        Assert.assertEquals(
+            y.getFilePath(PSampleIcon.EDIT_REDO_32x32.themeIconName).getAbsoluteFile(),
+            PSampleIcon.EDIT_REDO_32x32.filePath);
+    }
+    
+    @Test
+    public void getFilePath_PassWithMissing()
+    throws PathException {
+        PThemeIconLoaderFixedDimensionFromPngFile y =
+            new PThemeIconLoaderFixedDimensionFromPngFile(
+                PImmutableDimension.getSharedFromWidthAndHeight(33333, 44444),
+                BASE_DIR_PATH);
+        Assert.assertNull(y.getFilePath(PSampleIcon.EDIT_REDO_32x32.themeIconName));
+    }
+    
+    @Test(expectedExceptions = NullPointerException.class)
+    public void getFilePath_FailWithNull()
+    throws PathException {
+        PThemeIconLoaderFixedDimensionFromPngFile y =
+            new PThemeIconLoaderFixedDimensionFromPngFile(
+                PSampleIcon.EDIT_REDO_32x32.imageDimension,
+                BASE_DIR_PATH);
+        y.getFilePath(null);
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PThemeIconLoaderFixedDimensionFromPngFile.rescan
+    //
+    
+    @Test
+    public void rescan_Pass()
+    throws IOException {
+        final PSampleIcon sample = PSampleIcon.EDIT_REDO_32x32;
+        File baseDirPath = Files.createTempDir();
+        File dirPath =
+            new File(
+                new File(baseDirPath, sample.imageDimension.getDescription()),
+                sample.themeIconName.context.dirName);
+        PThemeIconLoaderFixedDimensionFromPngFile y =
+            new PThemeIconLoaderFixedDimensionFromPngFile(sample.imageDimension, baseDirPath);
+        Assert.assertFalse(y.iconExists(sample.themeIconName));
+        Assert.assertNull(y.tryGetIcon(sample.themeIconName));
+        
+        Assert.assertTrue(dirPath.mkdirs());
+        File filePath = new File(dirPath, sample.filePath.getName());
+        Files.copy(sample.filePath, filePath);
+        // Index is not updated until rescan.
+        Assert.assertFalse(y.iconExists(sample.themeIconName));
+        
+        Assert.assertEquals(y.rescan(), 1);
+        Assert.assertTrue(y.iconExists(sample.themeIconName));
+        // Cached missing icon was discarded.
+        Assert.assertNotNull(y.tryGetIcon(sample.themeIconName));
+        
+        Assert.assertTrue(filePath.delete());
+        Assert.assertEquals(y.rescan(), 0);
+        Assert.assertFalse(y.iconExists(sample.themeIconName));
+        Assert.assertNull(y.tryGetIcon(sample.themeIconName));
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PThemeIconLoaderFixedDimensionFromPngFile.getCacheStats
+    //
+    
+    @Test
+    public void getCacheStats_Pass()
+    throws PathException {
+        PThemeIconLoaderFixedDimensionFromPngFile y =
+            new PThemeIconLoaderFixedDimensionFromPngFile(
+                PSampleIcon.EDIT_REDO_32x32.imageDimension,
+                BASE_DIR_PATH);
+        y.tryGetIcon(PSampleIcon.EDIT_REDO_32x32.themeIconName);
+        y.tryGetIcon(PSampleIcon.EDIT_REDO_32x32.themeIconName);
+        y.tryGetIcon(PSampleIcon.EDIT_REDO_32x32.themeIconName);
+        CacheStats stats = y.getCacheStats();
+        Assert.assertEquals(stats.missCount(), 1);
+        Assert.assertEquals(stats.hitCount(), 2);
+        Assert.assertEquals(stats.evictionCount(), 0);
+    }
+    
+    @Test
+    public void getCacheStats_PassWithEviction()
+    throws PathException {
+        PThemeIconLoaderFixedDimensionFromPngFile y =
+            new PThemeIconLoaderFixedDimensionFromPngFile(
+                PSampleIcon.EDIT_REDO_32x32.imageDimension,
+                BASE_DIR_PATH,
+                PThemeIconCachePolicy.create(1, false));
+        PThemeImageIcon icon = y.tryGetIcon(PSampleIcon.EDIT_REDO_32x32.themeIconName);
+        PThemeImageIcon icon2 = y.tryGetIcon(PSampleIcon.EDIT_REDO_32x32.themeIconName);
+        Assert.assertNotNull(icon);
+        Assert.assertNotNull(icon2);
+        Assert.assertTrue(icon != icon2);
+        CacheStats stats = y.getCacheStats();
+        Assert.assertEquals(stats.missCount(), 2);
+        Assert.assertTrue(stats.evictionCount() >= 1);
+    }
+    
+    @Test
+    public void getCacheStats_PassWithSoftReferences()
+    throws PathException {
+        PThemeIconLoaderFixedDimensionFromPngFile y =
+            new PThemeIconLoaderFixedDimensionFromPngFile(
+                PSampleIcon.EDIT_REDO_32x32.imageDimension,
+                BASE_DIR_PATH,
+                PThemeIconCachePolicy.create(PThemeIconCachePolicy.NO_MAX_PIXEL_BYTE_COUNT, true));
+        PThemeImageIcon icon = y.tryGetIcon(PSampleIcon.EDIT_REDO_32x32.themeIconName);
+        Assert.assertNotNull(icon);
+        Assert.assertTrue(icon == y.tryGetIcon(PSampleIcon.EDIT_REDO_32x32.themeIconName));
+        
+        PThemeIconName missingName = null;
+        for (PThemeIconName name: PThemeIconName.values()) {
+            if (!y.iconExists(name)) {
+                missingName = name;
+                break;
+            }
+        }
+        Assert.assertNull(y.tryGetIcon(missingName));
+        Assert.assertNull(y.tryGetIcon(missingName));
+        CacheStats stats = y.getCacheStats();
+        Assert.assertEquals(stats.missCount(), 2);
+        Assert.assertEquals(stats.hitCount(), 2);
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PThemeIconLoaderFixedDimensionFromPngFile.preload
+    //
+    
+    @Test
+    public void preload_Pass()
+    throws PathException, InterruptedException, ExecutionException {
+        PThemeIconLoaderFixedDimensionFromPngFile y =
+            new PThemeIconLoaderFixedDimensionFromPngFile(
+                PSampleIcon.EDIT_REDO_32x32.imageDimension,
+                BASE_DIR_PATH);
+        ExecutorService es = Executors.newFixedThreadPool(2);
+        try {
+            List<PThemeImageIcon> iconList =
+                y.preload(
+                    Arrays.asList(
+                        PSampleIcon.EDIT_REDO_32x32.themeIconName,
+                        PThemeIconName.ADDRESS_BOOK_NEW),
+                    es)
+                .get();
+            Assert.assertEquals(iconList.size(), 2);
+            PThemeImageIcon icon = iconList.get(0);
+            Assert.assertEquals(icon.getImageLoadStatusAsEnum(), PMediaTrackerLoadStatus.COMPLETE);
+            Assert.assertTrue(icon == y.getIcon(PSampleIcon.EDIT_REDO_32x32.themeIconName));
+            Assert.assertNull(iconList.get(1));
+        }
+        finally {
+            es.shutdown();
+        }
+    }
+    
+    @Test
+    public void preload_PassWithEmpty()
+    throws PathException, InterruptedException, ExecutionException {
+        PThemeIconLoaderFixedDimensionFromPngFile y =
+            new PThemeIconLoaderFixedDimensionFromPngFile(
+                PSampleIcon.EDIT_REDO_32x32.imageDimension,
+                BASE_DIR_PATH);
+        List<PThemeImageIcon> iconList =
+            y.preload(
+                Collections.<PThemeIconName>emptyList(),
+                MoreExecutors.sameThreadExecutor())
+            .get();
+        Assert.assertTrue(iconList.isEmpty());
+    }
+    
+    @Test(expectedExceptions = NullPointerException.class)
+    public void preload_FailWithNullCollection()
+    throws PathException {
+        PThemeIconLoaderFixedDimensionFromPngFile y =
+            new PThemeIconLoaderFixedDimensionFromPngFile(
+                PSampleIcon.EDIT_REDO_32x32.imageDimension,
+                BASE_DIR_PATH);
+        y.preload(null, MoreExecutors.sameThreadExecutor());
+    }
+    
+    @Test(expectedExceptions = NullPointerException.class)
+    public void preload_FailWithNullExecutor()
+    throws PathException {
+        PThemeIconLoaderFixedDimensionFromPngFile y =
+            new PThemeIconLoaderFixedDimensionFromPngFile(
+                PSampleIcon.EDIT_REDO_32x32.imageDimension,
+                BASE_DIR_PATH);
+        y.preload(Arrays.asList(PSampleIcon.EDIT_REDO_32x32.themeIconName), null);
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PThemeIconLoaderFixedDimensionFromPngFile.getRasterCache/.setRasterCache
+    //
+    
+    @Test
+    public void setRasterCache_Pass()
+    throws PathException, InterruptedException {
+        PThemeIconLoaderFixedDimensionFromPngFile y =
+            new PThemeIconLoaderFixedDimensionFromPngFile(
+                PSampleIcon.EDIT_REDO_32x32.imageDimension,
+                BASE_DIR_PATH);
+        Assert.assertNull(y.getRasterCache());
+        PThemeIconRasterCache cache =
+            new PThemeIconRasterCache(Files.createTempDir(), MoreExecutors.sameThreadExecutor());
+        y.setRasterCache(cache);
+        Assert.assertTrue(cache == y.getRasterCache());
+        
+        PThemeImageIcon icon = y.getIcon(PSampleIcon.EDIT_REDO_32x32.themeIconName);
+        Assert.assertEquals(icon.waitForLoad(), PMediaTrackerLoadStatus.COMPLETE);
+        Assert.assertEquals(icon.getIconWidth(), PSampleIcon.EDIT_REDO_32x32.imageDimension.width);
+        Assert.assertTrue(cache.getCacheFilePath(PSampleIcon.EDIT_REDO_32x32.filePath).isFile());
+        
+        y.setRasterCache(null);
+        Assert.assertNull(y.getRasterCache());
+    }
 }
@@ -0,0 +1,169 @@
+package com.googlecode.kevinarpe.papaya.swing.theme;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.googlecode.kevinarpe.papaya.exception.PathException;
+import com.googlecode.kevinarpe.papaya.swing.PImmutableDimension;
+import com.googlecode.kevinarpe.papaya.swing.PMediaTrackerLoadStatus;
+import com.googlecode.kevinarpe.papaya.swing.PSvgRasterizer;
+
+public class PThemeIconLoaderFixedDimensionFromSvgFileTest {
+    
+    private static final String SVG =
+        "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+        + "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"48\" height=\"48\">\n"
+        + "  <rect x=\"0\" y=\"0\" width=\"48\" height=\"48\" fill=\"#336699\"/>\n"
+        + "</svg>\n";
+    
+    private static final PImmutableDimension DIM =
+        PImmutableDimension.getSharedFromWidthAndHeight(24, 24);
+    
+    private File _baseDirPath;
+    private File _svgFilePath;
+    
+    @BeforeClass
+    public void beforeClass()
+    throws IOException {
+        _baseDirPath = Files.createTempDir();
+        _baseDirPath.deleteOnExit();
+        File contextDirPath =
+            new File(
+                new File(
+                    _baseDirPath,
+                    PThemeIconLoaderFixedDimensionFromSvgFile.SCALABLE_DIR_NAME),
+                PThemeIconName.EDIT_REDO.context.dirName);
+        Assert.assertTrue(contextDirPath.mkdirs());
+        contextDirPath.deleteOnExit();
+        contextDirPath.getParentFile().deleteOnExit();
+        _svgFilePath =
+            new File(
+                contextDirPath,
+                PThemeIconName.EDIT_REDO.baseFileName
+                    + "." + PThemeIconLoaderFixedDimensionFromSvgFile.FILE_EXTENSION);
+        Files.write(SVG, _svgFilePath, Charsets.UTF_8);
+        _svgFilePath.deleteOnExit();
+    }
+    
+    private PThemeIconLoaderFixedDimensionFromSvgFile _newLoader()
+    throws PathException {
+        PThemeIconLoaderFixedDimensionFromSvgFile x =
+            new PThemeIconLoaderFixedDimensionFromSvgFile(
+                DIM, _baseDirPath, new PSvgRasterizer(MoreExecutors.sameThreadExecutor()));
+        return x;
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PThemeIconLoaderFixedDimensionFromSvgFile.ctor
+    //
+    
+    @Test
+    public void ctor_Pass()
+    throws PathException {
+        PSvgRasterizer rasterizer = new PSvgRasterizer(MoreExecutors.sameThreadExecutor());
+        PThemeIconLoaderFixedDimensionFromSvgFile x =
+            new PThemeIconLoaderFixedDimensionFromSvgFile(DIM, _baseDirPath, rasterizer);
+        Assert.assertEquals(x.getFixedDimension(), DIM);
+        Assert.assertEquals(x.getBaseDirPath(), _baseDirPath.getAbsoluteFile());
+        Assert.assertTrue(x.getRasterizer() == rasterizer);
+    }
+    
+    @Test(expectedExceptions = NullPointerException.class)
+    public void ctor_FailWithNull()
+    throws PathException {
+        new PThemeIconLoaderFixedDimensionFromSvgFile(DIM, _baseDirPath, null);
+    }
+    
+    @Test(expectedExceptions = PathException.class)
+    public void ctor_FailWithMissingDir()
+    throws PathException {
+        new PThemeIconLoaderFixedDimensionFromSvgFile(
+            DIM,
+            new File(_baseDirPath, "missing"),
+            new PSvgRasterizer(MoreExecutors.sameThreadExecutor()));
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PThemeIconLoaderFixedDimensionFromSvgFile.iconExists/.getUrl
+    //
+    
+    @Test
+    public void iconExists_Pass()
+    throws IOException {
+        PThemeIconLoaderFixedDimensionFromSvgFile x = _newLoader();
+        Assert.assertTrue(x.iconExists(PThemeIconName.EDIT_REDO));
+        Assert.assertEquals(x.getUrl(PThemeIconName.EDIT_REDO), _svgFilePath.toURI().toURL());
+        Assert.assertFalse(x.iconExists(PThemeIconName.ADDRESS_BOOK_NEW));
+        Assert.assertNull(x.tryGetIcon(PThemeIconName.ADDRESS_BOOK_NEW));
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PThemeIconLoaderFixedDimensionFromSvgFile.tryGetIcon/.rasterizeAsync
+    //
+    
+    @Test
+    public void tryGetIcon_Pass()
+    throws PathException, InterruptedException {
+        PThemeIconLoaderFixedDimensionFromSvgFile x = _newLoader();
+        PThemeImageIcon icon = x.tryGetIcon(PThemeIconName.EDIT_REDO);
+        Assert.assertEquals(icon.waitForLoad(), PMediaTrackerLoadStatus.COMPLETE);
+        Assert.assertEquals(icon.getIconWidth(), DIM.width);
+        Assert.assertEquals(icon.getIconHeight(), DIM.height);
+    }
+    
+    @Test
+    public void rasterizeAsync_PassWithMissing()
+    throws PathException, InterruptedException, ExecutionException {
+        PThemeIconLoaderFixedDimensionFromSvgFile x = _newLoader();
+        List<PThemeImageIcon> iconList =
+            x.rasterizeAsync(Arrays.asList(PThemeIconName.ADDRESS_BOOK_NEW)).get();
+        Assert.assertEquals(iconList.size(), 1);
+        Assert.assertNull(iconList.get(0));
+    }
+    
+    @Test
+    public void rasterizeAllAsync_Pass()
+    throws PathException, InterruptedException, ExecutionException {
+        PThemeIconLoaderFixedDimensionFromSvgFile x = _newLoader();
+        List<PThemeImageIcon> iconList = x.rasterizeAllAsync().get();
+        Assert.assertEquals(iconList.size(), 1);
+        Assert.assertTrue(iconList.get(0) == x.tryGetIcon(PThemeIconName.EDIT_REDO));
+        Assert.assertEquals(
+            iconList.get(0).getImageLoadStatusAsEnum(), PMediaTrackerLoadStatus.COMPLETE);
+    }
+}
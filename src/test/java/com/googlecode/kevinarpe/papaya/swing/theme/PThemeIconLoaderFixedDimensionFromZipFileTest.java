@@ -0,0 +1,237 @@
+package com.googlecode.kevinarpe.papaya.swing.theme;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import javax.imageio.ImageIO;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.googlecode.kevinarpe.papaya.exception.PathException;
+import com.googlecode.kevinarpe.papaya.swing.PMediaTrackerLoadStatus;
+import com.googlecode.kevinarpe.papaya.swing.test.PSampleIcon;
+
+public class PThemeIconLoaderFixedDimensionFromZipFileTest {
+    
+    private static final String BASE_ENTRY_PATH = "app/" + PSampleIcon.THEME_DIR_NAME;
+    
+    private static final PSampleIcon SAMPLE = PSampleIcon.EDIT_REDO_22x22;
+    
+    private File _zipFilePath;
+    private ExecutorService _executorService;
+    
+    @BeforeClass
+    public void beforeClass()
+    throws IOException {
+        _zipFilePath = File.createTempFile("theme", ".jar");
+        _zipFilePath.deleteOnExit();
+        ZipOutputStream out = new ZipOutputStream(new FileOutputStream(_zipFilePath));
+        try {
+            for (PSampleIcon sample: PSampleIcon.LIST) {
+                out.putNextEntry(new ZipEntry("app" + sample.resourcePathname));
+                FileInputStream in = new FileInputStream(sample.filePath);
+                try {
+                    ByteStreams.copy(in, out);
+                }
+                finally {
+                    in.close();
+                }
+                out.closeEntry();
+            }
+        }
+        finally {
+            out.close();
+        }
+        _executorService = Executors.newFixedThreadPool(2);
+    }
+    
+    @AfterClass
+    public void afterClass() {
+        _executorService.shutdown();
+    }
+    
+    private PThemeIconLoaderFixedDimensionFromZipFile _newLoader()
+    throws IOException {
+        PThemeIconLoaderFixedDimensionFromZipFile x =
+            new PThemeIconLoaderFixedDimensionFromZipFile(
+                SAMPLE.imageDimension, _zipFilePath, BASE_ENTRY_PATH, _executorService);
+        return x;
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PThemeIconLoaderFixedDimensionFromZipFile.ctor
+    //
+    
+    @Test
+    public void ctor_Pass()
+    throws IOException {
+        PThemeIconLoaderFixedDimensionFromZipFile x =
+            new PThemeIconLoaderFixedDimensionFromZipFile(
+                SAMPLE.imageDimension,
+                _zipFilePath,
+                "/" + BASE_ENTRY_PATH + "//",
+                _executorService,
+                PThemeIconCachePolicy.UNBOUNDED);
+        try {
+            Assert.assertEquals(x.getFixedDimension(), SAMPLE.imageDimension);
+            Assert.assertEquals(x.getZipFilePath(), _zipFilePath.getAbsoluteFile());
+            Assert.assertEquals(x.getBaseEntryPath(), BASE_ENTRY_PATH + "/");
+            Assert.assertTrue(x.getExecutor() == _executorService);
+        }
+        finally {
+            x.close();
+        }
+    }
+    
+    @Test(expectedExceptions = NullPointerException.class)
+    public void ctor_FailWithNull()
+    throws IOException {
+        new PThemeIconLoaderFixedDimensionFromZipFile(
+            SAMPLE.imageDimension, _zipFilePath, null, _executorService);
+    }
+    
+    @Test(expectedExceptions = PathException.class)
+    public void ctor_FailWithMissingFile()
+    throws IOException {
+        new PThemeIconLoaderFixedDimensionFromZipFile(
+            SAMPLE.imageDimension,
+            new File(_zipFilePath.getPath() + ".missing"),
+            BASE_ENTRY_PATH,
+            _executorService);
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PThemeIconLoaderFixedDimensionFromZipFile.iconExists/.getUrl
+    //
+    
+    @Test
+    public void iconExists_Pass()
+    throws IOException {
+        PThemeIconLoaderFixedDimensionFromZipFile x = _newLoader();
+        try {
+            Assert.assertTrue(x.iconExists(SAMPLE.themeIconName));
+            Assert.assertFalse(x.iconExists(PThemeIconName.ADDRESS_BOOK_NEW));
+            Assert.assertNull(x.tryGetIcon(PThemeIconName.ADDRESS_BOOK_NEW));
+            Assert.assertEquals(
+                x.getUrl(SAMPLE.themeIconName).toExternalForm(),
+                "jar:" + _zipFilePath.getAbsoluteFile().toURI().toURL().toExternalForm()
+                    + "!/app" + SAMPLE.resourcePathname);
+        }
+        finally {
+            x.close();
+        }
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PThemeIconLoaderFixedDimensionFromZipFile.tryGetIcon/.preload
+    //
+    
+    @Test
+    public void tryGetIcon_Pass()
+    throws IOException, InterruptedException {
+        PThemeIconLoaderFixedDimensionFromZipFile x = _newLoader();
+        try {
+            PThemeImageIcon icon = x.tryGetIcon(SAMPLE.themeIconName);
+            Assert.assertTrue(icon == x.getIcon(SAMPLE.themeIconName));
+            icon.waitForLoad();
+            Assert.assertEquals(icon.getImageLoadStatusAsEnum(), PMediaTrackerLoadStatus.COMPLETE);
+            Assert.assertEquals(icon.getIconWidth(), SAMPLE.imageDimension.width);
+            Assert.assertEquals(icon.getIconHeight(), SAMPLE.imageDimension.height);
+            
+            BufferedImage expected = ImageIO.read(SAMPLE.filePath);
+            BufferedImage actual = (BufferedImage) icon.getImage();
+            final int width = SAMPLE.imageDimension.width;
+            final int height = SAMPLE.imageDimension.height;
+            Assert.assertEquals(
+                actual.getRGB(0, 0, width, height, null, 0, width),
+                expected.getRGB(0, 0, width, height, null, 0, width));
+        }
+        finally {
+            x.close();
+        }
+    }
+    
+    @Test
+    public void preload_Pass()
+    throws IOException, InterruptedException, ExecutionException {
+        PThemeIconLoaderFixedDimensionFromZipFile x = _newLoader();
+        try {
+            List<PThemeImageIcon> iconList =
+                x.preload(
+                    Arrays.asList(SAMPLE.themeIconName, PThemeIconName.ADDRESS_BOOK_NEW),
+                    MoreExecutors.sameThreadExecutor())
+                .get();
+            Assert.assertEquals(iconList.size(), 2);
+            Assert.assertEquals(
+                iconList.get(0).getImageLoadStatusAsEnum(), PMediaTrackerLoadStatus.COMPLETE);
+            Assert.assertNull(iconList.get(1));
+        }
+        finally {
+            x.close();
+        }
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PThemeIconLoaderFixedDimensionFromZipFile.close
+    //
+    
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void close_Pass()
+    throws IOException {
+        PThemeIconLoaderFixedDimensionFromZipFile x = _newLoader();
+        Assert.assertNotNull(x.tryGetIcon(SAMPLE.themeIconName));
+        x.close();
+        x.close();
+        // Index is still available: No zip file access is required.
+        Assert.assertTrue(x.iconExists(SAMPLE.themeIconName));
+        x.tryGetIcon(SAMPLE.themeIconName);
+    }
+    
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void close_FailWithGetIcon()
+    throws IOException {
+        PThemeIconLoaderFixedDimensionFromZipFile x = _newLoader();
+        x.close();
+        x.getIcon(SAMPLE.themeIconName);
+    }
+}
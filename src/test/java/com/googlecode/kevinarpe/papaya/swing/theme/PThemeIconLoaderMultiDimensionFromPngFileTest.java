@@ -0,0 +1,160 @@
+package com.googlecode.kevinarpe.papaya.swing.theme;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.googlecode.kevinarpe.papaya.exception.PathException;
+import com.googlecode.kevinarpe.papaya.swing.PImmutableDimension;
+import com.googlecode.kevinarpe.papaya.swing.PMediaTrackerLoadStatus;
+import com.googlecode.kevinarpe.papaya.swing.test.PSampleIcon;
+
+public class PThemeIconLoaderMultiDimensionFromPngFileTest {
+    
+    private static final File BASE_DIR_PATH =
+        new File("src/test/resources/" + PSampleIcon.THEME_DIR_NAME);
+    
+    private static PThemeIconLoaderMultiDimensionFromPngFile _newLoader()
+    throws PathException {
+        PThemeIconLoaderMultiDimensionFromPngFile x =
+            new PThemeIconLoaderMultiDimensionFromPngFile(
+                BASE_DIR_PATH, MoreExecutors.sameThreadExecutor());
+        return x;
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PThemeIconLoaderMultiDimensionFromPngFile.ctor
+    //
+    
+    @Test
+    public void ctor_Pass()
+    throws PathException {
+        PThemeIconLoaderMultiDimensionFromPngFile x = _newLoader();
+        Assert.assertEquals(x.getBaseDirPath(), BASE_DIR_PATH.getAbsoluteFile());
+        Assert.assertEquals(x.getCachePolicy(), PThemeIconCachePolicy.UNBOUNDED);
+        Assert.assertEquals(
+            x.getAvailableDimensionList(),
+            ImmutableList.of(
+                PSampleIcon.EDIT_REDO_16x16.imageDimension,
+                PSampleIcon.EDIT_REDO_22x22.imageDimension,
+                PSampleIcon.EDIT_REDO_32x32.imageDimension));
+    }
+    
+    @Test(expectedExceptions = NullPointerException.class)
+    public void ctor_FailWithNull()
+    throws PathException {
+        new PThemeIconLoaderMultiDimensionFromPngFile(BASE_DIR_PATH, null);
+    }
+    
+    @Test(expectedExceptions = PathException.class)
+    public void ctor_FailWithMissingDir()
+    throws PathException {
+        new PThemeIconLoaderMultiDimensionFromPngFile(
+            new File(BASE_DIR_PATH, "missing"), MoreExecutors.sameThreadExecutor());
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PThemeIconLoaderMultiDimensionFromPngFile.getLoader
+    //
+    
+    @Test
+    public void getLoader_Pass()
+    throws PathException {
+        PThemeIconLoaderMultiDimensionFromPngFile x = _newLoader();
+        PImmutableDimension dim = PImmutableDimension.getSharedFromWidthAndHeight(24, 24);
+        PThemeIconLoaderAbstractFixedDimension loader = x.getLoader(dim);
+        Assert.assertEquals(loader.getFixedDimension(), dim);
+        Assert.assertTrue(loader == x.getLoader(dim));
+        Assert.assertTrue(
+            loader != x.getLoader(PSampleIcon.EDIT_REDO_16x16.imageDimension));
+    }
+    
+    @Test(expectedExceptions = NullPointerException.class)
+    public void getLoader_FailWithNull()
+    throws PathException {
+        _newLoader().getLoader(null);
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PThemeIconLoaderMultiDimensionFromPngFile.tryGetIcon
+    //
+    
+    @Test
+    public void tryGetIcon_PassWithExactDimension()
+    throws IOException, InterruptedException {
+        PThemeIconLoaderMultiDimensionFromPngFile x = _newLoader();
+        for (PSampleIcon sample: PSampleIcon.LIST) {
+            PThemeImageIcon icon = x.tryGetIcon(sample.themeIconName, sample.imageDimension);
+            Assert.assertTrue(icon == x.getIcon(sample.themeIconName, sample.imageDimension));
+            Assert.assertEquals(icon.waitForLoad(), PMediaTrackerLoadStatus.COMPLETE);
+            Assert.assertEquals(icon.getUrl(), sample.filePath.toURI().toURL());
+            
+            final int width = sample.imageDimension.width;
+            final int height = sample.imageDimension.height;
+            BufferedImage expected = ImageIO.read(sample.filePath);
+            BufferedImage actual = (BufferedImage) icon.getImage();
+            Assert.assertEquals(
+                actual.getRGB(0, 0, width, height, null, 0, width),
+                expected.getRGB(0, 0, width, height, null, 0, width));
+        }
+    }
+    
+    @Test
+    public void tryGetIcon_PassWithDownscale()
+    throws IOException, InterruptedException {
+        PThemeIconLoaderMultiDimensionFromPngFile x = _newLoader();
+        PSampleIcon sample = PSampleIcon.EDIT_REDO_32x32;
+        PImmutableDimension dim = PImmutableDimension.getSharedFromWidthAndHeight(24, 24);
+        PThemeImageIcon icon = x.tryGetIcon(sample.themeIconName, dim);
+        Assert.assertEquals(icon.waitForLoad(), PMediaTrackerLoadStatus.COMPLETE);
+        Assert.assertEquals(icon.getIconWidth(), dim.width);
+        Assert.assertEquals(icon.getIconHeight(), dim.height);
+        // Nearest larger dimension is the source.
+        Assert.assertEquals(icon.getUrl(), sample.filePath.toURI().toURL());
+    }
+    
+    @Test
+    public void tryGetIcon_PassWithMissing()
+    throws PathException {
+        PThemeIconLoaderMultiDimensionFromPngFile x = _newLoader();
+        // Never upscale.
+        PImmutableDimension dim = PImmutableDimension.getSharedFromWidthAndHeight(48, 48);
+        Assert.assertNull(x.tryGetIcon(PThemeIconName.EDIT_REDO, dim));
+        Assert.assertFalse(x.getLoader(dim).iconExists(PThemeIconName.EDIT_REDO));
+        Assert.assertNull(
+            x.tryGetIcon(
+                PThemeIconName.ADDRESS_BOOK_NEW, PSampleIcon.EDIT_REDO_16x16.imageDimension));
+    }
+}
@@ -0,0 +1,179 @@
+package com.googlecode.kevinarpe.papaya.swing.theme;
+
+/*
+ * #%L
+ * This file is part of Papaya Swing.
+ * %%
+ * Copyright (C) 2013 Kevin Connor ARPE (kevinarpe@gmail.com)
+ * %%
+ * Papaya Swing is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * GPL Classpath Exception:
+ * This project is subject to the "Classpath" exception as provided in
+ * the LICENSE file that accompanied this code.
+ * 
+ * Papaya Swing is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with Papaya Swing.  If not, see <http://www.gnu.org/licenses/>.
+ * #L%
+ */
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import javax.imageio.ImageIO;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.google.common.io.Files;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.googlecode.kevinarpe.papaya.exception.PathException;
+import com.googlecode.kevinarpe.papaya.swing.test.PSampleIcon;
+import com.googlecode.kevinarpe.papaya.swing.test.PTestImageUtils;
+
+public class PThemeIconRasterCacheTest {
+    
+    @DataProvider
+    private static final Object[][] _sample_Data() {
+        Object[][] x = new Object[PSampleIcon.LIST.size()][];
+        for (int i = 0; i < x.length; ++i) {
+            x[i] = new Object[] { PSampleIcon.LIST.get(i) };
+        }
+        return x;
+    }
+    
+    private static PThemeIconRasterCache _newCache()
+    throws PathException {
+        File cacheDirPath = Files.createTempDir();
+        cacheDirPath.deleteOnExit();
+        PThemeIconRasterCache x =
+            new PThemeIconRasterCache(cacheDirPath, MoreExecutors.sameThreadExecutor());
+        return x;
+    }
+    
+    private static File _copyToTempFile(PSampleIcon x)
+    throws IOException {
+        File y = File.createTempFile(x.themeIconName.baseFileName, ".png");
+        y.deleteOnExit();
+        Files.copy(x.filePath, y);
+        return y;
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PThemeIconRasterCache.ctor
+    //
+    
+    @Test(expectedExceptions = NullPointerException.class)
+    public void ctor_FailWithNullCacheDirPath()
+    throws PathException {
+        new PThemeIconRasterCache(null, MoreExecutors.sameThreadExecutor());
+    }
+    
+    @Test(expectedExceptions = NullPointerException.class)
+    public void ctor_FailWithNullExecutor()
+    throws PathException {
+        new PThemeIconRasterCache(Files.createTempDir(), null);
+    }
+    
+    @Test(expectedExceptions = PathException.class)
+    public void ctor_FailWithPathNotExist()
+    throws PathException {
+        File cacheDirPath = Files.createTempDir();
+        cacheDirPath.delete();
+        new PThemeIconRasterCache(cacheDirPath, MoreExecutors.sameThreadExecutor());
+    }
+    
+    ///////////////////////////////////////////////////////////////////////////
+    // PThemeIconRasterCache.tryRead/.write/.readOrDecode
+    //
+    
+    @Test(dataProvider = "_sample_Data")
+    public void tryRead_PassAfterWrite(PSampleIcon x)
+    throws IOException {
+        PThemeIconRasterCache cache = _newCache();
+        Assert.assertNull(cache.tryRead(x.filePath));
+        
+        BufferedImage expected = ImageIO.read(x.filePath);
+        cache.write(x.filePath, expected);
+        Assert.assertTrue(cache.getCacheFilePath(x.filePath).isFile());
+        
+        BufferedImage actual = cache.tryRead(x.filePath);
+        Assert.assertEquals(actual.getType(), BufferedImage.TYPE_INT_ARGB);
+        PTestImageUtils.assertPixelsEqual(actual, expected);
+    }
+    
+    @Test(dataProvider = "_sample_Data")
+    public void tryRead_PassWithStaleCacheFile(PSampleIcon x)
+    throws IOException {
+        PThemeIconRasterCache cache = _newCache();
+        File pngFilePath = _copyToTempFile(x);
+        Assert.assertNotNull(cache.readOrDecode(pngFilePath));
+        Assert.assertNotNull(cache.tryRead(pngFilePath));
+        
+        Assert.assertTrue(pngFilePath.setLastModified(pngFilePath.lastModified() - 60 * 1000));
+        Assert.assertNull(cache.tryRead(pngFilePath));
+        
+        // Replaces stale cache file.
+        BufferedImage expected = cache.readOrDecode(pngFilePath);
+        PTestImageUtils.assertPixelsEqual(cache.tryRead(pngFilePath), expected);
+    }
+    
+    @Test
+    public void tryRead_PassWithCorruptCacheFile()
+    throws IOException {
+        PThemeIconRasterCache cache = _newCache();
+        File pngFilePath = PSampleIcon.EDIT_REDO_16x16.filePath;
+        Files.write(new byte[] { 1, 2, 3 }, cache.getCacheFilePath(pngFilePath));
+        Assert.assertNull(cache.tryRead(pngFilePath));
+    }
+    
+    @Test(dataProvider = "_sample_Data")
+    public void tryRead_PassWithTruncatedCacheFile(PSampleIcon x)
+    throws IOException {
+        PThemeIconRasterCache cache = _newCache();
+        Assert.assertNotNull(cache.readOrDecode(x.filePath));
+        File cacheFilePath = cache.getCacheFilePath(x.filePath);
+        byte[] byteArr = Files.toByteArray(cacheFilePath);
+        Files.write(Arrays.copyOf(byteArr, byteArr.length - 1), cacheFilePath);
+        Assert.assertNull(cache.tryRead(x.filePath));
+        
+        // Cache file is closed: Can be replaced.
+        BufferedImage expected = ImageIO.read(x.filePath);
+        cache.write(x.filePath, expected);
+        PTestImageUtils.assertPixelsEqual(cache.tryRead(x.filePath), expected);
+        Assert.assertTrue(cacheFilePath.delete());
+    }
+    
+    @Test(expectedExceptions = NullPointerException.class)
+    public void tryRead_FailWithNull()
+    throws IOException {
+        _newCache().tryRead(null);
+    }
+    
+    @Test(expectedExceptions = NullPointerException.class)
+    public void write_FailWithNullImage()
+    throws IOException {
+        _newCache().write(PSampleIcon.EDIT_REDO_16x16.filePath, null);
+    }
+    
+    @Test(dataProvider = "_sample_Data")
+    public void readOrDecode_Pass(PSampleIcon x)
+    throws IOException {
+        PThemeIconRasterCache cache = _newCache();
+        BufferedImage expected = cache.readOrDecode(x.filePath);
+        Assert.assertTrue(cache.getCacheFilePath(x.filePath).isFile());
+        BufferedImage actual = cache.readOrDecode(x.filePath);
+        PTestImageUtils.assertPixelsEqual(actual, expected);
+    }
+}
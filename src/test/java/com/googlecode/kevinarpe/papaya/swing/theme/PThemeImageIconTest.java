@@ -27,12 +27,15 @@ package com.googlecode.kevinarpe.papaya.swing.theme;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.concurrent.Executor;
 
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import com.google.common.util.concurrent.MoreExecutors;
 import com.googlecode.kevinarpe.papaya.swing.PImmutableDimension;
+import com.googlecode.kevinarpe.papaya.swing.PMediaTrackerLoadStatus;
 import com.googlecode.kevinarpe.papaya.swing.test.PSampleIcon;
 
 public class PThemeImageIconTest {
@@ -110,4 +113,28 @@ public class PThemeImageIconTest {
             Assert.assertTrue(!s.isEmpty(), "!isEmpty");
         }
     }
+    
+    @Test
+    public void ctor_PassWithExecutor()
+    throws MalformedURLException, InterruptedException {
+        for (PSampleIcon x: PSampleIcon.LIST) {
+            URL url = x.filePath.toURI().toURL();
+            PThemeImageIcon y =
+                new PThemeImageIcon(
+                    x.imageDimension, x.themeIconName, url, MoreExecutors.sameThreadExecutor());
+            Assert.assertEquals(y.getExpectedDimension(), x.imageDimension);
+            Assert.assertEquals(y.getThemeIconName(), x.themeIconName);
+            Assert.assertEquals(y.getUrl(), url);
+            Assert.assertEquals(y.waitForLoad(), PMediaTrackerLoadStatus.COMPLETE);
+            Assert.assertEquals(y.getIconWidth(), x.imageDimension.width);
+        }
+    }
+    
+    @Test(expectedExceptions = NullPointerException.class)
+    public void ctor_FailWithNullExecutor()
+    throws MalformedURLException {
+        PSampleIcon x = PSampleIcon.EDIT_REDO_16x16;
+        new PThemeImageIcon(
+            x.imageDimension, x.themeIconName, x.filePath.toURI().toURL(), (Executor) null);
+    }
 }